@@ -15,6 +15,7 @@ import com.pg85.otg.generator.ChunkBuffer;
 import com.pg85.otg.generator.biome.BiomeModeManager;
 import com.pg85.otg.generator.resource.Resource;
 import com.pg85.otg.logging.LogMarker;
+import com.pg85.otg.logging.Logger;
 import com.pg85.otg.util.ChunkCoordinate;
 import java.io.PrintWriter;
 import java.io.StringWriter;
@@ -279,6 +280,80 @@ public class OTG
         Engine.getLogger().log(level, messages);
     }
 
+    /**
+     * Gets whether messages with the given importance are logged. Use this
+     * to skip building expensive messages, for example in generation code.
+     * <p>
+     * @param level The severity of the message
+     * @return True if messages with this severity are logged
+     */
+    public static boolean canLog(LogMarker level)
+    {
+        return Engine.getLogger().canLog(level);
+    }
+
+    /**
+     * Logs a message with the given importance. Message will be prefixed
+     * with [OpenTerrainGenerator], so don't do that yourself.
+     * <p>
+     * @param level   The severity of the message
+     * @param message The message to log
+     */
+    public static void log(LogMarker level, String message)
+    {
+        Logger logger = Engine.getLogger();
+        if (logger.canLog(level))
+        {
+            logger.log(level, message);
+        }
+    }
+
+    /**
+     * Logs a format string message with one parameter. Parameters are only
+     * converted to strings when the message is logged, and unlike
+     * {@link #log(LogMarker, String, Object...)} no array is created when
+     * the message isn't logged. Use {} placeholders instead of string
+     * concatenation in generation code.
+     * <p>
+     * @param level   The severity of the message
+     * @param message The message to log, with a {} for the parameter
+     * @param param1  The parameter
+     */
+    public static void log(LogMarker level, String message, Object param1)
+    {
+        Logger logger = Engine.getLogger();
+        if (logger.canLog(level))
+        {
+            logger.log(level, message, param1);
+        }
+    }
+
+    /**
+     * Logs a format string message with two parameters, see
+     * {@link #log(LogMarker, String, Object)}.
+     */
+    public static void log(LogMarker level, String message, Object param1, Object param2)
+    {
+        Logger logger = Engine.getLogger();
+        if (logger.canLog(level))
+        {
+            logger.log(level, message, param1, param2);
+        }
+    }
+
+    /**
+     * Logs a format string message with three parameters, see
+     * {@link #log(LogMarker, String, Object)}.
+     */
+    public static void log(LogMarker level, String message, Object param1, Object param2, Object param3)
+    {
+        Logger logger = Engine.getLogger();
+        if (logger.canLog(level))
+        {
+            logger.log(level, message, param1, param2, param3);
+        }
+    }
+
     /**
      * Logs a format string message with the given importance. Message will
      * be prefixed with [OpenTerrainGenerator], so don't do that yourself.
@@ -294,6 +369,24 @@ public class OTG
         Engine.getLogger().log(level, message, params);
     }
 
+    /**
+     * Logs a format string message that may be repeated many times during
+     * generation, like a missing object for every chunk. Each message is
+     * logged at most once per minute for the same parameters, see
+     * {@link Logger#logRepeated(LogMarker, String, Object...)}.
+     * <p>
+     * @param level   The severity of the message
+     * @param message The message to log, with {} placeholders for the
+     *                parameters. Also used to recognize repeated messages,
+     *                so don't concatenate values into it, and don't pass
+     *                parameters that change every time, like coordinates.
+     * @param params  The parameters belonging to {} in the message string
+     */
+    public static void logRepeated(LogMarker level, String message, Object... params)
+    {
+        Engine.getLogger().logRepeated(level, message, params);
+    }
+
     /**
      * Prints the stackTrace of the provided Throwable object
      * <p>
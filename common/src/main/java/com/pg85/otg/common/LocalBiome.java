@@ -45,6 +45,16 @@ public interface LocalBiome
      */
     float getTemperatureAt(int x, int y, int z);
 
+    /**
+     * Gets the base temperature of this biome. This is the temperature
+     * returned by {@link #getTemperatureAt(int, int, int)} at low
+     * altitudes, which may be slightly different from the temperature in
+     * the {@link BiomeConfig}.
+     *
+     * @return The base temperature.
+     */
+    float getBaseTemperature();
+
     /**
      * Gets the {@link BiomeConfig} of this biome, which holds all settings
      * of this biome.
@@ -197,6 +197,14 @@ public interface LocalWorld
      */
     public void endPopulation();
 
+    /**
+     * Gets a view of the chunks being populated, for resources that read and
+     * write many blocks.
+     * @param chunkCoord The chunk being populated.
+     * @return The view, only valid until {@link #endPopulation()}.
+     */
+    public PopulationRegion getPopulationRegion(ChunkCoordinate chunkCoord);
+
     // Blocks
     
     public LocalMaterialData getMaterial(int x, int y, int z, boolean allowOutsidePopulatingArea);
@@ -225,6 +233,25 @@ public interface LocalWorld
 
 	public void setBlock(int x, int y, int z, LocalMaterialData material, NamedBinaryTag metaDataTag, boolean isOTPLus);
 
+    /**
+     * Starts a batch of block writes. Blocks set with
+     * {@link #setBlock(int, int, int, LocalMaterialData, NamedBinaryTag, boolean)}
+     * are still placed immediately, but heightmap and light updates are
+     * delayed until {@link #endBlockBatch()} and then done once for every
+     * changed chunk or column. Batches can be nested, the updates happen
+     * when the outermost batch ends.
+     *
+     * <p>
+     * The heightmap and light levels are not reliable while a batch is
+     * running, so only use this around code that doesn't read them.
+     */
+	public void startBlockBatch();
+
+    /**
+     * Ends a batch of block writes started with {@link #startBlockBatch()}.
+     */
+	public void endBlockBatch();
+
 	public LocalMaterialData[] getBlockColumn(int x, int z);
 	
     /**
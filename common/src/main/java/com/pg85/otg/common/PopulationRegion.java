@@ -0,0 +1,70 @@
+package com.pg85.otg.common;
+
+import com.pg85.otg.util.ChunkCoordinate;
+
+/**
+ * View of the 2x2 chunks that are being populated, for resources that read
+ * and write many blocks. Blocks inside the region can be accessed without
+ * the lookups {@link LocalWorld} does for every block. Blocks outside the
+ * region are read and written through the world, so the results are always
+ * the same as for {@link LocalWorld#getMaterial(int, int, int, boolean)}
+ * and {@link LocalWorld#setBlock(int, int, int, LocalMaterialData,
+ * com.pg85.otg.util.bo3.NamedBinaryTag, boolean)} with
+ * allowOutsidePopulatingArea set to false.
+ *
+ * <p>
+ * This implementation simply passes everything to the world, platforms
+ * can override it with a faster one. A region is only valid while its
+ * chunk is being populated.
+ */
+public class PopulationRegion
+{
+    /**
+     * Size of the region on the x and z axis, in blocks.
+     */
+    public static final int SIZE = 2 * ChunkCoordinate.CHUNK_X_SIZE;
+
+    protected final LocalWorld world;
+    protected final int minX;
+    protected final int minZ;
+
+    /**
+     * Creates a region.
+     * @param world      The world.
+     * @param chunkCoord The chunk being populated, the region also
+     *                   contains the chunks to the east and south of it.
+     */
+    public PopulationRegion(LocalWorld world, ChunkCoordinate chunkCoord)
+    {
+        this.world = world;
+        this.minX = chunkCoord.getBlockX();
+        this.minZ = chunkCoord.getBlockZ();
+    }
+
+    /**
+     * Gets whether the given column is inside this region.
+     * @param x The block x.
+     * @param z The block z.
+     * @return True if the column is inside this region.
+     */
+    public final boolean isInside(int x, int z)
+    {
+        // Negative offsets become large unsigned numbers
+        return ((x - this.minX) & ~(SIZE - 1)) == 0 && ((z - this.minZ) & ~(SIZE - 1)) == 0;
+    }
+
+    public LocalMaterialData getMaterial(int x, int y, int z)
+    {
+        return this.world.getMaterial(x, y, z, false);
+    }
+
+    public boolean isNullOrAir(int x, int y, int z)
+    {
+        return this.world.isNullOrAir(x, y, z, false);
+    }
+
+    public void setBlock(int x, int y, int z, LocalMaterialData material)
+    {
+        this.world.setBlock(x, y, z, material, null, false);
+    }
+}
@@ -1,7 +1,9 @@
 package com.pg85.otg.common;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 import com.pg85.otg.customobjects.bo3.BO3;
 import com.pg85.otg.customobjects.bo4.BO4;
@@ -66,106 +68,53 @@ public abstract class WorldSession
     	return structureInfo;
     }
 
-    public HashMap<String,ArrayList<ModDataFunction<?>>> getModDataForChunk(ChunkCoordinate chunkCoord)
+    public Map<String, List<ModDataFunction<?>>> getModDataForChunk(ChunkCoordinate chunkCoord)
     {
-    	HashMap<String,ArrayList<ModDataFunction<?>>> result = new HashMap<String,ArrayList<ModDataFunction<?>>>();
-    	boolean bFound = false;
-		if(world.getStructureCache().worldInfoChunks.containsKey(chunkCoord))
+		CustomStructure worldInfoChunk = world.getStructureCache().worldInfoChunks.get(chunkCoord);
+		if(worldInfoChunk != null)
 		{
-			CustomStructure worldInfoChunk = world.getStructureCache().worldInfoChunks.get(chunkCoord);
-
-			if(worldInfoChunk != null)
-    		{
-    			for(ModDataFunction<?> modData : worldInfoChunk.modDataManager.modData)
-    			{
-    				if(ChunkCoordinate.fromBlockCoords(modData.x, modData.z).equals(chunkCoord)) // modData for all branches of the structure is stored, make sure the modData is in this chunk
-    				{
-	    				if(!result.containsKey(modData.modId))
-	    				{
-	    					result.put(modData.modId, new ArrayList<ModDataFunction<?>>());
-	    				}
-    					result.get(modData.modId).add(modData);
-    				}
-    			}
-	    		bFound = true;
-			}
-    	}
-    	if(!bFound)
-    	{
-    		if(!world.isInsidePregeneratedRegion(chunkCoord) && (!world.getConfigs().getWorldConfig().isOTGPlus || !world.getStructureCache().bo4StructureCache.containsKey(chunkCoord)))
-    		{
-    			result = null;
-    		}
-    	}
-    	return result;
+			// modData for all branches of the structure is stored, only get the modData in this chunk
+			Map<String, List<ModDataFunction<?>>> result = worldInfoChunk.modDataManager.getModDataForChunk(chunkCoord);
+			return result != null ? result : Collections.<String, List<ModDataFunction<?>>>emptyMap();
+		}
+		return isPopulatedOrPlotted(chunkCoord) ? Collections.<String, List<ModDataFunction<?>>>emptyMap() : null;
     }
 
-    public ArrayList<SpawnerFunction<?>> getSpawnersForChunk(ChunkCoordinate chunkCoord)
+    public List<SpawnerFunction<?>> getSpawnersForChunk(ChunkCoordinate chunkCoord)
     {
-    	ArrayList<SpawnerFunction<?>> result = new ArrayList<SpawnerFunction<?>>();
-    	boolean bFound = false;
 		if(world.getStructureCache().worldInfoChunks.containsKey(chunkCoord))
 		{
 			CustomStructure worldInfoChunk = world.getStructureCache().worldInfoChunks.get(chunkCoord);
-
-			if(worldInfoChunk != null)
-    		{
-    			for(SpawnerFunction<?> spawnerData : worldInfoChunk.spawnerManager.spawnerData)
-    			{
-    				if(ChunkCoordinate.fromBlockCoords(spawnerData.x, spawnerData.z).equals(chunkCoord)) // spawnerData for all branches of the structure is stored, make sure the modData is in this chunk
-    				{
-    					result.add(spawnerData);
-    				}
-    			}
-    		}
-    		bFound = true;
+			// spawnerData for all branches of the structure is stored, only get the spawnerData in this chunk
+			List<SpawnerFunction<?>> result = worldInfoChunk != null ? worldInfoChunk.spawnerManager.getSpawnerDataForChunk(chunkCoord) : null;
+			return result != null ? result : Collections.<SpawnerFunction<?>>emptyList();
 		}
-    	if(!bFound)
-    	{
-    		if(!world.isInsidePregeneratedRegion(chunkCoord) && (!world.getConfigs().getWorldConfig().isOTGPlus || !world.getStructureCache().bo4StructureCache.containsKey(chunkCoord)))
-    		{
-    			result = null;
-    		}
-    	}
-    	return result;
+		return isPopulatedOrPlotted(chunkCoord) ? Collections.<SpawnerFunction<?>>emptyList() : null;
     }
 
-    public ArrayList<ParticleFunction<?>> getParticlesForChunk(ChunkCoordinate chunkCoord)
+    public List<ParticleFunction<?>> getParticlesForChunk(ChunkCoordinate chunkCoord)
     {
-    	ArrayList<ParticleFunction<?>> result = new ArrayList<ParticleFunction<?>>();
-    	boolean bFound = false;
 		if(world.getStructureCache().worldInfoChunks.containsKey(chunkCoord))
 		{
 			CustomStructure worldInfoChunk = world.getStructureCache().worldInfoChunks.get(chunkCoord);
+			// particleData for all branches of the structure is stored, only get the particleData in this chunk
+			List<ParticleFunction<?>> result = worldInfoChunk != null ? worldInfoChunk.particlesManager.getParticleDataForChunk(chunkCoord) : null;
+			return result != null ? result : Collections.<ParticleFunction<?>>emptyList();
+		}
+		return isPopulatedOrPlotted(chunkCoord) ? Collections.<ParticleFunction<?>>emptyList() : null;
+    }
 
-    		if(worldInfoChunk != null)
-    		{
-    			for(ParticleFunction<?> particleData : worldInfoChunk.particlesManager.particleData)
-    			{
-    				if(ChunkCoordinate.fromBlockCoords(particleData.x, particleData.z).equals(chunkCoord)) // paticleData for all branches of the structure is stored, make sure the modData is in this chunk
-    				{
-    					result.add(particleData);
-    				}
-    			}
-    		}
-    		bFound = true;
-    	}
-    	if(!bFound)
-    	{
-    		if(!world.isInsidePregeneratedRegion(chunkCoord) && (!world.getConfigs().getWorldConfig().isOTGPlus || !world.getStructureCache().bo4StructureCache.containsKey(chunkCoord)))
-    		{
-    			result = null;
-    		}
-    	}
-    	return result;
+    private boolean isPopulatedOrPlotted(ChunkCoordinate chunkCoord)
+    {
+    	return world.isInsidePregeneratedRegion(chunkCoord) || (world.getConfigs().getWorldConfig().isOTGPlus && world.getStructureCache().bo4StructureCache.containsKey(chunkCoord));
     }
 
     public void removeParticles(ChunkCoordinate chunkCoord, ParticleFunction<?> particle)
     {
 		CustomStructure customObject = world.getStructureCache().worldInfoChunks.get(chunkCoord);
-		if(customObject != null && customObject.particlesManager.particleData.contains(particle))
+		if(customObject != null)
 		{
-			customObject.particlesManager.particleData.remove(particle);
+			customObject.particlesManager.removeParticleData(chunkCoord, particle);
 		}
     }
     
@@ -143,7 +143,7 @@ public abstract class ConfigFunction<T>
             materials.parseAndAdd(strings.get(i));
         }
 
-        return materials;
+        return materials.freeze();
     }
 
     /**
@@ -0,0 +1,197 @@
+package com.pg85.otg.configuration;
+
+import com.pg85.otg.configuration.biome.settings.ReplacedBlocksMatrix;
+import com.pg85.otg.generator.resource.CustomObjectGen;
+import com.pg85.otg.generator.resource.CustomStructureGen;
+import com.pg85.otg.generator.resource.Resource;
+import com.pg85.otg.util.materials.MaterialSet;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pool of config values that are shared by the configs of a preset. Biomes
+ * that inherit from the same biome parse the same settings and resources
+ * again, so a preset with many biomes ends up with many equal copies of
+ * them. Configs can pass their values to this pool after loading, and use
+ * the returned instance instead, so that equal values are only kept in
+ * memory once.
+ *
+ * <p>
+ * Only values that are not changed after loading may be shared. A pool
+ * should only be used while loading a single preset, because the values
+ * are compared by their config strings and those don't include settings of
+ * the world config, like the world height.
+ *
+ * <p>
+ * Config functions don't keep their argument lists after parsing, so those
+ * don't need to be shared.
+ */
+public final class ConfigValuePool
+{
+    private final Map<Object, Object> values = new HashMap<Object, Object>();
+    private int lookupCount;
+    private int sharedCount;
+
+    /**
+     * Gets the shared instance of the given value. The value itself is
+     * stored when no equal value was stored before.
+     * @param key   Key of the value, equal keys must belong to equal
+     *              values.
+     * @param value The value.
+     * @return The shared value.
+     */
+    @SuppressWarnings("unchecked")
+    private <V> V share(Object key, V value)
+    {
+        this.lookupCount++;
+        Object sharedValue = this.values.get(key);
+        if (sharedValue == null)
+        {
+            this.values.put(key, value);
+            return value;
+        }
+        this.sharedCount++;
+        return (V) sharedValue;
+    }
+
+    /**
+     * Gets the shared instance of a string.
+     * @param string The string, may be null.
+     * @return The shared string.
+     */
+    public String share(String string)
+    {
+        if (string == null)
+        {
+            return null;
+        }
+        return share(string, string);
+    }
+
+    /**
+     * Gets the shared instance of a list of strings, like a list of biome
+     * names. The list must not be changed afterwards.
+     * @param list The list, may be null.
+     * @return The shared list.
+     */
+    public List<String> shareStringList(List<String> list)
+    {
+        if (list == null)
+        {
+            return null;
+        }
+        return share(list, list);
+    }
+
+    /**
+     * Gets the shared instance of a replaced blocks setting.
+     * @param matrix The replaced blocks, may be null.
+     * @return The shared replaced blocks.
+     */
+    public ReplacedBlocksMatrix share(ReplacedBlocksMatrix matrix)
+    {
+        if (matrix == null)
+        {
+            return null;
+        }
+        return share(new ValueKey(ReplacedBlocksMatrix.class, matrix.toString()), matrix);
+    }
+
+    /**
+     * Gets the shared instance of a material set. Only frozen sets are
+     * shared, other sets are returned as-is. Sets are compared by their
+     * config string, so sharing never changes the order in which the
+     * materials are written back to the configs.
+     * @param materials The material set, may be null.
+     * @return The shared material set.
+     */
+    public MaterialSet share(MaterialSet materials)
+    {
+        if (materials == null || !materials.isFrozen())
+        {
+            return materials;
+        }
+        return share(new ValueKey(MaterialSet.class, materials.toString()), materials);
+    }
+
+    /**
+     * Gets the shared instance of a config function. Only resources are
+     * shared, other functions are returned as-is. Custom objects and custom
+     * structures are never shared, because they look up their objects
+     * lazily or register themselves with their biome. The values of
+     * resources that are not equal to another resource, like their material
+     * sets, are shared too.
+     * @param function The function.
+     * @return The shared function.
+     */
+    public <T> ConfigFunction<T> share(ConfigFunction<T> function)
+    {
+        if (!(function instanceof Resource) || function instanceof CustomObjectGen || function instanceof CustomStructureGen)
+        {
+            return function;
+        }
+        ConfigFunction<T> sharedFunction = share(new ValueKey(function.getClass(), function.toString()), function);
+        if (sharedFunction == function)
+        {
+            ((Resource) function).shareValues(this);
+        }
+        return sharedFunction;
+    }
+
+    /**
+     * Gets how many values were passed to this pool.
+     * @return The number of values.
+     */
+    public int getLookupCount()
+    {
+        return this.lookupCount;
+    }
+
+    /**
+     * Gets how many of the values passed to this pool were replaced by an
+     * equal value that was already in the pool.
+     * @return The number of replaced values.
+     */
+    public int getSharedCount()
+    {
+        return this.sharedCount;
+    }
+
+    /**
+     * Key of a value that is compared by its type and config string.
+     */
+    private static final class ValueKey
+    {
+        private final Class<?> type;
+        private final String value;
+
+        ValueKey(Class<?> type, String value)
+        {
+            this.type = type;
+            this.value = value;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * this.type.hashCode() + this.value.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj)
+            {
+                return true;
+            }
+            if (!(obj instanceof ValueKey))
+            {
+                return false;
+            }
+            ValueKey other = (ValueKey) obj;
+            return this.type.equals(other.type) && this.value.equals(other.value);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.pg85.otg.configuration.biome;
 import com.pg85.otg.common.LocalMaterialData;
 import com.pg85.otg.configuration.ConfigFile;
 import com.pg85.otg.configuration.ConfigFunction;
+import com.pg85.otg.configuration.ConfigValuePool;
 import com.pg85.otg.configuration.biome.BiomeConfigFinder.BiomeConfigStub;
 import com.pg85.otg.configuration.biome.settings.ReplacedBlocksMatrix;
 import com.pg85.otg.configuration.biome.settings.WeightedMobSpawnGroup;
@@ -96,6 +97,7 @@ public class BiomeConfig extends ConfigFile
 
     public List<ConfigFunction<BiomeConfig>> resourceSequence = new ArrayList<ConfigFunction<BiomeConfig>>();
     private List<CustomStructureGen> customStructures = new ArrayList<CustomStructureGen>(); // Used as a cache for fast querying, not saved
+    private PopulationPlan populationPlan; // Used as a cache for fast population, not saved
     
     public boolean inheritSaplingResource;
     private Map<SaplingType, SaplingGen> saplingGrowers = new EnumMap<SaplingType, SaplingGen>(SaplingType.class);
@@ -173,7 +175,17 @@ public class BiomeConfig extends ConfigFile
 
     public RareBuildingType rareBuildingType;
 
-    public BiomeConfig(BiomeLoadInstruction loadInstruction, BiomeConfigStub biomeConfigStub, SettingsMap settings, WorldConfig worldConfig)
+    /**
+     * Loads a biome config.
+     * @param loadInstruction The name and template of the biome.
+     * @param biomeConfigStub The stub with the mob settings, or null.
+     * @param settings        The settings of the biome.
+     * @param worldConfig     The world config.
+     * @param valuePool       Pool shared by all biomes of the preset,
+     *                        equal settings and resources of the biomes are
+     *                        replaced by a single instance from this pool.
+     */
+    public BiomeConfig(BiomeLoadInstruction loadInstruction, BiomeConfigStub biomeConfigStub, SettingsMap settings, WorldConfig worldConfig, ConfigValuePool valuePool)
     {
         super(loadInstruction.getBiomeName());
         
@@ -233,12 +245,47 @@ public class BiomeConfig extends ConfigFile
             this.cooledLavaBlock = this.configCooledLavaBlock;
             this.riverWaterLevel = this.configRiverWaterLevel;
         }
+
+        this.shareValues(valuePool);
+        this.populationPlan = PopulationPlan.compile(this.resourceSequence, this.getName());
+    }
+
+    /**
+     * Replaces settings and resources by the equal instances of other
+     * biomes. Must be called after all settings have been read and
+     * corrected, because the shared values must not be changed anymore.
+     */
+    private void shareValues(ConfigValuePool valuePool)
+    {
+        this.biomeExtends = valuePool.share(this.biomeExtends);
+        this.riverBiome = valuePool.share(this.riverBiome);
+        this.replaceToBiomeName = valuePool.share(this.replaceToBiomeName);
+        this.biomeDictId = valuePool.share(this.biomeDictId);
+        this.inheritMobsBiomeName = valuePool.share(this.inheritMobsBiomeName);
+        this.biomeIsBorder = valuePool.shareStringList(this.biomeIsBorder);
+        this.isleInBiome = valuePool.shareStringList(this.isleInBiome);
+        this.notBorderNear = valuePool.shareStringList(this.notBorderNear);
+        this.replacedBlocks = valuePool.share(this.replacedBlocks);
+
+        for (int i = 0; i < this.resourceSequence.size(); i++)
+        {
+            this.resourceSequence.set(i, valuePool.share(this.resourceSequence.get(i)));
+        }
     }
 
     public List<CustomStructureGen> getCustomStructures()
     {
     	return this.customStructures;
     }
+
+    /**
+     * Gets the resources of this biome, sorted into the groups that are
+     * spawned during population.
+     */
+    public PopulationPlan getPopulationPlan()
+    {
+    	return this.populationPlan;
+    }
     
     /**
      * This is a pretty weak map from -0.5 to ~-0.8 (min vanilla temperature)
@@ -115,6 +115,25 @@ public class ReplacedBlocksMatrix
      */
     public LocalMaterialData[][] compiledInstructions;
 
+    /**
+     * Lowest and highest y coordinate any instruction applies to, inclusive.
+     * Only valid when this biome {@link #hasReplaceSettings() replaces
+     * blocks}. Used to skip chunk sections that can never be replaced.
+     */
+    public int minReplacedHeight;
+    public int maxReplacedHeight;
+
+    /**
+     * The compiled instructions that can already be applied while
+     * generating the terrain, in the same format as
+     * {@link #compiledInstructions}. These are the instructions that
+     * replace a block with a block that no instruction replaces at that
+     * height. Applying them again after population then doesn't change
+     * anything. Don't change this variable. Null when there are no such
+     * instructions.
+     */
+    public LocalMaterialData[][] terrainStageInstructions;
+
     public ReplacedBlocksMatrix(String setting, int maxHeight) throws InvalidConfigException
     {
         this.maxHeight = maxHeight;
@@ -183,10 +202,13 @@ public class ReplacedBlocksMatrix
         if (this.instructions.size() == 0)
         {
             this.compiledInstructions = null;
+            this.terrainStageInstructions = null;
             return;
         }
 
         this.compiledInstructions = new LocalMaterialData[PluginStandardValues.SUPPORTED_BLOCK_IDS][];
+        this.minReplacedHeight = this.maxHeight;
+        this.maxReplacedHeight = 0;
         for (ReplacedBlocksInstruction instruction : instructions)
         {
             int fromBlockId = instruction.getFrom().getBlockId();
@@ -202,7 +224,48 @@ public class ReplacedBlocksMatrix
             {
                 compiledInstructions[fromBlockId][y] = toBlock;
             }
+            this.minReplacedHeight = Math.min(this.minReplacedHeight, minHeight);
+            this.maxReplacedHeight = Math.max(this.maxReplacedHeight, maxHeight);
+        }
+        this.terrainStageInstructions = compileTerrainStageInstructions(this.compiledInstructions);
+    }
+
+    private static LocalMaterialData[][] compileTerrainStageInstructions(LocalMaterialData[][] compiledInstructions)
+    {
+        LocalMaterialData[][] terrainStageInstructions = null;
+        for (int fromBlockId = 0; fromBlockId < compiledInstructions.length; fromBlockId++)
+        {
+            LocalMaterialData[] replaceToByHeight = compiledInstructions[fromBlockId];
+            if (replaceToByHeight == null)
+            {
+                continue;
+            }
+            for (int y = 0; y < replaceToByHeight.length; y++)
+            {
+                LocalMaterialData toBlock = replaceToByHeight[y];
+                if (toBlock == null || toBlock.getBlockId() == fromBlockId)
+                {
+                    continue;
+                }
+                // A block that is replaced again would be replaced once
+                // more by every pass after population
+                LocalMaterialData[] toBlockReplacedBy = compiledInstructions[toBlock.getBlockId()];
+                if (toBlockReplacedBy != null && toBlockReplacedBy[y] != null)
+                {
+                    continue;
+                }
+                if (terrainStageInstructions == null)
+                {
+                    terrainStageInstructions = new LocalMaterialData[compiledInstructions.length][];
+                }
+                if (terrainStageInstructions[fromBlockId] == null)
+                {
+                    terrainStageInstructions[fromBlockId] = new LocalMaterialData[replaceToByHeight.length];
+                }
+                terrainStageInstructions[fromBlockId][y] = toBlock;
+            }
         }
+        return terrainStageInstructions;
     }
 
     public String toString()
@@ -264,7 +264,7 @@ public abstract class CustomObjectConfigFunction<T>
             materials.parseAndAdd(strings.get(i));
         }
 
-        return materials;
+        return materials.freeze();
     }
 
     /**
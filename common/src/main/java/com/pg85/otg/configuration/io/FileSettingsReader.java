@@ -1,7 +1,6 @@
 package com.pg85.otg.configuration.io;
 
 import com.pg85.otg.OTG;
-import com.pg85.otg.configuration.io.RawSettingValue.ValueType;
 import com.pg85.otg.logging.LogMarker;
 
 import java.io.BufferedReader;
@@ -30,7 +29,8 @@ public class FileSettingsReader
     }
 
     /**
-     * Reads all settings in the file into the given settings map.
+     * Reads all settings in the file into the given settings map. Every line
+     * is split only once, see {@link SettingsLine}.
      * @param settings     The settings map.
      * @param fileContents The contents of the file. The stream will be fully
      *                     read, but you'll have to close the stream yourself.
@@ -43,32 +43,10 @@ public class FileSettingsReader
         while ((thisLine = fileContents.readLine()) != null)
         {
             lineNumber++;
-            if (thisLine.trim().isEmpty())
-            {
-                // Empty line, ignore
-            }
-            else if (thisLine.startsWith("#") || thisLine.startsWith("<"))
-            {
-                // Comment, ignore
-            }
-            else if (thisLine.contains(":") || thisLine.toLowerCase().contains("("))
-            {
-                // Setting or resource
-                if (thisLine.contains("(") && (!thisLine.contains(":") || thisLine.indexOf('(') < thisLine.indexOf(':')))
-                {
-                    // ( is first, so it's a resource
-                    String configFunction = thisLine.trim();
-                    settings.addRawSetting(RawSettingValue.create(ValueType.FUNCTION, configFunction).withLineNumber(lineNumber));
-                } else {
-                    // : is first, so it's a setting
-                    settings.addRawSetting(RawSettingValue.create(ValueType.PLAIN_SETTING, thisLine.trim()).withLineNumber(lineNumber));
-                }
-            }
-            else if (thisLine.contains("="))
+            SettingsLine line = SettingsLine.parse(thisLine);
+            if (line != null)
             {
-                // Setting (old style), split it and add it
-                String modifiedLine = thisLine.replaceFirst("=", ":").trim();
-                settings.addRawSetting(RawSettingValue.create(ValueType.PLAIN_SETTING, modifiedLine).withLineNumber(lineNumber));
+                settings.addRawSetting(RawSettingValue.ofSettingsLine(line, lineNumber));
             }
         }
     }
@@ -165,7 +165,7 @@ public class FileSettingsReaderOTGPlus implements SettingsReaderOTGPlus
     public <S> S getSetting(Setting<S> setting, S defaultValue)
     {
         // Try reading the setting from the file
-        StringOnLine stringWithLineNumber = this.settingsCache.get(setting.getName().toLowerCase());
+        StringOnLine stringWithLineNumber = this.settingsCache.get(setting.getKey());
         if (stringWithLineNumber != null)
         {
             String stringValue = stringWithLineNumber.string;
@@ -192,7 +192,7 @@ public class FileSettingsReaderOTGPlus implements SettingsReaderOTGPlus
     @Override
     public boolean hasSetting(Setting<?> setting)
     {
-        if (settingsCache.containsKey(setting.getName().toLowerCase()))
+        if (settingsCache.containsKey(setting.getKey()))
         {
             return true;
         }
@@ -212,7 +212,7 @@ public class FileSettingsReaderOTGPlus implements SettingsReaderOTGPlus
     @Override
     public <S> void putSetting(Setting<S> setting, S value)
     {
-        this.settingsCache.put(setting.getName().toLowerCase(), new StringOnLine(setting.write(value), -1));
+        this.settingsCache.put(setting.getKey(), new StringOnLine(setting.write(value), -1));
     }
 
     public void readSettings()
@@ -232,31 +232,16 @@ public class FileSettingsReaderOTGPlus implements SettingsReaderOTGPlus
             while ((thisLine = settingsReader.readLine()) != null)
             {
                 lineNumber++;
-                if (thisLine.trim().isEmpty())
+                SettingsLine line = SettingsLine.parse(thisLine);
+                if (line == null)
                 {
-                    // Empty line, ignore
-                } else if (thisLine.startsWith("#") || thisLine.startsWith("<"))
-                {
-                    // Comment, ignore
-                } else if (thisLine.contains(":") || thisLine.toLowerCase().contains("("))
-                {
-                    // Setting or resource
-                    if (thisLine.contains("(") && (!thisLine.contains(":") || thisLine.indexOf('(') < thisLine.indexOf(':')))
-                    {
-                        // ( is first, so it's a resource
-                        this.configFunctions.add(new StringOnLine(thisLine.trim(), lineNumber));
-                    } else
-                    {
-                        // : is first, so it's a setting
-                        String[] splitSettings = thisLine.split(":", 2);
-                        this.settingsCache
-                                .put(splitSettings[0].trim().toLowerCase(), new StringOnLine(splitSettings[1].trim(), lineNumber));
-                    }
-                } else if (thisLine.contains("="))
+                    // Empty line or comment, ignore
+                }
+                else if (line.isFunction())
                 {
-                    // Setting (old style), split it and add it
-                    String[] splitSettings = thisLine.split("=", 2);
-                    this.settingsCache.put(splitSettings[0].trim().toLowerCase(), new StringOnLine(splitSettings[1].trim(), lineNumber));
+                    this.configFunctions.add(new StringOnLine(line.getText(), lineNumber));
+                } else {
+                    this.settingsCache.put(line.getKey(), new StringOnLine(line.getValue(), lineNumber));
                 }
             }
         }
@@ -283,7 +268,7 @@ public class FileSettingsReaderOTGPlus implements SettingsReaderOTGPlus
     {
         if (this.settingsCache.containsKey(oldValue.toLowerCase()))
         {
-            this.settingsCache.put(newValue.getName().toLowerCase(), this.settingsCache.get(oldValue.toLowerCase()));
+            this.settingsCache.put(newValue.getKey(), this.settingsCache.get(oldValue.toLowerCase()));
         }
     }
 
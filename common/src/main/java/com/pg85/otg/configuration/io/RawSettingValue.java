@@ -1,6 +1,7 @@
 package com.pg85.otg.configuration.io;
 
 import com.pg85.otg.configuration.settingType.Setting;
+import com.pg85.otg.util.helpers.StringHelper;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -27,7 +28,14 @@ public final class RawSettingValue
     private final int line;
     private final String value;
     private final ValueType valueType;
-    
+
+    // Parts of the value, split when they are first needed. Settings files
+    // are split while reading, see SettingsLine
+    private String settingKey;
+    private String settingValue;
+    private String functionName;
+    private String[] functionArgs;
+
     private RawSettingValue(String value, ValueType valueType, int line, List<String> comments)
     {
         this.value = value;
@@ -35,6 +43,22 @@ public final class RawSettingValue
         this.line = line;
         this.comments = comments;
     }
+
+    /**
+     * Creates a new setting value object for a line that was read from a
+     * settings file.
+     * @param line       The line.
+     * @param lineNumber The line number, the first line has 1 as the line
+     *                   number.
+     * @return The setting value object.
+     */
+    static RawSettingValue ofSettingsLine(SettingsLine line, int lineNumber)
+    {
+        RawSettingValue value = create(line.isFunction() ? ValueType.FUNCTION : ValueType.PLAIN_SETTING, line.getText()).withLineNumber(lineNumber);
+        value.settingKey = line.getKey();
+        value.settingValue = line.getValue();
+        return value;
+    }
 	
     /**
      * Creates a new setting value object.
@@ -102,6 +126,68 @@ public final class RawSettingValue
         return value;
     }
 
+    /**
+     * Gets the lowercase name of this setting, like "foo" for "Foo: Bar".
+     * Only for {@link ValueType#PLAIN_SETTING plain settings}.
+     * @return The name.
+     */
+    String getSettingKey()
+    {
+        if (this.settingKey == null)
+        {
+            this.settingKey = this.value.split(":", 2)[0].toLowerCase().trim();
+        }
+        return this.settingKey;
+    }
+
+    /**
+     * Gets the unparsed value of this setting, like "Bar" for "Foo: Bar".
+     * Only for {@link ValueType#PLAIN_SETTING plain settings}.
+     * @return The value.
+     */
+    String getSettingValue()
+    {
+        if (this.settingValue == null)
+        {
+            this.settingValue = this.value.split(":", 2)[1].trim();
+        }
+        return this.settingValue;
+    }
+
+    /**
+     * Gets the name of this function, like "Foo" for "Foo(Bar,Baz)". Only
+     * for {@link ValueType#FUNCTION functions}.
+     * @return The name.
+     */
+    String getFunctionName()
+    {
+        splitFunction();
+        return this.functionName;
+    }
+
+    /**
+     * Gets the arguments of this function, like ["Bar", "Baz"] for
+     * "Foo(Bar,Baz)". Only for {@link ValueType#FUNCTION functions}. The
+     * arguments are split only once, every call returns a new list.
+     * @return The arguments.
+     */
+    List<String> getFunctionArgs()
+    {
+        splitFunction();
+        return Arrays.asList(this.functionArgs.clone());
+    }
+
+    private void splitFunction()
+    {
+        if (this.functionArgs == null)
+        {
+            int bracketIndex = this.value.indexOf('(');
+            String parameters = this.value.substring(bracketIndex + 1, this.value.length() - 1);
+            this.functionName = this.value.substring(0, bracketIndex);
+            this.functionArgs = StringHelper.readCommaSeperatedString(parameters);
+        }
+    }
+
     /**
      * Gets the value type of this setting.
      * @return The value type.
@@ -125,7 +211,7 @@ public final class RawSettingValue
         }
 
         List<String> commentsList = Collections.unmodifiableList(Arrays.asList(comments));
-        return new RawSettingValue(value, valueType, line, commentsList);
+        return copySplitValue(new RawSettingValue(value, valueType, line, commentsList));
     }
 
     /**
@@ -140,7 +226,16 @@ public final class RawSettingValue
         {
             throw new IllegalArgumentException("Invalid line number: " + lineNumber);
         }
-        return new RawSettingValue(this.value, valueType, lineNumber, this.comments);
+        return copySplitValue(new RawSettingValue(this.value, valueType, lineNumber, this.comments));
+    }
+
+    private RawSettingValue copySplitValue(RawSettingValue copy)
+    {
+        copy.settingKey = this.settingKey;
+        copy.settingValue = this.settingValue;
+        copy.functionName = this.functionName;
+        copy.functionArgs = this.functionArgs;
+        return copy;
     }
 
 }
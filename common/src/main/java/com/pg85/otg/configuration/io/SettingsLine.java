@@ -0,0 +1,150 @@
+package com.pg85.otg.configuration.io;
+
+/**
+ * A line of a settings file that contains a setting or a function. Lines are
+ * split in a single pass over their characters, so that reading large
+ * config files doesn't create a number of temporary strings for every line.
+ *
+ * <p>
+ * Lines are interpreted like this:
+ * <ul>
+ * <li>Empty lines and lines starting with {@code #} or {@code <} are
+ * ignored.</li>
+ * <li>Lines where a {@code (} comes before the first {@code :} (or that
+ * contain no {@code :}) are functions, like {@code Ore(...)}.</li>
+ * <li>Other lines with a {@code :} are settings, like
+ * {@code BiomeHeight: 0.5}.</li>
+ * <li>Other lines with a {@code =} are old style settings, like
+ * {@code BiomeHeight=0.5}.</li>
+ * <li>All other lines are ignored.</li>
+ * </ul>
+ */
+final class SettingsLine
+{
+    private final boolean function;
+    private final String text;
+    private final String key;
+    private final String value;
+
+    private SettingsLine(boolean function, String text, String key, String value)
+    {
+        this.function = function;
+        this.text = text;
+        this.key = key;
+        this.value = value;
+    }
+
+    /**
+     * Parses a line of a settings file.
+     * @param line The line.
+     * @return The parsed line, or null if the line doesn't contain a
+     *         setting or a function.
+     */
+    static SettingsLine parse(String line)
+    {
+        int start = 0;
+        int end = line.length();
+        while (start < end && line.charAt(start) <= ' ')
+        {
+            start++;
+        }
+        while (end > start && line.charAt(end - 1) <= ' ')
+        {
+            end--;
+        }
+        if (start == end)
+        {
+            // Empty line
+            return null;
+        }
+        char firstChar = line.charAt(0);
+        if (firstChar == '#' || firstChar == '<')
+        {
+            // Comment
+            return null;
+        }
+
+        int colonIndex = -1;
+        int bracketIndex = -1;
+        int equalsIndex = -1;
+        for (int i = start; i < end && (colonIndex == -1 || bracketIndex == -1); i++)
+        {
+            char c = line.charAt(i);
+            if (c == ':' && colonIndex == -1)
+            {
+                colonIndex = i;
+            }
+            else if (c == '(' && bracketIndex == -1)
+            {
+                bracketIndex = i;
+            }
+            else if (c == '=' && equalsIndex == -1)
+            {
+                equalsIndex = i;
+            }
+        }
+
+        if (bracketIndex != -1 && (colonIndex == -1 || bracketIndex < colonIndex))
+        {
+            // ( is first, so it's a function
+            return new SettingsLine(true, line.substring(start, end), null, null);
+        }
+        if (colonIndex != -1)
+        {
+            // : is first, so it's a setting
+            return createSetting(line, start, colonIndex, end, line.substring(start, end));
+        }
+        if (equalsIndex != -1)
+        {
+            // Setting (old style)
+            String text = line.substring(start, equalsIndex) + ':' + line.substring(equalsIndex + 1, end);
+            return createSetting(line, start, equalsIndex, end, text);
+        }
+        return null;
+    }
+
+    private static SettingsLine createSetting(String line, int start, int separatorIndex, int end, String text)
+    {
+        String key = line.substring(start, separatorIndex).trim().toLowerCase();
+        String value = line.substring(separatorIndex + 1, end).trim();
+        return new SettingsLine(false, text, key, value);
+    }
+
+    /**
+     * Gets whether this line is a function. If not, it is a setting.
+     * @return True if this line is a function.
+     */
+    boolean isFunction()
+    {
+        return this.function;
+    }
+
+    /**
+     * Gets the trimmed line. For old style settings, the {@code =} is
+     * replaced by a {@code :}.
+     * @return The line.
+     */
+    String getText()
+    {
+        return this.text;
+    }
+
+    /**
+     * Gets the lowercase name of the setting on this line, see
+     * {@link com.pg85.otg.configuration.settingType.Setting#getKey()}.
+     * @return The name, or null if this line is a function.
+     */
+    String getKey()
+    {
+        return this.key;
+    }
+
+    /**
+     * Gets the trimmed value of the setting on this line.
+     * @return The value, or null if this line is a function.
+     */
+    String getValue()
+    {
+        return this.value;
+    }
+}
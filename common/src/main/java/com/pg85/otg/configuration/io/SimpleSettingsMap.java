@@ -1,6 +1,7 @@
 package com.pg85.otg.configuration.io;
 
 import com.pg85.otg.OTG;
+import com.pg85.otg.common.LocalMaterialData;
 import com.pg85.otg.configuration.ConfigFunction;
 import com.pg85.otg.configuration.ErroredFunction;
 import com.pg85.otg.configuration.biome.settings.BiomeResourcesManager;
@@ -9,7 +10,6 @@ import com.pg85.otg.configuration.settingType.Setting;
 import com.pg85.otg.exception.InvalidConfigException;
 import com.pg85.otg.logging.LogMarker;
 import com.pg85.otg.util.helpers.InheritanceHelper;
-import com.pg85.otg.util.helpers.StringHelper;
 
 import java.util.*;
 
@@ -33,6 +33,14 @@ public final class SimpleSettingsMap implements SettingsMap
     private final boolean isNewConfig;
     private int dummyKeyIndex = 0;
 
+    /**
+     * Settings that have already been parsed, by their key. Biomes that
+     * inherit from this config read the same settings from it again, so
+     * values are only parsed once. Only values that can't be changed are
+     * stored, see {@link #isImmutable(Object)}.
+     */
+    private final Map<String, ParsedValue> parsedValues = new HashMap<String, ParsedValue>();
+
     /**
      * Creates a new settings reader.
      * @param name        Name of the config file, like "WorldConfig" or "Taiga".
@@ -79,11 +87,8 @@ public final class SimpleSettingsMap implements SettingsMap
         BiomeResourcesManager manager = OTG.getBiomeResourcesManager();
         for (RawSettingValue configFunctionLine : configFunctions)
         {
-            String configFunctionString = configFunctionLine.getRawValue();
-            int bracketIndex = configFunctionString.indexOf('(');
-            String functionName = configFunctionString.substring(0, bracketIndex);
-            String parameters = configFunctionString.substring(bracketIndex + 1, configFunctionString.length() - 1);
-            List<String> args = Arrays.asList(StringHelper.readCommaSeperatedString(parameters));
+            String functionName = configFunctionLine.getFunctionName();
+            List<String> args = configFunctionLine.getFunctionArgs();
             ConfigFunction<T> function = manager.getConfigFunction(functionName, holder, args);
             if (function == null)
             {
@@ -132,13 +137,25 @@ public final class SimpleSettingsMap implements SettingsMap
     public <S> S getSetting(Setting<S> setting, S defaultValue)
     {
         // Try reading the setting from the file
-        RawSettingValue stringWithLineNumber = this.settingsCache.get(setting.getName().toLowerCase());
+        RawSettingValue stringWithLineNumber = this.settingsCache.get(setting.getKey());
         if (stringWithLineNumber != null)
         {
-            String stringValue = stringWithLineNumber.getRawValue().split(":", 2)[1].trim();
+            ParsedValue parsedValue = this.parsedValues.get(setting.getKey());
+            if (parsedValue != null && parsedValue.setting == setting)
+            {
+                @SuppressWarnings("unchecked")
+                S value = (S) parsedValue.value;
+                return value;
+            }
+            String stringValue = stringWithLineNumber.getSettingValue();
             try
             {
-                return setting.read(stringValue);
+                S value = setting.read(stringValue);
+                if (isImmutable(value))
+                {
+                    this.parsedValues.put(setting.getKey(), new ParsedValue(setting, value));
+                }
+                return value;
             }
             catch (InvalidConfigException e)
             {
@@ -156,10 +173,19 @@ public final class SimpleSettingsMap implements SettingsMap
         return defaultValue;
     }
 
+    /**
+     * Gets whether a parsed setting value can't be changed, so that it can
+     * safely be returned more than once.
+     */
+    private static boolean isImmutable(Object value)
+    {
+        return value instanceof String || value instanceof Number || value instanceof Boolean || value instanceof Enum || value instanceof LocalMaterialData;
+    }
+
     @Override
     public boolean hasSetting(Setting<?> setting)
     {
-        if (settingsCache.containsKey(setting.getName().toLowerCase()))
+        if (settingsCache.containsKey(setting.getKey()))
         {
             return true;
         }
@@ -180,7 +206,8 @@ public final class SimpleSettingsMap implements SettingsMap
     public <S> void putSetting(Setting<S> setting, S value, String... comments)
     {
         RawSettingValue settingValue = RawSettingValue.ofPlainSetting(setting, value).withComments(comments);
-        this.settingsCache.put(setting.getName().toLowerCase(), settingValue);
+        this.settingsCache.put(setting.getKey(), settingValue);
+        this.parsedValues.remove(setting.getKey());
     }
 
     @Override
@@ -188,7 +215,8 @@ public final class SimpleSettingsMap implements SettingsMap
     {
         if (this.settingsCache.containsKey(oldValue.toLowerCase()))
         {
-            this.settingsCache.put(newValue.getName().toLowerCase(), this.settingsCache.get(oldValue.toLowerCase()));
+            this.settingsCache.put(newValue.getKey(), this.settingsCache.get(oldValue.toLowerCase()));
+            this.parsedValues.remove(newValue.getKey());
         }
     }
 
@@ -204,9 +232,9 @@ public final class SimpleSettingsMap implements SettingsMap
         switch (value.getType())
         {
             case PLAIN_SETTING:
-                String[] split = value.getRawValue().split(":", 2);
-                String settingName = split[0].toLowerCase().trim();
+                String settingName = value.getSettingKey();
                 this.settingsCache.put(settingName, value);
+                this.parsedValues.remove(settingName);
                 break;
             case FUNCTION:
                 this.configFunctions.add(value);
@@ -236,4 +264,16 @@ public final class SimpleSettingsMap implements SettingsMap
         return "SimpleSettingsMap [name=" + name + ", fallback=" + fallback + "]";
     }
 
+    private static final class ParsedValue
+    {
+        private final Setting<?> setting;
+        private final Object value;
+
+        private ParsedValue(Setting<?> setting, Object value)
+        {
+            this.setting = setting;
+            this.value = value;
+        }
+    }
+
 }
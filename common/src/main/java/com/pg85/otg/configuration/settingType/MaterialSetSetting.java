@@ -45,7 +45,7 @@ class MaterialSetSetting extends Setting<MaterialSet>
 	        {
 	            blocks.parseAndAdd(blockName);
 	        }
-	        return blocks;
+	        return blocks.freeze();
         } catch (InvalidConfigException e)
         {
             throw new AssertionError(e);
@@ -62,7 +62,7 @@ class MaterialSetSetting extends Setting<MaterialSet>
             blocks.parseAndAdd(blockName);
         }
 
-        return blocks;
+        return blocks.freeze();
     }
 
 }
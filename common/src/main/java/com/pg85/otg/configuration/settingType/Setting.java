@@ -10,10 +10,12 @@ import com.pg85.otg.exception.InvalidConfigException;
 public abstract class Setting<T>
 {
     private final String name;
+    private final String key;
 
     protected Setting(String name)
     {
         this.name = name;
+        this.key = name.toLowerCase();
     }
 
     /**
@@ -31,6 +33,16 @@ public abstract class Setting<T>
         return name;
     }
 
+    /**
+     * Gets the lowercase name of this setting, like biomeheight. Settings
+     * are stored under this key when config files are read.
+     * @return The key of this setting.
+     */
+    public String getKey()
+    {
+        return key;
+    }
+
     /**
      * Reads the given setting from a string.
      * @param string The value of the setting.
@@ -20,7 +20,7 @@ public class PluginStandardValues extends Settings
     // Network
     
     public static final String ChannelName = "OpenTerrainGenerator";
-    public static final int ProtocolVersion = 6;
+    public static final int ProtocolVersion = 7;
     
     // Plugin Defaults
     
@@ -154,6 +154,7 @@ public class WorldStandardValues extends Settings
         FLAT_BEDROCK = booleanSetting("FlatBedrock", false),
         REMOVE_SURFACE_STONE = booleanSetting("RemoveSurfaceStone", false),
         POPULATION_BOUNDS_CHECK = booleanSetting("PopulationBoundsCheck", true),
+        REPLACE_BLOCKS_DURING_TERRAIN_GEN = booleanSetting("ReplaceBlocksDuringTerrainGen", false),
         NETHER_FORTRESSES_ENABLED = booleanSetting("NetherFortressesEnabled", false),
         STRONGHOLDS_ENABLED = booleanSetting("StrongholdsEnabled", true),
         VILLAGES_ENABLED = booleanSetting("VillagesEnabled", true),
@@ -185,6 +185,7 @@ public class WorldConfig extends ConfigFile
     public Class<? extends BiomeGenerator> biomeMode;
 
     public boolean biomeConfigsHaveReplacement = false;
+    public boolean replaceBlocksDuringTerrainGen;
 
     public int worldHeightScaleBits;
     public int worldHeightScale;
@@ -662,6 +663,7 @@ public class WorldConfig extends ConfigFile
         this.objectSpawnRatio = reader.getSetting(WorldStandardValues.OBJECT_SPAWN_RATIO);
         this.resourcesSeed = reader.getSetting(WorldStandardValues.RESOURCES_SEED);
         this.populationBoundsCheck = reader.getSetting(WorldStandardValues.POPULATION_BOUNDS_CHECK);
+        this.replaceBlocksDuringTerrainGen = reader.getSetting(WorldStandardValues.REPLACE_BLOCKS_DURING_TERRAIN_GEN);
         this.populateUsingSavedBiomes = reader.getSetting(WorldStandardValues.POPULATE_USING_SAVED_BIOMES);
 
         this.oldTerrainGenerator = false; //this.modeTerrain == TerrainMode.OldGenerator;
@@ -1061,6 +1063,14 @@ public class WorldConfig extends ConfigFile
                 "While this allows you to spawn larger objects, it also makes terrain generation",
                 "dependant on the direction you explored the world in.");
 
+        writer.putSetting(WorldStandardValues.REPLACE_BLOCKS_DURING_TERRAIN_GEN, this.replaceBlocksDuringTerrainGen,
+                "Set this to true to already apply the ReplacedBlocks setting of the biome configs while",
+                "generating the terrain, after caves and ravines are carved. This makes replacing terrain",
+                "blocks like stone or dirt cheaper after population. Only replacements to a block that is",
+                "not replaced itself at that height are applied early, other replacements and blocks placed",
+                "by resources and objects are still replaced after population. Note that resources like ores",
+                "then see the replaced blocks instead of the original ones.");
+
         if (this.populateUsingSavedBiomes)
         {
             writer.putSetting(WorldStandardValues.POPULATE_USING_SAVED_BIOMES, this.populateUsingSavedBiomes,
@@ -72,16 +72,22 @@ public class BO2 extends CustomObjectConfigFile implements CustomObject
         ObjectCoordinate[] data = this.data[rotation.getRotationId()];
 
         // Spawn
-        for (ObjectCoordinate point : data)
+        world.startBlockBatch();
+        try
         {
-            if (world.isNullOrAir(x + point.x, y + point.y, z + point.z, false))
+            for (ObjectCoordinate point : data)
             {
-                setBlock(world, (x + point.x), y + point.y, z + point.z, point.material, null, false);
-            }
-            else if (dig)
-            {
-                setBlock(world, (x + point.x), y + point.y, z + point.z, point.material, null, false);
+                if (world.isNullOrAir(x + point.x, y + point.y, z + point.z, false))
+                {
+                    setBlock(world, (x + point.x), y + point.y, z + point.z, point.material, null, false);
+                }
+                else if (dig)
+                {
+                    setBlock(world, (x + point.x), y + point.y, z + point.z, point.material, null, false);
+                }
             }
+        } finally {
+            world.endBlockBatch();
         }
         return true;
     }
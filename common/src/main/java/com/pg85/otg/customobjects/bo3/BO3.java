@@ -345,12 +345,18 @@ public class BO3 implements StructuredCustomObject
 
         HashSet<ChunkCoordinate> chunksCustomObject = new HashSet<ChunkCoordinate>();
 
-        for (BO3BlockFunction block : blocksToSpawn)
+        world.startBlockBatch();
+        try
         {
-        	block.spawn(world, random, x + block.x, y + block.y, z + block.z, true);
-        }
+            for (BO3BlockFunction block : blocksToSpawn)
+            {
+                block.spawn(world, random, x + block.x, y + block.y, z + block.z, true);
+            }
 
-        oeh.extrude(world, random, x, y, z);
+            oeh.extrude(world, random, x, y, z);
+        } finally {
+            world.endBlockBatch();
+        }
 
         HashSet<BO3ModDataFunction> newModDataInObject = new HashSet<BO3ModDataFunction>();
     	BO3ModDataFunction[] modDataInObject = settings.modDataFunctions[rotation.getRotationId()];
@@ -435,36 +441,36 @@ public class BO3 implements StructuredCustomObject
 
 		if(structure != null)
 		{
-			structure.modDataManager.modData.addAll(newModDataInObject);
-			structure.particlesManager.particleData.addAll(newParticleDataInObject);
-			structure.spawnerManager.spawnerData.addAll(newSpawnerDataInObject);
+			structure.modDataManager.addModData(newModDataInObject);
+			structure.particlesManager.addParticleData(newParticleDataInObject);
+			structure.spawnerManager.addSpawnerData(newSpawnerDataInObject);
 
    			for(ChunkCoordinate structureCoord : chunks)
     		{
 				if(world.getStructureCache().worldInfoChunks.containsKey(structureCoord))
 				{
 					CustomStructure existingObject = world.getStructureCache().worldInfoChunks.get(structureCoord);
-					structure.modDataManager.modData.addAll(existingObject.modDataManager.modData);
-					structure.particlesManager.particleData.addAll(existingObject.particlesManager.particleData);
-					structure.spawnerManager.spawnerData.addAll(existingObject.spawnerManager.spawnerData);
+					structure.modDataManager.addModData(existingObject.modDataManager.getModData());
+					structure.particlesManager.addParticleData(existingObject.particlesManager.getParticleData());
+					structure.spawnerManager.addSpawnerData(existingObject.spawnerManager.getSpawnerData());
 				}
 				world.getStructureCache().worldInfoChunks.put(structureCoord, structure);
     		}
 		} else {
 
 			CustomStructure placeHolderStructure = new BO3CustomStructure(new BO3CustomStructureCoordinate(world, this, this.getName(), Rotation.NORTH, x, (short)0, z));
-			placeHolderStructure.modDataManager.modData.addAll(newModDataInObject);
-			placeHolderStructure.particlesManager.particleData.addAll(newParticleDataInObject);
-			placeHolderStructure.spawnerManager.spawnerData.addAll(newSpawnerDataInObject);
+			placeHolderStructure.modDataManager.addModData(newModDataInObject);
+			placeHolderStructure.particlesManager.addParticleData(newParticleDataInObject);
+			placeHolderStructure.spawnerManager.addSpawnerData(newSpawnerDataInObject);
 
    			for(ChunkCoordinate structureCoord : chunksCustomObject)
     		{
 				if(world.getStructureCache().worldInfoChunks.containsKey(structureCoord))
 				{
 					CustomStructure existingObject = world.getStructureCache().worldInfoChunks.get(structureCoord);
-					existingObject.modDataManager.modData.addAll(placeHolderStructure.modDataManager.modData);
-					existingObject.particlesManager.particleData.addAll(placeHolderStructure.particlesManager.particleData);
-					existingObject.spawnerManager.spawnerData.addAll(placeHolderStructure.spawnerManager.spawnerData);
+					existingObject.modDataManager.addModData(placeHolderStructure.modDataManager.getModData());
+					existingObject.particlesManager.addParticleData(placeHolderStructure.particlesManager.getParticleData());
+					existingObject.spawnerManager.addSpawnerData(placeHolderStructure.spawnerManager.getSpawnerData());
 				} else {
 					world.getStructureCache().worldInfoChunks.put(structureCoord, placeHolderStructure);
 				}
@@ -273,7 +273,7 @@ public class BO4 implements StructuredCustomObject
 
 		if(settings == null)
 		{
-			OTG.log(LogMarker.FATAL, "Settings was null for BO3 " + this.getName() + ". This should not be happening, please contact the developer.");
+			OTG.log(LogMarker.FATAL, "Settings was null for BO3 {}. This should not be happening, please contact the developer.", this.getName());
 			throw new RuntimeException("Settings was null for BO3 " + this.getName() + ". This should not be happening, please contact the developer.");
 		}
 
@@ -283,7 +283,7 @@ public class BO4 implements StructuredCustomObject
 			bo3SurfaceBlock = MaterialHelper.toLocalMaterialData(DefaultMaterial.GRASS, 0);
 			if(OTG.getPluginConfig().spawnLog)
 			{
-				OTG.log(LogMarker.WARN, "Value " + replaceWithSurfaceBlock + " for replaceWithSurfaceBlock in BO3 " + this.getName() + " was not recognised. Using GRASS instead.");
+				OTG.logRepeated(LogMarker.WARN, "Value {} for replaceWithSurfaceBlock in BO3 {} was not recognised. Using GRASS instead.", replaceWithSurfaceBlock, this.getName());
 			}
 		}
     	try {
@@ -292,7 +292,7 @@ public class BO4 implements StructuredCustomObject
 			bo3GroundBlock = MaterialHelper.toLocalMaterialData(DefaultMaterial.DIRT, 0);
 			if(OTG.getPluginConfig().spawnLog)
 			{
-				OTG.log(LogMarker.WARN, "Value " + replaceWithGroundBlock + " for replaceWithGroundBlock in BO3 " + this.getName() + " was not recognised. Using DIRT instead.");
+				OTG.logRepeated(LogMarker.WARN, "Value {} for replaceWithGroundBlock in BO3 {} was not recognised. Using DIRT instead.", replaceWithGroundBlock, this.getName());
 			}
 		}
 
@@ -302,7 +302,7 @@ public class BO4 implements StructuredCustomObject
 			replaceBelowMaterial = MaterialHelper.toLocalMaterialData(DefaultMaterial.DIRT, 0);
 			if(OTG.getPluginConfig().spawnLog)
 			{
-				OTG.log(LogMarker.INFO, "Value " + settings.replaceBelow + " for replaceBelow in BO3 " + this.getName() + " was not recognised. Using DIRT instead.");
+				OTG.logRepeated(LogMarker.INFO, "Value {} for replaceBelow in BO3 {} was not recognised. Using DIRT instead.", settings.replaceBelow, this.getName());
 			}
 		}
     	try {
@@ -311,7 +311,7 @@ public class BO4 implements StructuredCustomObject
 			replaceAboveMaterial = MaterialHelper.toLocalMaterialData(DefaultMaterial.AIR, 0);
 			if(OTG.getPluginConfig().spawnLog)
 			{
-				OTG.log(LogMarker.INFO, "Value " + settings.replaceAbove + " for replaceAbove in BO3 " + this.getName() + " was not recognised. Using AIR instead.");
+				OTG.logRepeated(LogMarker.INFO, "Value {} for replaceAbove in BO3 {} was not recognised. Using AIR instead.", settings.replaceAbove, this.getName());
 			}
 		}
 
@@ -922,13 +922,13 @@ public class BO4 implements StructuredCustomObject
         {
         	if(OTG.getPluginConfig().spawnLog)
         	{
-        		OTG.log(LogMarker.WARN, "BO3 " + this.getName() + " tried to spawn blocks outside of the chunk being populated, the blocks have been ignored. This can happen if a BO3 is not sliced into 16x16 pieces or has branches positioned in such a way that they cross a chunk border. OTG is more strict than TC in how branching BO3's used as CustomStructures() should be designed, BO3 creators have to design their BO3's and position their branches so that they fit neatly into a 16x16 grid. Hopefully in a future release OTG can be made to automatically slice branching structures instead of forcing the BO3 creator to do it.");
+        		OTG.logRepeated(LogMarker.WARN, "BO3 {} tried to spawn blocks outside of the chunk being populated, the blocks have been ignored. This can happen if a BO3 is not sliced into 16x16 pieces or has branches positioned in such a way that they cross a chunk border. OTG is more strict than TC in how branching BO3's used as CustomStructures() should be designed, BO3 creators have to design their BO3's and position their branches so that they fit neatly into a 16x16 grid. Hopefully in a future release OTG can be made to automatically slice branching structures instead of forcing the BO3 creator to do it.", this.getName());
         	}
         }
 
         if(OTG.getPluginConfig().spawnLog && (System.currentTimeMillis() - startTime) > 50)
         {
-        	OTG.log(LogMarker.WARN, "Warning: Spawning BO3 " + this.getName()  + " took " + (System.currentTimeMillis() - startTime) + " Ms.");
+        	OTG.log(LogMarker.WARN, "Warning: Spawning BO3 {} took {} Ms.", this.getName(), System.currentTimeMillis() - startTime);
         }
 
         return true;
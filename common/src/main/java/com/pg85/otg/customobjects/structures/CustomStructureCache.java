@@ -11,9 +11,11 @@ import com.pg85.otg.customobjects.structures.bo3.BO3CustomStructure;
 import com.pg85.otg.customobjects.structures.bo3.BO3CustomStructureCoordinate;
 import com.pg85.otg.customobjects.structures.bo4.BO4CustomStructure;
 import com.pg85.otg.customobjects.structures.bo4.CustomStructurePlotter;
+import com.pg85.otg.generator.ObjectSpawner;
 import com.pg85.otg.generator.resource.CustomStructureGen;
 import com.pg85.otg.logging.LogMarker;
 import com.pg85.otg.util.ChunkCoordinate;
+import com.pg85.otg.util.ChunkMap;
 import com.pg85.otg.util.helpers.RandomHelper;
 
 import java.util.ArrayList;
@@ -37,11 +39,11 @@ public class CustomStructureCache
 	// WorldInfo holds info on all BO3's ever spawned for this world, structurecache only holds those outside the pregenerated area and sets spawned chunks to null.
 	
 	private Map<ChunkCoordinate, BO3CustomStructure> bo3StructureCache;
-    public Map<ChunkCoordinate, BO4CustomStructure> bo4StructureCache;
+    public ChunkMap<BO4CustomStructure> bo4StructureCache;
     
 	// Used for the /otg BO3 command, stores information about every BO3 that has been spawned so that author and description information can be requested by chunk.
     // Also used to store location of spawners/particles/moddata.
-	public Map<ChunkCoordinate, CustomStructure> worldInfoChunks; 	
+	public ChunkMap<CustomStructure> worldInfoChunks; 	
 	
     private LocalWorld world;
     private CustomStructurePlotter plotter;
@@ -50,8 +52,8 @@ public class CustomStructureCache
     {
         this.world = world;
         this.bo3StructureCache = new HashMap<ChunkCoordinate, BO3CustomStructure>();
-        this.bo4StructureCache = new HashMap<ChunkCoordinate, BO4CustomStructure>();
-        this.worldInfoChunks = new HashMap<ChunkCoordinate, CustomStructure>();        
+        this.bo4StructureCache = new ChunkMap<BO4CustomStructure>();
+        this.worldInfoChunks = new ChunkMap<CustomStructure>();        
         this.plotter = new CustomStructurePlotter();
         
         loadStructureCache();
@@ -121,23 +123,25 @@ public class CustomStructureCache
         int a = 0;
     	
     	// Fill a new structureCache based on the  existing one, remove all the chunks inside the pregenerated region that we know will no longer be used
-    	HashMap<ChunkCoordinate, BO4CustomStructure> newStructureCache = new HashMap<ChunkCoordinate, BO4CustomStructure>();
-    	for (Map.Entry<ChunkCoordinate, BO4CustomStructure> cachedChunk : bo4StructureCache.entrySet())
+    	ChunkMap<BO4CustomStructure> newStructureCache = new ChunkMap<BO4CustomStructure>();
+    	for (long cachedChunkKey : bo4StructureCache.keys())
     	{
+    		ChunkCoordinate cachedChunk = ChunkCoordinate.fromKey(cachedChunkKey);
+    		BO4CustomStructure cachedStructure = bo4StructureCache.get(cachedChunkKey);
 			// If this structure is not done spawning or on/outside the border of the pre-generated area then keep it
-			if(!world.isInsidePregeneratedRegion(cachedChunk.getKey()))
+			if(!world.isInsidePregeneratedRegion(cachedChunk))
 			{
-				newStructureCache.put(cachedChunk.getKey(), cachedChunk.getValue());
+				newStructureCache.put(cachedChunkKey, cachedStructure);
 			} else {
 
 				structuresRemoved += 1;
 
 				// Null means fully populated, plotted and spawned
-				if(cachedChunk.getValue() != null)
+				if(cachedStructure != null)
 				{
 					a++;
 					OTG.log(LogMarker.FATAL, "Running " + world.getWorldSession().getPreGeneratorIsRunning() +  " L" + world.getWorldSession().getPregeneratedBorderLeft() + " R" + world.getWorldSession().getPregeneratedBorderRight() + " T" + world.getWorldSession().getPregeneratedBorderTop() + " B" + world.getWorldSession().getPregeneratedBorderBottom());
-					OTG.log(LogMarker.FATAL, "Error at Chunk X" + cachedChunk.getKey().getChunkX() + " Z" + cachedChunk.getKey().getChunkZ() + ". " + (!this.bo4StructureCache.containsKey(cachedChunk.getKey()) ? (world.isInsidePregeneratedRegion(cachedChunk.getKey()) ? "Inside pregenned region" : "Not plotted") : this.bo4StructureCache.get(cachedChunk.getKey()) == null ? "Plotted and spawned" : this.bo4StructureCache.get(cachedChunk.getKey()).start != null ? this.bo4StructureCache.get(cachedChunk.getKey()).start.bo3Name : "Trees"));
+					OTG.log(LogMarker.FATAL, "Error at Chunk X" + cachedChunk.getChunkX() + " Z" + cachedChunk.getChunkZ() + ". " + (!this.bo4StructureCache.containsKey(cachedChunkKey) ? (world.isInsidePregeneratedRegion(cachedChunk) ? "Inside pregenned region" : "Not plotted") : this.bo4StructureCache.get(cachedChunkKey) == null ? "Plotted and spawned" : this.bo4StructureCache.get(cachedChunkKey).start != null ? this.bo4StructureCache.get(cachedChunkKey).start.bo3Name : "Trees"));
 
 					//throw new RuntimeException();
 				}
@@ -150,48 +154,54 @@ public class CustomStructureCache
 
     	bo4StructureCache = newStructureCache;
 
-    	OTG.log(LogMarker.INFO, "Removed " + structuresRemoved + " cached chunks");
+    	OTG.log(LogMarker.INFO, "Removed {} cached chunks", structuresRemoved);
     }
 
     public void saveToDisk()
     {
     	OTG.log(LogMarker.DEBUG, "Saving structure data");
-    	boolean firstLog = false;
-    	long starTime = System.currentTimeMillis();
-		while(true)
+		// Wait for population to finish, then block population until saving is done
+		ObjectSpawner spawner = world.getObjectSpawner();
+		int interval = 300;
+		long starTime = System.currentTimeMillis();
+		synchronized(spawner.lockingObject)
 		{
-			synchronized(world.getObjectSpawner().lockingObject)
+			while(spawner.populating)
 			{
-				if(!world.getObjectSpawner().populating)
+				long waitTime = interval * 1000L - (System.currentTimeMillis() - starTime);
+				if(waitTime <= 0)
 				{
-					world.getObjectSpawner().saving = true;
-					break;
+					OTG.log(LogMarker.FATAL, "SaveToDisk waited on populate longer than {} seconds, something went wrong!", interval);
+					throw new RuntimeException("SaveToDisk waited on populate longer than " + interval + " seconds, something went wrong!");
+				}
+				try
+				{
+					spawner.lockingObject.wait(waitTime);
+				}
+				catch (InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+					throw new RuntimeException("SaveToDisk was interrupted while waiting on populate", e);
 				}
 			}
-			if(firstLog)
+			spawner.saving = true;
+		}
+
+		try
+		{
+			if(world.getConfigs().getWorldConfig().isOTGPlus)
 			{
-				OTG.log(LogMarker.WARN, "SaveToDisk waiting on Populate. Although other mods could be causing this and there may not be any problem, this can potentially cause an endless loop!");
-				firstLog = false;
+				compressCache();
 			}
-			int interval = 300;
-			if(System.currentTimeMillis() - starTime > (interval * 1000))
+			saveStructureCache();
+		} finally {
+			synchronized(spawner.lockingObject)
 			{
-				OTG.log(LogMarker.FATAL, "SaveToDisk waited on populate longer than " + interval + " seconds, something went wrong!");
-				throw new RuntimeException("SaveToDisk waited on populate longer than " + interval + " seconds, something went wrong!");
+		    	spawner.saveRequired = false;
+		    	spawner.saving = false;
+		    	spawner.lockingObject.notifyAll();
 			}
 		}
-
-		if(world.getConfigs().getWorldConfig().isOTGPlus)
-		{
-			compressCache();
-		}
-		saveStructureCache();
-
-		synchronized(world.getObjectSpawner().lockingObject)
-		{
-	    	world.getObjectSpawner().saveRequired = false;
-	    	world.getObjectSpawner().saving = false;
-		}
     }
 
     private void saveStructureCache()
@@ -200,11 +210,12 @@ public class CustomStructureCache
 
 	    Map<ChunkCoordinate, CustomStructure> worldInfoChunksToSave = new HashMap<ChunkCoordinate, CustomStructure>();
 
-	    for (Map.Entry<ChunkCoordinate, CustomStructure> cachedChunk : worldInfoChunks.entrySet()) // WorldInfo holds info on all BO3's ever spawned for this world, structurecache only holds those outside the pregenerated area and sets spawned chunks to null!
+	    for (long cachedChunkKey : worldInfoChunks.keys()) // WorldInfo holds info on all BO3's ever spawned for this world, structurecache only holds those outside the pregenerated area and sets spawned chunks to null!
 	    {
-	    	if(cachedChunk.getValue() != null)
+	    	CustomStructure cachedStructure = worldInfoChunks.get(cachedChunkKey);
+	    	if(cachedStructure != null)
 	    	{
-	    		worldInfoChunksToSave.put(cachedChunk.getKey(), cachedChunk.getValue());
+	    		worldInfoChunksToSave.put(ChunkCoordinate.fromKey(cachedChunkKey), cachedStructure);
 	    	} else {
 	    		throw new RuntimeException();
 	    	}
@@ -215,13 +226,14 @@ public class CustomStructureCache
 	    if(world.getConfigs().getWorldConfig().isOTGPlus)
 	    {
 		    ArrayList<ChunkCoordinate> nullChunks = new ArrayList<ChunkCoordinate>();
-	    	for (Map.Entry<ChunkCoordinate, BO4CustomStructure> cachedChunk : bo4StructureCache.entrySet()) // Save null chunks from structurecache so that when loading we can reconstitute it based on worldInfoChunks, null chunks and the pregenerator border
+	    	for (long cachedChunkKey : bo4StructureCache.keys()) // Save null chunks from structurecache so that when loading we can reconstitute it based on worldInfoChunks, null chunks and the pregenerator border
 	    	{
-	    		if(cachedChunk.getValue() == null)
+	    		if(bo4StructureCache.get(cachedChunkKey) == null)
 	    		{
-	    			if(!world.isInsidePregeneratedRegion(cachedChunk.getKey()))
+	    			ChunkCoordinate cachedChunk = ChunkCoordinate.fromKey(cachedChunkKey);
+	    			if(!world.isInsidePregeneratedRegion(cachedChunk))
 	    			{
-	    				nullChunks.add(cachedChunk.getKey());
+	    				nullChunks.add(cachedChunk);
 					}
 	    		}
 	    	}
@@ -286,23 +298,23 @@ public class CustomStructureCache
 				}
 			}
 
-			for(ModDataFunction<?> modDataFunc : loadedStructure.getValue().modDataManager.modData)
+			for(ModDataFunction<?> modDataFunc : loadedStructure.getValue().modDataManager.getModData())
 			{
 				worldInfoChunks.put(ChunkCoordinate.fromBlockCoords(modDataFunc.x, modDataFunc.z), loadedStructure.getValue());
 			}
 
-			for(SpawnerFunction<?> spawnerFunc : loadedStructure.getValue().spawnerManager.spawnerData)
+			for(SpawnerFunction<?> spawnerFunc : loadedStructure.getValue().spawnerManager.getSpawnerData())
 			{
 				worldInfoChunks.put(ChunkCoordinate.fromBlockCoords(spawnerFunc.x, spawnerFunc.z), loadedStructure.getValue());
 			}
 
-			for(ParticleFunction<?> particleFunc : loadedStructure.getValue().particlesManager.particleData)
+			for(ParticleFunction<?> particleFunc : loadedStructure.getValue().particlesManager.getParticleData())
 			{
 				worldInfoChunks.put(ChunkCoordinate.fromBlockCoords(particleFunc.x, particleFunc.z), loadedStructure.getValue());
 			}
 		}
 
-		OTG.log(LogMarker.DEBUG, "Loaded " + structuresLoaded + " structure chunks");
+		OTG.log(LogMarker.DEBUG, "Loaded {} structure chunks", structuresLoaded);
 
 		if(world.getConfigs().getWorldConfig().isOTGPlus)
 		{
@@ -318,16 +330,16 @@ public class CustomStructureCache
 					// This should only happen when a world is loaded that was generated with a PregenerationRadius of 0 and then had its PregenerationRadius increased
 					// TODO: This never seems to happen?
 					OTG.log(LogMarker.FATAL, "Running " + world.getWorldSession().getPreGeneratorIsRunning() +  " L" + world.getWorldSession().getPregeneratedBorderLeft() + " R" + world.getWorldSession().getPregeneratedBorderRight() + " T" + world.getWorldSession().getPregeneratedBorderTop() + " B" + world.getWorldSession().getPregeneratedBorderBottom());
-					OTG.log(LogMarker.FATAL, "Error at Chunk X" + chunkCoord.getChunkX() + " Z" + chunkCoord.getChunkZ());
+					OTG.log(LogMarker.FATAL, "Error at Chunk X{} Z{}", chunkCoord.getChunkX(), chunkCoord.getChunkZ());
 					throw new RuntimeException("Error at Chunk X" + chunkCoord.getChunkX() + " Z" + chunkCoord.getChunkZ());
 				}
 			}
 
 			plotter.loadSpawnedStructures(this.world);
 
-			for(ChunkCoordinate chunkCoord : bo4StructureCache.keySet())
+			for(long chunkKey : bo4StructureCache.keys())
 			{
-				plotter.addToStructuresPerChunkCache(chunkCoord, new ArrayList<String>()); // This is an optimisation so that PlotStructures knows not to plot anything in this chunk
+				plotter.addToStructuresPerChunkCache(ChunkCoordinate.fromKey(chunkKey), new ArrayList<String>()); // This is an optimisation so that PlotStructures knows not to plot anything in this chunk
 			}
 
 			if(loadedStructures.size() > 0 || nullChunks.size() > 0 || plotter.getStructureCount() > 0)
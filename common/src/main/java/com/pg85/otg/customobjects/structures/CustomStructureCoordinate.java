@@ -79,7 +79,7 @@ public abstract class CustomStructureCoordinate
     			object = null;
     			if(OTG.getPluginConfig().spawnLog)
     			{
-    				OTG.log(LogMarker.WARN, "Could not find BO2/BO3 " + bo3Name + " in GlobalObjects or WorldObjects directory.");
+    				OTG.logRepeated(LogMarker.WARN, "Could not find BO2/BO3 {} in GlobalObjects or WorldObjects directory.", bo3Name);
     			}
     		}
 			bo3Name = object != null ? object.getName() : bo3Name;
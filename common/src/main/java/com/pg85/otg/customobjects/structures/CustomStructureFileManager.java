@@ -318,9 +318,9 @@ public class CustomStructureFileManager
 		    } else {
 		    	structure = new BO3CustomStructure((BO3CustomStructureCoordinate)structureStart);
 		    }
-		    structure.modDataManager.modData = modData;
-		    structure.spawnerManager.spawnerData = spawnerData;
-		    structure.particlesManager.particleData = particleData;
+		    structure.modDataManager.addModData(modData);
+		    structure.spawnerManager.addSpawnerData(spawnerData);
+		    structure.particlesManager.addParticleData(particleData);
 
 		    structuresFile.put(chunkCoord, structure);
 	    }
@@ -699,10 +699,10 @@ public class CustomStructureFileManager
 
 				stringbuilder.append("][");
 
-				if(structure.modDataManager.modData.size() > 0 && chunkCoord.getChunkX() == structure.start.getChunkX() && chunkCoord.getChunkZ() == structure.start.getChunkZ())
+				if(structure.modDataManager.getModData().size() > 0 && chunkCoord.getChunkX() == structure.start.getChunkX() && chunkCoord.getChunkZ() == structure.start.getChunkZ())
 				{
 					boolean added = false;
-					for(ModDataFunction<?> modData : structure.modDataManager.modData)
+					for(ModDataFunction<?> modData : structure.modDataManager.getModData())
 					{
 						if(added)
 						{
@@ -715,10 +715,10 @@ public class CustomStructureFileManager
 
 				stringbuilder.append("][");
 
-				if(structure.spawnerManager.spawnerData.size() > 0 && chunkCoord.getChunkX() == structure.start.getChunkX() && chunkCoord.getChunkZ() == structure.start.getChunkZ())
+				if(structure.spawnerManager.getSpawnerData().size() > 0 && chunkCoord.getChunkX() == structure.start.getChunkX() && chunkCoord.getChunkZ() == structure.start.getChunkZ())
 				{
 					boolean added = false;
-					for(SpawnerFunction<?> spawnerData : structure.spawnerManager.spawnerData)
+					for(SpawnerFunction<?> spawnerData : structure.spawnerManager.getSpawnerData())
 					{
 						if(added)
 						{
@@ -731,10 +731,10 @@ public class CustomStructureFileManager
 
 				stringbuilder.append("][");
 
-				if(structure.particlesManager.particleData.size() > 0 && chunkCoord.getChunkX() == structure.start.getChunkX() && chunkCoord.getChunkZ() == structure.start.getChunkZ())
+				if(structure.particlesManager.getParticleData().size() > 0 && chunkCoord.getChunkX() == structure.start.getChunkX() && chunkCoord.getChunkZ() == structure.start.getChunkZ())
 				{
 					boolean added = false;
-					for(ParticleFunction<?> particleData : structure.particlesManager.particleData)
+					for(ParticleFunction<?> particleData : structure.particlesManager.getParticleData())
 					{
 						if(added)
 						{
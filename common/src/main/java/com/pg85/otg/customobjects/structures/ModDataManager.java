@@ -1,14 +1,76 @@
 package com.pg85.otg.customobjects.structures;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 
 import com.pg85.otg.customobjects.bofunctions.ModDataFunction;
 import com.pg85.otg.util.ChunkCoordinate;
+import com.pg85.otg.util.ChunkMap;
 import com.pg85.otg.util.bo3.Rotation;
 
 public class ModDataManager
 {
-	public HashSet<ModDataFunction<?>> modData = new HashSet<ModDataFunction<?>>();
+	private final HashSet<ModDataFunction<?>> modData = new HashSet<ModDataFunction<?>>();
+	// ModData per chunk and mod id, rebuilt when first requested after modData has changed
+	private ChunkMap<Map<String, List<ModDataFunction<?>>>> modDataByChunk;
+
+	public Set<ModDataFunction<?>> getModData()
+	{
+		return Collections.unmodifiableSet(this.modData);
+	}
+
+	public void addModData(Collection<? extends ModDataFunction<?>> modData)
+	{
+		this.modData.addAll(modData);
+		this.modDataByChunk = null;
+	}
+
+	/**
+	 * Gets the ModData in the given chunk, grouped by mod id.
+	 * @return Unmodifiable map, null if there is no ModData in the chunk.
+	 */
+	public Map<String, List<ModDataFunction<?>>> getModDataForChunk(ChunkCoordinate chunkCoord)
+	{
+		if(this.modDataByChunk == null)
+		{
+			ChunkMap<Map<String, List<ModDataFunction<?>>>> modDataByChunk = new ChunkMap<Map<String, List<ModDataFunction<?>>>>();
+			for(ModDataFunction<?> modData : this.modData)
+			{
+				long modDataChunk = ChunkCoordinate.toKey(modData.x >> 4, modData.z >> 4);
+				Map<String, List<ModDataFunction<?>>> modDataInChunk = modDataByChunk.get(modDataChunk);
+				if(modDataInChunk == null)
+				{
+					modDataInChunk = new HashMap<String, List<ModDataFunction<?>>>();
+					modDataByChunk.put(modDataChunk, modDataInChunk);
+				}
+				List<ModDataFunction<?>> modDataForMod = modDataInChunk.get(modData.modId);
+				if(modDataForMod == null)
+				{
+					modDataForMod = new ArrayList<ModDataFunction<?>>();
+					modDataInChunk.put(modData.modId, modDataForMod);
+				}
+				modDataForMod.add(modData);
+			}
+			for(long modDataChunk : modDataByChunk.keys())
+			{
+				Map<String, List<ModDataFunction<?>>> modDataInChunk = modDataByChunk.get(modDataChunk);
+				for(Entry<String, List<ModDataFunction<?>>> modDataForMod : modDataInChunk.entrySet())
+				{
+					modDataForMod.setValue(Collections.unmodifiableList(modDataForMod.getValue()));
+				}
+				modDataByChunk.put(modDataChunk, Collections.unmodifiableMap(modDataInChunk));
+			}
+			this.modDataByChunk = modDataByChunk;
+		}
+		return this.modDataByChunk.get(chunkCoord);
+	}
 	
 	// TODO: Only used for BO4's, create BO4ModDataManager?
     public void spawnModData(ModDataFunction<?>[] blockDataInObject, CustomStructureCoordinate coordObject, ChunkCoordinate chunkCoordinate)
@@ -63,6 +125,7 @@ public class ModDataManager
             	newModData.modId = blockDataInObject[i].modId;
 
         		modData.add(newModData);
+        		this.modDataByChunk = null;
 
         		if(!ChunkCoordinate.fromBlockCoords(newModData.x, newModData.z).equals(chunkCoordinate))
         		{
@@ -79,6 +142,7 @@ public class ModDataManager
             	newModData.modId = blockDataInObject[i].modId;
 
         		modData.add(newModData);
+        		this.modDataByChunk = null;
 
         		if(!ChunkCoordinate.fromBlockCoords(newModData.x, newModData.z).equals(chunkCoordinate))
         		{
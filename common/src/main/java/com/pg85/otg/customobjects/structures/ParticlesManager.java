@@ -1,14 +1,78 @@
 package com.pg85.otg.customobjects.structures;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import com.pg85.otg.customobjects.bofunctions.ParticleFunction;
 import com.pg85.otg.util.ChunkCoordinate;
+import com.pg85.otg.util.ChunkMap;
 import com.pg85.otg.util.bo3.Rotation;
 
 public class ParticlesManager
 {
-	public HashSet<ParticleFunction<?>> particleData = new HashSet<ParticleFunction<?>>();
+	private final HashSet<ParticleFunction<?>> particleData = new HashSet<ParticleFunction<?>>();
+	// ParticleData per chunk, rebuilt when first requested after particleData has changed
+	private ChunkMap<List<ParticleFunction<?>>> particleDataByChunk;
+
+	public Set<ParticleFunction<?>> getParticleData()
+	{
+		return Collections.unmodifiableSet(this.particleData);
+	}
+
+	public void addParticleData(Collection<? extends ParticleFunction<?>> particleData)
+	{
+		this.particleData.addAll(particleData);
+		this.particleDataByChunk = null;
+	}
+
+	public void removeParticleData(ChunkCoordinate chunkCoord, ParticleFunction<?> particleData)
+	{
+		if(this.particleData.remove(particleData) && this.particleDataByChunk != null && this.particleDataByChunk.containsKey(chunkCoord))
+		{
+			// Replace the list instead of changing it, callers may still be iterating over it
+			List<ParticleFunction<?>> particleDataInChunk = new ArrayList<ParticleFunction<?>>(this.particleDataByChunk.get(chunkCoord));
+			particleDataInChunk.remove(particleData);
+			if(particleDataInChunk.isEmpty())
+			{
+				this.particleDataByChunk.remove(chunkCoord);
+			} else {
+				this.particleDataByChunk.put(chunkCoord, Collections.unmodifiableList(particleDataInChunk));
+			}
+		}
+	}
+
+	/**
+	 * Gets the ParticleData in the given chunk.
+	 * @return Unmodifiable list, null if there is no ParticleData in the chunk.
+	 */
+	public List<ParticleFunction<?>> getParticleDataForChunk(ChunkCoordinate chunkCoord)
+	{
+		if(this.particleDataByChunk == null)
+		{
+			ChunkMap<List<ParticleFunction<?>>> particleDataByChunk = new ChunkMap<List<ParticleFunction<?>>>();
+			for(ParticleFunction<?> particleData : this.particleData)
+			{
+				long particleDataChunk = ChunkCoordinate.toKey(particleData.x >> 4, particleData.z >> 4);
+				List<ParticleFunction<?>> particleDataInChunk = particleDataByChunk.get(particleDataChunk);
+				if(particleDataInChunk == null)
+				{
+					particleDataInChunk = new ArrayList<ParticleFunction<?>>();
+					particleDataByChunk.put(particleDataChunk, particleDataInChunk);
+				}
+				particleDataInChunk.add(particleData);
+			}
+			for(long particleDataChunk : particleDataByChunk.keys())
+			{
+				particleDataByChunk.put(particleDataChunk, Collections.unmodifiableList(particleDataByChunk.get(particleDataChunk)));
+			}
+			this.particleDataByChunk = particleDataByChunk;
+		}
+		return this.particleDataByChunk.get(chunkCoord);
+	}
 	
 	// TODO: Only used for BO4's, create BO4ParticlesManager?
     public void spawnParticles(ParticleFunction<?>[] particleDataInObject, CustomStructureCoordinate coordObject, ChunkCoordinate chunkCoordinate)
@@ -83,6 +147,7 @@ public class ParticlesManager
             	newParticleData.velocityYSet = particleDataInObject[i].velocityYSet;
 
             	particleData.add(newParticleData);
+            	this.particleDataByChunk = null;
 
         		if(!ChunkCoordinate.fromBlockCoords(newParticleData.x, newParticleData.z).equals(chunkCoordinate))
         		{
@@ -108,6 +173,7 @@ public class ParticlesManager
             	newParticleData.velocityZSet = particleDataInObject[i].velocityZSet;
 
         		particleData.add(newParticleData);
+        		this.particleDataByChunk = null;
 
         		if(!ChunkCoordinate.fromBlockCoords(newParticleData.x, newParticleData.z).equals(chunkCoordinate))
         		{
@@ -1,14 +1,62 @@
 package com.pg85.otg.customobjects.structures;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import com.pg85.otg.customobjects.bofunctions.SpawnerFunction;
 import com.pg85.otg.util.ChunkCoordinate;
+import com.pg85.otg.util.ChunkMap;
 import com.pg85.otg.util.bo3.Rotation;
 
 public class SpawnerManager
 {
-	public HashSet<SpawnerFunction<?>> spawnerData = new HashSet<SpawnerFunction<?>>();
+	private final HashSet<SpawnerFunction<?>> spawnerData = new HashSet<SpawnerFunction<?>>();
+	// SpawnerData per chunk, rebuilt when first requested after spawnerData has changed
+	private ChunkMap<List<SpawnerFunction<?>>> spawnerDataByChunk;
+
+	public Set<SpawnerFunction<?>> getSpawnerData()
+	{
+		return Collections.unmodifiableSet(this.spawnerData);
+	}
+
+	public void addSpawnerData(Collection<? extends SpawnerFunction<?>> spawnerData)
+	{
+		this.spawnerData.addAll(spawnerData);
+		this.spawnerDataByChunk = null;
+	}
+
+	/**
+	 * Gets the SpawnerData in the given chunk.
+	 * @return Unmodifiable list, null if there is no SpawnerData in the chunk.
+	 */
+	public List<SpawnerFunction<?>> getSpawnerDataForChunk(ChunkCoordinate chunkCoord)
+	{
+		if(this.spawnerDataByChunk == null)
+		{
+			ChunkMap<List<SpawnerFunction<?>>> spawnerDataByChunk = new ChunkMap<List<SpawnerFunction<?>>>();
+			for(SpawnerFunction<?> spawnerData : this.spawnerData)
+			{
+				long spawnerDataChunk = ChunkCoordinate.toKey(spawnerData.x >> 4, spawnerData.z >> 4);
+				List<SpawnerFunction<?>> spawnerDataInChunk = spawnerDataByChunk.get(spawnerDataChunk);
+				if(spawnerDataInChunk == null)
+				{
+					spawnerDataInChunk = new ArrayList<SpawnerFunction<?>>();
+					spawnerDataByChunk.put(spawnerDataChunk, spawnerDataInChunk);
+				}
+				spawnerDataInChunk.add(spawnerData);
+			}
+			for(long spawnerDataChunk : spawnerDataByChunk.keys())
+			{
+				spawnerDataByChunk.put(spawnerDataChunk, Collections.unmodifiableList(spawnerDataByChunk.get(spawnerDataChunk)));
+			}
+			this.spawnerDataByChunk = spawnerDataByChunk;
+		}
+		return this.spawnerDataByChunk.get(chunkCoord);
+	}
 	
 	// TODO: Only used for BO4's, create BO4SpawnerManager?
     public void spawnSpawners(SpawnerFunction<?>[] spawnerDataInObject, CustomStructureCoordinate coordObject, ChunkCoordinate chunkCoordinate)
@@ -92,6 +140,7 @@ public class SpawnerManager
             	newSpawnerData.pitch = spawnerDataInObject[i].pitch;
 
         		spawnerData.add(newSpawnerData);
+        		this.spawnerDataByChunk = null;
 
         		if(!ChunkCoordinate.fromBlockCoords(newSpawnerData.x, newSpawnerData.z).equals(chunkCoordinate))
         		{
@@ -126,6 +175,7 @@ public class SpawnerManager
             	newSpawnerData.pitch = spawnerDataInObject[i].pitch;
 
         		spawnerData.add(newSpawnerData);
+        		this.spawnerDataByChunk = null;
 
         		if(!ChunkCoordinate.fromBlockCoords(newSpawnerData.x, newSpawnerData.z).equals(chunkCoordinate))
         		{
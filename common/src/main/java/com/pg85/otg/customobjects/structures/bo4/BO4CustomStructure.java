@@ -63,6 +63,12 @@ public class BO4CustomStructure extends CustomStructure
     private boolean spawningRequiredChildrenForOptionalBranch = false;
     private boolean spawnedBranchThisCycle = false;
     private boolean spawnedBranchLastCycle = false;
+
+    // Results of world queries that only depend on the location, remembered
+    // while calculating branches since many candidate branches check the same
+    // chunks and columns.
+    private HashMap<ChunkCoordinate, Boolean> canSpawnInBiomeCache = new HashMap<ChunkCoordinate, Boolean>();
+    private HashMap<ChunkCoordinate, int[]> highestBlockCache = new HashMap<ChunkCoordinate, int[]>();
     
     public BO4CustomStructure(BO4CustomStructureCoordinate start)
     {
@@ -206,9 +212,9 @@ public class BO4CustomStructure extends CustomStructure
 				if(world.getStructureCache().worldInfoChunks.containsKey(chunkCoord))
 				{
 					CustomStructure existingObject = world.getStructureCache().worldInfoChunks.get(chunkCoord);
-					this.modDataManager.modData.addAll(existingObject.modDataManager.modData);
-					this.particlesManager.particleData.addAll(existingObject.particlesManager.particleData);
-					this.spawnerManager.spawnerData.addAll(existingObject.spawnerManager.spawnerData);
+					this.modDataManager.addModData(existingObject.modDataManager.getModData());
+					this.particlesManager.addParticleData(existingObject.particlesManager.getParticleData());
+					this.spawnerManager.addSpawnerData(existingObject.spawnerManager.getSpawnerData());
 				}
 				world.getStructureCache().worldInfoChunks.put(chunkCoord, this);
 			}
@@ -221,9 +227,9 @@ public class BO4CustomStructure extends CustomStructure
 				if(world.getStructureCache().worldInfoChunks.containsKey(chunkCoord))
 				{
 					CustomStructure existingObject = world.getStructureCache().worldInfoChunks.get(chunkCoord);
-					this.modDataManager.modData.addAll(existingObject.modDataManager.modData);
-					this.particlesManager.particleData.addAll(existingObject.particlesManager.particleData);
-					this.spawnerManager.spawnerData.addAll(existingObject.spawnerManager.spawnerData);
+					this.modDataManager.addModData(existingObject.modDataManager.getModData());
+					this.particlesManager.addParticleData(existingObject.particlesManager.getParticleData());
+					this.spawnerManager.addSpawnerData(existingObject.spawnerManager.getSpawnerData());
 				}
 				world.getStructureCache().worldInfoChunks.put(chunkCoord, this);
 			}
@@ -441,6 +447,9 @@ public class BO4CustomStructure extends CustomStructure
     // canOverride required branches: things that need to be spawned in the same cycle as their parent branches, for instance door/wall markers for rooms
     // canOverride optional branches: things that should be spawned after the base of the structure has spawned, for instance room interiors, adapter/modifier pieces that knock out walls/floors between rooms etc.
 
+    // Branches are resolved depth-first on the calling thread. Each candidate branch reads the collision, branch frequency
+    // and branch group data that its earlier siblings changed, so candidates can't be checked in parallel until planning
+    // is separated from that data. Only the biome and highest block lookups are cached.
     private void calculateBranches(boolean minimumSize, LocalWorld world) throws InvalidConfigException
     {
     	if(OTG.getPluginConfig().spawnLog)
@@ -546,6 +555,8 @@ public class BO4CustomStructure extends CustomStructure
     	    	AllBranchesBranchDataByName.clear();
     	    	AllBranchesBranchDataByGroup.clear();
     	        AllBranchesBranchDataHash.clear();
+    	        canSpawnInBiomeCache.clear();
+    	        highestBlockCache.clear();
     			
     			return;
     		}
@@ -568,6 +579,8 @@ public class BO4CustomStructure extends CustomStructure
     	AllBranchesBranchDataByName.clear();
     	AllBranchesBranchDataByGroup.clear();
         AllBranchesBranchDataHash.clear();
+        canSpawnInBiomeCache.clear();
+        highestBlockCache.clear();
     }
 
     private void traverseAndSpawnChildBranches(BranchDataItem branchData, boolean minimumSize, boolean spawningRequiredBranchesOnly, LocalWorld world)
@@ -771,10 +784,10 @@ public class BO4CustomStructure extends CustomStructure
 		    			{
 		    				if(
 		    					!(
-	    							world.getMaterial(childBranchDataItem.chunkCoordinate.getBlockX(), world.getHighestBlockYAt(childBranchDataItem.chunkCoordinate.getBlockX(), childBranchDataItem.chunkCoordinate.getBlockZ(), true, true, false, true), childBranchDataItem.chunkCoordinate.getBlockZ(), true).isLiquid() &&
-		    						world.getMaterial(childBranchDataItem.chunkCoordinate.getBlockX(), world.getHighestBlockYAt(childBranchDataItem.chunkCoordinate.getBlockX(), childBranchDataItem.chunkCoordinate.getBlockZ() + 15, true, true, false, true), childBranchDataItem.chunkCoordinate.getBlockZ() + 15, true).isLiquid() &&
-		    						world.getMaterial(childBranchDataItem.chunkCoordinate.getBlockX() + 15, world.getHighestBlockYAt(childBranchDataItem.chunkCoordinate.getBlockX() + 15, childBranchDataItem.chunkCoordinate.getBlockZ(), true, true, false, true), childBranchDataItem.chunkCoordinate.getBlockZ(), true).isLiquid() &&
-		    						world.getMaterial(childBranchDataItem.chunkCoordinate.getBlockX() + 15, world.getHighestBlockYAt(childBranchDataItem.chunkCoordinate.getBlockX() + 15, childBranchDataItem.chunkCoordinate.getBlockZ() + 15, true, true, false, true), childBranchDataItem.chunkCoordinate.getBlockZ() + 15, true).isLiquid()
+	    							world.getMaterial(childBranchDataItem.chunkCoordinate.getBlockX(), getHighestBlockYAt(world, childBranchDataItem.chunkCoordinate.getBlockX(), childBranchDataItem.chunkCoordinate.getBlockZ()), childBranchDataItem.chunkCoordinate.getBlockZ(), true).isLiquid() &&
+		    						world.getMaterial(childBranchDataItem.chunkCoordinate.getBlockX(), getHighestBlockYAt(world, childBranchDataItem.chunkCoordinate.getBlockX(), childBranchDataItem.chunkCoordinate.getBlockZ() + 15), childBranchDataItem.chunkCoordinate.getBlockZ() + 15, true).isLiquid() &&
+		    						world.getMaterial(childBranchDataItem.chunkCoordinate.getBlockX() + 15, getHighestBlockYAt(world, childBranchDataItem.chunkCoordinate.getBlockX() + 15, childBranchDataItem.chunkCoordinate.getBlockZ()), childBranchDataItem.chunkCoordinate.getBlockZ(), true).isLiquid() &&
+		    						world.getMaterial(childBranchDataItem.chunkCoordinate.getBlockX() + 15, getHighestBlockYAt(world, childBranchDataItem.chunkCoordinate.getBlockX() + 15, childBranchDataItem.chunkCoordinate.getBlockZ() + 15), childBranchDataItem.chunkCoordinate.getBlockZ() + 15, true).isLiquid()
 		    					)
 		    				)
 		    				{
@@ -785,7 +798,7 @@ public class BO4CustomStructure extends CustomStructure
 		        		if(canSpawn && !minimumSize && !bo3.getSettings().canSpawnOnWater)
 		    			{
 		    				if(
-	    						(world.getMaterial(childBranchDataItem.chunkCoordinate.getBlockX() + 8, world.getHighestBlockYAt(childBranchDataItem.chunkCoordinate.getBlockX() + 8, childBranchDataItem.chunkCoordinate.getBlockZ() + 7, true, true, false, true), childBranchDataItem.chunkCoordinate.getBlockZ() + 7, true).isLiquid())
+	    						(world.getMaterial(childBranchDataItem.chunkCoordinate.getBlockX() + 8, getHighestBlockYAt(world, childBranchDataItem.chunkCoordinate.getBlockX() + 8, childBranchDataItem.chunkCoordinate.getBlockZ() + 7), childBranchDataItem.chunkCoordinate.getBlockZ() + 7, true).isLiquid())
 		    				)
 		    				{
 		    					wasOnWater = true;
@@ -1893,33 +1906,7 @@ public class BO4CustomStructure extends CustomStructure
 		    // Check if the structure can spawn in this biome
 		    if(!bFound && !isStructureAtSpawn)
 		    {
-		    	ArrayList<String> biomeStructures;
-
-            	LocalBiome biome3 = world.getBiome(branchData.chunkCoordinate.getChunkX() * 16 + 8, branchData.chunkCoordinate.getChunkZ() * 16 + 8);
-                BiomeConfig biomeConfig3 = biome3.getBiomeConfig();
-                // Get Bo3's for this biome
-                ArrayList<String> structuresToSpawn = new ArrayList<String>();
-                for (CustomStructureGen res : biomeConfig3.getCustomStructures())
-                {
-            		for(String bo3Name : res.objectNames)
-            		{
-            			structuresToSpawn.add(bo3Name);
-            		}
-                }
-
-                biomeStructures = structuresToSpawn;
-
-                boolean canSpawnHere = false;
-                for(String structureToSpawn : biomeStructures)
-                {
-                	if(structureToSpawn.equals(this.start.getObject().getName()))
-                	{
-                		canSpawnHere = true;
-                		break;
-                	}
-                }
-
-                if(!canSpawnHere)
+                if(!canSpawnInBiome(world, branchData.chunkCoordinate))
 				{
                 	collidingObjects.add(null);
                 	bFound = true;
@@ -1943,7 +1930,7 @@ public class BO4CustomStructure extends CustomStructure
 	            		if(distanceBetweenStructures <= radiusInChunks)
 	            		{
 	            		    // Check if any other structures in world are in this chunk
-	            			if(world.isInsidePregeneratedRegion(ChunkCoordinate.fromChunkCoords(x,z)) || world.getStructureCache().bo4StructureCache.containsKey(ChunkCoordinate.fromChunkCoords(x,z)))
+	            			if(world.isInsidePregeneratedRegion(ChunkCoordinate.fromChunkCoords(x,z)) || world.getStructureCache().bo4StructureCache.containsKey(ChunkCoordinate.toKey(x, z)))
 	            		    {
 	            		        // Structures' bounding boxes are overlapping, don't add this branch.
 	            		    	collidingObjects.add(null);
@@ -1954,33 +1941,7 @@ public class BO4CustomStructure extends CustomStructure
 	            			if(!isStructureAtSpawn)
 	            			{
 		            		    // Check if the structure can spawn in this biome
-		            			ArrayList<String> biomeStructures;
-
-	        	            	LocalBiome biome3 = world.getBiome(x * 16 + 8, z * 16 + 8);
-	        	                BiomeConfig biomeConfig3 = biome3.getBiomeConfig();
-	        	                // Get Bo3's for this biome
-	        	                ArrayList<String> structuresToSpawn = new ArrayList<String>();
-	        	                for (CustomStructureGen res : biomeConfig3.getCustomStructures())
-	        	                {
-	        	            		for(String bo3Name : res.objectNames)
-	        	            		{
-	        	            			structuresToSpawn.add(bo3Name);
-	        	            		}
-	        	                }
-
-	        	                biomeStructures = structuresToSpawn;
-
-		                        boolean canSpawnHere = false;
-		                        for(String structureToSpawn : biomeStructures)
-		                        {
-		                        	if(structureToSpawn.equals(this.start.getObject().getName()))
-		                        	{
-		                        		canSpawnHere = true;
-		                        		break;
-		                        	}
-		                        }
-
-		                        if(!canSpawnHere)
+		                        if(!canSpawnInBiome(world, ChunkCoordinate.fromChunkCoords(x, z)))
 		        				{
 		                        	collidingObjects.add(null);
 		                        	bFound = true;
@@ -2026,6 +1987,53 @@ public class BO4CustomStructure extends CustomStructure
     	return collidingObjects;
     }
 
+    /**
+     * Checks if the start BO4 of this structure is one of the
+     * CustomStructures of the biome in the center of the given chunk.
+     */
+    private boolean canSpawnInBiome(LocalWorld world, ChunkCoordinate chunkCoord)
+    {
+    	Boolean canSpawnHere = canSpawnInBiomeCache.get(chunkCoord);
+    	if(canSpawnHere == null)
+    	{
+    		canSpawnHere = false;
+        	LocalBiome biome = world.getBiome(chunkCoord.getChunkX() * 16 + 8, chunkCoord.getChunkZ() * 16 + 8);
+        	String startName = this.start.getObject().getName();
+            for (CustomStructureGen res : biome.getBiomeConfig().getCustomStructures())
+            {
+        		if(res.objectNames.contains(startName))
+        		{
+        			canSpawnHere = true;
+        			break;
+        		}
+            }
+            canSpawnInBiomeCache.put(chunkCoord, canSpawnHere);
+    	}
+    	return canSpawnHere;
+    }
+
+    /**
+     * Gets the highest solid or liquid block in the column, ignoring snow. Used
+     * for the water checks, the result is remembered per column.
+     */
+    private int getHighestBlockYAt(LocalWorld world, int x, int z)
+    {
+    	ChunkCoordinate chunkCoord = ChunkCoordinate.fromBlockCoords(x, z);
+    	int[] heights = highestBlockCache.get(chunkCoord);
+    	if(heights == null)
+    	{
+    		heights = new int[16 * 16];
+    		Arrays.fill(heights, Integer.MIN_VALUE);
+    		highestBlockCache.put(chunkCoord, heights);
+    	}
+    	int index = (x & 0xF) * 16 + (z & 0xF);
+    	if(heights[index] == Integer.MIN_VALUE)
+    	{
+    		heights[index] = world.getHighestBlockYAt(x, z, true, true, false, true);
+    	}
+    	return heights[index];
+    }
+
     // TODO: return list with colliding structures instead of bool?
     private boolean checkCollision(CustomStructureCoordinate branchData1Branch, CustomStructureCoordinate branchData2Branch)
     {
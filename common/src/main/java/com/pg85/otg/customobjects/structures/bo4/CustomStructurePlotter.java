@@ -20,6 +20,7 @@ import com.pg85.otg.exception.InvalidConfigException;
 import com.pg85.otg.generator.resource.CustomStructureGen;
 import com.pg85.otg.logging.LogMarker;
 import com.pg85.otg.util.ChunkCoordinate;
+import com.pg85.otg.util.ChunkMap;
 import com.pg85.otg.util.bo3.Rotation;
 
 public class CustomStructurePlotter
@@ -56,7 +57,7 @@ public class CustomStructurePlotter
 		this.structuresPerChunk.put(chunkCoord, BO3Names);
 	}
 		
-    public void plotStructures(LocalWorld world, Random rand, ChunkCoordinate chunkCoord, boolean spawningStructureAtSpawn, Map<ChunkCoordinate, BO4CustomStructure> structureCache, Map<ChunkCoordinate, CustomStructure> worldInfoChunks)
+    public void plotStructures(LocalWorld world, Random rand, ChunkCoordinate chunkCoord, boolean spawningStructureAtSpawn, ChunkMap<BO4CustomStructure> structureCache, ChunkMap<CustomStructure> worldInfoChunks)
     {
     	if(!processing)
     	{
@@ -647,7 +648,7 @@ public class CustomStructurePlotter
 							                	//biome3 = world.getBiome(spawnCoordX * 16 + 8, spawnCoordZ * 16 + 8);
 						                		if(OTG.getPluginConfig().spawnLog)
 						                		{
-						                			OTG.log(LogMarker.INFO, "Plotted structure " + structureCoord.getObject().getName() + " at chunk X" + spawnCoordX + " Z" + spawnCoordZ + " ("+ (spawnCoordX * 16) + " 100 " + (spawnCoordZ * 16) + ")");// + " biome " + biome3.getName());
+						                			OTG.log(LogMarker.INFO, "Plotted structure {} at chunk X{} Z{} ({} 100 {})", structureCoord.getObject().getName(), spawnCoordX, spawnCoordZ, spawnCoordX * 16, spawnCoordZ * 16);
 						                		}
 
 						                		if(((BO4)currentStructureSpawning[0]).getSettings().frequency > 0 || ((BO4)currentStructureSpawning[0]).getSettings().bo3Groups.size() > 0)
@@ -0,0 +1,195 @@
+package com.pg85.otg.customobjects.structures.bo4;
+
+import java.util.Arrays;
+
+/**
+ * The smoothing area blocks to spawn in a chunk, created when merging the
+ * smoothing area lines of a chunk. Blocks are stored in primitive arrays
+ * in the order they were added, and the blocks in each column are linked
+ * so that a new block only has to be compared with the blocks in its own
+ * column.
+ *
+ * <p>
+ * A column can have a maximum of 2 blocks, 1 going up and 1 going down.
+ * See {@link #add(int, short, int, boolean, boolean)} for how blocks
+ * replace each other.
+ */
+class SmoothingAreaBlockList
+{
+    private static final int NONE = -1;
+
+    private int[] blockX = new int[64];
+    private short[] blockY = new short[64];
+    private int[] blockZ = new int[64];
+    private boolean[] goingUp = new boolean[64];
+    private boolean[] isPass2 = new boolean[64];
+    private boolean[] removed = new boolean[64];
+    private int size;
+
+    // Linked list of the blocks in each column, in the order they were added
+    private final int[] columnFirst = new int[256];
+    private final int[] columnLast = new int[256];
+    private int[] next = new int[64];
+    private int[] previous = new int[64];
+
+    private int[] blocksToRemove = new int[4];
+
+    SmoothingAreaBlockList()
+    {
+        Arrays.fill(this.columnFirst, NONE);
+        Arrays.fill(this.columnLast, NONE);
+    }
+
+    /**
+     * Adds a block, unless a block in the same column stops it. Blocks in the
+     * same column that this block replaces are removed. Going down does not
+     * remove higher blocks, so that a smoothing area going down can cover
+     * lower smoothing areas, but lower smoothing areas going up do not
+     * replace higher smoothing areas going down.
+     * @param x       X coordinate of the block.
+     * @param y       Y coordinate of the block.
+     * @param z       Z coordinate of the block.
+     * @param goingUp Whether the smoothing area goes up from this block,
+     *                else it goes down.
+     * @param isPass2 Whether this block is from the second pass.
+     */
+    void add(int x, short y, int z, boolean goingUp, boolean isPass2)
+    {
+        int column = getColumn(x, z);
+        int blocksToRemoveCount = 0;
+        for (int i = this.columnFirst[column]; i != NONE; i = this.next[i])
+        {
+            if (this.blockX[i] != x || this.blockZ[i] != z)
+            {
+                continue;
+            }
+            short existingY = this.blockY[i];
+            boolean remove;
+            if (goingUp)
+            {
+                if (this.goingUp[i] ? y >= existingY : y < existingY)
+                {
+                    // Going up doesn't replace a higher or equal block going
+                    // up, or a higher block going down
+                    return;
+                }
+                remove = this.goingUp[i];
+            } else {
+                if (!this.goingUp[i] && y < existingY)
+                {
+                    return;
+                }
+                remove = this.goingUp[i] ? y > existingY : true;
+            }
+            if (remove)
+            {
+                if (blocksToRemoveCount == this.blocksToRemove.length)
+                {
+                    this.blocksToRemove = Arrays.copyOf(this.blocksToRemove, blocksToRemoveCount * 2);
+                }
+                this.blocksToRemove[blocksToRemoveCount++] = i;
+            }
+        }
+
+        for (int j = 0; j < blocksToRemoveCount; j++)
+        {
+            remove(this.blocksToRemove[j], column);
+        }
+
+        if (this.size == this.blockX.length)
+        {
+            grow();
+        }
+        int i = this.size++;
+        this.blockX[i] = x;
+        this.blockY[i] = y;
+        this.blockZ[i] = z;
+        this.goingUp[i] = goingUp;
+        this.isPass2[i] = isPass2;
+        this.next[i] = NONE;
+        this.previous[i] = this.columnLast[column];
+        if (this.columnLast[column] == NONE)
+        {
+            this.columnFirst[column] = i;
+        } else {
+            this.next[this.columnLast[column]] = i;
+        }
+        this.columnLast[column] = i;
+    }
+
+    /**
+     * Gets the number of blocks that were added, including removed blocks.
+     * Loop from 0 to this number and skip the blocks for which
+     * {@link #isRemoved(int)} is true to get the blocks in the order they
+     * were added.
+     */
+    int size()
+    {
+        return this.size;
+    }
+
+    boolean isRemoved(int i)
+    {
+        return this.removed[i];
+    }
+
+    int getX(int i)
+    {
+        return this.blockX[i];
+    }
+
+    short getY(int i)
+    {
+        return this.blockY[i];
+    }
+
+    int getZ(int i)
+    {
+        return this.blockZ[i];
+    }
+
+    boolean isGoingUp(int i)
+    {
+        return this.goingUp[i];
+    }
+
+    boolean isPass2(int i)
+    {
+        return this.isPass2[i];
+    }
+
+    private void remove(int i, int column)
+    {
+        this.removed[i] = true;
+        if (this.previous[i] == NONE)
+        {
+            this.columnFirst[column] = this.next[i];
+        } else {
+            this.next[this.previous[i]] = this.next[i];
+        }
+        if (this.next[i] == NONE)
+        {
+            this.columnLast[column] = this.previous[i];
+        } else {
+            this.previous[this.next[i]] = this.previous[i];
+        }
+    }
+
+    private void grow()
+    {
+        int capacity = this.blockX.length * 2;
+        this.blockX = Arrays.copyOf(this.blockX, capacity);
+        this.blockY = Arrays.copyOf(this.blockY, capacity);
+        this.blockZ = Arrays.copyOf(this.blockZ, capacity);
+        this.goingUp = Arrays.copyOf(this.goingUp, capacity);
+        this.isPass2 = Arrays.copyOf(this.isPass2, capacity);
+        this.removed = Arrays.copyOf(this.removed, capacity);
+        this.next = Arrays.copyOf(this.next, capacity);
+        this.previous = Arrays.copyOf(this.previous, capacity);
+    }
+
+    private static int getColumn(int x, int z)
+    {
+        return (x & 15) | ((z & 15) << 4);
+    }
+}
@@ -19,6 +19,7 @@ import com.pg85.otg.customobjects.structures.bo4.BO4CustomStructureCoordinate;
 import com.pg85.otg.exception.InvalidConfigException;
 import com.pg85.otg.generator.surface.MesaSurfaceGenerator;
 import com.pg85.otg.util.ChunkCoordinate;
+import com.pg85.otg.util.ChunkMap;
 import com.pg85.otg.util.bo3.NamedBinaryTag;
 import com.pg85.otg.util.bo3.Rotation;
 import com.pg85.otg.util.helpers.MaterialHelper;
@@ -93,22 +94,7 @@ public class SmoothingAreaGenerator
     		this.finalDestinationPointZ = finalDestinationPointZ;
         }
     }
-       
-    private class SmoothingAreaLineBlock
-    {
-    	SmoothingAreaBlock block; // 0
-    	boolean goingUp; // 1
-    	boolean goingDown; // 2
-    	boolean isPass2; // 3
-    	
-    	public SmoothingAreaLineBlock(SmoothingAreaBlock block, boolean goingUp, boolean goingDown, boolean isPass2)
-    	{
-        	this.block = block;
-        	this.goingUp = goingUp;
-        	this.goingDown = goingDown;
-        	this.isPass2 = isPass2;	
-    	}
-    }    
+
     
     void customObjectStructureSpawn(Map<ChunkCoordinate, ArrayList<SmoothingAreaLine>> smoothingAreasToSpawn)
 	{
@@ -1395,20 +1381,12 @@ public class SmoothingAreaGenerator
     boolean spawnSmoothAreas(ChunkCoordinate chunkCoordinate, Map<ChunkCoordinate, ArrayList<SmoothingAreaLine>> smoothingAreasToSpawn, CustomStructureCoordinate start, LocalWorld world)
     {
         // Get all smoothing areas (lines) that should spawn in this chunk for this branching structure
-        Entry<ChunkCoordinate, ArrayList<SmoothingAreaLine>> smoothingAreaInChunk = null;
-        for(Entry<ChunkCoordinate, ArrayList<SmoothingAreaLine>> smoothingAreaToSpawn : smoothingAreasToSpawn.entrySet())
-        {
-            if(smoothingAreaToSpawn.getKey().getChunkX() == chunkCoordinate.getChunkX() && smoothingAreaToSpawn.getKey().getChunkZ() == chunkCoordinate.getChunkZ())
-            {
-                smoothingAreaInChunk = smoothingAreaToSpawn;
-                break;
-            }
-        }
+        ArrayList<SmoothingAreaLine> smoothingAreaInChunk = smoothingAreasToSpawn.get(chunkCoordinate);
 
-        if(smoothingAreaInChunk != null && smoothingAreaInChunk.getValue() != null)
+        if(smoothingAreaInChunk != null)
         {
             // Merge all smooth areas (lines) so that in one x + z coordinate there can be a maximum of 2 smoothing area blocks, 1 going up and 1 going down (first pass and second pass)
-            ArrayList<SmoothingAreaLineBlock> blocksToSpawn = mergeSmoothingAreas(chunkCoordinate, smoothingAreaInChunk.getValue(), world, start);
+            SmoothingAreaBlockList blocksToSpawn = mergeSmoothingAreas(chunkCoordinate, smoothingAreaInChunk, world, start);
 
             // blocksToSpawn can be null if a smoothing line's endpoint Y coordinate could not be found. This can happen if
             // the chunk that the endpoint is located in has not yet been spawned. Return false so that the calling method (SpawnForChunk()) knows
@@ -1519,7 +1497,9 @@ public class SmoothingAreaGenerator
             // Declare these here instead of inside for loops to help the GC (good for memory usage)
             // TODO: Find out if this actually makes any noticeable difference, it doesnt exactly
             // make the code any easier to read..
-            SmoothingAreaBlock blockToSpawn;
+            int blockX;
+            short blockY;
+            int blockZ;
             boolean goingUp;
             boolean secondPass;
             LocalMaterialData sourceBlockMaterial;
@@ -1529,38 +1509,43 @@ public class SmoothingAreaGenerator
             boolean bBreak;
             short yStart;
             short yEnd;
-            SmoothingAreaBlock blockToQueueForSpawn = new SmoothingAreaBlock();
-
+            LocalMaterialData materialToSpawn;
 
-            HashMap<ChunkCoordinate, LocalMaterialData> originalTopBlocks = new HashMap<ChunkCoordinate, LocalMaterialData>();
+            ChunkMap<LocalMaterialData> originalTopBlocks = new ChunkMap<LocalMaterialData>();
 
             // Spawn blocks
             // For each block in the smoothing area replace blocks above and/or below it
-            for(SmoothingAreaLineBlock blockItemToSpawn : blocksToSpawn)
+            for(int i = 0; i < blocksToSpawn.size(); i++)
             {
-                blockToSpawn = blockItemToSpawn.block;
-                goingUp = blockItemToSpawn.goingUp;
-                secondPass = blockItemToSpawn.isPass2;
+                if(blocksToSpawn.isRemoved(i))
+                {
+                	continue;
+                }
+                blockX = blocksToSpawn.getX(i);
+                blockY = blocksToSpawn.getY(i);
+                blockZ = blocksToSpawn.getZ(i);
+                goingUp = blocksToSpawn.isGoingUp(i);
+                secondPass = blocksToSpawn.isPass2(i);
 
-                if(blockToSpawn.y > 255)
+                if(blockY > 255)
                 {
                 	continue; // TODO: prevent this from ever happening!
                 }
 
-            	if(!originalTopBlocks.containsKey(ChunkCoordinate.fromChunkCoords(blockToSpawn.x, blockToSpawn.z)))
+            	if(!originalTopBlocks.containsKey(ChunkCoordinate.toKey(blockX, blockZ)))
             	{
-        			int highestBlockY = world.getHighestBlockYAt(blockToSpawn.x, blockToSpawn.z, true, true, false, false);
+        			int highestBlockY = world.getHighestBlockYAt(blockX, blockZ, true, true, false, false);
         			if(highestBlockY > PluginStandardValues.WORLD_DEPTH)
         			{
-        				originalTopBlocks.put(ChunkCoordinate.fromChunkCoords(blockToSpawn.x, blockToSpawn.z), world.getMaterial(blockToSpawn.x, highestBlockY, blockToSpawn.z, true));
+        				originalTopBlocks.put(ChunkCoordinate.toKey(blockX, blockZ), world.getMaterial(blockX, highestBlockY, blockZ, true));
         			} else {
-        				originalTopBlocks.put(ChunkCoordinate.fromChunkCoords(blockToSpawn.x, blockToSpawn.z), null);
+        				originalTopBlocks.put(ChunkCoordinate.toKey(blockX, blockZ), null);
         			}
             	}
 
                 if(isOnBiomeBorder && (!surfaceBlockSet || !groundBlockSet))
                 {
-	                biome = world.getBiome(blockToSpawn.x, blockToSpawn.z);
+	                biome = world.getBiome(blockX, blockZ);
 	                biomeConfig = biome.getBiomeConfig();
 
 	                if(!surfaceBlockSet)
@@ -1595,7 +1580,7 @@ public class SmoothingAreaGenerator
 					!(biomeConfig.surfaceAndGroundControl instanceof MesaSurfaceGenerator)
         		)
             	{
-        			LocalMaterialData originalSurfaceBlock = originalTopBlocks.get(ChunkCoordinate.fromChunkCoords(blockToSpawn.x, blockToSpawn.z));
+        			LocalMaterialData originalSurfaceBlock = originalTopBlocks.get(ChunkCoordinate.toKey(blockX, blockZ));
         			if(originalSurfaceBlock == null || originalSurfaceBlock.isLiquid() || originalSurfaceBlock.isAir())
         			{
     	                surfaceBlockMaterial = biomeConfig.surfaceBlock.toDefaultMaterial();
@@ -1616,23 +1601,23 @@ public class SmoothingAreaGenerator
                 // When going down make a hill for the BO3 to stand on
 				if(!goingUp)
 				{
-					yStart = blockToSpawn.y;
+					yStart = blockY;
 					yEnd = 0;
 					for(short y = yStart; y > yEnd; y--)
 					{
 						if(y >= 255){ continue;}
 
-						sourceBlockMaterial = world.getMaterial(blockToSpawn.x, y, blockToSpawn.z, true);
+						sourceBlockMaterial = world.getMaterial(blockX, y, blockZ, true);
 	                    // When going down don't go lower than the highest solid block
-	                    if(sourceBlockMaterial.isSolid() && y < blockToSpawn.y)
+	                    if(sourceBlockMaterial.isSolid() && y < blockY)
 	                    {
 	                        // Place the current block but abort spawning after that
 	                        bBreak = true;
 	                    }
 
-	                    if(y == blockToSpawn.y)
+	                    if(y == blockY)
 	                    {
-	                		sourceBlockMaterialAbove = world.getMaterial(blockToSpawn.x, y + 1, blockToSpawn.z, true).toDefaultMaterial();
+	                		sourceBlockMaterialAbove = world.getMaterial(blockX, y + 1, blockZ, true).toDefaultMaterial();
 	                		if(sourceBlockMaterialAbove == null || sourceBlockMaterialAbove == DefaultMaterial.AIR)
 	                		{
 	                			materialToSet = surfaceBlockMaterial;
@@ -1642,7 +1627,7 @@ public class SmoothingAreaGenerator
 	                        	blockDataToSet = groundBlockMaterialBlockData;
 	                		}
 	                    }
-	                    else if(y < blockToSpawn.y)
+	                    else if(y < blockY)
 	                    {
 	                    	materialToSet = groundBlockMaterial;
 	                    	blockDataToSet = groundBlockMaterialBlockData;
@@ -1652,41 +1637,37 @@ public class SmoothingAreaGenerator
 
 	                    if(materialToSet != null && materialToSet != DefaultMaterial.UNKNOWN_BLOCK)
 	                    {
-	                        blockToQueueForSpawn = new SmoothingAreaBlock();
-	                        blockToQueueForSpawn.x = blockToSpawn.x;
-	                        blockToQueueForSpawn.y = y;
-	                        blockToQueueForSpawn.z = blockToSpawn.z;
-	                        blockToQueueForSpawn.material = MaterialHelper.toLocalMaterialData(materialToSet,blockDataToSet);
+	                        materialToSpawn = MaterialHelper.toLocalMaterialData(materialToSet,blockDataToSet);
 
 	                        // Apply mesa blocks if needed
 	                        if(
-                        		!blockToQueueForSpawn.material.isAir() &&
-                        		!blockToQueueForSpawn.material.isLiquid() &&
+                        		!materialToSpawn.isAir() &&
+                        		!materialToSpawn.isLiquid() &&
                         		biomeConfig.surfaceAndGroundControl != null &&
                 				biomeConfig.surfaceAndGroundControl instanceof MesaSurfaceGenerator &&
                         		(
                     				(
-                						blockToQueueForSpawn.material.toDefaultMaterial().equals(biomeConfig.groundBlock.toDefaultMaterial()) &&
-                						blockToQueueForSpawn.material.getBlockData() == biomeConfig.groundBlock.getBlockData()
+                						materialToSpawn.toDefaultMaterial().equals(biomeConfig.groundBlock.toDefaultMaterial()) &&
+                						materialToSpawn.getBlockData() == biomeConfig.groundBlock.getBlockData()
             						)
             						||
             						(
-        								blockToQueueForSpawn.material.toDefaultMaterial().equals(biomeConfig.surfaceBlock.toDefaultMaterial()) &&
-        								blockToQueueForSpawn.material.getBlockData() == biomeConfig.surfaceBlock.getBlockData()
+        								materialToSpawn.toDefaultMaterial().equals(biomeConfig.surfaceBlock.toDefaultMaterial()) &&
+        								materialToSpawn.getBlockData() == biomeConfig.surfaceBlock.getBlockData()
     								)
 								)
 							)
 	                        {
-            		        	LocalMaterialData customBlockData = biomeConfig.surfaceAndGroundControl.getCustomBlockData(world, biomeConfig, blockToQueueForSpawn.x, blockToQueueForSpawn.y, blockToQueueForSpawn.z);
+            		        	LocalMaterialData customBlockData = biomeConfig.surfaceAndGroundControl.getCustomBlockData(world, biomeConfig, blockX, y, blockZ);
             		        	if(customBlockData != null)
             		        	{
-            		        		blockToQueueForSpawn.material = customBlockData;
+            		        		materialToSpawn = customBlockData;
             		        	}
-        		        		setBlock(blockToQueueForSpawn.x, blockToQueueForSpawn.y, blockToQueueForSpawn.z, blockToQueueForSpawn.material, null, world);
+        		        		setBlock(blockX, y, blockZ, materialToSpawn, null, world);
 	                        } else {
-	                        	if (!sourceBlockMaterial.toDefaultMaterial().equals(blockToQueueForSpawn.material.toDefaultMaterial()) || sourceBlockMaterial.getBlockData() != blockToQueueForSpawn.material.getBlockData())
+	                        	if (!sourceBlockMaterial.toDefaultMaterial().equals(materialToSpawn.toDefaultMaterial()) || sourceBlockMaterial.getBlockData() != materialToSpawn.getBlockData())
 	                        	{
-	                        		setBlock(blockToQueueForSpawn.x, blockToQueueForSpawn.y, blockToQueueForSpawn.z, blockToQueueForSpawn.material, null, world);
+	                        		setBlock(blockX, y, blockZ, materialToSpawn, null, world);
 	                        	}
 	                        }
 	                    } else {
@@ -1710,19 +1691,19 @@ public class SmoothingAreaGenerator
 						continue;
 					}
 
-					yStart = (short) world.getHighestBlockYAt(blockToSpawn.x,blockToSpawn.z, true, true, false, false);
+					yStart = (short) world.getHighestBlockYAt(blockX,blockZ, true, true, false, false);
 					yEnd = 0;
 					for(short y = yStart; y >= yEnd; y--)
 					{
 						if(y >= 255){ continue;}
 
-						sourceBlockMaterial = world.getMaterial(blockToSpawn.x, y, blockToSpawn.z, true);
+						sourceBlockMaterial = world.getMaterial(blockX, y, blockZ, true);
 						DefaultMaterial sourceBlockDefaultMaterial = sourceBlockMaterial.toDefaultMaterial();
 
                     	materialToSet = replaceAboveMaterial;
                     	blockDataToSet = replaceAboveMaterialBlockData;
 
-	                    if(y < blockToSpawn.y)
+	                    if(y < blockY)
                     	{
 	                    	if(!sourceBlockMaterial.isLiquid() || (secondPass && !((BO4)start.getObject()).getSettings().spawnUnderWater))  // If this is the second pass then the first pass went down and we don't have to make a dam, otherwise we do
 	                    	{
@@ -1733,7 +1714,7 @@ public class SmoothingAreaGenerator
 	                    		materialToSet = replaceAboveMaterial; // Replace liquid with replaceAboveMaterial
 	                    		blockDataToSet = replaceAboveMaterialBlockData;
 	                    	} else {
-	                    		sourceBlockMaterialAbove = world.getMaterial(blockToSpawn.x, y + 1, blockToSpawn.z, true).toDefaultMaterial();
+	                    		sourceBlockMaterialAbove = world.getMaterial(blockX, y + 1, blockZ, true).toDefaultMaterial();
 		                		if(sourceBlockMaterialAbove == null || sourceBlockMaterialAbove == DefaultMaterial.AIR)
 		                		{
 		                			materialToSet = surfaceBlockMaterial;
@@ -1745,14 +1726,14 @@ public class SmoothingAreaGenerator
 	                    	}
 	                    }
 
-	                    if(y == blockToSpawn.y)
+	                    if(y == blockY)
 	                    {
 	                    	if(sourceBlockMaterial.isSolid() || (!secondPass && sourceBlockMaterial.isLiquid() && !((BO4)start.getObject()).getSettings().spawnUnderWater))
 	                    	{
-		                		sourceBlockMaterialAbove = world.getMaterial(blockToSpawn.x, y + 1, blockToSpawn.z, true).toDefaultMaterial();
+		                		sourceBlockMaterialAbove = world.getMaterial(blockX, y + 1, blockZ, true).toDefaultMaterial();
 		                		if(sourceBlockMaterialAbove == null || sourceBlockMaterialAbove == DefaultMaterial.AIR)
 		                		{
-			                		sourceBlockMaterialAbove = world.getMaterial(blockToSpawn.x, y + 1, blockToSpawn.z, true).toDefaultMaterial();
+			                		sourceBlockMaterialAbove = world.getMaterial(blockX, y + 1, blockZ, true).toDefaultMaterial();
 			                		if(sourceBlockMaterialAbove == null || sourceBlockMaterialAbove == DefaultMaterial.AIR)
 			                		{
 			                			materialToSet = surfaceBlockMaterial;
@@ -1774,7 +1755,7 @@ public class SmoothingAreaGenerator
 	                    			// After removing layers of blocks replace the heighest block left with the surfaceBlockMaterial
 	                    			if(!sourceBlockMaterial.isLiquid() && !sourceBlockDefaultMaterial.equals(DefaultMaterial.AIR))
 	                    			{
-	        	                		sourceBlockMaterialAbove = world.getMaterial(blockToSpawn.x, y + 1, blockToSpawn.z, true).toDefaultMaterial();
+	        	                		sourceBlockMaterialAbove = world.getMaterial(blockX, y + 1, blockZ, true).toDefaultMaterial();
 	        	                		if(sourceBlockMaterialAbove == null || sourceBlockMaterialAbove == DefaultMaterial.AIR)
 	        	                		{
 	        	                			materialToSet = DefaultMaterial.AIR; // Make sure that canyons/caves etc aren't covered
@@ -1799,41 +1780,37 @@ public class SmoothingAreaGenerator
 
 	                    if(materialToSet != null && materialToSet != DefaultMaterial.UNKNOWN_BLOCK)
 	                    {
-	                        blockToQueueForSpawn = new SmoothingAreaBlock();
-	                        blockToQueueForSpawn.x = blockToSpawn.x;
-	                        blockToQueueForSpawn.y = y;
-	                        blockToQueueForSpawn.z = blockToSpawn.z;
-	                        blockToQueueForSpawn.material = MaterialHelper.toLocalMaterialData(materialToSet, blockDataToSet);
+	                        materialToSpawn = MaterialHelper.toLocalMaterialData(materialToSet, blockDataToSet);
 
 	                        // Apply mesa blocks if needed
 	                        if(
-                        		!blockToQueueForSpawn.material.isAir() &&
-                        		!blockToQueueForSpawn.material.isLiquid() &&
+                        		!materialToSpawn.isAir() &&
+                        		!materialToSpawn.isLiquid() &&
                         		biomeConfig.surfaceAndGroundControl != null &&
                 				biomeConfig.surfaceAndGroundControl instanceof MesaSurfaceGenerator &&
                         		(
                     				(
-                						blockToQueueForSpawn.material.toDefaultMaterial().equals(biomeConfig.groundBlock.toDefaultMaterial()) &&
-                						blockToQueueForSpawn.material.getBlockData() == biomeConfig.groundBlock.getBlockData()
+                						materialToSpawn.toDefaultMaterial().equals(biomeConfig.groundBlock.toDefaultMaterial()) &&
+                						materialToSpawn.getBlockData() == biomeConfig.groundBlock.getBlockData()
             						)
             						||
             						(
-        								blockToQueueForSpawn.material.toDefaultMaterial().equals(biomeConfig.surfaceBlock.toDefaultMaterial()) &&
-        								blockToQueueForSpawn.material.getBlockData() == biomeConfig.surfaceBlock.getBlockData()
+        								materialToSpawn.toDefaultMaterial().equals(biomeConfig.surfaceBlock.toDefaultMaterial()) &&
+        								materialToSpawn.getBlockData() == biomeConfig.surfaceBlock.getBlockData()
     								)
 								)
 							)
 	                        {
-            		        	LocalMaterialData customBlockData = biomeConfig.surfaceAndGroundControl.getCustomBlockData(world, biomeConfig, blockToQueueForSpawn.x, blockToQueueForSpawn.y, blockToQueueForSpawn.z);
+            		        	LocalMaterialData customBlockData = biomeConfig.surfaceAndGroundControl.getCustomBlockData(world, biomeConfig, blockX, y, blockZ);
             		        	if(customBlockData != null)
             		        	{
-            		        		blockToQueueForSpawn.material = customBlockData;
+            		        		materialToSpawn = customBlockData;
             		        	}
-        		        		setBlock(blockToQueueForSpawn.x, blockToQueueForSpawn.y, blockToQueueForSpawn.z, blockToQueueForSpawn.material, null, world);
+        		        		setBlock(blockX, y, blockZ, materialToSpawn, null, world);
 	                        } else {
-	                        	if (!sourceBlockMaterial.toDefaultMaterial().equals(blockToQueueForSpawn.material.toDefaultMaterial()) || sourceBlockMaterial.getBlockData() != blockToQueueForSpawn.material.getBlockData())
+	                        	if (!sourceBlockMaterial.toDefaultMaterial().equals(materialToSpawn.toDefaultMaterial()) || sourceBlockMaterial.getBlockData() != materialToSpawn.getBlockData())
 	                        	{
-	                        		setBlock(blockToQueueForSpawn.x, blockToQueueForSpawn.y, blockToQueueForSpawn.z, blockToQueueForSpawn.material, null, world);
+	                        		setBlock(blockX, y, blockZ, materialToSpawn, null, world);
 	                        	}
 	                        }
 	                    } else {
@@ -1850,7 +1827,7 @@ public class SmoothingAreaGenerator
             // We'll still be using the chunks that smoothing areas
             // spawn in for chunk based collision detection so keep them
             // but empty them of blocks
-            smoothingAreaInChunk.setValue(null);
+            smoothingAreasToSpawn.put(chunkCoordinate, null);
         }
         return true;
     }
@@ -1869,9 +1846,9 @@ public class SmoothingAreaGenerator
 	    world.setBlock(x, y, z, material, metaDataTag, true);
     }
 
-    private ArrayList<SmoothingAreaLineBlock> mergeSmoothingAreas(ChunkCoordinate chunkCoordinate, ArrayList<SmoothingAreaLine> smoothingAreas, LocalWorld world, CustomStructureCoordinate start)
+    private SmoothingAreaBlockList mergeSmoothingAreas(ChunkCoordinate chunkCoordinate, ArrayList<SmoothingAreaLine> smoothingAreas, LocalWorld world, CustomStructureCoordinate start)
     {
-        ArrayList<SmoothingAreaLineBlock> blocksToSpawn = new ArrayList<SmoothingAreaLineBlock>();
+        SmoothingAreaBlockList blocksToSpawn = new SmoothingAreaBlockList();
 
         // Declare these here instead of inside for loops to help the GC (good for memory usage)
         // TODO: Find out if this actually makes any noticeable difference, it doesnt exactly
@@ -1899,12 +1876,9 @@ public class SmoothingAreaGenerator
         int diagonalLineFinalDestinationPointZ;
 
         LocalMaterialData material;
-        boolean dontAdd;
-        SmoothingAreaBlock existingBlock;
         SmoothingAreaBlock endPoint;
         short surfaceBlockHeight;
         SmoothingAreaBlock filler;
-        ArrayList<SmoothingAreaLineBlock> blocksToRemove;
 
         LocalMaterialData block = null;
         LocalMaterialData[] blockColumn = null;
@@ -2142,6 +2116,17 @@ public class SmoothingAreaGenerator
             }
         }
 
+        // Origin points of the lines that are not part of a diagonal line,
+        // lines going up stop at them.
+        ChunkMap<Boolean> lineOrigins = new ChunkMap<Boolean>();
+        for(SmoothingAreaLine smoothingBeginAndEndPoints : smoothingAreas)
+        {
+        	if(!(smoothingBeginAndEndPoints instanceof SmoothingAreaLineDiagonal))
+        	{
+        		lineOrigins.put(ChunkCoordinate.toKey(smoothingBeginAndEndPoints.originPointX, smoothingBeginAndEndPoints.originPointZ), Boolean.TRUE);
+        	}
+        }
+
         for(SmoothingAreaLine smoothingBeginAndEndPoints : smoothingAreas)
         {
         	// if this line was set as do not spawn then skip it
@@ -2638,122 +2623,13 @@ public class SmoothingAreaGenerator
                         // and abort spawning for this line of blocks
                         // this is done to make sure that smoothing-areas going down can cover lower-lying smooth areas
                         // but lower-lying smooth-areas going up do not replace higher smoothing areas going down
-                        boolean abort = false;
-                        // get smoothing blocks
-                        for(SmoothingAreaLine smoothingBeginAndEndPoints2 : smoothingAreas)
-                        {
-                        	// TODO: Find out if this doesnt skip the block at
-                        	// diagonal line index 0, it shouldnt!
-                        	if(!(smoothingBeginAndEndPoints2 instanceof SmoothingAreaLineDiagonal))
-                        	{
-	                        	int originPointX2 = smoothingBeginAndEndPoints2.originPointX;
-	                        	int originPointZ2 = smoothingBeginAndEndPoints2.originPointZ;
-
-	                            if((originPointX2 != filler.x || originPointZ2 != filler.z) || (originPointX == originPointX2 && originPointZ == originPointZ2))
-	                            {
-	                                continue;
-	                            }
-
-	                            if(goingUp)
-	                            {
-	                                abort = true;
-	                                break;
-	                            }
-                        	}
-                        }
-
-                        if(abort)
+                        if(goingUp && lineOrigins.containsKey(ChunkCoordinate.toKey(filler.x, filler.z)) && (filler.x != originPointX || filler.z != originPointZ))
                         {
                             break;
                         }
 
-                        blocksToRemove = new ArrayList<SmoothingAreaLineBlock>();
-                        dontAdd = false;
-                        for(SmoothingAreaLineBlock existingBlockItem : blocksToSpawn)
-                        {
-                            existingBlock = existingBlockItem.block;
-
-                            //Don't always override higher blocks when going down, instead do a second pass going up
-                            if (existingBlock.x == filler.x && existingBlock.z == filler.z)
-                            {
-                                // When this block is lower than existingblock and this block is going up and existingblock is going up
-                                if (filler.y < existingBlock.y && goingUp && existingBlockItem.goingUp)
-                                {
-                                    blocksToRemove.add(existingBlockItem);
-                                }
-                                // When this block is higher than or equal to existingblock and this block is going up and existingblock is going up
-                                else if (filler.y >= existingBlock.y && goingUp && existingBlockItem.goingUp)
-                                {
-                                    dontAdd = true;
-                                    break;
-                                }
-                                // When this block is lower than existingblock and this block is not going up and existingblock is going up
-                                else if (filler.y < existingBlock.y && !goingUp && existingBlockItem.goingUp)
-                                {
-                                    // since goingDown does not remove higher blocks allow both blocks
-                                }
-                                // When this block is higher than or equal to existingblock and this block is not going up and existingblock is going up
-                                else if (filler.y > existingBlock.y && !goingUp && existingBlockItem.goingUp)
-                                {
-                                    blocksToRemove.add(existingBlockItem);
-                                }
-                                // When this block is higher than or equal to existingblock and this block is not going up and existingblock is going up
-                                else if (filler.y == existingBlock.y && !goingUp && existingBlockItem.goingUp)
-                                {
-                                    //Allow both
-                                }
-
-                                // When this block is lower than existingblock and this block is going up and existingblock is not going up
-                                if (filler.y < existingBlock.y && goingUp && !existingBlockItem.goingUp)
-                                {
-                                    //if the other block is higher and smoothing downwards then let it cover (smother) any smooth area below it (namely this one)
-                                    dontAdd = true;
-                                    break;
-                                }
-                                // When this block is higher than or equal to existingblock and this block is going up and existingblock is not going up
-                                else if (filler.y >= existingBlock.y && goingUp && !existingBlockItem.goingUp)
-                                {
-                                    // if this block is above another block that is going down and this block is going up then both are allowed
-                                }
-                                // When this block is lower than existingblock and this block is not going up and existingblock is not going up
-                                else if (filler.y < existingBlock.y && !goingUp && !existingBlockItem.goingUp)
-                                {
-                                    dontAdd = true;
-                                    break;
-                                }
-                                // When this block is higher than or equal to existingblock and this block is not going up and existingblock is not going up
-                                else if (filler.y >= existingBlock.y && !goingUp && !existingBlockItem.goingUp)
-                                {
-                                    blocksToRemove.add(existingBlockItem);
-                                }
-                            }
-                        }
-
-                        if(!dontAdd)
-                        {
-                        	/*
-	                        // Use this to debug smoothing areas, this shows origin points!
-	                        if(filler.x == originPointX && filler.z == originPointZ)
-	                        {
-	            	    		try {
-	            					World.setBlock(originPointX, originPointY, originPointZ,MaterialHelper.readMaterial("STONE"), null, true);
-	            				} catch (InvalidConfigException e) {
-	            					// TODO Auto-generated catch block
-	            					e.printStackTrace();
-	            				}
-	                        }
-	                        */
-
-	                        if(blocksToRemove.size() > 0)
-	                        {
-	                            for(SmoothingAreaLineBlock blockToRemove : blocksToRemove)
-	                            {
-	                                blocksToSpawn.remove(blockToRemove);
-	                            }
-	                        }
-
-                            blocksToSpawn.add(new SmoothingAreaLineBlock(filler, goingUp, goingDown, pass2 == 1));
-                        }
+                        // Merge with the blocks in the same column
+                        blocksToSpawn.add(filler.x, filler.y, filler.z, goingUp, pass2 == 1);
                     }
                 }
                 if(originPointX == finalDestinationPointX && originPointZ != finalDestinationPointZ)
@@ -2858,123 +2734,13 @@ public class SmoothingAreaGenerator
                         // and abort spawning for this line of blocks
                         // this is done to make sure that smoothing-areas going down can cover lower-lying smooth areas
                         // but lower-lying smooth-areas going up do not replace higher smoothing areas going down
-                        boolean abort = false;
-                        // get smoothing blocks
-                        for(SmoothingAreaLine smoothingBeginAndEndPoints2 : smoothingAreas)
-                        {
-                        	// TODO: Find out if this doesnt skip the block at
-                        	// diagonal line index 0, it shouldnt!
-                        	if(!(smoothingBeginAndEndPoints2 instanceof SmoothingAreaLineDiagonal))
-                        	{
-	                        	// TODO: Even diagonal block child line smooth origin points are included
-	                        	// here, find out if that doesn't cause bugs..
-	                        	int originPointX2 = smoothingBeginAndEndPoints2.originPointX;
-	                        	int originPointZ2 = smoothingBeginAndEndPoints2.originPointZ;
-
-	                            if((originPointX2 != filler.x || originPointZ2 != filler.z) || (originPointX == originPointX2 && originPointZ == originPointZ2))
-	                            {
-	                                continue;
-	                            }
-
-	                            if(goingUp)
-	                            {
-	                                abort = true;
-	                                break;
-	                            }
-                        	}
-                        }
-
-                        if(abort)
+                        if(goingUp && lineOrigins.containsKey(ChunkCoordinate.toKey(filler.x, filler.z)) && (filler.x != originPointX || filler.z != originPointZ))
                         {
                             break;
                         }
 
-                        dontAdd = false;
-                        blocksToRemove = new ArrayList<SmoothingAreaLineBlock>();
-                        for(SmoothingAreaLineBlock existingBlockItem : blocksToSpawn)
-                        {
-                            existingBlock = existingBlockItem.block;
-                            //Don't always override higher blocks when going down, instead do a second pass going up
-                            if (existingBlock.x == filler.x && existingBlock.z == filler.z)
-                            {
-                                // When this block is lower than existingblock and this block is going up and existingblock is going up
-                                if (filler.y < existingBlock.y && goingUp && existingBlockItem.goingUp)
-                                {
-                                    blocksToRemove.add(existingBlockItem);
-                                }
-                                // When this block is higher than or equal to existingblock and this block is going up and existingblock is going up
-                                else if (filler.y >= existingBlock.y && goingUp && existingBlockItem.goingUp)
-                                {
-                                    dontAdd = true;
-                                    break;
-                                }
-                                // When this block is lower than existingblock and this block is not going up and existingblock is going up
-                                else if (filler.y < existingBlock.y && !goingUp && existingBlockItem.goingUp)
-                                {
-                                    // since goingDown does not remove higher blocks allow both blocks
-                                }
-                                // When this block is higher than or equal to existingblock and this block is not going up and existingblock is going up
-                                else if (filler.y > existingBlock.y && !goingUp && existingBlockItem.goingUp)
-                                {
-                                    blocksToRemove.add(existingBlockItem);
-                                }
-                                // When this block is higher than or equal to existingblock and this block is not going up and existingblock is going up
-                                else if (filler.y == existingBlock.y && !goingUp && existingBlockItem.goingUp)
-                                {
-                                    //Allow both
-                                }
-
-                                // When this block is lower than existingblock and this block is going up and existingblock is not going up
-                                if (filler.y < existingBlock.y && goingUp && !existingBlockItem.goingUp)
-                                {
-                                    //if the other block is higher and smoothing downwards then let it cover (smother) any smooth area below it (namely this one)
-                                    dontAdd = true;
-                                    break;
-                                }
-                                // When this block is higher than or equal to existingblock and this block is going up and existingblock is not going up
-                                else if (filler.y >= existingBlock.y && goingUp && !existingBlockItem.goingUp)
-                                {
-                                    // if this block is above another block that is going down and this block is going up then both are allowed
-                                }
-                                // When this block is lower than existingblock and this block is not going up and existingblock is not going up
-                                else if (filler.y < existingBlock.y && !goingUp && !existingBlockItem.goingUp)
-                                {
-                                    dontAdd = true;
-                                    break;
-                                }
-                                // When this block is higher than or equal to existingblock and this block is not going up and existingblock is not going up
-                                else if (filler.y >= existingBlock.y && !goingUp && !existingBlockItem.goingUp)
-                                {
-                                    blocksToRemove.add(existingBlockItem);
-                                }
-                            }
-                        }
-
-                        if(!dontAdd)
-                        {
-                        	/*
-	                        // Use this to debug smoothing areas, this shows origin points!
-	                        if(filler.x == originPointX && filler.z == originPointZ)
-	                        {
-	            	    		try {
-	            					World.setBlock(originPointX, originPointY, originPointZ,MaterialHelper.readMaterial("STONE"), null, true);
-	            				} catch (InvalidConfigException e) {
-	            					// TODO Auto-generated catch block
-	            					e.printStackTrace();
-	            				}
-	                        }
-                        	*/
-
-	                        if(blocksToRemove.size() > 0)
-	                        {
-	                            for(SmoothingAreaLineBlock blockToRemove : blocksToRemove)
-	                            {
-	                                blocksToSpawn.remove(blockToRemove);
-	                            }
-	                        }
-
-                            blocksToSpawn.add(new SmoothingAreaLineBlock(filler, goingUp, goingDown, pass2 == 1));
-                        }
+                        // Merge with the blocks in the same column
+                        blocksToSpawn.add(filler.x, filler.y, filler.z, goingUp, pass2 == 1);
                     }
                 }
 
@@ -2995,121 +2761,13 @@ public class SmoothingAreaGenerator
                     // and abort spawning for this line of blocks
                     // this is done to make sure that smoothing-areas going down can cover lower-lying smooth areas
                     // but lower-lying smooth-areas going up do not replace higher smoothing areas going down
-                    boolean abort = false;
-                    // get smoothing blocks
-                    for(SmoothingAreaLine smoothingBeginAndEndPoints2 : smoothingAreas)
-                    {
-                    	// TODO: Find out if this doesnt skip the block at
-                    	// diagonal line index 0, it shouldnt!
-                    	if(!(smoothingBeginAndEndPoints2 instanceof SmoothingAreaLineDiagonal))
-                    	{
-                        	int originPointX2 = smoothingBeginAndEndPoints2.originPointX;
-                        	int originPointZ2 = smoothingBeginAndEndPoints2.originPointZ;
-
-                            if((originPointX2 != filler.x || originPointZ2 != filler.z) || (originPointX == originPointX2 && originPointZ == originPointZ2))
-                            {
-                                continue;
-                            }
-
-                            if(goingUp)
-                            {
-                                abort = true;
-                                break;
-                            }
-                    	}
-                    }
-
-                    if(abort)
+                    if(goingUp && lineOrigins.containsKey(ChunkCoordinate.toKey(filler.x, filler.z)) && (filler.x != originPointX || filler.z != originPointZ))
                     {
-                    	break;
-                    }
-
-                    dontAdd = false;
-                    blocksToRemove = new ArrayList<SmoothingAreaLineBlock>();
-                    for(SmoothingAreaLineBlock existingBlockItem : blocksToSpawn)
-                    {
-                        existingBlock = existingBlockItem.block;
-                        //Don't always override higher blocks when going down, instead do a second pass going up
-                        if (existingBlock.x == filler.x && existingBlock.z == filler.z)
-                        {
-                            // When this block is lower than existingblock and this block is going up and existingblock is going up
-                            if (filler.y < existingBlock.y && goingUp && existingBlockItem.goingUp)
-                            {
-                                blocksToRemove.add(existingBlockItem);
-                            }
-                            // When this block is higher than or equal to existingblock and this block is going up and existingblock is going up
-                            else if (filler.y >= existingBlock.y && goingUp && existingBlockItem.goingUp)
-                            {
-                                dontAdd = true;
-                                break;
-                            }
-                            // When this block is lower than existingblock and this block is not going up and existingblock is going up
-                            else if (filler.y < existingBlock.y && !goingUp && existingBlockItem.goingUp)
-                            {
-                                // since goingDown does not remove higher blocks allow both blocks
-                            }
-                            // When this block is higher than or equal to existingblock and this block is not going up and existingblock is going up
-                            else if (filler.y > existingBlock.y && !goingUp && existingBlockItem.goingUp)
-                            {
-                                blocksToRemove.add(existingBlockItem);
-                            }
-                            // When this block is higher than or equal to existingblock and this block is not going up and existingblock is going up
-                            else if (filler.y == existingBlock.y && !goingUp && existingBlockItem.goingUp)
-                            {
-                                //Allow both
-                            }
-
-                            // When this block is lower than existingblock and this block is going up and existingblock is not going up
-                            if (filler.y < existingBlock.y && goingUp && !existingBlockItem.goingUp)
-                            {
-                                //if the other block is higher and smoothing downwards then let it cover (smother) any smooth area below it (namely this one)
-                                dontAdd = true;
-                                break;
-                            }
-                            // When this block is higher than or equal to existingblock and this block is going up and existingblock is not going up
-                            else if (filler.y >= existingBlock.y && goingUp && !existingBlockItem.goingUp)
-                            {
-                                // if this block is above another block that is going down and this block is going up then both are allowed
-                            }
-                            // When this block is lower than existingblock and this block is not going up and existingblock is not going up
-                            else if (filler.y < existingBlock.y && !goingUp && !existingBlockItem.goingUp)
-                            {
-                                dontAdd = true;
-                                break;
-                            }
-                            // When this block is higher than or equal to existingblock and this block is not going up and existingblock is not going up
-                            else if (filler.y >= existingBlock.y && !goingUp && !existingBlockItem.goingUp)
-                            {
-                                blocksToRemove.add(existingBlockItem);
-                            }
-                        }
+                        break;
                     }
 
-                    if(!dontAdd)
-                    {
-                    	/*
-                        // Use this to debug smoothing areas, this shows origin points!
-                        if(filler.x == originPointX && filler.z == originPointZ)
-                        {
-            	    		try {
-            					World.setBlock(originPointX, originPointY, originPointZ,MaterialHelper.readMaterial("STONE"), null, true);
-            				} catch (InvalidConfigException e) {
-            					// TODO Auto-generated catch block
-            					e.printStackTrace();
-            				}
-                        }
-                    	*/
-
-                        if(blocksToRemove.size() > 0)
-                        {
-                            for(SmoothingAreaLineBlock blockToRemove : blocksToRemove)
-                            {
-                                blocksToSpawn.remove(blockToRemove);
-                            }
-                        }
-
-                        blocksToSpawn.add(new SmoothingAreaLineBlock(filler, goingUp, goingDown, pass2 == 1));
-                    }
+                    // Merge with the blocks in the same column
+                    blocksToSpawn.add(filler.x, filler.y, filler.z, goingUp, pass2 == 1);
                 }
             }
         }
@@ -5,6 +5,7 @@ import com.pg85.otg.common.LocalBiome;
 import com.pg85.otg.common.LocalMaterialData;
 import com.pg85.otg.common.LocalWorld;
 import com.pg85.otg.configuration.biome.BiomeConfig;
+import com.pg85.otg.configuration.biome.settings.ReplacedBlocksMatrix;
 import com.pg85.otg.configuration.world.WorldConfig;
 import com.pg85.otg.generator.biome.BiomeGenerator;
 import com.pg85.otg.generator.biome.OutputType;
@@ -13,6 +14,8 @@ import com.pg85.otg.generator.noise.NoiseGeneratorPerlinOctaves;
 import com.pg85.otg.generator.terrain.CavesGen;
 import com.pg85.otg.generator.terrain.RavinesGen;
 import com.pg85.otg.generator.terrain.TerrainGenBase;
+import com.pg85.otg.logging.GenerationStage;
+import com.pg85.otg.logging.GenerationStats;
 import com.pg85.otg.network.ConfigProvider;
 import com.pg85.otg.util.ChunkCoordinate;
 import com.pg85.otg.util.helpers.MaterialHelper;
@@ -119,31 +122,65 @@ public class ChunkProviderOTG
     }
     
     public void generate(ChunkBuffer chunkBuffer)
+    {
+        generate(chunkBuffer, true);
+    }
+
+    /**
+     * Generates the blocks of a chunk.
+     * @param chunkBuffer  The chunk buffer.
+     * @param addedToWorld Whether the chunk will be added to the world. If
+     *                     not, no events are fired for it, caves from other
+     *                     mods are not used and the world doesn't prepare
+     *                     its vanilla structures, see
+     *                     {@link FingerprintGenerator}.
+     */
+    void generate(ChunkBuffer chunkBuffer, boolean addedToWorld)
     {
         ChunkCoordinate chunkCoord = chunkBuffer.getChunkCoordinate();
         int x = chunkCoord.getChunkX();
         int z = chunkCoord.getChunkZ();
         this.random.setSeed(x * 341873128712L + z * 132897987541L);
 
+        long chunkStartTime = GenerationStats.start();
+        long startTime = chunkStartTime;
         generateTerrainA(chunkBuffer);
+        GenerationStats.end(GenerationStage.TERRAIN, startTime);
+        GenerationFingerprint.recordBiomes(this.localWorld, chunkCoord);
+        GenerationFingerprint.recordBlocks(chunkBuffer, GenerationFingerprint.Stage.TERRAIN);
         
         boolean dry = false;
-        if(OTG.fireReplaceBiomeBlocksEvent(x, z, chunkBuffer, localWorld))
+        if(!addedToWorld || OTG.fireReplaceBiomeBlocksEvent(x, z, chunkBuffer, localWorld))
 		{
+        	startTime = GenerationStats.start();
         	dry = addBiomeBlocksAndCheckWater(chunkBuffer);
+        	GenerationStats.end(GenerationStage.SURFACE, startTime);
 		}
+        GenerationFingerprint.recordBlocks(chunkBuffer, GenerationFingerprint.Stage.SURFACE);
         
-        if(!this.localWorld.generateModdedCaveGen(x, z, chunkBuffer))
+        startTime = GenerationStats.start();
+        if(!addedToWorld || !this.localWorld.generateModdedCaveGen(x, z, chunkBuffer))
         {
             this.caveGen.generate(chunkBuffer);        	
         }
         this.canyonGen.generate(chunkBuffer);
+        GenerationStats.end(GenerationStage.CARVERS, startTime);
+        GenerationFingerprint.recordBlocks(chunkBuffer, GenerationFingerprint.Stage.CARVERS);
 
         WorldConfig worldConfig = configProvider.getWorldConfig();
-        if (worldConfig.modeTerrain == WorldConfig.TerrainMode.Normal)// || worldConfig.modeTerrain == WorldConfig.TerrainMode.OldGenerator)
+        if (worldConfig.replaceBlocksDuringTerrainGen && worldConfig.biomeConfigsHaveReplacement)
+        {
+            startTime = GenerationStats.start();
+            replaceBlocks(chunkBuffer);
+            GenerationStats.end(GenerationStage.REPLACE_BLOCKS, startTime);
+        }
+        GenerationFingerprint.recordBlocks(chunkBuffer, GenerationFingerprint.Stage.REPLACE_BLOCKS);
+
+        if (addedToWorld && worldConfig.modeTerrain == WorldConfig.TerrainMode.Normal)// || worldConfig.modeTerrain == WorldConfig.TerrainMode.OldGenerator)
         {
             this.localWorld.prepareDefaultStructures(x, z, dry);
         }
+        GenerationStats.end(GenerationStage.CHUNK, chunkStartTime);
     }
 
     private void generateTerrain(ChunkBuffer chunkBuffer)
@@ -180,7 +217,9 @@ public class ChunkProviderOTG
             this.biomeArray = biomeGenerator.getBiomes(this.biomeArray, chunkX * CHUNK_X_SIZE, chunkZ * CHUNK_Z_SIZE, CHUNK_X_SIZE, CHUNK_Z_SIZE, OutputType.DEFAULT_FOR_WORLD);
         }
 
+        long startTime = GenerationStats.start();
         generateTerrainNoise(chunkX * four, 0, chunkZ * four, maxYSections, usedYSections);
+        GenerationStats.end(GenerationStage.NOISE, startTime);
 
         // Now that the raw terrain is generated, replace raw biome array with
         // fine-tuned one.
@@ -319,6 +358,53 @@ public class ChunkProviderOTG
         return dryBlocksOnSurface > 250;
     }
 
+    /**
+     * Applies the ReplacedBlocks instructions of the biomes that are safe
+     * to apply to the terrain, see
+     * {@link ReplacedBlocksMatrix#terrainStageInstructions}, so that the
+     * pass after population finds these blocks already replaced. The other
+     * instructions are only applied after population.
+     *
+     * @param chunkBuffer The chunk to replace the blocks in.
+     */
+    private void replaceBlocks(ChunkBuffer chunkBuffer)
+    {
+        LocalMaterialData block;
+        LocalMaterialData replaceTo;
+        int blockId;
+        for (int x = 0; x < CHUNK_X_SIZE; x++)
+        {
+            for (int z = 0; z < CHUNK_Z_SIZE; z++)
+            {
+                final ReplacedBlocksMatrix replacedBlocks = toBiomeConfig(this.biomeArray[(x + z * CHUNK_X_SIZE)]).replacedBlocks;
+                if (!replacedBlocks.hasReplaceSettings() || replacedBlocks.terrainStageInstructions == null)
+                {
+                    continue;
+                }
+
+                final LocalMaterialData[][] replaceArray = replacedBlocks.terrainStageInstructions;
+                final int maxY = Math.min(replacedBlocks.maxReplacedHeight, this.heightCap - 1);
+                for (int y = replacedBlocks.minReplacedHeight; y <= maxY; y++)
+                {
+                    block = chunkBuffer.getBlock(x, y, z);
+                    blockId = block.getBlockId();
+                    if (replaceArray[blockId] == null || y >= replaceArray[blockId].length)
+                    {
+                        continue;
+                    }
+
+                    replaceTo = replaceArray[blockId][y];
+                    if (replaceTo == null || replaceTo.getBlockId() == blockId)
+                    {
+                        continue;
+                    }
+
+                    chunkBuffer.setBlock(x, y, z, replaceTo);
+                }
+            }
+        }
+    }
+
     private void generateTerrainNoise(int xOffset, int yOffset, int zOffset, int maxYSections, int usedYSections)
     {
         if (this.rawTerrain == null || this.rawTerrain.length != NOISE_MAX_X * maxYSections * NOISE_MAX_Z)
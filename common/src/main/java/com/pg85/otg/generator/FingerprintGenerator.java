@@ -0,0 +1,97 @@
+package com.pg85.otg.generator;
+
+import com.pg85.otg.common.LocalMaterialData;
+import com.pg85.otg.common.LocalWorld;
+import com.pg85.otg.util.ChunkCoordinate;
+import com.pg85.otg.util.helpers.MaterialHelper;
+import com.pg85.otg.util.minecraft.defaults.DefaultMaterial;
+
+import static com.pg85.otg.util.ChunkCoordinate.CHUNK_X_SIZE;
+import static com.pg85.otg.util.ChunkCoordinate.CHUNK_Y_SIZE;
+import static com.pg85.otg.util.ChunkCoordinate.CHUNK_Z_SIZE;
+
+import java.util.Map;
+
+/**
+ * Generates the terrain of an area with a new {@link ChunkProviderOTG} and
+ * records its {@link GenerationFingerprint}. The chunks are only kept in
+ * memory, they are never added to the world, so this can run without a
+ * server as long as the world can provide its configs, seed and biome
+ * generator. Population needs the chunks in the world, so the
+ * {@link GenerationFingerprint.Stage#POPULATION} hashes are not recorded.
+ */
+public final class FingerprintGenerator
+{
+    private FingerprintGenerator()
+    {
+        // No instances
+    }
+
+    /**
+     * Generates the chunks of an area and records their fingerprints. Any
+     * fingerprints that were being recorded are removed, and recording is
+     * stopped afterwards.
+     * @param world      The world, provides the configs, seed and biomes.
+     * @param fromChunk  The chunk with the lowest x and z of the area.
+     * @param sizeChunks The width and length of the area, in chunks.
+     * @return The hashes by chunk, sorted by chunk x and then z.
+     */
+    public static Map<ChunkCoordinate, long[]> generate(LocalWorld world, ChunkCoordinate fromChunk, int sizeChunks)
+    {
+        ChunkProviderOTG chunkProvider = new ChunkProviderOTG(world.getConfigs(), world);
+        LocalMaterialData air = MaterialHelper.toLocalMaterialData(DefaultMaterial.AIR, 0);
+
+        GenerationFingerprint.start();
+        try
+        {
+            for (int x = 0; x < sizeChunks; x++)
+            {
+                for (int z = 0; z < sizeChunks; z++)
+                {
+                    ChunkCoordinate chunkCoord = ChunkCoordinate.fromChunkCoords(fromChunk.getChunkX() + x, fromChunk.getChunkZ() + z);
+                    chunkProvider.generate(new MemoryChunkBuffer(chunkCoord, air), false);
+                }
+            }
+        } finally
+        {
+            GenerationFingerprint.stop();
+        }
+        return GenerationFingerprint.getHashes();
+    }
+
+    /**
+     * Chunk buffer that is not backed by a Minecraft chunk.
+     */
+    private static class MemoryChunkBuffer implements ChunkBuffer
+    {
+        private final ChunkCoordinate chunkCoord;
+        private final LocalMaterialData[] blocks = new LocalMaterialData[CHUNK_X_SIZE * CHUNK_Y_SIZE * CHUNK_Z_SIZE];
+
+        MemoryChunkBuffer(ChunkCoordinate chunkCoord, LocalMaterialData air)
+        {
+            this.chunkCoord = chunkCoord;
+            for (int i = 0; i < this.blocks.length; i++)
+            {
+                this.blocks[i] = air;
+            }
+        }
+
+        @Override
+        public ChunkCoordinate getChunkCoordinate()
+        {
+            return this.chunkCoord;
+        }
+
+        @Override
+        public void setBlock(int blockX, int blockY, int blockZ, LocalMaterialData material)
+        {
+            this.blocks[(blockX * CHUNK_Z_SIZE + blockZ) * CHUNK_Y_SIZE + blockY] = material;
+        }
+
+        @Override
+        public LocalMaterialData getBlock(int blockX, int blockY, int blockZ)
+        {
+            return this.blocks[(blockX * CHUNK_Z_SIZE + blockZ) * CHUNK_Y_SIZE + blockY];
+        }
+    }
+}
@@ -0,0 +1,525 @@
+package com.pg85.otg.generator;
+
+import com.pg85.otg.OTG;
+import com.pg85.otg.common.LocalMaterialData;
+import com.pg85.otg.common.LocalWorld;
+import com.pg85.otg.configuration.standard.PluginStandardValues;
+import com.pg85.otg.generator.biome.OutputType;
+import com.pg85.otg.util.ChunkCoordinate;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Records hashes of the output of every stage of chunk generation, to check
+ * that a change to the generator didn't change the generated world.
+ * Disabled by default, enabled with the /otg fingerprint command. Usage:
+ *
+ * <ol>
+ * <li>Start recording and generate an area of a new world, for example with
+ * the pregenerator. Or generate an area without a server with
+ * {@link FingerprintGenerator}.</li>
+ * <li>Save the fingerprint to a file.</li>
+ * <li>Do the same with the changed generator, using the same preset, seed
+ * and area, and compare the files with {@link #diff(File, File)}.</li>
+ * </ol>
+ *
+ * Terrain stages are hashed from the chunk buffer, so they only depend on
+ * the chunk itself. Population of a chunk places blocks in the chunk and the
+ * chunks to the east and south of it, so a chunk is hashed for
+ * {@link Stage#POPULATION} once it and the chunks to the north and west of it
+ * are populated. The hash then doesn't depend on when other chunks are
+ * populated, only on the order of those four.
+ */
+public final class GenerationFingerprint
+{
+    /**
+     * The stages that are hashed, in the order they run.
+     */
+    public enum Stage
+    {
+        /** Biome ids of every column, from the biome generator. */
+        BIOMES,
+        /** Blocks after the terrain shape is generated. */
+        TERRAIN,
+        /** Blocks after surface and ground blocks are placed. */
+        SURFACE,
+        /** Blocks after caves and ravines are carved. */
+        CARVERS,
+        /** Blocks after ReplacedBlocks, if done during terrain generation. */
+        REPLACE_BLOCKS,
+        /** Height of the highest non-air block in every column. */
+        HEIGHTMAP,
+        /**
+         * Blocks in the world after the chunk and the three chunks to the
+         * north and west of it are populated.
+         */
+        POPULATION
+    }
+
+    public static final String FOLDER_NAME = "Fingerprints";
+    public static final String FILE_EXTENSION = ".txt";
+
+    private static final String HEADER = "# OTG generation fingerprint v1";
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static volatile boolean enabled;
+
+    // Hashes of all stages by chunk, sorted by chunk x and then z
+    private static final Map<ChunkCoordinate, long[]> hashes = new TreeMap<ChunkCoordinate, long[]>(ChunkOrder.INSTANCE);
+    // Chunks populated while recording
+    private static final Set<ChunkCoordinate> populated = new HashSet<ChunkCoordinate>();
+
+    private GenerationFingerprint()
+    {
+        // No instances
+    }
+
+    public static boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Removes the recorded hashes and starts recording.
+     */
+    public static void start()
+    {
+        synchronized (hashes)
+        {
+            hashes.clear();
+            populated.clear();
+        }
+        enabled = true;
+    }
+
+    public static void stop()
+    {
+        enabled = false;
+    }
+
+    public static int getChunkCount()
+    {
+        synchronized (hashes)
+        {
+            return hashes.size();
+        }
+    }
+
+    /**
+     * Gets a copy of the recorded hashes.
+     * @return The hashes by chunk, sorted by chunk x and then z.
+     */
+    public static Map<ChunkCoordinate, long[]> getHashes()
+    {
+        Map<ChunkCoordinate, long[]> result = new TreeMap<ChunkCoordinate, long[]>(ChunkOrder.INSTANCE);
+        synchronized (hashes)
+        {
+            for (Map.Entry<ChunkCoordinate, long[]> entry : hashes.entrySet())
+            {
+                result.put(entry.getKey(), entry.getValue().clone());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the file for a fingerprint name, in the {@value #FOLDER_NAME}
+     * folder of the OTG folder.
+     * @param name The name, without file extension.
+     * @return The file.
+     */
+    public static File getFile(String name)
+    {
+        return new File(new File(OTG.getEngine().getOTGRootFolder(), FOLDER_NAME), name + FILE_EXTENSION);
+    }
+
+    private static void record(ChunkCoordinate chunkCoord, Stage stage, long hash)
+    {
+        synchronized (hashes)
+        {
+            long[] chunkHashes = hashes.get(chunkCoord);
+            if (chunkHashes == null)
+            {
+                chunkHashes = new long[Stage.values().length];
+                hashes.put(chunkCoord, chunkHashes);
+            }
+            chunkHashes[stage.ordinal()] = hash;
+        }
+    }
+
+    private static long hash(long hash, int value)
+    {
+        return (hash ^ value) * FNV_PRIME;
+    }
+
+    /**
+     * Records the biomes of the chunk, if recording.
+     * @param world      The world.
+     * @param chunkCoord The chunk.
+     */
+    static void recordBiomes(LocalWorld world, ChunkCoordinate chunkCoord)
+    {
+        if (!enabled)
+        {
+            return;
+        }
+        int[] biomes = world.getBiomeGenerator().getBiomes(null, chunkCoord.getBlockX(), chunkCoord.getBlockZ(),
+                ChunkCoordinate.CHUNK_X_SIZE, ChunkCoordinate.CHUNK_Z_SIZE, OutputType.DEFAULT_FOR_WORLD);
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < ChunkCoordinate.CHUNK_X_SIZE * ChunkCoordinate.CHUNK_Z_SIZE; i++)
+        {
+            hash = hash(hash, biomes[i]);
+        }
+        record(chunkCoord, Stage.BIOMES, hash);
+    }
+
+    /**
+     * Records the blocks in the chunk buffer for the given stage, if
+     * recording. For the last terrain stage, the heightmap is recorded too.
+     * @param chunkBuffer The chunk buffer.
+     * @param stage       The stage that was just done.
+     */
+    static void recordBlocks(ChunkBuffer chunkBuffer, Stage stage)
+    {
+        if (!enabled)
+        {
+            return;
+        }
+        long hash = FNV_OFFSET_BASIS;
+        long heightHash = FNV_OFFSET_BASIS;
+        for (int x = 0; x < ChunkCoordinate.CHUNK_X_SIZE; x++)
+        {
+            for (int z = 0; z < ChunkCoordinate.CHUNK_Z_SIZE; z++)
+            {
+                int height = -1;
+                for (int y = 0; y < PluginStandardValues.WORLD_HEIGHT; y++)
+                {
+                    LocalMaterialData material = chunkBuffer.getBlock(x, y, z);
+                    hash = hash(hash, material == null ? 0 : material.hashCode());
+                    if (material != null && !material.isAir())
+                    {
+                        height = y;
+                    }
+                }
+                heightHash = hash(heightHash, height);
+            }
+        }
+        ChunkCoordinate chunkCoord = chunkBuffer.getChunkCoordinate();
+        record(chunkCoord, stage, hash);
+        if (stage == Stage.REPLACE_BLOCKS)
+        {
+            record(chunkCoord, Stage.HEIGHTMAP, heightHash);
+        }
+    }
+
+    /**
+     * Records that a chunk was populated, if recording. Hashes the blocks in
+     * the world of the chunks that won't be changed anymore by population of
+     * the chunks next to them.
+     * @param world      The world.
+     * @param chunkCoord The chunk that was populated.
+     */
+    static void recordPopulation(LocalWorld world, ChunkCoordinate chunkCoord)
+    {
+        if (!enabled)
+        {
+            return;
+        }
+        synchronized (hashes)
+        {
+            populated.add(chunkCoord);
+        }
+        for (int x = 0; x <= 1; x++)
+        {
+            for (int z = 0; z <= 1; z++)
+            {
+                ChunkCoordinate changedChunk = ChunkCoordinate.fromChunkCoords(chunkCoord.getChunkX() + x, chunkCoord.getChunkZ() + z);
+                if (isPopulationDone(changedChunk))
+                {
+                    record(changedChunk, Stage.POPULATION, hashWorldBlocks(world, changedChunk));
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets whether the chunk and the chunks that place blocks in it when
+     * they are populated are all populated.
+     * @param chunkCoord The chunk.
+     * @return True if the chunk won't be changed by population anymore.
+     */
+    private static boolean isPopulationDone(ChunkCoordinate chunkCoord)
+    {
+        synchronized (hashes)
+        {
+            for (int x = -1; x <= 0; x++)
+            {
+                for (int z = -1; z <= 0; z++)
+                {
+                    if (!populated.contains(ChunkCoordinate.fromChunkCoords(chunkCoord.getChunkX() + x, chunkCoord.getChunkZ() + z)))
+                    {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+
+    private static long hashWorldBlocks(LocalWorld world, ChunkCoordinate chunkCoord)
+    {
+        long hash = FNV_OFFSET_BASIS;
+        for (int x = chunkCoord.getBlockX(); x < chunkCoord.getBlockX() + ChunkCoordinate.CHUNK_X_SIZE; x++)
+        {
+            for (int z = chunkCoord.getBlockZ(); z < chunkCoord.getBlockZ() + ChunkCoordinate.CHUNK_Z_SIZE; z++)
+            {
+                for (int y = 0; y < PluginStandardValues.WORLD_HEIGHT; y++)
+                {
+                    LocalMaterialData material = world.getMaterial(x, y, z, false);
+                    hash = hash(hash, material == null ? 0 : material.hashCode());
+                }
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Writes the recorded hashes to a file, see
+     * {@link #write(Map, File)}.
+     * @param file The file.
+     * @throws IOException If the file could not be written.
+     */
+    public static void write(File file) throws IOException
+    {
+        write(getHashes(), file);
+    }
+
+    /**
+     * Writes hashes to a file. Every line holds the chunk x, the chunk z and
+     * the hashes of all stages. Stages that were not recorded for a chunk
+     * have a hash of 0.
+     * @param chunkHashes The hashes by chunk, as returned by
+     *                    {@link #getHashes()}.
+     * @param file        The file.
+     * @throws IOException If the file could not be written.
+     */
+    public static void write(Map<ChunkCoordinate, long[]> chunkHashes, File file) throws IOException
+    {
+        File folder = file.getParentFile();
+        if (folder != null && !folder.exists())
+        {
+            folder.mkdirs();
+        }
+        PrintWriter writer = new PrintWriter(new FileWriter(file));
+        try
+        {
+            writer.println(HEADER);
+            StringBuilder columns = new StringBuilder("# chunkX,chunkZ");
+            for (Stage stage : Stage.values())
+            {
+                columns.append(',').append(stage.name());
+            }
+            writer.println(columns);
+            for (Map.Entry<ChunkCoordinate, long[]> entry : chunkHashes.entrySet())
+            {
+                StringBuilder line = new StringBuilder();
+                line.append(entry.getKey().getChunkX()).append(',').append(entry.getKey().getChunkZ());
+                for (long hash : entry.getValue())
+                {
+                    line.append(',').append(String.format(Locale.ROOT, "%016x", hash));
+                }
+                writer.println(line);
+            }
+        } finally
+        {
+            writer.close();
+        }
+    }
+
+    /**
+     * Reads a file written by {@link #write(File)}.
+     * @param file The file.
+     * @return The hashes by chunk, sorted by chunk x and then z.
+     * @throws IOException If the file could not be read or is not a
+     *                     fingerprint file.
+     */
+    public static Map<ChunkCoordinate, long[]> read(File file) throws IOException
+    {
+        Map<ChunkCoordinate, long[]> result = new TreeMap<ChunkCoordinate, long[]>(ChunkOrder.INSTANCE);
+        BufferedReader reader = new BufferedReader(new FileReader(file));
+        try
+        {
+            String line = reader.readLine();
+            if (!HEADER.equals(line))
+            {
+                throw new IOException(file.getName() + " is not a fingerprint file");
+            }
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null)
+            {
+                lineNumber++;
+                if (line.isEmpty() || line.startsWith("#"))
+                {
+                    continue;
+                }
+                String[] parts = line.split(",");
+                if (parts.length != 2 + Stage.values().length)
+                {
+                    throw new IOException("Invalid line " + lineNumber + " in " + file.getName());
+                }
+                try
+                {
+                    long[] chunkHashes = new long[Stage.values().length];
+                    for (int i = 0; i < chunkHashes.length; i++)
+                    {
+                        chunkHashes[i] = Long.parseUnsignedLong(parts[i + 2], 16);
+                    }
+                    result.put(ChunkCoordinate.fromChunkCoords(Integer.parseInt(parts[0]), Integer.parseInt(parts[1])), chunkHashes);
+                }
+                catch (NumberFormatException e)
+                {
+                    throw new IOException("Invalid line " + lineNumber + " in " + file.getName() + ": " + e.getMessage());
+                }
+            }
+        } finally
+        {
+            reader.close();
+        }
+        return result;
+    }
+
+    /**
+     * Gets a hash of all chunks for every stage.
+     * @param chunkHashes The hashes by chunk, as returned by
+     *                    {@link #read(File)}.
+     * @return The hash of every stage, indexed by {@link Stage#ordinal()}.
+     */
+    public static long[] getAreaHashes(Map<ChunkCoordinate, long[]> chunkHashes)
+    {
+        long[] areaHashes = new long[Stage.values().length];
+        for (int i = 0; i < areaHashes.length; i++)
+        {
+            long hash = FNV_OFFSET_BASIS;
+            for (Map.Entry<ChunkCoordinate, long[]> entry : chunkHashes.entrySet())
+            {
+                hash = hash(hash, entry.getKey().getChunkX());
+                hash = hash(hash, entry.getKey().getChunkZ());
+                hash = hash(hash, (int) entry.getValue()[i]);
+                hash = hash(hash, (int) (entry.getValue()[i] >>> 32));
+            }
+            areaHashes[i] = hash;
+        }
+        return areaHashes;
+    }
+
+    /**
+     * Compares two fingerprint files. Only chunks that are in both files are
+     * compared.
+     * @param expectedFile The fingerprint of the original generator.
+     * @param actualFile   The fingerprint of the changed generator.
+     * @return Lines of text describing the result. Names the first stage
+     *         that differs, and the first chunk in which it differs.
+     * @throws IOException If a file could not be read.
+     */
+    public static List<String> diff(File expectedFile, File actualFile) throws IOException
+    {
+        Map<ChunkCoordinate, long[]> expected = read(expectedFile);
+        Map<ChunkCoordinate, long[]> actual = read(actualFile);
+
+        // Compare the chunks that are in both files
+        Map<ChunkCoordinate, long[]> expectedShared = new TreeMap<ChunkCoordinate, long[]>(ChunkOrder.INSTANCE);
+        Map<ChunkCoordinate, long[]> actualShared = new TreeMap<ChunkCoordinate, long[]>(ChunkOrder.INSTANCE);
+        for (Map.Entry<ChunkCoordinate, long[]> entry : expected.entrySet())
+        {
+            long[] actualHashes = actual.get(entry.getKey());
+            if (actualHashes != null)
+            {
+                expectedShared.put(entry.getKey(), entry.getValue());
+                actualShared.put(entry.getKey(), actualHashes);
+            }
+        }
+
+        List<String> lines = new ArrayList<String>();
+        lines.add("Compared " + expectedShared.size() + " chunks (" + expected.size() + " in " + expectedFile.getName() + ", " + actual.size() + " in " + actualFile.getName() + ")");
+
+        long[] expectedAreaHashes = getAreaHashes(expectedShared);
+        long[] actualAreaHashes = getAreaHashes(actualShared);
+        Stage firstDifferentStage = null;
+        for (Stage stage : Stage.values())
+        {
+            int i = stage.ordinal();
+            if (expectedAreaHashes[i] == actualAreaHashes[i])
+            {
+                lines.add(stage.name() + ": same");
+                continue;
+            }
+            int differentChunks = 0;
+            for (Map.Entry<ChunkCoordinate, long[]> entry : expectedShared.entrySet())
+            {
+                if (entry.getValue()[i] != actualShared.get(entry.getKey())[i])
+                {
+                    differentChunks++;
+                }
+            }
+            lines.add(stage.name() + ": " + differentChunks + " chunks differ");
+            if (firstDifferentStage == null)
+            {
+                firstDifferentStage = stage;
+            }
+        }
+
+        if (firstDifferentStage == null)
+        {
+            lines.add("No differences found.");
+            return lines;
+        }
+        int i = firstDifferentStage.ordinal();
+        for (Map.Entry<ChunkCoordinate, long[]> entry : expectedShared.entrySet())
+        {
+            if (entry.getValue()[i] != actualShared.get(entry.getKey())[i])
+            {
+                lines.add("First difference: stage " + firstDifferentStage.name() + " in chunk " + entry.getKey().getChunkX() + "," + entry.getKey().getChunkZ());
+                break;
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Sorts chunks by x and then by z, so that files are written in the same
+     * order every time.
+     */
+    private static class ChunkOrder implements Comparator<ChunkCoordinate>
+    {
+        static final ChunkOrder INSTANCE = new ChunkOrder();
+
+        @Override
+        public int compare(ChunkCoordinate a, ChunkCoordinate b)
+        {
+            if (a.getChunkX() != b.getChunkX())
+            {
+                return a.getChunkX() < b.getChunkX() ? -1 : 1;
+            }
+            if (a.getChunkZ() != b.getChunkZ())
+            {
+                return a.getChunkZ() < b.getChunkZ() ? -1 : 1;
+            }
+            return 0;
+        }
+    }
+}
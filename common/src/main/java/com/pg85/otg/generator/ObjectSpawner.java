@@ -3,43 +3,23 @@ package com.pg85.otg.generator;
 import com.pg85.otg.OTG;
 import com.pg85.otg.common.LocalBiome;
 import com.pg85.otg.common.LocalWorld;
-import com.pg85.otg.configuration.ConfigFunction;
-import com.pg85.otg.configuration.ErroredFunction;
 import com.pg85.otg.configuration.biome.BiomeConfig;
 import com.pg85.otg.configuration.world.WorldConfig;
 import com.pg85.otg.customobjects.CustomObject;
 import com.pg85.otg.customobjects.bo3.BO3;
 import com.pg85.otg.customobjects.bo3.BO3Settings.SpawnHeightEnum;
 import com.pg85.otg.customobjects.structures.bo4.BO4CustomStructure;
-import com.pg85.otg.generator.resource.AboveWaterGen;
-import com.pg85.otg.generator.resource.BoulderGen;
-import com.pg85.otg.generator.resource.CactusGen;
-import com.pg85.otg.generator.resource.CustomObjectGen;
-import com.pg85.otg.generator.resource.CustomStructureGen;
-import com.pg85.otg.generator.resource.DungeonGen;
-import com.pg85.otg.generator.resource.FossilGen;
-import com.pg85.otg.generator.resource.GrassGen;
-import com.pg85.otg.generator.resource.IceSpikeGen;
-import com.pg85.otg.generator.resource.LiquidGen;
-import com.pg85.otg.generator.resource.OreGen;
-import com.pg85.otg.generator.resource.PlantGen;
-import com.pg85.otg.generator.resource.ReedGen;
+import com.pg85.otg.generator.resource.PopulationPlan;
 import com.pg85.otg.generator.resource.Resource;
-import com.pg85.otg.generator.resource.SmallLakeGen;
-import com.pg85.otg.generator.resource.SurfacePatchGen;
-import com.pg85.otg.generator.resource.TreeGen;
-import com.pg85.otg.generator.resource.UnderWaterOreGen;
-import com.pg85.otg.generator.resource.UndergroundLakeGen;
-import com.pg85.otg.generator.resource.VeinGen;
-import com.pg85.otg.generator.resource.VinesGen;
-import com.pg85.otg.generator.resource.WellGen;
+import com.pg85.otg.generator.surface.BiomeFreezeTables;
 import com.pg85.otg.generator.surface.FrozenSurfaceHelper;
+import com.pg85.otg.logging.GenerationStage;
+import com.pg85.otg.logging.GenerationStats;
 import com.pg85.otg.logging.LogMarker;
 import com.pg85.otg.network.ConfigProvider;
 import com.pg85.otg.util.ChunkCoordinate;
 import com.pg85.otg.util.bo3.Rotation;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Random;
 
@@ -55,8 +35,15 @@ public class ObjectSpawner
     private final ConfigProvider configProvider;
     private final Random rand;
     private final LocalWorld world;
+    private final BiomeFreezeTables biomeFreezeTables = new BiomeFreezeTables();
 	public Object lockingObject = new Object();
-    
+	// The thread that is populating and the number of populate calls it
+	// is in. Populating a chunk can cause a neighbouring chunk to be
+	// populated on the same thread, which must not wait for the first call
+	// or release its lock.
+	private Thread populatingThread;
+	private int populatingDepth;
+
     public ObjectSpawner(ConfigProvider configProvider, LocalWorld localWorld)
     {
         this.configProvider = configProvider;
@@ -68,25 +55,74 @@ public class ObjectSpawner
     {
     	//OTG.log(LogMarker.INFO, "ObjectSpawner populate X" + chunkCoord.getChunkX() + " Z" + chunkCoord.getChunkZ());
 
-		// Wait for another thread running SaveToDisk, then place a lock.
-		while(true)
+		// Wait for another thread populating or running SaveToDisk, then place a lock.
+		long waitStartTime = GenerationStats.start();
+		startPopulating();
+		GenerationStats.end(GenerationStage.POPULATION_WAIT, waitStartTime);
+
+		long populationStartTime = GenerationStats.start();
+		try
 		{
-			//OTG.log(LogMarker.INFO, "Populate waiting on SaveToDisk.");
+			populateArea(chunkCoord);
+			GenerationFingerprint.recordPopulation(world, chunkCoord);
+		} finally {
+			// Release the lock
+			endPopulating();
+		}
+
+		GenerationStats.end(GenerationStage.POPULATION, populationStartTime);
 
-			synchronized(lockingObject)
+		//OTG.log(LogMarker.INFO, "ObjectSpawner DONE populating X" + chunkCoord.getChunkX() + " Z" + chunkCoord.getChunkZ());
+    }
+
+    private void startPopulating()
+    {
+    	Thread thread = Thread.currentThread();
+    	boolean interrupted = false;
+		synchronized(lockingObject)
+		{
+			while(saving || (populatingThread != null && populatingThread != thread))
 			{
-				if(!saving)
+				//OTG.log(LogMarker.INFO, "Populate waiting on SaveToDisk.");
+				try
+				{
+					lockingObject.wait();
+				}
+				catch (InterruptedException e)
 				{
-					populating = true;
-					break;
+					// Population can't be skipped, restore the flag afterwards
+					interrupted = true;
 				}
 			}
+			populatingThread = thread;
+			populatingDepth++;
+			populating = true;
+			saveRequired = true;
+		}
+		if(interrupted)
+		{
+			thread.interrupt();
 		}
+    }
+
+    private void endPopulating()
+    {
 		synchronized(lockingObject)
 		{
-			saveRequired = true;
+			populatingDepth--;
+			if(populatingDepth == 0)
+			{
+				// An early return or exception may have left this set
+				processing = false;
+				populatingThread = null;
+				populating = false;
+				lockingObject.notifyAll();
+			}
 		}
+    }
 
+    private void populateArea(ChunkCoordinate chunkCoord)
+    {
 		if(world.getConfigs().getWorldConfig().isOTGPlus)
 		{
 			if(!StructurePlottedAtSpawn)
@@ -102,10 +138,12 @@ public class ObjectSpawner
 
 			if(world.getConfigs().getWorldConfig().isOTGPlus)
 			{
+				long startTime = GenerationStats.start();
 				world.getStructureCache().plotStructures(rand, ChunkCoordinate.fromChunkCoords(chunkCoord.getChunkX() + 1, chunkCoord.getChunkZ()), false);
 				world.getStructureCache().plotStructures(rand, ChunkCoordinate.fromChunkCoords(chunkCoord.getChunkX(), chunkCoord.getChunkZ() + 1), false);
 				world.getStructureCache().plotStructures(rand, ChunkCoordinate.fromChunkCoords(chunkCoord.getChunkX() + 1, chunkCoord.getChunkZ() + 1), false);
 				world.getStructureCache().plotStructures(rand, chunkCoord, false);
+				GenerationStats.end(GenerationStage.BO4_PLOTTING, startTime);
 
 		        ChunkCoordinate spawnChunk = this.world.getSpawnChunk();
 
@@ -159,16 +197,22 @@ public class ObjectSpawner
 				// Mark population started
 				OTG.firePopulationStartEvent(world, rand, hasVillage, chunkCoord);
 
+				startTime = GenerationStats.start();
 				processResourcesPhase2(chunkCoord);
+				GenerationStats.end(GenerationStage.RESOURCES, startTime);
 
+				startTime = GenerationStats.start();
 				spawnBO3s(ChunkCoordinate.fromChunkCoords(chunkCoord.getChunkX() + 1, chunkCoord.getChunkZ()));
 				spawnBO3s(ChunkCoordinate.fromChunkCoords(chunkCoord.getChunkX(), chunkCoord.getChunkZ() + 1));
 				spawnBO3s(ChunkCoordinate.fromChunkCoords(chunkCoord.getChunkX() + 1, chunkCoord.getChunkZ() + 1));
 				spawnBO3s(ChunkCoordinate.fromChunkCoords(chunkCoord.getChunkX(), chunkCoord.getChunkZ()));
+				GenerationStats.end(GenerationStage.BO3, startTime);
 
 				// Generate structures
 
+				startTime = GenerationStats.start();
 				processResourcesPhase3(chunkCoord, hasVillage);
+				GenerationStats.end(GenerationStage.RESOURCES, startTime);
 
 				// Mark population ended
 				OTG.firePopulationEndEvent(world, rand, hasVillage, chunkCoord);
@@ -245,20 +289,19 @@ public class ObjectSpawner
 		        OTG.firePopulationStartEvent(world, rand, hasVillage, chunkCoord);
 
 		        // Resource sequence
-		        for (ConfigFunction<BiomeConfig> res : biomeConfig.resourceSequence)
+		        long startTime = GenerationStats.start();
+		        for (Resource res : biomeConfig.getPopulationPlan().getResources())
 		        {
-		            if (res instanceof Resource)
-		            {
-		                ((Resource)res).process(world, rand, hasVillage, chunkCoord);
-		            }
+		            res.process(world, rand, hasVillage, chunkCoord);
 		        }
+		        GenerationStats.end(GenerationStage.RESOURCES, startTime);
 
 		        // Animals
 		        world.placePopulationMobs(biome, rand, chunkCoord);
 
 		        // Snow and ice
 				// TODO: Fire PopulateChunkEvent.Populate.EventType.ICE for Forge
-		        new FrozenSurfaceHelper(world).freezeChunk(chunkCoord);
+		        new FrozenSurfaceHelper(world, this.biomeFreezeTables).freezeChunk(chunkCoord);
 
 		        // Replace blocks
 		        world.replaceBlocks(chunkCoord);
@@ -334,11 +377,17 @@ public class ObjectSpawner
 		        OTG.firePopulationEndEvent(world, rand, false, chunkCoord);
 		        world.endPopulation();
 
-				OTG.log(LogMarker.WARN,"Error, minecraft engine attempted to populate two chunks at once. Chunk X" + chunkCoord.getChunkX() + " Z" + chunkCoord.getChunkZ() + ". This is probably caused by a mod spawning blocks in unloaded chunks and can cause lag as well as missing trees, ores and other TC/OTG resources. Please try to find out which mod causes this, disable the feature causing it and alert the mod creator. Set the log level to TRACE in mods/OpenTerrainGenerator/OTG.ini file for a stack trace.");
-				OTG.log(LogMarker.TRACE, Arrays.toString(Thread.currentThread().getStackTrace()));
+				OTG.log(LogMarker.WARN, "Error, minecraft engine attempted to populate two chunks at once. Chunk X{} Z{}. This is probably caused by a mod spawning blocks in unloaded chunks and can cause lag as well as missing trees, ores and other TC/OTG resources. Please try to find out which mod causes this, disable the feature causing it and alert the mod creator. Set the log level to TRACE in mods/OpenTerrainGenerator/OTG.ini file for a stack trace.", chunkCoord.getChunkX(), chunkCoord.getChunkZ());
+				if(OTG.canLog(LogMarker.TRACE))
+				{
+					OTG.log(LogMarker.TRACE, Arrays.toString(Thread.currentThread().getStackTrace()));
+				}
 			} else {
-				OTG.log(LogMarker.WARN,"Error, minecraft engine attempted to populate two chunks at once. Chunk X" + chunkCoord.getChunkX() + " Z" + chunkCoord.getChunkZ() + ". This is probably caused by a mod spawning blocks in unloaded chunks. Set the log level to Trace in mods/OpenTerrainGenerator/OTG.ini file for a stack trace. Update: Using OTG multi-dimension features may cause this log message occasionally, still need to investigate.");
-				OTG.log(LogMarker.TRACE, Arrays.toString(Thread.currentThread().getStackTrace()));
+				OTG.log(LogMarker.WARN, "Error, minecraft engine attempted to populate two chunks at once. Chunk X{} Z{}. This is probably caused by a mod spawning blocks in unloaded chunks. Set the log level to Trace in mods/OpenTerrainGenerator/OTG.ini file for a stack trace. Update: Using OTG multi-dimension features may cause this log message occasionally, still need to investigate.", chunkCoord.getChunkX(), chunkCoord.getChunkZ());
+				if(OTG.canLog(LogMarker.TRACE))
+				{
+					OTG.log(LogMarker.TRACE, Arrays.toString(Thread.currentThread().getStackTrace()));
+				}
 
 				// Get the random generator
 				WorldConfig worldConfig = configProvider.getWorldConfig();
@@ -360,14 +409,6 @@ public class ObjectSpawner
 		        world.endPopulation();
 			}
 		}
-
-		// Release the lock
-		synchronized(lockingObject)
-		{
-			populating = false;
-		}
-
-		//OTG.log(LogMarker.INFO, "ObjectSpawner DONE populating X" + chunkCoord.getChunkX() + " Z" + chunkCoord.getChunkZ());
     }
 
 	private void processResourcesPhase2(ChunkCoordinate chunkCoord)
@@ -383,36 +424,9 @@ public class ObjectSpawner
 
 		BiomeConfig biomeConfig = biome.getBiomeConfig();
 
-		ArrayList<Resource> miscResources = new ArrayList<Resource>();
-		for (ConfigFunction<BiomeConfig> res : biomeConfig.resourceSequence)
+		for (Resource res : biomeConfig.getPopulationPlan().getPhase2Resources())
 		{
-			if (!(res instanceof CustomObjectGen) && !(res instanceof CustomStructureGen))
-			{
-				if(!(res instanceof ErroredFunction))
-				{
-					miscResources.add((Resource) res);
-				} else {
-					if(OTG.getPluginConfig().spawnLog)
-					{
-						OTG.log(LogMarker.WARN, "Could not parse resource \"" + res.toString() + "\" for biome " + biome.getName());
-					}
-				}
-			}
-		}
-
-		for (Resource res : miscResources)
-		{
-			if (
-				(res instanceof OreGen) ||
-				(res instanceof SmallLakeGen) ||
-				(res instanceof UndergroundLakeGen) || // TODO: look at potential size bug in UnderGroundLakeGen
-				(res instanceof UnderWaterOreGen) || // TODO: This seems to be bugged, generate a plains only world with default settings and no sand appears where it does in TC
-				(res instanceof VeinGen) || // TODO: Test this
-				(res instanceof SurfacePatchGen)
-			)
-			{
-				res.process(world, rand, false, chunkCoord);
-			}
+			res.process(world, rand, false, chunkCoord);
 		}
 	}
 
@@ -444,57 +458,16 @@ public class ObjectSpawner
 		// Resource sequence
 		// Processes all resources including bo2 and bo3's but also trees and such
 
-		// Bo2's
-		ArrayList<Resource> customObjects = new ArrayList<Resource>();
-		// Every other type of resource
-		ArrayList<Resource> miscResources = new ArrayList<Resource>();
-		for (ConfigFunction<BiomeConfig> res : biomeConfig.resourceSequence)
-		{
-			if(!(res instanceof ErroredFunction))
-			{
-				if (res instanceof CustomObjectGen)
-				{
-					// Small (<32x32) custom objects like trees and rocks.
-					customObjects.add((Resource) res);
-				}
-				else if (!(res instanceof CustomStructureGen))
-				{
-					miscResources.add((Resource) res);
-				}
-			} else {
-				if(OTG.getPluginConfig().spawnLog)
-				{
-					OTG.log(LogMarker.WARN, "Could not parse resource \"" + res.toString() + "\" for biome " + biome.getName());
-				}
-			}
-		}
-
-		for (Resource res : customObjects)
+		// Small (<32x32) custom objects like trees and rocks, then every
+		// other type of resource
+		PopulationPlan populationPlan = biomeConfig.getPopulationPlan();
+		for (Resource res : populationPlan.getPhase3CustomObjects())
 		{
 			res.process(world, rand, hasGeneratedAVillage, chunkCoord);
 		}
-		for (Resource res : miscResources)
+		for (Resource res : populationPlan.getPhase3Resources())
 		{
-			// TODO: Find out if these are always in the same order, trees
-			// should spawn first?
-			if (
-				(res instanceof DungeonGen) ||
-				(res instanceof AboveWaterGen) ||
-				(res instanceof PlantGen) ||
-				(res instanceof GrassGen) ||
-				(res instanceof TreeGen) ||
-				(res instanceof ReedGen) ||
-				(res instanceof LiquidGen) ||
-				(res instanceof BoulderGen) ||
-				(res instanceof CactusGen) ||
-				(res instanceof IceSpikeGen) ||
-				(res instanceof WellGen) ||
-				(res instanceof VinesGen) ||
-				(res instanceof FossilGen)
-			)
-			{
-				res.process(world, rand, hasGeneratedAVillage, chunkCoord);
-			}
+			res.process(world, rand, hasGeneratedAVillage, chunkCoord);
 		}
 
 		// don't use world.placePopulationMobs, it bypasses EntityLiving.getCanSpawnHere() :(
@@ -505,7 +478,7 @@ public class ObjectSpawner
 
 		// Snow and ice
 		// TODO: Fire PopulateChunkEvent.Populate.EventType.ICE for Forge
-		new FrozenSurfaceHelper(world).freezeChunk(chunkCoord);
+		new FrozenSurfaceHelper(world, this.biomeFreezeTables).freezeChunk(chunkCoord);
 
 		// Replace blocks
 		world.replaceBlocks(chunkCoord);
@@ -535,7 +508,13 @@ public class ObjectSpawner
 		{
 			// SpawnForChunk will call placeComplexSurfaceBlocks for this
 			// chunk (after spawning smooth area but before spawning structure)
-			structureStart.spawnForChunkOTGPlus(chunkCoord, world);
+			world.startBlockBatch();
+			try
+			{
+				structureStart.spawnForChunkOTGPlus(chunkCoord, world);
+			} finally {
+				world.endBlockBatch();
+			}
 
 			// All done spawning structures for this chunk, clean up cache
 			if(!world.isInsidePregeneratedRegion(chunkCoord))
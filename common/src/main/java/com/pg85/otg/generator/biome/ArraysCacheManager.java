@@ -26,7 +26,11 @@ public class ArraysCacheManager
             }
 
         }
-        return null; // Exception ??
+        // All pooled caches are in use, for example by a map export running
+        // next to world generation. Hand out a temporary cache instead.
+        ArraysCache cache = new ArraysCache();
+        cache.isFree = false;
+        return cache;
     }
 
     static void releaseCache(ArraysCache cache)
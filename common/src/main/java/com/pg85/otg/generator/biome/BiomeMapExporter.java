@@ -0,0 +1,380 @@
+package com.pg85.otg.generator.biome;
+
+import com.pg85.otg.OTG;
+import com.pg85.otg.common.LocalBiome;
+import com.pg85.otg.common.LocalWorld;
+import com.pg85.otg.configuration.biome.BiomeConfig;
+import com.pg85.otg.logging.LogMarker;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Renders the biome and temperature map of a world as a pyramid of PNG
+ * tiles, usable on all platforms.
+ *
+ * <p>
+ * Zoom level 0 is rendered directly from the biome generator at one pixel
+ * per block. Each worker thread uses its own uncached biome generator, since
+ * the {@link com.pg85.otg.generator.biome.layers.Layer layers} are not
+ * thread safe and the generator of the world is used by the server thread.
+ * Worlds using the vanilla biome generator can't be exported, because that
+ * generator can't be instantiated separately from the world. Every higher
+ * zoom level is downscaled from the four tiles below it, so the generator is
+ * queried only once per column. Tiles are written to disk as soon as they
+ * are finished and only a bounded amount of tiles is ever held in memory,
+ * which allows rendering very large areas.
+ *
+ * <p>
+ * Output layout: {@code <outputDir>/<biome|temperature>/<zoom>/<x>_<z>.png},
+ * where x and z are the tile coordinates relative to the north-west corner
+ * of the rendered area.
+ */
+public class BiomeMapExporter
+{
+    /**
+     * Width and height of a single tile, in pixels.
+     */
+    public static final int TILE_SIZE = 256;
+
+    private static final String BIOME_LAYER = "biome";
+    private static final String TEMPERATURE_LAYER = "temperature";
+
+    /**
+     * Receives progress updates from the exporter. Called from worker
+     * threads.
+     */
+    public interface ProgressListener
+    {
+        void onProgress(int tilesDone, int tilesTotal);
+    }
+
+    private static final AtomicInteger IsWorking = new AtomicInteger(0);
+
+    private final LocalWorld world;
+    private final File outputDir;
+    private final int startX;
+    private final int startZ;
+    private final int tilesPerSide;
+    private final int zoomLevels;
+    private final int threads;
+
+    private final int[] biomeColors;
+    private final int[] temperatureColors;
+
+    /**
+     * Creates a new exporter.
+     * @param world      The world to render.
+     * @param outputDir  Directory to write the tiles to.
+     * @param centerX    Center of the rendered area, in blocks.
+     * @param centerZ    Center of the rendered area, in blocks.
+     * @param size       Width and height of the rendered area, in blocks.
+     *                   Rounded up to a multiple of {@link #TILE_SIZE}.
+     * @param zoomLevels Amount of zoom levels to render, at least 1. Zoom
+     *                   level n renders 2^n blocks per pixel.
+     * @param threads    Amount of worker threads, at least 1 and at most the
+     *                   amount of available processors.
+     */
+    public BiomeMapExporter(LocalWorld world, File outputDir, int centerX, int centerZ, int size, int zoomLevels, int threads)
+    {
+        this.world = world;
+        this.outputDir = outputDir;
+        this.tilesPerSide = Math.max(1, (size + TILE_SIZE - 1) / TILE_SIZE);
+        this.startX = centerX - this.tilesPerSide * TILE_SIZE / 2;
+        this.startZ = centerZ - this.tilesPerSide * TILE_SIZE / 2;
+        this.zoomLevels = Math.max(1, zoomLevels);
+        this.threads = Math.max(1, Math.min(threads, Runtime.getRuntime().availableProcessors()));
+
+        LocalBiome[] biomes = world.getConfigs().getBiomeArrayByOTGId();
+        this.biomeColors = new int[biomes.length];
+        this.temperatureColors = new int[biomes.length];
+        for (LocalBiome biome : biomes)
+        {
+            if (biome != null)
+            {
+                BiomeConfig biomeConfig = biome.getBiomeConfig();
+                int id = biome.getIds().getOTGBiomeId();
+                this.biomeColors[id] = biomeConfig.biomeColor;
+                this.temperatureColors[id] = getTemperatureColor(biomeConfig.biomeTemperature);
+            }
+        }
+    }
+
+    /**
+     * Gets the directory map exports are written to by default, inside the
+     * OpenTerrainGenerator folder of the world save.
+     * @param world The world.
+     * @return The directory.
+     */
+    public static File getDefaultOutputDir(LocalWorld world)
+    {
+        int dimensionId = world.getDimensionId();
+        return new File(world.getWorldSaveDir().getAbsolutePath() + File.separator + "OpenTerrainGenerator" + File.separator + (dimensionId != 0 ? "DIM-" + dimensionId + File.separator : "") + "Map");
+    }
+
+    /**
+     * Gets whether the biome map of the given world can be exported.
+     * Vanilla biome generators read from Minecraft's own biome provider,
+     * which is used by the server thread and can't be created separately.
+     * @param world The world.
+     * @return True if the world can be exported.
+     */
+    public static boolean canExport(LocalWorld world)
+    {
+        return !(world.getBiomeGenerator().unwrap() instanceof VanillaBiomeGenerator);
+    }
+
+    /**
+     * Renders all tiles. Blocks until the export has finished. Only one
+     * export can run at a time.
+     * @param listener Receives progress updates, may be null.
+     * @return False if another export was already running.
+     * @throws IOException If a tile could not be written, or if the world
+     *                     {@link #canExport(LocalWorld) can't be exported}.
+     */
+    public boolean export(final ProgressListener listener) throws IOException
+    {
+        if (!canExport(this.world))
+        {
+            throw new IOException("Biome maps can't be exported for worlds that use the vanilla biome generator");
+        }
+        if (!IsWorking.compareAndSet(0, 1))
+        {
+            return false;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(this.threads);
+        try
+        {
+            int tilesTotal = 0;
+            for (int zoom = 0; zoom < this.zoomLevels; zoom++)
+            {
+                int tiles = getTilesPerSide(zoom);
+                tilesTotal += tiles * tiles;
+            }
+
+            final int total = tilesTotal;
+            final AtomicInteger tilesDone = new AtomicInteger(0);
+            final ThreadLocal<BiomeGenerator> generators = new ThreadLocal<BiomeGenerator>()
+            {
+                @Override
+                protected BiomeGenerator initialValue()
+                {
+                    // Never use the generator of the world, the server
+                    // thread is generating chunks with it
+                    return OTG.getBiomeModeManager().create(BiomeMapExporter.this.world.getConfigs().getWorldConfig().biomeMode, BiomeMapExporter.this.world);
+                }
+            };
+
+            for (int zoom = 0; zoom < this.zoomLevels; zoom++)
+            {
+                final int currentZoom = zoom;
+                int tiles = getTilesPerSide(zoom);
+                // Limits the amount of queued tiles, so that memory usage
+                // does not grow with the size of the area.
+                final Semaphore inFlight = new Semaphore(this.threads * 2);
+                List<Future<?>> futures = new ArrayList<Future<?>>();
+                for (int tileX = 0; tileX < tiles; tileX++)
+                {
+                    for (int tileZ = 0; tileZ < tiles; tileZ++)
+                    {
+                        final int currentTileX = tileX;
+                        final int currentTileZ = tileZ;
+                        inFlight.acquireUninterruptibly();
+                        futures.add(executor.submit(new Runnable()
+                        {
+                            @Override
+                            public void run()
+                            {
+                                try
+                                {
+                                    if (currentZoom == 0)
+                                    {
+                                        renderTile(generators.get(), currentTileX, currentTileZ);
+                                    }
+                                    else
+                                    {
+                                        downscaleTile(currentZoom, currentTileX, currentTileZ);
+                                    }
+                                    int done = tilesDone.incrementAndGet();
+                                    if (listener != null)
+                                    {
+                                        listener.onProgress(done, total);
+                                    }
+                                }
+                                catch (IOException e)
+                                {
+                                    throw new RuntimeException(e);
+                                }
+                                finally
+                                {
+                                    inFlight.release();
+                                }
+                            }
+                        }));
+                        futures = awaitFinished(futures, false);
+                    }
+                }
+                // Higher zoom levels are built from the finished tiles of
+                // this level.
+                awaitFinished(futures, true);
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+            IsWorking.set(0);
+        }
+        return true;
+    }
+
+    /**
+     * Drops finished tasks from the list and rethrows any of their errors.
+     * @param futures The submitted tasks.
+     * @param wait    Whether to wait for all unfinished tasks.
+     * @return The unfinished tasks.
+     */
+    private List<Future<?>> awaitFinished(List<Future<?>> futures, boolean wait) throws IOException
+    {
+        List<Future<?>> unfinished = new ArrayList<Future<?>>();
+        for (Future<?> future : futures)
+        {
+            if (!wait && !future.isDone())
+            {
+                unfinished.add(future);
+                continue;
+            }
+            try
+            {
+                future.get();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new IOException("Map export was interrupted", e);
+            }
+            catch (ExecutionException e)
+            {
+                if (e.getCause() != null && e.getCause().getCause() instanceof IOException)
+                {
+                    throw (IOException) e.getCause().getCause();
+                }
+                throw new IOException("Failed to render map tile", e.getCause());
+            }
+        }
+        return unfinished;
+    }
+
+    private int getTilesPerSide(int zoom)
+    {
+        return Math.max(1, (this.tilesPerSide + (1 << zoom) - 1) >> zoom);
+    }
+
+    private void renderTile(BiomeGenerator generator, int tileX, int tileZ) throws IOException
+    {
+        int[] biomes = generator.getBiomes(null, this.startX + tileX * TILE_SIZE, this.startZ + tileZ * TILE_SIZE, TILE_SIZE, TILE_SIZE, OutputType.DEFAULT_FOR_WORLD);
+
+        BufferedImage biomeImage = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_RGB);
+        BufferedImage temperatureImage = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_RGB);
+        int[] biomeRow = new int[TILE_SIZE];
+        int[] temperatureRow = new int[TILE_SIZE];
+        for (int z = 0; z < TILE_SIZE; z++)
+        {
+            for (int x = 0; x < TILE_SIZE; x++)
+            {
+                int biomeId = biomes[x + z * TILE_SIZE];
+                if (biomeId >= 0 && biomeId < this.biomeColors.length)
+                {
+                    biomeRow[x] = this.biomeColors[biomeId];
+                    temperatureRow[x] = this.temperatureColors[biomeId];
+                }
+                else
+                {
+                    biomeRow[x] = 0;
+                    temperatureRow[x] = 0;
+                }
+            }
+            biomeImage.setRGB(0, z, TILE_SIZE, 1, biomeRow, 0, TILE_SIZE);
+            temperatureImage.setRGB(0, z, TILE_SIZE, 1, temperatureRow, 0, TILE_SIZE);
+        }
+
+        writeTile(BIOME_LAYER, 0, tileX, tileZ, biomeImage);
+        writeTile(TEMPERATURE_LAYER, 0, tileX, tileZ, temperatureImage);
+    }
+
+    private void downscaleTile(int zoom, int tileX, int tileZ) throws IOException
+    {
+        for (String layer : new String[] { BIOME_LAYER, TEMPERATURE_LAYER })
+        {
+            BufferedImage image = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_RGB);
+            int[] row = new int[TILE_SIZE / 2];
+            for (int i = 0; i < 4; i++)
+            {
+                int childX = tileX * 2 + (i & 1);
+                int childZ = tileZ * 2 + (i >> 1);
+                File childFile = getTileFile(layer, zoom - 1, childX, childZ);
+                if (!childFile.exists())
+                {
+                    // Outside of the rendered area
+                    continue;
+                }
+                BufferedImage child = ImageIO.read(childFile);
+                // Biome colors can't be blended, so take the top left
+                // pixel of every 2x2 square.
+                for (int z = 0; z < TILE_SIZE / 2; z++)
+                {
+                    for (int x = 0; x < TILE_SIZE / 2; x++)
+                    {
+                        row[x] = child.getRGB(x * 2, z * 2);
+                    }
+                    image.setRGB((i & 1) * TILE_SIZE / 2, (i >> 1) * TILE_SIZE / 2 + z, TILE_SIZE / 2, 1, row, 0, TILE_SIZE / 2);
+                }
+            }
+            writeTile(layer, zoom, tileX, tileZ, image);
+        }
+    }
+
+    private File getTileFile(String layer, int zoom, int tileX, int tileZ)
+    {
+        return new File(this.outputDir, layer + File.separator + zoom + File.separator + tileX + "_" + tileZ + ".png");
+    }
+
+    private void writeTile(String layer, int zoom, int tileX, int tileZ, BufferedImage image) throws IOException
+    {
+        File file = getTileFile(layer, zoom, tileX, tileZ);
+        File dir = file.getParentFile();
+        if (!dir.exists() && !dir.mkdirs() && !dir.exists())
+        {
+            throw new IOException("Could not create directory " + dir.getAbsolutePath());
+        }
+        ImageIO.write(image, "png", file);
+        OTG.log(LogMarker.TRACE, "Wrote map tile {}", (Object) file.getPath());
+    }
+
+    /**
+     * Gets the temperature color of a biome. Starts at blue, goes to green,
+     * red and darker red for increasing temperatures.
+     * @param temperature The temperature of the biome.
+     * @return The temperature color.
+     */
+    private static int getTemperatureColor(float temperature)
+    {
+        // Prevents us from going around the color wheel twice or getting into
+        // the purple colors
+        float cappedTemperature = Math.min(1.0f, temperature);
+
+        return Color.getHSBColor(0.7f - cappedTemperature * 0.7f, 0.9f, temperature * 0.7f + 0.3f).getRGB();
+    }
+}
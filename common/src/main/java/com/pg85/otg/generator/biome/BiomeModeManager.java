@@ -59,13 +59,14 @@ public class BiomeModeManager
     /**
      * Creates an instance of the given biome generator. If an error occurs
      * during instantiation, a message is logged and the normal biome
-     * generator is returned.
+     * generator is returned. The returned generator is not cached, and not
+     * shared with the world.
      * @param clazz The BiomeGenerator class to instantiate.
      * @param world The world of the biome generator.
      * @return The biome generator.
      * @see #createCached(Class, LocalWorld)
      */
-    private <T extends BiomeGenerator> BiomeGenerator create(Class<T> clazz, LocalWorld world)
+    public <T extends BiomeGenerator> BiomeGenerator create(Class<T> clazz, LocalWorld world)
     {
         try
         {
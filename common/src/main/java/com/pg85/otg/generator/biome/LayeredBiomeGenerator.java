@@ -2,6 +2,8 @@ package com.pg85.otg.generator.biome;
 
 import com.pg85.otg.common.LocalWorld;
 import com.pg85.otg.generator.biome.layers.Layer;
+import com.pg85.otg.logging.GenerationStage;
+import com.pg85.otg.logging.GenerationStats;
 
 /**
  * Skeletal implementation for biome modes that use the {@link Layer} class to
@@ -50,7 +52,9 @@ public abstract class LayeredBiomeGenerator extends BiomeGenerator
             cache.outputType = defaultOutputType;
         else
             cache.outputType = outputType;
+        long startTime = GenerationStats.start();
         int[] arrayOfInt = this.unZoomedLayer.getInts(world, cache, x, z, x_size, z_size);
+        GenerationStats.end(GenerationStage.BIOME_LAYERS, startTime);
         ArraysCacheManager.releaseCache(cache);
 
         System.arraycopy(arrayOfInt, 0, biomeArray, 0, x_size * z_size);
@@ -71,7 +75,9 @@ public abstract class LayeredBiomeGenerator extends BiomeGenerator
             cache.outputType = defaultOutputType;
         else
             cache.outputType = outputType;
+        long startTime = GenerationStats.start();
         int[] arrayOfInt = this.biomeLayer.getInts(world, cache, x, z, x_size, z_size);
+        GenerationStats.end(GenerationStage.BIOME_LAYERS, startTime);
         ArraysCacheManager.releaseCache(cache);
 
         System.arraycopy(arrayOfInt, 0, biomeArray, 0, x_size * z_size);
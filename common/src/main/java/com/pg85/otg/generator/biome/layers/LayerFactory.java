@@ -38,7 +38,7 @@ public final class LayerFactory
         	{
     			throw new RuntimeException("Could not find DefaultOceanBiome \"" + world.getConfigs().getWorldConfig().defaultOceanBiome + "\", aborting.");	
         	}
-        	OTG.log(LogMarker.WARN, "Could not find DefaultOceanBiome \"" + world.getConfigs().getWorldConfig().defaultOceanBiome + "\", substituting \"" + defaultOceanBiome.getName() + "\".");
+        	OTG.log(LogMarker.WARN, "Could not find DefaultOceanBiome \"{}\", substituting \"{}\".", world.getConfigs().getWorldConfig().defaultOceanBiome, defaultOceanBiome.getName());
         }
        
         return defaultOceanBiome.getIds().getOTGBiomeId();
@@ -104,7 +104,7 @@ public final class LayerFactory
         	{
     			throw new RuntimeException("Could not find DefaultOceanBiome \"" + worldConfig.defaultOceanBiome + "\", aborting.");	
         	}
-        	OTG.log(LogMarker.WARN, "Could not find DefaultOceanBiome \"" + worldConfig.defaultOceanBiome + "\", substituting \"" + defaultOceanBiome.getName() + "\".");
+        	OTG.log(LogMarker.WARN, "Could not find DefaultOceanBiome \"{}\", substituting \"{}\".", worldConfig.defaultOceanBiome, defaultOceanBiome.getName());
         }
 
         LocalBiome defaultFrozenOceanBiome = world.getBiomeByNameOrNull(worldConfig.defaultFrozenOceanBiome);
@@ -115,7 +115,7 @@ public final class LayerFactory
         	{
         		throw new RuntimeException("Could not find DefaultFrozenOceanBiome \"" + worldConfig.defaultFrozenOceanBiome + "\", aborting.");	
         	}
-        	OTG.log(LogMarker.WARN, "Could not find DefaultFrozenOceanBiome \"" + worldConfig.defaultFrozenOceanBiome + "\", substituting \"" + defaultOceanBiome.getName() + "\".");
+        	OTG.log(LogMarker.WARN, "Could not find DefaultFrozenOceanBiome \"{}\", substituting \"{}\".", worldConfig.defaultFrozenOceanBiome, defaultOceanBiome.getName());
         }
         
         int defaultOceanId = defaultOceanBiome.getIds().getOTGBiomeId();        
@@ -361,10 +361,10 @@ public final class LayerFactory
         	defaultOceanBiome = world.getFirstBiomeOrNull();
         	if(defaultOceanBiome == null)
         	{
-        		OTG.log(LogMarker.FATAL, "Could not find DefaultOceanBiome \"" + worldConfig.defaultOceanBiome + "\", aborting.");
+        		OTG.log(LogMarker.FATAL, "Could not find DefaultOceanBiome \"{}\", aborting.", worldConfig.defaultOceanBiome);
     			throw new RuntimeException("Could not find DefaultOceanBiome \"" + worldConfig.defaultOceanBiome + "\", aborting.");	
         	}
-        	OTG.log(LogMarker.WARN, "Could not find DefaultOceanBiome \"" + worldConfig.defaultOceanBiome + "\", substituting \"" + defaultOceanBiome.getName() + "\".");
+        	OTG.log(LogMarker.WARN, "Could not find DefaultOceanBiome \"{}\", substituting \"{}\".", worldConfig.defaultOceanBiome, defaultOceanBiome.getName());
         }
 
         LocalBiome defaultFrozenOceanBiome = world.getBiomeByNameOrNull(worldConfig.defaultFrozenOceanBiome);
@@ -373,10 +373,10 @@ public final class LayerFactory
         	defaultFrozenOceanBiome = world.getFirstBiomeOrNull();
         	if(defaultFrozenOceanBiome == null)
         	{
-        		OTG.log(LogMarker.FATAL, "Could not find DefaultFrozenOceanBiome \"" + worldConfig.defaultFrozenOceanBiome + "\", aborting.");
+        		OTG.log(LogMarker.FATAL, "Could not find DefaultFrozenOceanBiome \"{}\", aborting.", worldConfig.defaultFrozenOceanBiome);
         		throw new RuntimeException("Could not find DefaultFrozenOceanBiome \"" + worldConfig.defaultFrozenOceanBiome + "\", aborting.");	
         	}
-        	OTG.log(LogMarker.WARN, "Could not find DefaultFrozenOceanBiome \"" + worldConfig.defaultFrozenOceanBiome + "\", substituting \"" + defaultOceanBiome.getName() + "\".");
+        	OTG.log(LogMarker.WARN, "Could not find DefaultFrozenOceanBiome \"{}\", substituting \"{}\".", worldConfig.defaultFrozenOceanBiome, defaultOceanBiome.getName());
         }
         
         int defaultOceanId = defaultOceanBiome.getIds().getOTGBiomeId();        
@@ -503,7 +503,7 @@ public final class LayerFactory
                     	}
                     	if(replaceFromBiome == null)
                     	{
-                    		OTG.log(LogMarker.WARN, "Could not find BorderBiome \"" + replaceFromName + "\" for biome \"" + biomeConfig.getName() + "\", ignoring.");
+                    		OTG.log(LogMarker.WARN, "Could not find BorderBiome \"{}\" for biome \"{}\", ignoring.", replaceFromName, biomeConfig.getName());
                     		continue;
                     	}
             			replaceFrom = replaceFromBiome.getIds().getOTGBiomeId();
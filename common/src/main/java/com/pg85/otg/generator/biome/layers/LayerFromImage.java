@@ -9,13 +9,25 @@ import com.pg85.otg.logging.LogMarker;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 
 public class LayerFromImage extends Layer
 {
+    /**
+     * Images with at least this many pixels are converted to a
+     * {@link TiledBiomeMap} instead of being kept on the heap, unless
+     * another amount is given to the constructor.
+     */
+    static final long MIN_TILED_PIXELS = 4096L * 4096L;
 
     private int[] biomeMap;
+    private TiledBiomeMap tiledBiomeMap;
     private int mapHeight;
     private int mapWidth;
     private int fillBiome = 0;
@@ -24,6 +36,15 @@ public class LayerFromImage extends Layer
     private WorldConfig.ImageMode imageMode;
 
     LayerFromImage(long seed, int defaultOceanId, Layer childLayer, WorldConfig config, LocalWorld world)
+    {
+        this(seed, defaultOceanId, childLayer, config, world, MIN_TILED_PIXELS);
+    }
+
+    /**
+     * Creates the layer, using a {@link TiledBiomeMap} for images with at
+     * least the given amount of pixels.
+     */
+    LayerFromImage(long seed, int defaultOceanId, Layer childLayer, WorldConfig config, LocalWorld world, long minTiledPixels)
     {
         super(seed, defaultOceanId);
         this.child = childLayer;
@@ -33,10 +54,15 @@ public class LayerFromImage extends Layer
         
     	this.fillBiome = world.getBiomeByNameOrNull(config.imageFillBiome).getIds().getOTGBiomeId();
 
+        final File image = new File(config.settingsDir, config.imageFile);
+        if (loadTiledBiomeMap(config, image, minTiledPixels))
+        {
+            return;
+        }
+
         // Read from file
         try
         {
-            final File image = new File(config.settingsDir, config.imageFile);
             final BufferedImage map = ImageIO.read(image);
 
             this.mapWidth = map.getWidth(null);
@@ -99,6 +125,108 @@ public class LayerFromImage extends Layer
         }
     }
 
+    /**
+     * Uses a tiled biome map for large images, converting the image if that
+     * wasn't done before.
+     * @return False if the biome map must be kept on the heap instead.
+     */
+    private boolean loadTiledBiomeMap(WorldConfig config, File image, long minTiledPixels)
+    {
+        if (this.fillBiome < 0 || this.fillBiome > TiledBiomeMap.MAX_BIOME_ID)
+        {
+            return false;
+        }
+        // Fingerprint of the settings that change the biome ids in the map
+        long fingerprint = config.imageOrientation.ordinal() * 31L + this.fillBiome;
+        for (Map.Entry<Integer, Integer> entry : new TreeMap<Integer, Integer>(config.biomeColorMap).entrySet())
+        {
+            if (entry.getValue() < 0 || entry.getValue() > TiledBiomeMap.MAX_BIOME_ID)
+            {
+                return false;
+            }
+            fingerprint = (fingerprint * 31L + entry.getKey()) * 31L + entry.getValue();
+        }
+
+        File tilesFile = new File(image.getPath() + TiledBiomeMap.FILE_EXTENSION);
+        try
+        {
+            if (getPixelCount(image) < minTiledPixels)
+            {
+                return false;
+            }
+            TiledBiomeMap tiles = TiledBiomeMap.open(tilesFile, image, fingerprint);
+            if (tiles == null)
+            {
+                OTG.log(LogMarker.INFO, "Converting {} to {}, this is only done once.", image.getName(), tilesFile.getName());
+                BufferedImage map = ImageIO.read(image);
+                TiledBiomeMap.convert(map, config.imageOrientation, config.biomeColorMap, this.fillBiome, image, fingerprint, tilesFile);
+                tiles = TiledBiomeMap.open(tilesFile, image, fingerprint);
+                if (tiles == null)
+                {
+                    throw new IOException("Converted file is invalid");
+                }
+            }
+            this.tiledBiomeMap = tiles;
+            this.mapWidth = tiles.getWidth();
+            this.mapHeight = tiles.getHeight();
+            return true;
+        }
+        catch (IOException e)
+        {
+            OTG.log(LogMarker.WARN, "Could not use {}, loading the whole image into memory instead: {}", tilesFile.getAbsolutePath(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Gets the amount of pixels of the image without decoding it.
+     */
+    private static long getPixelCount(File image) throws IOException
+    {
+        ImageInputStream stream = ImageIO.createImageInputStream(image);
+        if (stream == null)
+        {
+            throw new IOException("Could not open " + image.getAbsolutePath());
+        }
+        try
+        {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(stream);
+            if (!readers.hasNext())
+            {
+                throw new IOException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try
+            {
+                reader.setInput(stream);
+                return (long) reader.getWidth(0) * reader.getHeight(0);
+            } finally
+            {
+                reader.dispose();
+            }
+        } finally
+        {
+            stream.close();
+        }
+    }
+
+    /**
+     * Gets whether the biome map is read from a {@link TiledBiomeMap}.
+     */
+    boolean isTiled()
+    {
+        return this.tiledBiomeMap != null;
+    }
+
+    private int getBiome(int mapX, int mapZ)
+    {
+        if (this.tiledBiomeMap != null)
+        {
+            return this.tiledBiomeMap.get(mapX, mapZ);
+        }
+        return this.biomeMap[mapX + mapZ * this.mapWidth];
+    }
+
     @Override
     public int[] getInts(LocalWorld world, ArraysCache cache, int x, int z, int xSize, int zSize)
     {
@@ -118,7 +246,7 @@ public class LayerFromImage extends Layer
                             Buffer_x += this.mapWidth;
                         if (Buffer_z < 0)
                             Buffer_z += this.mapHeight;
-                        resultBiomes[(xi + zi * xSize)] = this.biomeMap[Buffer_x + Buffer_z * this.mapWidth];
+                        resultBiomes[(xi + zi * xSize)] = getBiome(Buffer_x, Buffer_z);
                     }
                 return resultBiomes;
             case Mirror:
@@ -138,7 +266,7 @@ public class LayerFromImage extends Layer
                             Buffer_x = this.mapWidth - 1 - Buffer_x;
                         if (Buffer_zq >= this.mapHeight)
                             Buffer_z = this.mapHeight - 1 - Buffer_z;
-                        resultBiomes[(xi + zi * xSize)] = this.biomeMap[Buffer_x + Buffer_z * this.mapWidth];
+                        resultBiomes[(xi + zi * xSize)] = getBiome(Buffer_x, Buffer_z);
                     }
                 return resultBiomes;
             case ContinueNormal:
@@ -157,7 +285,7 @@ public class LayerFromImage extends Layer
                             else
                                 resultBiomes[(xi + zi * xSize)] = this.fillBiome;
                         } else
-                            resultBiomes[(xi + zi * xSize)] = this.biomeMap[Buffer_x + Buffer_z * this.mapWidth];
+                            resultBiomes[(xi + zi * xSize)] = getBiome(Buffer_x, Buffer_z);
                     }
                 break;
             case FillEmpty:
@@ -170,7 +298,7 @@ public class LayerFromImage extends Layer
                         if (Buffer_x < 0 || Buffer_x >= this.mapWidth || Buffer_z < 0 || Buffer_z >= this.mapHeight)
                             resultBiomes[(xi + zi * xSize)] = this.fillBiome;
                         else
-                            resultBiomes[(xi + zi * xSize)] = this.biomeMap[Buffer_x + Buffer_z * this.mapWidth];
+                            resultBiomes[(xi + zi * xSize)] = getBiome(Buffer_x, Buffer_z);
                     }
                 break;
         }
@@ -33,7 +33,7 @@ public class LayerMixWithRiver extends Layer
             	{
             		this.riverBiomes[id] = riverBiome.getIds().getOTGBiomeId();
             	} else {
-            		OTG.log(LogMarker.WARN, "River biome \"" + biome.getBiomeConfig().riverBiome + "\" for biome " + biome.getBiomeConfig().getName() + " could not be found.");
+            		OTG.log(LogMarker.WARN, "River biome \"{}\" for biome {} could not be found.", biome.getBiomeConfig().riverBiome, biome.getBiomeConfig().getName());
             	}
             }
         }
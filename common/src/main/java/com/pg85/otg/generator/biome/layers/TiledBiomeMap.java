@@ -0,0 +1,316 @@
+package com.pg85.otg.generator.biome.layers;
+
+import com.pg85.otg.configuration.world.WorldConfig.ImageOrientation;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Biome map of {@link LayerFromImage} that is stored in a file instead of
+ * on the heap. The image is converted once to a file with the biome id of
+ * every pixel, next to the image. The file is split into square tiles and
+ * memory-mapped, tiles are copied out of it when they are needed and the
+ * most recently used ones are kept.
+ *
+ * <p>
+ * The file is converted again when the image or the settings used to
+ * convert it have changed.
+ */
+final class TiledBiomeMap
+{
+    static final String FILE_EXTENSION = ".biomecache";
+
+    private static final int MAGIC = 0x4F544742; // "OTGB"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+
+    private static final int TILE_BITS = 8;
+    private static final int TILE_SIZE = 1 << TILE_BITS;
+    private static final int TILE_MASK = TILE_SIZE - 1;
+    // Biome ids are stored as unsigned 16 bit numbers
+    private static final int TILE_BYTES = TILE_SIZE * TILE_SIZE * 2;
+    static final int MAX_BIOME_ID = 0xFFFF;
+
+    /**
+     * Amount of tiles kept in memory, 128 KB each.
+     */
+    private static final int MAX_CACHED_TILES = 64;
+
+    private final int width;
+    private final int height;
+    private final int tilesX;
+    private final int tilesPerSegment;
+    private final MappedByteBuffer[] segments;
+
+    private final Map<Integer, char[]> tileCache = new LinkedHashMap<Integer, char[]>(MAX_CACHED_TILES, 0.75f, true)
+    {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, char[]> eldest)
+        {
+            return size() > MAX_CACHED_TILES;
+        }
+    };
+
+    // Tile of the last lookup, most lookups are in the same tile as the previous one
+    private Tile lastTile = new Tile(-1, null);
+
+    private TiledBiomeMap(int width, int height, FileChannel channel) throws IOException
+    {
+        this.width = width;
+        this.height = height;
+        this.tilesX = (width + TILE_SIZE - 1) / TILE_SIZE;
+        int tileCount = this.tilesX * ((height + TILE_SIZE - 1) / TILE_SIZE);
+
+        // A single mapping can't be larger than 2 GB
+        this.tilesPerSegment = Integer.MAX_VALUE / TILE_BYTES;
+        this.segments = new MappedByteBuffer[(tileCount + this.tilesPerSegment - 1) / this.tilesPerSegment];
+        for (int i = 0; i < this.segments.length; i++)
+        {
+            int tilesInSegment = Math.min(this.tilesPerSegment, tileCount - i * this.tilesPerSegment);
+            this.segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + (long) i * this.tilesPerSegment * TILE_BYTES, (long) tilesInSegment * TILE_BYTES);
+        }
+    }
+
+    int getWidth()
+    {
+        return this.width;
+    }
+
+    int getHeight()
+    {
+        return this.height;
+    }
+
+    /**
+     * Gets the biome id at the given position.
+     * @param x X position in the (rotated) image, from 0 to the width.
+     * @param z Z position in the (rotated) image, from 0 to the height.
+     * @return The biome id.
+     */
+    int get(int x, int z)
+    {
+        int tileIndex = (z >> TILE_BITS) * this.tilesX + (x >> TILE_BITS);
+        Tile tile = this.lastTile;
+        if (tile.index != tileIndex)
+        {
+            tile = new Tile(tileIndex, getTile(tileIndex));
+            this.lastTile = tile;
+        }
+        return tile.biomes[((z & TILE_MASK) << TILE_BITS) | (x & TILE_MASK)];
+    }
+
+    private char[] getTile(int tileIndex)
+    {
+        synchronized (this.tileCache)
+        {
+            char[] biomes = this.tileCache.get(tileIndex);
+            if (biomes == null)
+            {
+                biomes = new char[TILE_SIZE * TILE_SIZE];
+                ByteBuffer segment = this.segments[tileIndex / this.tilesPerSegment].duplicate();
+                segment.position((tileIndex % this.tilesPerSegment) * TILE_BYTES);
+                segment.asCharBuffer().get(biomes);
+                this.tileCache.put(tileIndex, biomes);
+            }
+            return biomes;
+        }
+    }
+
+    /**
+     * Opens the converted biome map.
+     * @param file        The converted biome map.
+     * @param source      The image the map was converted from.
+     * @param fingerprint Fingerprint of the settings used to convert the
+     *                    image.
+     * @return The biome map, or null if the file doesn't exist or is
+     *         outdated.
+     * @throws IOException If the file could not be read.
+     */
+    static TiledBiomeMap open(File file, File source, long fingerprint) throws IOException
+    {
+        if (!file.exists())
+        {
+            return null;
+        }
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try
+        {
+            FileChannel channel = randomAccessFile.getChannel();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0)
+            {
+                // Read until the header is complete
+            }
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION
+                    || header.getLong() != source.length() || header.getLong() != source.lastModified() || header.getLong() != fingerprint)
+            {
+                return null;
+            }
+            int width = header.getInt();
+            int height = header.getInt();
+            long tileCount = (long) ((width + TILE_SIZE - 1) / TILE_SIZE) * ((height + TILE_SIZE - 1) / TILE_SIZE);
+            if (channel.size() != HEADER_SIZE + tileCount * TILE_BYTES)
+            {
+                // Incomplete file
+                return null;
+            }
+            // The mappings stay valid after the file is closed
+            return new TiledBiomeMap(width, height, channel);
+        } finally
+        {
+            randomAccessFile.close();
+        }
+    }
+
+    /**
+     * Converts the image to a tiled biome map file.
+     * @param image       The image.
+     * @param orientation Where the north of the image is, the map is
+     *                    rotated like {@link LayerFromImage} does.
+     * @param colorMap    The biome id for every color.
+     * @param fillBiome   The biome id for colors that are not in the map.
+     *                    All ids must be from 0 to {@value #MAX_BIOME_ID}.
+     * @param source      The image file, to detect changes later.
+     * @param fingerprint Fingerprint of the settings, to detect changes
+     *                    later.
+     * @param file        The file to write to.
+     * @throws IOException If the file could not be written.
+     */
+    static void convert(BufferedImage image, ImageOrientation orientation, Map<Integer, Integer> colorMap, int fillBiome, File source, long fingerprint, File file) throws IOException
+    {
+        int sourceWidth = image.getWidth();
+        int sourceHeight = image.getHeight();
+        boolean rotated = orientation == ImageOrientation.West || orientation == ImageOrientation.East;
+        int width = rotated ? sourceHeight : sourceWidth;
+        int height = rotated ? sourceWidth : sourceHeight;
+
+        // Write to a temporary file first, so that an interrupted conversion
+        // never leaves a file that looks complete
+        File tempFile = new File(file.getPath() + ".tmp");
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile), 1 << 16));
+        try
+        {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(source.length());
+            out.writeLong(source.lastModified());
+            out.writeLong(fingerprint);
+            out.writeInt(width);
+            out.writeInt(height);
+            out.write(new byte[HEADER_SIZE - out.size()]);
+
+            int[] colors = new int[TILE_SIZE * TILE_SIZE];
+            byte[] tileBytes = new byte[TILE_BYTES];
+            int[] sourcePos = new int[2];
+            int lastColor = -1;
+            int lastBiome = fillBiome;
+            for (int tileZ = 0; tileZ < height; tileZ += TILE_SIZE)
+            {
+                for (int tileX = 0; tileX < width; tileX += TILE_SIZE)
+                {
+                    int tileWidth = Math.min(TILE_SIZE, width - tileX);
+                    int tileHeight = Math.min(TILE_SIZE, height - tileZ);
+
+                    // Read the part of the image that ends up in this tile
+                    toSourcePos(orientation, sourceWidth, sourceHeight, tileX, tileZ, sourcePos);
+                    int sourceX1 = sourcePos[0];
+                    int sourceZ1 = sourcePos[1];
+                    toSourcePos(orientation, sourceWidth, sourceHeight, tileX + tileWidth - 1, tileZ + tileHeight - 1, sourcePos);
+                    int sourceX = Math.min(sourceX1, sourcePos[0]);
+                    int sourceZ = Math.min(sourceZ1, sourcePos[1]);
+                    int sourceAreaWidth = Math.abs(sourceX1 - sourcePos[0]) + 1;
+                    int sourceAreaHeight = Math.abs(sourceZ1 - sourcePos[1]) + 1;
+                    image.getRGB(sourceX, sourceZ, sourceAreaWidth, sourceAreaHeight, colors, 0, sourceAreaWidth);
+
+                    for (int z = 0; z < tileHeight; z++)
+                    {
+                        for (int x = 0; x < tileWidth; x++)
+                        {
+                            toSourcePos(orientation, sourceWidth, sourceHeight, tileX + x, tileZ + z, sourcePos);
+                            int color = colors[(sourcePos[1] - sourceZ) * sourceAreaWidth + sourcePos[0] - sourceX] & 0x00FFFFFF;
+                            if (color != lastColor)
+                            {
+                                Integer biomeId = colorMap.get(color);
+                                lastBiome = biomeId != null ? biomeId : fillBiome;
+                                lastColor = color;
+                            }
+                            int i = ((z << TILE_BITS) | x) * 2;
+                            tileBytes[i] = (byte) (lastBiome >> 8);
+                            tileBytes[i + 1] = (byte) lastBiome;
+                        }
+                    }
+                    out.write(tileBytes);
+                    // The parts of edge tiles outside the image stay 0
+                    Arrays.fill(tileBytes, (byte) 0);
+                }
+            }
+        } finally
+        {
+            out.close();
+        }
+
+        if (file.exists() && !file.delete())
+        {
+            tempFile.delete();
+            throw new IOException("Could not replace " + file.getAbsolutePath());
+        }
+        if (!tempFile.renameTo(file))
+        {
+            tempFile.delete();
+            throw new IOException("Could not rename " + tempFile.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Gets the pixel of the source image that ends up at the given position
+     * after rotating.
+     */
+    private static void toSourcePos(ImageOrientation orientation, int sourceWidth, int sourceHeight, int x, int z, int[] sourcePos)
+    {
+        switch (orientation)
+        {
+            case South:
+                sourcePos[0] = sourceWidth - 1 - x;
+                sourcePos[1] = sourceHeight - 1 - z;
+                break;
+            case West:
+                sourcePos[0] = z;
+                sourcePos[1] = sourceHeight - 1 - x;
+                break;
+            case East:
+                sourcePos[0] = sourceWidth - 1 - z;
+                sourcePos[1] = x;
+                break;
+            default:
+                sourcePos[0] = x;
+                sourcePos[1] = z;
+                break;
+        }
+    }
+
+    private static class Tile
+    {
+        private final int index;
+        private final char[] biomes;
+
+        Tile(int index, char[] biomes)
+        {
+            this.index = index;
+            this.biomes = biomes;
+        }
+    }
+}
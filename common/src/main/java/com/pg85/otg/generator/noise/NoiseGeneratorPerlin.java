@@ -2,12 +2,34 @@ package com.pg85.otg.generator.noise;
 
 import java.util.Random;
 
+/**
+ * A single octave of Perlin noise. The noise arrays are filled by
+ * {@link NoiseGeneratorPerlinOctaves}, which handles all octaves at once.
+ */
 public class NoiseGeneratorPerlin
 {
-    private int permutations[];
-    private double xCoord;
-    private double yCoord;
-    private double zCoord;
+    final int permutations[];
+    final double xCoord;
+    final double yCoord;
+    final double zCoord;
+
+    // For each gradient: the axes (0 = x, 1 = y, 2 = z) and signs of the two terms
+    private static final int[] GRAD_FIRST_AXIS = new int[16];
+    private static final int[] GRAD_SECOND_AXIS = new int[16];
+    private static final double[] GRAD_FIRST_SIGN = new double[16];
+    private static final double[] GRAD_SECOND_SIGN = new double[16];
+
+    static
+    {
+        for (int j = 0; j < 16; j++)
+        {
+            GRAD_FIRST_AXIS[j] = j >= 8 ? 1 : 0;
+            GRAD_SECOND_AXIS[j] = j >= 4 ? j != 12 && j != 14 ? 2 : 0 : 1;
+            // Multiplying by -1 gives exactly the same result as negating
+            GRAD_FIRST_SIGN[j] = (j & 1) != 0 ? -1.0D : 1.0D;
+            GRAD_SECOND_SIGN[j] = (j & 2) != 0 ? -1.0D : 1.0D;
+        }
+    }
 
 
     NoiseGeneratorPerlin(Random random)
@@ -31,12 +53,12 @@ public class NoiseGeneratorPerlin
         }
     }
 
-    private final double lerp(double d, double d1, double d2)
+    static double lerp(double d, double d1, double d2)
     {
         return d1 + d * (d2 - d1);
     }
 
-    private final double func_4110_a(int i, double d, double d1)
+    static double func_4110_a(int i, double d, double d1)
     {
         int j = i & 0xf;
         double d2 = (double) (1 - ((j & 8) >> 3)) * d;
@@ -44,115 +66,14 @@ public class NoiseGeneratorPerlin
         return ((j & 1) != 0 ? -d2 : d2) + ((j & 2) != 0 ? -d3 : d3);
     }
 
-    private final double grad(int i, double d, double d1, double d2)
+    static double grad(int i, double d, double d1, double d2)
     {
+        // Table driven version of the vanilla gradient function, gives the
+        // same results but avoids unpredictable branches
         int j = i & 0xf;
-        double d3 = j >= 8 ? d1 : d;
-        double d4 = j >= 4 ? j != 12 && j != 14 ? d2 : d : d1;
-        return ((j & 1) != 0 ? -d3 : d3) + ((j & 2) != 0 ? -d4 : d4);
-    }
-
-    void populateNoiseArray3D(double NoiseArray[], double xOffset, double yOffset, double zOffset, int xSize, int ySize, int zSize, double xScale, double yScale, double zScale, double noiseScale)
-    {
-        int i1 = 0;
-        double d7 = 1.0D / noiseScale;
-        int i2 = -1;
-        double d13 = 0.0D;
-        double d15 = 0.0D;
-        double d16 = 0.0D;
-        double d18 = 0.0D;
-        for (int i5 = 0; i5 < xSize; i5++)
-        {
-            double d20 = xOffset + (double) i5 * xScale + xCoord;
-            int k5 = (int) d20;
-            if (d20 < (double) k5)
-            {
-                k5--;
-            }
-            int i6 = k5 & 0xff;
-            d20 -= k5;
-            double d22 = d20 * d20 * d20 * (d20 * (d20 * 6D - 15D) + 10D);
-            for (int j6 = 0; j6 < zSize; j6++)
-            {
-                double d24 = zOffset + (double) j6 * zScale + zCoord;
-                int k6 = (int) d24;
-                if (d24 < (double) k6)
-                {
-                    k6--;
-                }
-                int l6 = k6 & 0xff;
-                d24 -= k6;
-                double d25 = d24 * d24 * d24 * (d24 * (d24 * 6D - 15D) + 10D);
-                for (int i7 = 0; i7 < ySize; i7++)
-                {
-                    double d26 = yOffset + (double) i7 * yScale + yCoord;
-                    int j7 = (int) d26;
-                    if (d26 < (double) j7)
-                    {
-                        j7--;
-                    }
-                    int k7 = j7 & 0xff;
-                    d26 -= j7;
-                    double d27 = d26 * d26 * d26 * (d26 * (d26 * 6D - 15D) + 10D);
-                    if (i7 == 0 || k7 != i2)
-                    {
-                        i2 = k7;
-                        int j2 = permutations[i6] + k7;
-                        int k2 = permutations[j2] + l6;
-                        int l2 = permutations[j2 + 1] + l6;
-                        int i3 = permutations[i6 + 1] + k7;
-                        int k3 = permutations[i3] + l6;
-                        int l3 = permutations[i3 + 1] + l6;
-                        d13 = lerp(d22, grad(permutations[k2], d20, d26, d24), grad(permutations[k3], d20 - 1.0D, d26, d24));
-                        d15 = lerp(d22, grad(permutations[l2], d20, d26 - 1.0D, d24), grad(permutations[l3], d20 - 1.0D, d26 - 1.0D, d24));
-                        d16 = lerp(d22, grad(permutations[k2 + 1], d20, d26, d24 - 1.0D), grad(permutations[k3 + 1], d20 - 1.0D, d26, d24 - 1.0D));
-                        d18 = lerp(d22, grad(permutations[l2 + 1], d20, d26 - 1.0D, d24 - 1.0D), grad(permutations[l3 + 1], d20 - 1.0D, d26 - 1.0D, d24 - 1.0D));
-                    }
-                    double d28 = lerp(d27, d13, d15);
-                    double d29 = lerp(d27, d16, d18);
-                    double d30 = lerp(d25, d28, d29);
-                    NoiseArray[i1++] += d30 * d7;
-                }
-            }
-        }
-    }
-
-    void populateNoiseArray2D(double NoiseArray[], double xOffset, double zOffset, int xSize, int zSize, double xScale, double zScale, double noiseScale)
-    {
-        int j3 = 0;
-        double d12 = 1.0D / noiseScale;
-        for (int i4 = 0; i4 < xSize; i4++)
-        {
-            double d14 = xOffset + (double) i4 * xScale + xCoord;
-            int j4 = (int) d14;
-            if (d14 < (double) j4)
-            {
-                j4--;
-            }
-            int k4 = j4 & 0xff;
-            d14 -= j4;
-            double d17 = d14 * d14 * d14 * (d14 * (d14 * 6D - 15D) + 10D);
-            for (int l4 = 0; l4 < zSize; l4++)
-            {
-                double d19 = zOffset + (double) l4 * zScale + zCoord;
-                int j5 = (int) d19;
-                if (d19 < (double) j5)
-                {
-                    j5--;
-                }
-                int l5 = j5 & 0xff;
-                d19 -= j5;
-                double d21 = d19 * d19 * d19 * (d19 * (d19 * 6D - 15D) + 10D);
-                int l = permutations[k4];
-                int j1 = permutations[l] + l5;
-                int k1 = permutations[k4 + 1];
-                int l1 = permutations[k1] + l5;
-                double d9 = lerp(d17, func_4110_a(permutations[j1], d14, d19), grad(permutations[l1], d14 - 1.0D, 0.0D, d19));
-                double d11 = lerp(d17, grad(permutations[j1 + 1], d14, 0.0D, d19 - 1.0D), grad(permutations[l1 + 1], d14 - 1.0D, 0.0D, d19 - 1.0D));
-                double d23 = lerp(d21, d9, d11);
-                NoiseArray[j3++] += d23 * d12;
-            }
-        }
-
+        double d3 = GRAD_FIRST_AXIS[j] == 0 ? d : d1;
+        int secondAxis = GRAD_SECOND_AXIS[j];
+        double d4 = secondAxis == 0 ? d : secondAxis == 1 ? d1 : d2;
+        return GRAD_FIRST_SIGN[j] * d3 + GRAD_SECOND_SIGN[j] * d4;
     }
 }
@@ -2,18 +2,49 @@ package com.pg85.otg.generator.noise;
 
 import com.pg85.otg.util.helpers.MathHelper;
 
+import java.util.Arrays;
 import java.util.Random;
 
+/**
+ * Sums multiple octaves of Perlin noise.
+ *
+ * <p>
+ * All octaves are added to a column of samples before moving on to the next
+ * column, so the column stays in the cache. The lattice cells, positions and
+ * fade curves along each axis are calculated once per octave instead of once
+ * per sample. The results are exactly the same as adding each octave to the
+ * whole array in turn. Instances are not thread-safe.
+ */
 public class NoiseGeneratorPerlinOctaves
 {
 
     private NoiseGeneratorPerlin[] noiseArray;
     private int numOctaves;
 
+    // Per octave and per sample along each axis: the lattice cell (& 0xff),
+    // the position inside the cell and the fade curve of that position.
+    private int[] xCells = new int[0];
+    private double[] xFracs = new double[0];
+    private double[] xFades = new double[0];
+    private int[] yCells = new int[0];
+    private double[] yFracs = new double[0];
+    private double[] yFades = new double[0];
+    private int[] zCells = new int[0];
+    private double[] zFracs = new double[0];
+    private double[] zFades = new double[0];
+    private double[] noiseScales;
+
+    // Interpolated corner gradients for each sample in a column
+    private double[] columnLowY = new double[0];
+    private double[] columnHighY = new double[0];
+    private double[] columnLowYHighZ = new double[0];
+    private double[] columnHighYHighZ = new double[0];
+
     public NoiseGeneratorPerlinOctaves(Random random, int numOctaves)
     {
         this.numOctaves = numOctaves;
         this.noiseArray = new NoiseGeneratorPerlin[numOctaves];
+        this.noiseScales = new double[numOctaves];
 
         for (int j = 0; j < numOctaves; ++j)
         {
@@ -23,17 +54,17 @@ public class NoiseGeneratorPerlinOctaves
 
     public double[] Noise3D(double[] doubleArray, int xOffset, int yOffset, int zOffset, int xSize, int ySize, int zSize, double xScale, double yScale, double zScale)
     {
+        int size = xSize * ySize * zSize;
         if (doubleArray == null)
         {
-            doubleArray = new double[xSize * ySize * zSize];
-        } else
+            doubleArray = new double[size];
+        } else if (doubleArray.length > size)
         {
-            for (int k1 = 0; k1 < doubleArray.length; ++k1)
-            {
-                doubleArray[k1] = 0.0D;
-            }
+            Arrays.fill(doubleArray, size, doubleArray.length, 0.0D);
         }
 
+        ensureCapacity(xSize, ySize, zSize);
+
         double d3 = 1.0D;
 
         for (int l1 = 0; l1 < this.numOctaves; ++l1)
@@ -50,27 +81,45 @@ public class NoiseGeneratorPerlinOctaves
             j2 %= 16777216L;
             d4 += (double) i2;
             d6 += (double) j2;
-            this.noiseArray[l1].populateNoiseArray3D(doubleArray, d4, d5, d6, xSize, ySize, zSize, xScale * d3, yScale * d3, zScale * d3, d3);
+
+            NoiseGeneratorPerlin noise = this.noiseArray[l1];
+            prepareAxis(this.xCells, this.xFracs, this.xFades, l1 * xSize, xSize, d4, xScale * d3, noise.xCoord);
+            prepareAxis(this.yCells, this.yFracs, this.yFades, l1 * ySize, ySize, d5, yScale * d3, noise.yCoord);
+            prepareAxis(this.zCells, this.zFracs, this.zFades, l1 * zSize, zSize, d6, zScale * d3, noise.zCoord);
+            this.noiseScales[l1] = 1.0D / d3;
             d3 /= 2.0D;
         }
 
+        int index = 0;
+        for (int x = 0; x < xSize; x++)
+        {
+            for (int z = 0; z < zSize; z++)
+            {
+                Arrays.fill(doubleArray, index, index + ySize, 0.0D);
+                for (int octave = 0; octave < this.numOctaves; octave++)
+                {
+                    addColumn3D(doubleArray, index, octave, octave * xSize + x, octave * zSize + z, octave * ySize, ySize);
+                }
+                index += ySize;
+            }
+        }
+
         return doubleArray;
     }
 
-
     public double[] Noise2D(double[] doubleArray, int xOffset, int zOffset, int xSize, int zSize, double xScale, double zScale)
     {
+        int size = xSize * zSize;
         if (doubleArray == null)
         {
-            doubleArray = new double[xSize * zSize];
-        } else
+            doubleArray = new double[size];
+        } else if (doubleArray.length > size)
         {
-            for (int k1 = 0; k1 < doubleArray.length; ++k1)
-            {
-                doubleArray[k1] = 0.0D;
-            }
+            Arrays.fill(doubleArray, size, doubleArray.length, 0.0D);
         }
 
+        ensureCapacity(xSize, 0, zSize);
+
         double d3 = 1.0D;
 
         for (int l1 = 0; l1 < this.numOctaves; ++l1)
@@ -86,10 +135,163 @@ public class NoiseGeneratorPerlinOctaves
             j2 %= 16777216L;
             d4 += (double) i2;
             d6 += (double) j2;
-            this.noiseArray[l1].populateNoiseArray2D(doubleArray, d4, d6, xSize, zSize, xScale * d3, zScale * d3, d3);
+
+            NoiseGeneratorPerlin noise = this.noiseArray[l1];
+            prepareAxis(this.xCells, this.xFracs, this.xFades, l1 * xSize, xSize, d4, xScale * d3, noise.xCoord);
+            prepareAxis(this.zCells, this.zFracs, this.zFades, l1 * zSize, zSize, d6, zScale * d3, noise.zCoord);
+            this.noiseScales[l1] = 1.0D / d3;
             d3 /= 2.0D;
         }
 
+        int index = 0;
+        for (int x = 0; x < xSize; x++)
+        {
+            Arrays.fill(doubleArray, index, index + zSize, 0.0D);
+            for (int octave = 0; octave < this.numOctaves; octave++)
+            {
+                addRow2D(doubleArray, index, octave, octave * xSize + x, octave * zSize, zSize);
+            }
+            index += zSize;
+        }
+
         return doubleArray;
     }
+
+    private void ensureCapacity(int xSize, int ySize, int zSize)
+    {
+        if (this.xCells.length < this.numOctaves * xSize)
+        {
+            this.xCells = new int[this.numOctaves * xSize];
+            this.xFracs = new double[this.numOctaves * xSize];
+            this.xFades = new double[this.numOctaves * xSize];
+        }
+        if (this.yCells.length < this.numOctaves * ySize)
+        {
+            this.yCells = new int[this.numOctaves * ySize];
+            this.yFracs = new double[this.numOctaves * ySize];
+            this.yFades = new double[this.numOctaves * ySize];
+            this.columnLowY = new double[ySize];
+            this.columnHighY = new double[ySize];
+            this.columnLowYHighZ = new double[ySize];
+            this.columnHighYHighZ = new double[ySize];
+        }
+        if (this.zCells.length < this.numOctaves * zSize)
+        {
+            this.zCells = new int[this.numOctaves * zSize];
+            this.zFracs = new double[this.numOctaves * zSize];
+            this.zFades = new double[this.numOctaves * zSize];
+        }
+    }
+
+    /**
+     * Calculates the lattice cell, the position inside the cell and the fade
+     * curve of each sample along one axis for one octave.
+     */
+    private static void prepareAxis(int[] cells, double[] fracs, double[] fades, int start, int size, double offset, double scale, double coord)
+    {
+        for (int i = 0; i < size; i++)
+        {
+            double d = offset + (double) i * scale + coord;
+            int cell = (int) d;
+            if (d < (double) cell)
+            {
+                cell--;
+            }
+            d -= cell;
+            cells[start + i] = cell & 0xff;
+            fracs[start + i] = d;
+            fades[start + i] = d * d * d * (d * (d * 6D - 15D) + 10D);
+        }
+    }
+
+    /**
+     * Adds one octave to a column of samples along the y axis.
+     */
+    private void addColumn3D(double[] noiseArray, int index, int octave, int xIndex, int zIndex, int yStart, int ySize)
+    {
+        int[] permutations = this.noiseArray[octave].permutations;
+        int i6 = this.xCells[xIndex];
+        double d20 = this.xFracs[xIndex];
+        double d22 = this.xFades[xIndex];
+        int l6 = this.zCells[zIndex];
+        double d24 = this.zFracs[zIndex];
+        double d25 = this.zFades[zIndex];
+        int xPermutation = permutations[i6];
+        int xPermutation1 = permutations[i6 + 1];
+
+        double[] lowY = this.columnLowY;
+        double[] highY = this.columnHighY;
+        double[] lowYHighZ = this.columnLowYHighZ;
+        double[] highYHighZ = this.columnHighYHighZ;
+
+        // Gradients are only calculated when the column enters another
+        // lattice cell, using the y position of the first sample in that
+        // cell. Vanilla does the same, so this must not be "fixed".
+        int i2 = -1;
+        double d13 = 0.0D;
+        double d15 = 0.0D;
+        double d16 = 0.0D;
+        double d18 = 0.0D;
+        for (int i7 = 0; i7 < ySize; i7++)
+        {
+            int k7 = this.yCells[yStart + i7];
+            if (i7 == 0 || k7 != i2)
+            {
+                i2 = k7;
+                double d26 = this.yFracs[yStart + i7];
+                int j2 = xPermutation + k7;
+                int k2 = permutations[j2] + l6;
+                int l2 = permutations[j2 + 1] + l6;
+                int i3 = xPermutation1 + k7;
+                int k3 = permutations[i3] + l6;
+                int l3 = permutations[i3 + 1] + l6;
+                d13 = NoiseGeneratorPerlin.lerp(d22, NoiseGeneratorPerlin.grad(permutations[k2], d20, d26, d24), NoiseGeneratorPerlin.grad(permutations[k3], d20 - 1.0D, d26, d24));
+                d15 = NoiseGeneratorPerlin.lerp(d22, NoiseGeneratorPerlin.grad(permutations[l2], d20, d26 - 1.0D, d24), NoiseGeneratorPerlin.grad(permutations[l3], d20 - 1.0D, d26 - 1.0D, d24));
+                d16 = NoiseGeneratorPerlin.lerp(d22, NoiseGeneratorPerlin.grad(permutations[k2 + 1], d20, d26, d24 - 1.0D), NoiseGeneratorPerlin.grad(permutations[k3 + 1], d20 - 1.0D, d26, d24 - 1.0D));
+                d18 = NoiseGeneratorPerlin.lerp(d22, NoiseGeneratorPerlin.grad(permutations[l2 + 1], d20, d26 - 1.0D, d24 - 1.0D), NoiseGeneratorPerlin.grad(permutations[l3 + 1], d20 - 1.0D, d26 - 1.0D, d24 - 1.0D));
+            }
+            lowY[i7] = d13;
+            highY[i7] = d15;
+            lowYHighZ[i7] = d16;
+            highYHighZ[i7] = d18;
+        }
+
+        // Branch-free, so the JIT can vectorize it
+        double d7 = this.noiseScales[octave];
+        double[] yFades = this.yFades;
+        for (int i7 = 0; i7 < ySize; i7++)
+        {
+            double d27 = yFades[yStart + i7];
+            double d28 = lowY[i7] + d27 * (highY[i7] - lowY[i7]);
+            double d29 = lowYHighZ[i7] + d27 * (highYHighZ[i7] - lowYHighZ[i7]);
+            noiseArray[index + i7] += (d28 + d25 * (d29 - d28)) * d7;
+        }
+    }
+
+    /**
+     * Adds one octave to a row of samples along the z axis.
+     */
+    private void addRow2D(double[] noiseArray, int index, int octave, int xIndex, int zStart, int zSize)
+    {
+        int[] permutations = this.noiseArray[octave].permutations;
+        int k4 = this.xCells[xIndex];
+        double d14 = this.xFracs[xIndex];
+        double d17 = this.xFades[xIndex];
+        int l = permutations[k4];
+        int k1 = permutations[k4 + 1];
+        double d12 = this.noiseScales[octave];
+
+        for (int l4 = 0; l4 < zSize; l4++)
+        {
+            int l5 = this.zCells[zStart + l4];
+            double d19 = this.zFracs[zStart + l4];
+            double d21 = this.zFades[zStart + l4];
+            int j1 = permutations[l] + l5;
+            int l1 = permutations[k1] + l5;
+            double d9 = NoiseGeneratorPerlin.lerp(d17, NoiseGeneratorPerlin.func_4110_a(permutations[j1], d14, d19), NoiseGeneratorPerlin.grad(permutations[l1], d14 - 1.0D, 0.0D, d19));
+            double d11 = NoiseGeneratorPerlin.lerp(d17, NoiseGeneratorPerlin.grad(permutations[j1 + 1], d14, 0.0D, d19 - 1.0D), NoiseGeneratorPerlin.grad(permutations[l1 + 1], d14 - 1.0D, 0.0D, d19 - 1.0D));
+            double d23 = NoiseGeneratorPerlin.lerp(d21, d9, d11);
+            noiseArray[index + l4] += d23 * d12;
+        }
+    }
 }
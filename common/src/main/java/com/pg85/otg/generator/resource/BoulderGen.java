@@ -2,6 +2,7 @@ package com.pg85.otg.generator.resource;
 
 import com.pg85.otg.common.LocalMaterialData;
 import com.pg85.otg.common.LocalWorld;
+import com.pg85.otg.configuration.ConfigValuePool;
 import com.pg85.otg.configuration.biome.BiomeConfig;
 import com.pg85.otg.configuration.standard.PluginStandardValues;
 import com.pg85.otg.exception.InvalidConfigException;
@@ -89,6 +90,12 @@ public class BoulderGen extends Resource
         return "Boulder(" + material + "," + frequency + "," + rarity + "," + minAltitude + "," + maxAltitude + makeMaterials(sourceBlocks) + ")";
     }
 
+    @Override
+    public void shareValues(ConfigValuePool valuePool)
+    {
+        this.sourceBlocks = valuePool.share(this.sourceBlocks);
+    }
+
     @Override
     public int getPriority()
     {
@@ -119,7 +119,7 @@ public class CustomStructureGen extends Resource
             		if(OTG.getPluginConfig().spawnLog)
             		{
             			BiomeConfig biomeConfig = world.getBiome(chunkX * 16 + 15, chunkZ * 16 + 15).getBiomeConfig();
-            			OTG.log(LogMarker.WARN, "Error: Could not find BO3 for CustomStructure in biome " + biomeConfig.getName() + ". BO3: " + objectNames.get(objectNumber));
+            			OTG.logRepeated(LogMarker.WARN, "Error: Could not find BO3 for CustomStructure in biome {}. BO3: {}", biomeConfig.getName(), objectNames.get(objectNumber));
             		}
             	}
             }
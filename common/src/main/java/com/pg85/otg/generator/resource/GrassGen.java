@@ -3,6 +3,7 @@ package com.pg85.otg.generator.resource;
 import com.pg85.otg.common.LocalMaterialData;
 import com.pg85.otg.common.LocalWorld;
 import com.pg85.otg.configuration.ConfigFunction;
+import com.pg85.otg.configuration.ConfigValuePool;
 import com.pg85.otg.configuration.biome.BiomeConfig;
 import com.pg85.otg.exception.InvalidConfigException;
 import com.pg85.otg.util.ChunkCoordinate;
@@ -22,7 +23,7 @@ public class GrassGen extends Resource
 
     private GroupOption groupOption;
     private PlantType plant;
-    private final MaterialSet sourceBlocks;
+    private MaterialSet sourceBlocks;
 
     public GrassGen(BiomeConfig biomeConfig, List<String> args) throws InvalidConfigException
     {
@@ -78,6 +79,12 @@ public class GrassGen extends Resource
                 : this.sourceBlocks.equals(compare.sourceBlocks));
     }
 
+    @Override
+    public void shareValues(ConfigValuePool valuePool)
+    {
+        this.sourceBlocks = valuePool.share(this.sourceBlocks);
+    }
+
     @Override
     public int getPriority()
     {
@@ -3,6 +3,7 @@ package com.pg85.otg.generator.resource;
 import com.pg85.otg.common.LocalMaterialData;
 import com.pg85.otg.common.LocalWorld;
 import com.pg85.otg.configuration.ConfigFunction;
+import com.pg85.otg.configuration.ConfigValuePool;
 import com.pg85.otg.configuration.biome.BiomeConfig;
 import com.pg85.otg.configuration.standard.PluginStandardValues;
 import com.pg85.otg.exception.InvalidConfigException;
@@ -23,7 +24,7 @@ public class IceSpikeGen extends Resource
 
     private final int maxAltitude;
     private final int minAltitude;
-    private final MaterialSet sourceBlocks;
+    private MaterialSet sourceBlocks;
     private SpikeType type;
 
     public IceSpikeGen(BiomeConfig biomeConfig, List<String> args) throws InvalidConfigException
@@ -56,6 +57,12 @@ public class IceSpikeGen extends Resource
         sourceBlocks = readMaterials(args, 6);
     }
 
+    @Override
+    public void shareValues(ConfigValuePool valuePool)
+    {
+        this.sourceBlocks = valuePool.share(this.sourceBlocks);
+    }
+
     @Override
     public int getPriority()
     {
@@ -2,6 +2,7 @@ package com.pg85.otg.generator.resource;
 
 import com.pg85.otg.common.LocalMaterialData;
 import com.pg85.otg.common.LocalWorld;
+import com.pg85.otg.configuration.ConfigValuePool;
 import com.pg85.otg.configuration.biome.BiomeConfig;
 import com.pg85.otg.configuration.standard.PluginStandardValues;
 import com.pg85.otg.exception.InvalidConfigException;
@@ -15,7 +16,7 @@ public class LiquidGen extends Resource
 {
     private final int maxAltitude;
     private final int minAltitude;
-    private final MaterialSet sourceBlocks;
+    private MaterialSet sourceBlocks;
 
     public LiquidGen(BiomeConfig biomeConfig, List<String> args) throws InvalidConfigException
     {
@@ -50,6 +51,12 @@ public class LiquidGen extends Resource
                    : this.sourceBlocks.equals(compare.sourceBlocks));
     }
 
+    @Override
+    public void shareValues(ConfigValuePool valuePool)
+    {
+        this.sourceBlocks = valuePool.share(this.sourceBlocks);
+    }
+
     @Override
     public int getPriority()
     {
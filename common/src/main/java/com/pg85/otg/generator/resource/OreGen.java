@@ -1,9 +1,12 @@
 package com.pg85.otg.generator.resource;
 
 import com.pg85.otg.common.LocalWorld;
+import com.pg85.otg.common.PopulationRegion;
+import com.pg85.otg.configuration.ConfigValuePool;
 import com.pg85.otg.configuration.biome.BiomeConfig;
 import com.pg85.otg.configuration.standard.PluginStandardValues;
 import com.pg85.otg.exception.InvalidConfigException;
+import com.pg85.otg.util.ChunkCoordinate;
 import com.pg85.otg.util.helpers.MathHelper;
 import com.pg85.otg.util.helpers.RandomHelper;
 import com.pg85.otg.util.materials.MaterialSet;
@@ -16,7 +19,7 @@ public class OreGen extends Resource
     private final int maxAltitude;
     private final int maxSize;
     private final int minAltitude;
-    private final MaterialSet sourceBlocks;
+    private MaterialSet sourceBlocks;
 
     public OreGen(BiomeConfig biomeConfig, List<String> args) throws InvalidConfigException
     {
@@ -51,6 +54,12 @@ public class OreGen extends Resource
                    : this.sourceBlocks.equals(compare.sourceBlocks));
     }
 
+    @Override
+    public void shareValues(ConfigValuePool valuePool)
+    {
+        this.sourceBlocks = valuePool.share(this.sourceBlocks);
+    }
+
     @Override
     public int getPriority()
     {
@@ -78,6 +87,7 @@ public class OreGen extends Resource
     @Override
     public void spawn(LocalWorld world, Random rand, boolean villageInChunk, int x, int z)
     {
+        PopulationRegion region = world.getPopulationRegion(ChunkCoordinate.getPopulatingChunk(x, z));
         int y = RandomHelper.numberInRange(rand, minAltitude, maxAltitude);
 
         float f = rand.nextFloat() * (float) Math.PI;
@@ -123,9 +133,9 @@ public class OreGen extends Resource
                             {
                                 double d15 = (i5 + 0.5D - d9) / (d11 / 2.0D);     
                                 
-                                if ((d13 * d13 + d14 * d14 + d15 * d15 < 1.0D) && sourceBlocks.contains(world.getMaterial(i3, i4, i5, false)))
+                                if ((d13 * d13 + d14 * d14 + d15 * d15 < 1.0D) && sourceBlocks.contains(region.getMaterial(i3, i4, i5)))
                                 {
-                                    world.setBlock(i3, i4, i5, material, null, false);
+                                    region.setBlock(i3, i4, i5, material);
                                 }
                             }
                         }
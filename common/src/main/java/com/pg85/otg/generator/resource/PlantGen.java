@@ -1,6 +1,7 @@
 package com.pg85.otg.generator.resource;
 
 import com.pg85.otg.common.LocalWorld;
+import com.pg85.otg.configuration.ConfigValuePool;
 import com.pg85.otg.configuration.biome.BiomeConfig;
 import com.pg85.otg.configuration.standard.PluginStandardValues;
 import com.pg85.otg.exception.InvalidConfigException;
@@ -16,7 +17,7 @@ public class PlantGen extends Resource
 
     private final int minAltitude;
     private final PlantType plant;
-    private final MaterialSet sourceBlocks;
+    private MaterialSet sourceBlocks;
 
     public PlantGen(BiomeConfig biomeConfig, List<String> args) throws InvalidConfigException
     {
@@ -56,6 +57,12 @@ public class PlantGen extends Resource
                    : this.sourceBlocks.equals(compare.sourceBlocks));
     }
 
+    @Override
+    public void shareValues(ConfigValuePool valuePool)
+    {
+        this.sourceBlocks = valuePool.share(this.sourceBlocks);
+    }
+
     @Override
     public int getPriority()
     {
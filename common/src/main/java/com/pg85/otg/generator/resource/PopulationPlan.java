@@ -0,0 +1,164 @@
+package com.pg85.otg.generator.resource;
+
+import com.pg85.otg.OTG;
+import com.pg85.otg.configuration.ConfigFunction;
+import com.pg85.otg.configuration.ErroredFunction;
+import com.pg85.otg.configuration.biome.BiomeConfig;
+import com.pg85.otg.logging.LogMarker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The resources of a biome, sorted into the groups that are spawned
+ * during population. Created once when the biome config is loaded, so that
+ * population doesn't have to filter the resource sequence for every chunk.
+ * All groups keep the order of the resource sequence. Resources that could
+ * not be parsed are left out.
+ *
+ * <p>
+ * The arrays returned by this class must not be modified.
+ */
+public final class PopulationPlan
+{
+    private final Resource[] resources;
+    private final Resource[] phase2Resources;
+    private final Resource[] phase3CustomObjects;
+    private final Resource[] phase3Resources;
+
+    private PopulationPlan(Resource[] resources, Resource[] phase2Resources, Resource[] phase3CustomObjects, Resource[] phase3Resources)
+    {
+        this.resources = resources;
+        this.phase2Resources = phase2Resources;
+        this.phase3CustomObjects = phase3CustomObjects;
+        this.phase3Resources = phase3Resources;
+    }
+
+    /**
+     * Sorts the resources of a biome. Logs a warning for every resource that
+     * could not be parsed.
+     * @param resourceSequence The resource sequence of the biome.
+     * @param biomeName        Name of the biome, for the warnings.
+     * @return The population plan.
+     */
+    public static PopulationPlan compile(List<ConfigFunction<BiomeConfig>> resourceSequence, String biomeName)
+    {
+        List<Resource> resources = new ArrayList<Resource>();
+        List<Resource> phase2Resources = new ArrayList<Resource>();
+        List<Resource> phase3CustomObjects = new ArrayList<Resource>();
+        List<Resource> phase3Resources = new ArrayList<Resource>();
+
+        for (ConfigFunction<BiomeConfig> res : resourceSequence)
+        {
+            if (res instanceof ErroredFunction)
+            {
+                if (OTG.getPluginConfig().spawnLog)
+                {
+                    OTG.log(LogMarker.WARN, "Could not parse resource \"{}\" for biome {}", res, biomeName);
+                }
+                continue;
+            }
+            if (!(res instanceof Resource))
+            {
+                continue;
+            }
+
+            Resource resource = (Resource) res;
+            resources.add(resource);
+            if (isPhase2Resource(resource))
+            {
+                phase2Resources.add(resource);
+            }
+            if (resource instanceof CustomObjectGen)
+            {
+                // Small (<32x32) custom objects like trees and rocks.
+                phase3CustomObjects.add(resource);
+            }
+            else if (isPhase3Resource(resource))
+            {
+                phase3Resources.add(resource);
+            }
+        }
+
+        return new PopulationPlan(toArray(resources), toArray(phase2Resources), toArray(phase3CustomObjects), toArray(phase3Resources));
+    }
+
+    /**
+     * Ores, lakes and other resources that are spawned before the custom
+     * objects when using OTG+ population.
+     */
+    private static boolean isPhase2Resource(Resource res)
+    {
+        return
+            (res instanceof OreGen) ||
+            (res instanceof SmallLakeGen) ||
+            (res instanceof UndergroundLakeGen) || // TODO: look at potential size bug in UnderGroundLakeGen
+            (res instanceof UnderWaterOreGen) || // TODO: This seems to be bugged, generate a plains only world with default settings and no sand appears where it does in TC
+            (res instanceof VeinGen) || // TODO: Test this
+            (res instanceof SurfacePatchGen);
+    }
+
+    /**
+     * Plants, trees and other resources that are spawned after the custom
+     * objects when using OTG+ population.
+     */
+    private static boolean isPhase3Resource(Resource res)
+    {
+        // TODO: Find out if these are always in the same order, trees
+        // should spawn first?
+        return
+            (res instanceof DungeonGen) ||
+            (res instanceof AboveWaterGen) ||
+            (res instanceof PlantGen) ||
+            (res instanceof GrassGen) ||
+            (res instanceof TreeGen) ||
+            (res instanceof ReedGen) ||
+            (res instanceof LiquidGen) ||
+            (res instanceof BoulderGen) ||
+            (res instanceof CactusGen) ||
+            (res instanceof IceSpikeGen) ||
+            (res instanceof WellGen) ||
+            (res instanceof VinesGen) ||
+            (res instanceof FossilGen);
+    }
+
+    private static Resource[] toArray(List<Resource> resources)
+    {
+        return resources.toArray(new Resource[resources.size()]);
+    }
+
+    /**
+     * Gets all resources, used by normal population.
+     */
+    public Resource[] getResources()
+    {
+        return this.resources;
+    }
+
+    /**
+     * Gets the resources that OTG+ population spawns before the custom
+     * objects: ores, lakes, veins and surface patches.
+     */
+    public Resource[] getPhase2Resources()
+    {
+        return this.phase2Resources;
+    }
+
+    /**
+     * Gets the CustomObject resources that OTG+ population spawns before the
+     * other resources of phase 3.
+     */
+    public Resource[] getPhase3CustomObjects()
+    {
+        return this.phase3CustomObjects;
+    }
+
+    /**
+     * Gets the other resources that OTG+ population spawns in phase 3:
+     * plants, trees, dungeons, boulders and so on.
+     */
+    public Resource[] getPhase3Resources()
+    {
+        return this.phase3Resources;
+    }
+}
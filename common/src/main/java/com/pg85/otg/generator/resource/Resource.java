@@ -4,6 +4,7 @@ import com.pg85.otg.OTG;
 import com.pg85.otg.common.LocalMaterialData;
 import com.pg85.otg.common.LocalWorld;
 import com.pg85.otg.configuration.ConfigFunction;
+import com.pg85.otg.configuration.ConfigValuePool;
 import com.pg85.otg.configuration.biome.BiomeConfig;
 import com.pg85.otg.exception.InvalidConfigException;
 import com.pg85.otg.util.ChunkCoordinate;
@@ -103,6 +104,17 @@ public abstract class Resource extends ConfigFunction<BiomeConfig> implements Co
         return 0;
     }
 
+    /**
+     * Replaces the values of this resource, like material sets, by the
+     * equal values of other resources in the pool. Called by the pool when
+     * this resource is added to it for the first time.
+     * @param valuePool The pool.
+     */
+    public void shareValues(ConfigValuePool valuePool)
+    {
+        // Most resources have no values that are worth sharing
+    }
+
     @Override
     public int hashCode()
     {
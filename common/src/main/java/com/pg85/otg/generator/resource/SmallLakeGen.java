@@ -2,9 +2,11 @@ package com.pg85.otg.generator.resource;
 
 import com.pg85.otg.common.LocalMaterialData;
 import com.pg85.otg.common.LocalWorld;
+import com.pg85.otg.common.PopulationRegion;
 import com.pg85.otg.configuration.biome.BiomeConfig;
 import com.pg85.otg.configuration.standard.PluginStandardValues;
 import com.pg85.otg.exception.InvalidConfigException;
+import com.pg85.otg.util.ChunkCoordinate;
 import com.pg85.otg.util.helpers.MaterialHelper;
 import com.pg85.otg.util.helpers.RandomHelper;
 import com.pg85.otg.util.minecraft.defaults.DefaultMaterial;
@@ -82,13 +84,15 @@ public class SmallLakeGen extends Resource
             return;
         }
 
+        PopulationRegion region = world.getPopulationRegion(ChunkCoordinate.getPopulatingChunk(x, z));
+
         x -= 8;
         z -= 8;
 
         int y = RandomHelper.numberInRange(rand, minAltitude, maxAltitude);
 
         // Search any free space
-        while ((y > 5) && (world.isNullOrAir(x, y, z, false)))
+        while ((y > 5) && (region.isNullOrAir(x, y, z)))
         {
             y--;
         }
@@ -147,12 +151,12 @@ public class SmallLakeGen extends Resource
 
                         if (flag)
                         {
-                            LocalMaterialData localMaterialData = world.getMaterial(x + j, y + i2, z + i1, false);
+                            LocalMaterialData localMaterialData = region.getMaterial(x + j, y + i2, z + i1);
                             if ((i2 >= 4) && (localMaterialData.isLiquid()))
                             {
                                 return;
                             }
-                            if ((i2 < 4) && (!localMaterialData.isSolid()) && !world.getMaterial(x + j, y + i2, z + i1, false).equals(material))
+                            if ((i2 < 4) && (!localMaterialData.isSolid()) && !region.getMaterial(x + j, y + i2, z + i1).equals(material))
                             {
                                 return;
                             }
@@ -169,7 +173,7 @@ public class SmallLakeGen extends Resource
                     {
                         if (BooleanBuffer[((j * 16 + i1) * 8 + i2)])
                         {
-                            world.setBlock(x + j, y + i2, z + i1, material, null, false);
+                            region.setBlock(x + j, y + i2, z + i1, material);
                             BooleanBuffer[((j * 16 + i1) * 8 + i2)] = false;
                         }
                     }
@@ -177,7 +181,7 @@ public class SmallLakeGen extends Resource
                     {
                         if (BooleanBuffer[((j * 16 + i1) * 8 + i2)])
                         {
-                            world.setBlock(x + j, y + i2, z + i1, air, null, false);
+                            region.setBlock(x + j, y + i2, z + i1, air);
                             BooleanBuffer[((j * 16 + i1) * 8 + i2)] = false;
                         }
                     }
@@ -3,6 +3,7 @@ package com.pg85.otg.generator.resource;
 import com.pg85.otg.common.LocalMaterialData;
 import com.pg85.otg.common.LocalWorld;
 import com.pg85.otg.configuration.ConfigFunction;
+import com.pg85.otg.configuration.ConfigValuePool;
 import com.pg85.otg.configuration.biome.BiomeConfig;
 import com.pg85.otg.configuration.standard.PluginStandardValues;
 import com.pg85.otg.exception.InvalidConfigException;
@@ -23,7 +24,7 @@ public class SurfacePatchGen extends Resource
      */
     private final NoiseGeneratorSurfacePatchOctaves noiseGen;
     private final Random random;
-    private final MaterialSet sourceBlocks;
+    private MaterialSet sourceBlocks;
 
     public SurfacePatchGen(BiomeConfig biomeConfig, List<String> args) throws InvalidConfigException
     {
@@ -74,6 +75,12 @@ public class SurfacePatchGen extends Resource
         return true;
     }
 
+    @Override
+    public void shareValues(ConfigValuePool valuePool)
+    {
+        this.sourceBlocks = valuePool.share(this.sourceBlocks);
+    }
+
     @Override
     public int getPriority()
     {
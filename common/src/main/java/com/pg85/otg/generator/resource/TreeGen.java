@@ -137,7 +137,7 @@ public class TreeGen extends Resource
                     		if(OTG.getPluginConfig().spawnLog)
                     		{
                     			BiomeConfig biomeConfig = world.getBiome(chunkCoord.getChunkX() * 16 + 15, chunkCoord.getChunkZ() * 16 + 15).getBiomeConfig();
-                    			OTG.log(LogMarker.WARN, "Error: Could not find BO3 for Tree in biome " + biomeConfig.getName() + ". BO3: " + treeNames.get(treeNumber));
+                    			OTG.logRepeated(LogMarker.WARN, "Error: Could not find BO3 for Tree in biome {}. BO3: {}", biomeConfig.getName(), treeNames.get(treeNumber));
                     		}
                     		continue;
                         }                    
@@ -165,7 +165,7 @@ public class TreeGen extends Resource
                     		if(OTG.getPluginConfig().spawnLog)
                     		{
                     			BiomeConfig biomeConfig = world.getBiome(chunkCoord.getChunkX() * 16 + 15, chunkCoord.getChunkZ() * 16 + 15).getBiomeConfig();
-                    			OTG.log(LogMarker.WARN, "Error: Could not find BO3 for Tree in biome " + biomeConfig.getName() + ". BO3: " + treeNames.get(treeNumber));
+                    			OTG.logRepeated(LogMarker.WARN, "Error: Could not find BO3 for Tree in biome {}. BO3: {}", biomeConfig.getName(), treeNames.get(treeNumber));
                     		}
                     		continue;
                         }                        	        		
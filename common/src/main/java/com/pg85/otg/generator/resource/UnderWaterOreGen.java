@@ -2,6 +2,7 @@ package com.pg85.otg.generator.resource;
 
 import com.pg85.otg.common.LocalMaterialData;
 import com.pg85.otg.common.LocalWorld;
+import com.pg85.otg.configuration.ConfigValuePool;
 import com.pg85.otg.configuration.biome.BiomeConfig;
 import com.pg85.otg.exception.InvalidConfigException;
 import com.pg85.otg.util.materials.MaterialSet;
@@ -12,7 +13,7 @@ import java.util.Random;
 public class UnderWaterOreGen extends Resource
 {
     private final int size;
-    private final MaterialSet sourceBlocks;
+    private MaterialSet sourceBlocks;
 
     public UnderWaterOreGen(BiomeConfig biomeConfig, List<String> args) throws InvalidConfigException
     {
@@ -42,6 +43,12 @@ public class UnderWaterOreGen extends Resource
                && this.size == compare.size;
     }
 
+    @Override
+    public void shareValues(ConfigValuePool valuePool)
+    {
+        this.sourceBlocks = valuePool.share(this.sourceBlocks);
+    }
+
     @Override
     public int getPriority()
     {
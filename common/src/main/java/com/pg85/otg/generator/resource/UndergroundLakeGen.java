@@ -2,9 +2,11 @@ package com.pg85.otg.generator.resource;
 
 import com.pg85.otg.common.LocalMaterialData;
 import com.pg85.otg.common.LocalWorld;
+import com.pg85.otg.common.PopulationRegion;
 import com.pg85.otg.configuration.biome.BiomeConfig;
 import com.pg85.otg.configuration.standard.PluginStandardValues;
 import com.pg85.otg.exception.InvalidConfigException;
+import com.pg85.otg.util.ChunkCoordinate;
 import com.pg85.otg.util.helpers.MaterialHelper;
 import com.pg85.otg.util.helpers.MathHelper;
 import com.pg85.otg.util.helpers.RandomHelper;
@@ -88,6 +90,7 @@ public class UndergroundLakeGen extends Resource
         if (y >= world.getHighestBlockYAt(x, z))
             return;
         int size = RandomHelper.numberInRange(rand, minSize, maxSize);
+        PopulationRegion region = world.getPopulationRegion(ChunkCoordinate.getPopulatingChunk(x, z));
 
         float mPi = rand.nextFloat() * 3.141593F;
 
@@ -116,7 +119,7 @@ public class UndergroundLakeGen extends Resource
                 {
                     for (int zLake = (int) (zAdjusted - horizontalSize / 2.0D); zLake <= (int) (zAdjusted + horizontalSize / 2.0D); zLake++)
                     {
-                        LocalMaterialData material = world.getMaterial(xLake, yLake, zLake, false);
+                        LocalMaterialData material = region.getMaterial(xLake, yLake, zLake);
                         if (material == null || material.isAir() || material.isMaterial(DefaultMaterial.BEDROCK))
                         {
                             // Don't replace air or bedrock
@@ -130,14 +133,14 @@ public class UndergroundLakeGen extends Resource
                         {
                             continue;
                         }
-                        LocalMaterialData materialBelow = world.getMaterial(xLake, yLake - 1, zLake, false);
+                        LocalMaterialData materialBelow = region.getMaterial(xLake, yLake - 1, zLake);
                         if (materialBelow != null && materialBelow.isAir())
                         {
                             // Air block, also set position above to air
-                            world.setBlock(xLake, yLake, zLake, materialBelow, null, false);
+                            region.setBlock(xLake, yLake, zLake, materialBelow);
                         } else {
                             // Not air, set position above to water
-                            world.setBlock(xLake, yLake, zLake, material, null, false);
+                            region.setBlock(xLake, yLake, zLake, material);
                         }
                     }
                 }
@@ -1,7 +1,7 @@
 package com.pg85.otg.generator.resource;
 
 import com.pg85.otg.common.LocalMaterialData;
-import com.pg85.otg.common.LocalWorld;
+import com.pg85.otg.common.PopulationRegion;
 import com.pg85.otg.util.ChunkCoordinate;
 import com.pg85.otg.util.helpers.MathHelper;
 import com.pg85.otg.util.helpers.RandomHelper;
@@ -25,6 +25,23 @@ class Vein
         this.size = size;
     }
 
+    @Override
+    public boolean equals(Object other)
+    {
+        if (!(other instanceof Vein))
+        {
+            return false;
+        }
+        Vein vein = (Vein) other;
+        return this.x == vein.x && this.y == vein.y && this.z == vein.z && this.size == vein.size;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return ((this.x * 31 + this.y) * 31 + this.z) * 31 + this.size;
+    }
+
     public int getChunkSize()
     {
         return (size + 15) / 16;
@@ -46,7 +63,7 @@ class Vein
         return true;
     }
 
-    public void spawn(LocalWorld world, Random random, ChunkCoordinate chunkCoord, VeinGen gen)
+    public void spawn(PopulationRegion region, Random random, ChunkCoordinate chunkCoord, VeinGen gen)
     {
         int sizeSquared = size * size;
 
@@ -60,13 +77,13 @@ class Vein
 
                 if ((oreX - x) * (oreX - x) + (oreY - y) * (oreY - y) + (oreZ - z) * (oreZ - z) < sizeSquared)
                 {
-                    spawnOre(world, random, oreX, oreY, oreZ, gen);
+                    spawnOre(region, random, oreX, oreY, oreZ, gen);
                 }
             }
         }
     }
 
-    private void spawnOre(LocalWorld world, Random rand, int x, int y, int z, VeinGen gen)
+    private void spawnOre(PopulationRegion region, Random rand, int x, int y, int z, VeinGen gen)
     {
         int maxSize = gen.oreSize;
         LocalMaterialData material = gen.material;
@@ -114,9 +131,9 @@ class Vein
                             for (int i5 = m; i5 <= i2; i5++)
                             {
                                 double d15 = (i5 + 0.5D - d9) / (d11 / 2.0D);
-                                if ((d13 * d13 + d14 * d14 + d15 * d15 < 1.0D) && sourceBlocks.contains(world.getMaterial(i3, i4, i5, false)))
+                                if ((d13 * d13 + d14 * d14 + d15 * d15 < 1.0D) && sourceBlocks.contains(region.getMaterial(i3, i4, i5)))
                                 {
-                                    world.setBlock(i3, i4, i5, material, null, false);
+                                    region.setBlock(i3, i4, i5, material);
                                 }
                             }
                         }
@@ -1,10 +1,13 @@
 package com.pg85.otg.generator.resource;
 
 import com.pg85.otg.common.LocalWorld;
+import com.pg85.otg.common.PopulationRegion;
+import com.pg85.otg.configuration.ConfigValuePool;
 import com.pg85.otg.configuration.biome.BiomeConfig;
 import com.pg85.otg.configuration.standard.PluginStandardValues;
 import com.pg85.otg.exception.InvalidConfigException;
 import com.pg85.otg.util.ChunkCoordinate;
+import com.pg85.otg.util.FifoMap;
 import com.pg85.otg.util.helpers.RandomHelper;
 import com.pg85.otg.util.materials.MaterialSet;
 
@@ -24,6 +27,23 @@ public class VeinGen extends Resource
     MaterialSet sourceBlocks; // Blocks for the ore to spawn in
     private double veinRarity; // Chance for the vein to spawn in a chunk
 
+    /**
+     * Amount of chunks for which the vein start is remembered. Enough for the
+     * search areas of the chunks that are populated around the same time.
+     */
+    private static final int MAX_CACHED_VEIN_STARTS = 4096;
+
+    /**
+     * Stored in {@link #veinStarts} for chunks without a vein start.
+     */
+    private static final Vein NO_VEIN = new Vein(0, 0, 0, 0);
+
+    // Each chunk is searched by all chunks around it, so remember the
+    // vein starts instead of calculating them again every time. Only
+    // valid for veinStartsSeed.
+    final FifoMap<ChunkCoordinate, Vein> veinStarts = new FifoMap<ChunkCoordinate, Vein>(MAX_CACHED_VEIN_STARTS);
+    private long veinStartsSeed;
+
     public VeinGen(BiomeConfig biomeConfig, List<String> args) throws InvalidConfigException
     {
         super(biomeConfig);
@@ -67,12 +87,51 @@ public class VeinGen extends Resource
                    : this.sourceBlocks.equals(compare.sourceBlocks));
     }
 
+    @Override
+    public void shareValues(ConfigValuePool valuePool)
+    {
+        this.sourceBlocks = valuePool.share(this.sourceBlocks);
+    }
+
     @Override
     public int getPriority()
     {
         return 9;
     }
 
+    /**
+     * Returns the vein that starts in the chunk. Uses the cached result if the
+     * chunk was searched recently.
+     * @param world  The world to spawn in.
+     * @param chunkX The x of the chunk.
+     * @param chunkZ The z of the chunk.
+     * @return The vein that starts in the chunk, or null if there is no
+     *         starting vein.
+     */
+    Vein getCachedVeinStartInChunk(LocalWorld world, int chunkX, int chunkZ)
+    {
+        ChunkCoordinate chunkCoord = ChunkCoordinate.fromChunkCoords(chunkX, chunkZ);
+        synchronized (this.veinStarts)
+        {
+            if (this.veinStartsSeed != world.getSeed())
+            {
+                this.veinStarts.clear();
+                this.veinStartsSeed = world.getSeed();
+            }
+            Vein vein = this.veinStarts.get(chunkCoord);
+            if (vein == null)
+            {
+                vein = getVeinStartInChunk(world, chunkX, chunkZ);
+                if (vein == null)
+                {
+                    vein = NO_VEIN;
+                }
+                this.veinStarts.put(chunkCoord, vein);
+            }
+            return vein == NO_VEIN ? null : vein;
+        }
+    }
+
     /**
      * Returns the vein that starts in the chunk.
      * @param world  The world to spawn in.
@@ -81,7 +140,7 @@ public class VeinGen extends Resource
      * @return The vein that starts in the chunk, or null if there is no
      *         starting vein.
      */
-    private Vein getVeinStartInChunk(LocalWorld world, int chunkX, int chunkZ)
+    Vein getVeinStartInChunk(LocalWorld world, int chunkX, int chunkZ)
     {
         // Create a random generator that is constant for this chunk and vein
         Random random = RandomHelper.getRandomForCoords(chunkX, chunkZ, material.hashCode() * (minRadius + maxRadius + 100) + world.getSeed());
@@ -136,14 +195,19 @@ public class VeinGen extends Resource
 
         int currentChunkX = chunkCoord.getChunkX();
         int currentChunkZ = chunkCoord.getChunkZ();
+        PopulationRegion region = null;
         for (int searchChunkX = currentChunkX - searchRadius; searchChunkX < currentChunkX + searchRadius; searchChunkX++)
         {
             for (int searchChunkZ = currentChunkZ - searchRadius; searchChunkZ < currentChunkZ + searchRadius; searchChunkZ++)
             {
-                Vein vein = getVeinStartInChunk(world, searchChunkX, searchChunkZ);
+                Vein vein = getCachedVeinStartInChunk(world, searchChunkX, searchChunkZ);
                 if (vein != null && vein.reachesChunk(currentChunkX, currentChunkZ))
                 {
-                    vein.spawn(world, random, chunkCoord, this);
+                    if (region == null)
+                    {
+                        region = world.getPopulationRegion(chunkCoord);
+                    }
+                    vein.spawn(region, random, chunkCoord, this);
                 }
             }
         }
@@ -2,6 +2,7 @@ package com.pg85.otg.generator.resource;
 
 import com.pg85.otg.common.LocalMaterialData;
 import com.pg85.otg.common.LocalWorld;
+import com.pg85.otg.configuration.ConfigValuePool;
 import com.pg85.otg.configuration.biome.BiomeConfig;
 import com.pg85.otg.configuration.standard.PluginStandardValues;
 import com.pg85.otg.exception.InvalidConfigException;
@@ -16,7 +17,7 @@ public class WellGen extends Resource
     private final int minAltitude;
     private final LocalMaterialData slab;
     private final LocalMaterialData water;
-    private final MaterialSet sourceBlocks;
+    private MaterialSet sourceBlocks;
 
     public WellGen(BiomeConfig biomeConfig, List<String> args) throws InvalidConfigException
     {
@@ -52,6 +53,12 @@ public class WellGen extends Resource
                && this.water.equals(compare.water);
     }
 
+    @Override
+    public void shareValues(ConfigValuePool valuePool)
+    {
+        this.sourceBlocks = valuePool.share(this.sourceBlocks);
+    }
+
     @Override
     public int getPriority()
     {
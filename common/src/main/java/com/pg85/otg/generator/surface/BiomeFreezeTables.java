@@ -0,0 +1,147 @@
+package com.pg85.otg.generator.surface;
+
+import com.pg85.otg.common.LocalBiome;
+import com.pg85.otg.configuration.standard.PluginStandardValues;
+import com.pg85.otg.configuration.standard.WorldStandardValues;
+
+/**
+ * Per-biome tables of the heights at which snow and ice can form, used by
+ * {@link FrozenSurfaceHelper} to avoid temperature lookups.
+ *
+ * <p>
+ * Minecraft's temperature doesn't change with height up to
+ * {@value #CONSTANT_TEMPERATURE_MAX_Y}, so there it is just the base
+ * temperature of the biome. Above that, it goes down by
+ * {@value #TEMPERATURE_DECREASE_PER_BLOCK} per block, shifted up or down
+ * by a noise value of at most a few blocks. This means that for every biome
+ * there's a height band above {@value #CONSTANT_TEMPERATURE_MAX_Y} where
+ * it is always too warm to freeze, and biomes with a high base temperature
+ * can't freeze at all below the build height.
+ *
+ * <p>
+ * Tables are created lazily. Multiple threads may populate chunks at the
+ * same time, tables are immutable so a table that is created twice doesn't
+ * matter.
+ */
+public class BiomeFreezeTables
+{
+    /**
+     * Highest y at which Minecraft uses the base temperature of the biome.
+     */
+    static final int CONSTANT_TEMPERATURE_MAX_Y = 64;
+
+    /**
+     * How much the temperature goes down for every block above
+     * {@link #CONSTANT_TEMPERATURE_MAX_Y}.
+     */
+    static final double TEMPERATURE_DECREASE_PER_BLOCK = 0.05 / 30;
+
+    /**
+     * Upper bound of the number of blocks the temperature noise can shift
+     * the temperature up or down. Minecraft multiplies a noise value between
+     * about -0.9 and 0.9 by four, this value leaves plenty of room so that
+     * rounding never makes a column freeze outside the band.
+     */
+    private static final int MAX_NOISE_SHIFT = 8;
+
+    private FreezeTable[] tables = new FreezeTable[0];
+
+    /**
+     * Gets the table of the given biome.
+     * @param biome The biome.
+     * @return The table.
+     */
+    FreezeTable get(LocalBiome biome)
+    {
+        int id = biome.getIds().getOTGBiomeId();
+        FreezeTable[] tables = this.tables;
+        if (id < tables.length)
+        {
+            FreezeTable table = tables[id];
+            // Biomes are replaced when the configs are reloaded
+            if (table != null && table.biome == biome)
+            {
+                return table;
+            }
+        }
+        return createTable(biome, id);
+    }
+
+    private synchronized FreezeTable createTable(LocalBiome biome, int id)
+    {
+        FreezeTable[] tables = this.tables;
+        if (id >= tables.length)
+        {
+            FreezeTable[] newTables = new FreezeTable[id + 1];
+            System.arraycopy(tables, 0, newTables, 0, tables.length);
+            tables = newTables;
+        }
+        FreezeTable table = new FreezeTable(biome);
+        tables[id] = table;
+        this.tables = tables;
+        return table;
+    }
+
+    /**
+     * Heights at which a single biome can freeze.
+     */
+    static final class FreezeTable
+    {
+        private final LocalBiome biome;
+        private final float baseTemperature;
+        private final boolean freezesAtBaseTemperature;
+        private final int minNoiseFreezeY;
+
+        FreezeTable(LocalBiome biome)
+        {
+            this.biome = biome;
+            this.baseTemperature = biome.getBaseTemperature();
+            this.freezesAtBaseTemperature = this.baseTemperature < WorldStandardValues.SNOW_AND_ICE_MAX_TEMP;
+
+            int minNoiseFreezeY = Integer.MAX_VALUE;
+            for (int y = CONSTANT_TEMPERATURE_MAX_Y + 1; y <= PluginStandardValues.WORLD_HEIGHT; y++)
+            {
+                double minTemperature = this.baseTemperature - (MAX_NOISE_SHIFT + y - CONSTANT_TEMPERATURE_MAX_Y) * TEMPERATURE_DECREASE_PER_BLOCK;
+                if (minTemperature < WorldStandardValues.SNOW_AND_ICE_MAX_TEMP)
+                {
+                    minNoiseFreezeY = y;
+                    break;
+                }
+            }
+            this.minNoiseFreezeY = minNoiseFreezeY;
+        }
+
+        /**
+         * Gets whether this biome can freeze at any height.
+         * @return False if it is always too warm to freeze.
+         */
+        boolean canFreeze()
+        {
+            return this.freezesAtBaseTemperature || this.minNoiseFreezeY != Integer.MAX_VALUE;
+        }
+
+        /**
+         * Gets the temperature at the given position if it is cold enough
+         * to freeze there. The temperature noise is only looked up when the
+         * height alone doesn't tell.
+         * @param x The x position in the world.
+         * @param y The y position in the world.
+         * @param z The z position in the world.
+         * @return The temperature, or {@link Float#NaN} if it is too warm to
+         *         freeze.
+         */
+        float getFreezingTemperatureAt(int x, int y, int z)
+        {
+            if (y <= CONSTANT_TEMPERATURE_MAX_Y)
+            {
+                return this.freezesAtBaseTemperature ? this.baseTemperature : Float.NaN;
+            }
+            if (y < this.minNoiseFreezeY)
+            {
+                return Float.NaN;
+            }
+            float temperature = this.biome.getTemperatureAt(x, y, z);
+            return temperature < WorldStandardValues.SNOW_AND_ICE_MAX_TEMP ? temperature : Float.NaN;
+        }
+    }
+}
@@ -4,7 +4,6 @@ import com.pg85.otg.common.LocalBiome;
 import com.pg85.otg.common.LocalMaterialData;
 import com.pg85.otg.common.LocalWorld;
 import com.pg85.otg.configuration.biome.BiomeConfig;
-import com.pg85.otg.configuration.standard.WorldStandardValues;
 import com.pg85.otg.configuration.world.WorldConfig;
 import com.pg85.otg.util.ChunkCoordinate;
 import com.pg85.otg.util.helpers.MaterialHelper;
@@ -15,14 +14,22 @@ public class FrozenSurfaceHelper
 {
     private final LocalWorld world;
     private final WorldConfig worldConfig;
+    private final BiomeFreezeTables freezeTables;
     private int decreaseFactor = 0;
     private final int maxPropagationSize = 15;
     private int currentPropagationSize = 0;
 
-    public FrozenSurfaceHelper(LocalWorld world)
+    /**
+     * Creates a helper for freezing a single chunk.
+     * @param world        The world.
+     * @param freezeTables Freeze tables of the biomes of the world, shared
+     *                     by all helpers of the world.
+     */
+    public FrozenSurfaceHelper(LocalWorld world, BiomeFreezeTables freezeTables)
     {
         this.world = world;
         this.worldConfig = world.getConfigs().getWorldConfig();
+        this.freezeTables = freezeTables;
     }
 
     /**
@@ -33,13 +40,45 @@ public class FrozenSurfaceHelper
     {
         int x = chunkCoord.getBlockXCenter();
         int z = chunkCoord.getBlockZCenter();
+
+        // Look up the biomes first, most chunks are in biomes that never
+        // freeze, and then there's no need to look at the blocks at all
+        LocalBiome[] biomes = new LocalBiome[ChunkCoordinate.CHUNK_X_SIZE * ChunkCoordinate.CHUNK_Z_SIZE];
+        BiomeFreezeTables.FreezeTable[] tables = new BiomeFreezeTables.FreezeTable[biomes.length];
+        boolean canFreeze = false;
+        for (int i = 0; i < ChunkCoordinate.CHUNK_X_SIZE; i++)
+        {
+            for (int j = 0; j < ChunkCoordinate.CHUNK_Z_SIZE; j++)
+            {
+                // Using the calculated biome id so that ReplaceToBiomeName can't mess up the ids
+                LocalBiome biome = world.getBiome(x + i, z + j);
+                if (biome != null)
+                {
+                    BiomeFreezeTables.FreezeTable table = this.freezeTables.get(biome);
+                    if (table.canFreeze())
+                    {
+                        int index = i * ChunkCoordinate.CHUNK_Z_SIZE + j;
+                        biomes[index] = biome;
+                        tables[index] = table;
+                        canFreeze = true;
+                    }
+                }
+            }
+        }
+        if (!canFreeze)
+        {
+            return;
+        }
+
         for (int i = 0; i < ChunkCoordinate.CHUNK_X_SIZE; i++)
         {
             for (int j = 0; j < ChunkCoordinate.CHUNK_Z_SIZE; j++)
             {
-                int blockToFreezeX = x + i;
-                int blockToFreezeZ = z + j;
-                freezeColumn(blockToFreezeX, blockToFreezeZ);
+                int index = i * ChunkCoordinate.CHUNK_Z_SIZE + j;
+                if (biomes[index] != null)
+                {
+                    freezeColumn(x + i, z + j, biomes[index], tables[index]);
+                }
             }
         }
     }
@@ -48,23 +87,23 @@ public class FrozenSurfaceHelper
      * Performs a liquid freeze and lays down a layer of snow on a Chunk column
      * @param x Location X
      * @param z Location Z
+     * @param biome The biome of the column
+     * @param table The freeze table of the biome
      */
-    private void freezeColumn(int x, int z)
+    private void freezeColumn(int x, int z, LocalBiome biome, BiomeFreezeTables.FreezeTable table)
     {
-        // Using the calculated biome id so that ReplaceToBiomeName can't mess up the ids
-        LocalBiome biome = world.getBiome(x, z);
-        if (biome != null)
+        int blockToFreezeY = world.getHighestBlockYAt(x, z);
+        if (blockToFreezeY > 0)
         {
-            int blockToFreezeY = world.getHighestBlockYAt(x, z);
-            float tempAtBlockToFreeze = biome.getTemperatureAt(x, blockToFreezeY, z);
-            if (blockToFreezeY > 0 && tempAtBlockToFreeze < WorldStandardValues.SNOW_AND_ICE_MAX_TEMP)
+            float tempAtBlockToFreeze = table.getFreezingTemperatureAt(x, blockToFreezeY, z);
+            if (!Float.isNaN(tempAtBlockToFreeze))
             {
                 this.currentPropagationSize = 0;
                 // Start to freeze liquids
-                if (!this.freezeLiquid(x, blockToFreezeY -1, z))
+                if (!this.freezeLiquid(x, blockToFreezeY -1, z, biome))
                 {
                     // Snow has to be placed on an empty space on a block that accepts snow in the world
-                    startSnowFall(x, blockToFreezeY, z, biome);
+                    startSnowFall(x, blockToFreezeY, z, biome, tempAtBlockToFreeze);
                 }
             }
         }
@@ -75,22 +114,19 @@ public class FrozenSurfaceHelper
      * @param x Location X
      * @param y Location Y
      * @param z Location Z
+     * @param biome The biome at the given location
      * @return If a liquid was present at the given location (not necessarily successful in freezing)
      */
-    private boolean freezeLiquid(int x, int y, int z)
+    private boolean freezeLiquid(int x, int y, int z, LocalBiome biome)
     {
-        LocalBiome biome = world.getBiome(x, z);
-        if (biome != null)
+        LocalMaterialData materialToFreeze = world.getMaterial(x, y, z, false);
+        if (materialToFreeze.isLiquid())
         {
-            LocalMaterialData materialToFreeze = world.getMaterial(x, y, z, false);
-            if (materialToFreeze.isLiquid())
-            {
-                // Water & Stationary Water => IceBlock
-                freezeType(x, y, z, materialToFreeze, biome.getBiomeConfig().iceBlock, DefaultMaterial.WATER, DefaultMaterial.STATIONARY_WATER);
-                // Lava & Stationary Lava => CooledLavaBlock
-                freezeType(x, y, z, materialToFreeze, biome.getBiomeConfig().cooledLavaBlock, DefaultMaterial.LAVA, DefaultMaterial.STATIONARY_LAVA);
-                return true;
-            }
+            // Water & Stationary Water => IceBlock
+            freezeType(x, y, z, materialToFreeze, biome.getBiomeConfig().iceBlock, DefaultMaterial.WATER, DefaultMaterial.STATIONARY_WATER);
+            // Lava & Stationary Lava => CooledLavaBlock
+            freezeType(x, y, z, materialToFreeze, biome.getBiomeConfig().cooledLavaBlock, DefaultMaterial.LAVA, DefaultMaterial.STATIONARY_LAVA);
+            return true;
         }
         return false;
     }
@@ -128,13 +164,13 @@ public class FrozenSurfaceHelper
      * @param y Location Y
      * @param z Location Z
      * @param biome The biome associated with the chunk column
+     * @param tempAtBlockToFreeze The temperature at the given location
      */
-    private void startSnowFall(int x, int y, int z, LocalBiome biome)
+    private void startSnowFall(int x, int y, int z, LocalBiome biome, float tempAtBlockToFreeze)
     {
         decreaseFactor = 0;
         BiomeConfig biomeConfig = biome.getBiomeConfig();
 
-        float tempAtBlockToFreeze = biome.getTemperatureAt(x, y, z);
         int snowHeight = biomeConfig.getSnowHeight(tempAtBlockToFreeze);
         // Decreased snow amounts for leaves
         LocalMaterialData materialToSnowAt = world.getMaterial(x, y, z, false);
@@ -213,7 +249,11 @@ public class FrozenSurfaceHelper
     {
         if (world.getHighestBlockYAt(x, z)-1 > y && this.currentPropagationSize < this.maxPropagationSize)
         {
-            this.freezeLiquid(x, y, z);
+            LocalBiome biome = world.getBiome(x, z);
+            if (biome != null)
+            {
+                this.freezeLiquid(x, y, z, biome);
+            }
         }
     }
 
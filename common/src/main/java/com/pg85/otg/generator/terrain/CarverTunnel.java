@@ -0,0 +1,84 @@
+package com.pg85.otg.generator.terrain;
+
+/**
+ * The geometry of a single cave or ravine tunnel, as calculated for its
+ * source chunk. Only depends on the world seed and the world config, so it
+ * can be shared between all chunks the tunnel passes through.
+ *
+ * <p>
+ * Steps are stored in the order the carver visits them, packed as
+ * {x, y, z, horizontal radius, vertical radius, steps remaining}.
+ */
+final class CarverTunnel
+{
+    static final CarverTunnel[] NONE = new CarverTunnel[0];
+
+    static final int STEP_SIZE = 6;
+    static final int X = 0;
+    static final int Y = 1;
+    static final int Z = 2;
+    static final int RADIUS = 3;
+    static final int RADIUS_Y = 4;
+    static final int REMAINING = 5;
+
+    private static final CarverTunnel[] NO_BRANCHES = new CarverTunnel[0];
+
+    /**
+     * Distance from the generating chunk beyond which the tunnel can no
+     * longer reach it, not counting the remaining steps.
+     */
+    final double reach;
+
+    /**
+     * For large caves: stop after the first step that was carved.
+     */
+    final boolean singleStep;
+
+    /**
+     * Per-height radius multipliers, only used by ravines.
+     */
+    final float[] heightScale;
+
+    double[] steps = new double[STEP_SIZE * 16];
+    int stepCount;
+    CarverTunnel[] branches = NO_BRANCHES;
+
+    CarverTunnel(double reach, boolean singleStep, float[] heightScale)
+    {
+        this.reach = reach;
+        this.singleStep = singleStep;
+        this.heightScale = heightScale;
+    }
+
+    void addStep(double x, double y, double z, double radius, double radiusY, double remaining)
+    {
+        if ((this.stepCount + 1) * STEP_SIZE > this.steps.length)
+        {
+            double[] newSteps = new double[this.steps.length * 2];
+            System.arraycopy(this.steps, 0, newSteps, 0, this.steps.length);
+            this.steps = newSteps;
+        }
+        int i = this.stepCount * STEP_SIZE;
+        this.steps[i + X] = x;
+        this.steps[i + Y] = y;
+        this.steps[i + Z] = z;
+        this.steps[i + RADIUS] = radius;
+        this.steps[i + RADIUS_Y] = radiusY;
+        this.steps[i + REMAINING] = remaining;
+        this.stepCount++;
+    }
+
+    /**
+     * Shrinks the step array to its used size, the tunnel is only read
+     * from after this.
+     */
+    void trim()
+    {
+        if (this.steps.length != this.stepCount * STEP_SIZE)
+        {
+            double[] newSteps = new double[this.stepCount * STEP_SIZE];
+            System.arraycopy(this.steps, 0, newSteps, 0, newSteps.length);
+            this.steps = newSteps;
+        }
+    }
+}
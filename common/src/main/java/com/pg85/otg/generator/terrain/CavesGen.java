@@ -11,6 +11,7 @@ import com.pg85.otg.util.helpers.MathHelper;
 import com.pg85.otg.util.helpers.RandomHelper;
 import com.pg85.otg.util.minecraft.defaults.DefaultMaterial;
 
+import java.util.List;
 import java.util.Random;
 
 public class CavesGen extends TerrainGenBase
@@ -23,17 +24,18 @@ public class CavesGen extends TerrainGenBase
         this.worldSettings = wrk;
     }
 
-    private void generateLargeCaveNode(long seed, ChunkBuffer generatingChunkBuffer, double x, double y, double z)
+    private CarverTunnel traceLargeCaveNode(long seed, double x, double y, double z)
     {
-        generateCaveNode(seed, generatingChunkBuffer, x, y, z, 1.0F + this.random.nextFloat() * 6.0F, 0.0F, 0.0F, -1, -1, 0.5D);
+        return traceCaveNode(seed, x, y, z, 1.0F + this.random.nextFloat() * 6.0F, 0.0F, 0.0F, -1, -1, 0.5D);
     }
 
-    private void generateCaveNode(long seed, ChunkBuffer generatingChunkBuffer, double x, double y, double z, float paramFloat1, float paramFloat2, float paramFloat3, int angle, int maxAngle, double paramDouble4)
+    /**
+     * Traces the path of a cave, without looking at any chunk. Each step that
+     * would be checked against the generating chunk is stored in the
+     * returned tunnel.
+     */
+    private CarverTunnel traceCaveNode(long seed, double x, double y, double z, float paramFloat1, float paramFloat2, float paramFloat3, int angle, int maxAngle, double paramDouble4)
     {
-        ChunkCoordinate generatingChunk = generatingChunkBuffer.getChunkCoordinate();
-        double real_x = generatingChunk.getBlockXCenter();
-        double real_z = generatingChunk.getBlockZCenter();
-
         float f1 = 0.0F;
         float f2 = 0.0F;
 
@@ -55,38 +57,13 @@ public class CavesGen extends TerrainGenBase
         int j = localRandom.nextInt(maxAngle / 2) + maxAngle / 4;
         int k = localRandom.nextInt(6) == 0 ? 1 : 0;
 
+        CarverTunnel tunnel = new CarverTunnel(paramFloat1 + 2.0F + 16.0F, isLargeCave, null);
+
         double d3;
         double d4;
         float f3;
         float f4;
-        double d5;
-        double d6;
-        double d7;
-        double d8;
-        
-        int m;
-        int n;
-        
-        int maxDepth;
-        int minDepth;
-        int i3;
-        int i4;
-        
-        boolean waterFound;
-        LocalMaterialData material;
-        
-        double d9;
-        //LocalBiome biome;
-        double d10;
 
-        boolean surfaceBlockFound;
-        double d11;
-        
-        LocalMaterialData materialAbove;
-        LocalMaterialData block;
-        
-    	int surfaceBlockDepth;
-        
         for (; angle < maxAngle; angle++)
         {
             d3 = 1.5D + MathHelper.sin(angle * 3.141593F / maxAngle) * paramFloat1 * 1.0F;
@@ -114,161 +91,175 @@ public class CavesGen extends TerrainGenBase
 
             if ((!isLargeCave) && (angle == j) && (paramFloat1 > 1.0F) && (maxAngle > 0))
             {
-                generateCaveNode(localRandom.nextLong(), generatingChunkBuffer, x, y, z, localRandom.nextFloat() * 0.5F + 0.5F, paramFloat2 - 1.570796F, paramFloat3 / 3.0F, angle, maxAngle, 1.0D);
-                generateCaveNode(localRandom.nextLong(), generatingChunkBuffer, x, y, z, localRandom.nextFloat() * 0.5F + 0.5F, paramFloat2 + 1.570796F, paramFloat3 / 3.0F, angle, maxAngle, 1.0D);
-                return;
+                CarverTunnel branch1 = traceCaveNode(localRandom.nextLong(), x, y, z, localRandom.nextFloat() * 0.5F + 0.5F, paramFloat2 - 1.570796F, paramFloat3 / 3.0F, angle, maxAngle, 1.0D);
+                CarverTunnel branch2 = traceCaveNode(localRandom.nextLong(), x, y, z, localRandom.nextFloat() * 0.5F + 0.5F, paramFloat2 + 1.570796F, paramFloat3 / 3.0F, angle, maxAngle, 1.0D);
+                tunnel.branches = new CarverTunnel[] { branch1, branch2 };
+                break;
             }
             if ((!isLargeCave) && (localRandom.nextInt(4) == 0))
             {
                 continue;
             }
 
-            // Check if distance to working point (x and z) too larger than working radius (maybe ??)
-            d5 = x - real_x;
-            d6 = z - real_z;
-            d7 = maxAngle - angle;
-            d8 = paramFloat1 + 2.0F + 16.0F;
-            if (d5 * d5 + d6 * d6 - d7 * d7 > d8 * d8)
-            {
-                return;
-            }
+            tunnel.addStep(x, y, z, d3, d4, maxAngle - angle);
+        }
+        tunnel.trim();
+        return tunnel;
+    }
 
-            //Boundaries check.
-            if ((x < real_x - 16.0D - d3 * 2.0D) || (z < real_z - 16.0D - d3 * 2.0D) || (x > real_x + 16.0D + d3 * 2.0D) || (z > real_z + 16.0D + d3 * 2.0D))
-            {
-                continue;
-            }
+    @Override
+    boolean carveStep(CarverTunnel tunnel, double x, double y, double z, double d3, double d4, ChunkBuffer generatingChunkBuffer)
+    {
+        ChunkCoordinate generatingChunk = generatingChunkBuffer.getChunkCoordinate();
+
+        int m;
+        int n;
+        
+        int maxDepth;
+        int minDepth;
+        int i3;
+        int i4;
+        
+        boolean waterFound;
+        LocalMaterialData material;
+        
+        double d9;
+        //LocalBiome biome;
+        double d10;
 
+        boolean surfaceBlockFound;
+        double d11;
+        
+        LocalMaterialData materialAbove;
+        LocalMaterialData block;
+        
+    	int surfaceBlockDepth;
 
-            m = MathHelper.floor(x - d3) - generatingChunk.getBlockX() - 1;
-            n = MathHelper.floor(x + d3) - generatingChunk.getBlockX() + 1;
+        m = MathHelper.floor(x - d3) - generatingChunk.getBlockX() - 1;
+        n = MathHelper.floor(x + d3) - generatingChunk.getBlockX() + 1;
 
-            maxDepth = MathHelper.floor(y - d4) - 1;
-            minDepth = MathHelper.floor(y + d4) + 1;
+        maxDepth = MathHelper.floor(y - d4) - 1;
+        minDepth = MathHelper.floor(y + d4) + 1;
 
-            i3 = MathHelper.floor(z - d3) - generatingChunk.getBlockZ() - 1;
-            i4 = MathHelper.floor(z + d3) - generatingChunk.getBlockZ() + 1;
+        i3 = MathHelper.floor(z - d3) - generatingChunk.getBlockZ() - 1;
+        i4 = MathHelper.floor(z + d3) - generatingChunk.getBlockZ() + 1;
 
-            if (m < 0)
-            {
-                m = 0;
-            }
-            if (n > 16)
-            {
-                n = 16;
-            }
+        if (m < 0)
+        {
+            m = 0;
+        }
+        if (n > 16)
+        {
+            n = 16;
+        }
 
-            if (maxDepth < 1)
-            {
-                maxDepth = 1;
-            }
-            if (minDepth > this.worldSettings.worldHeightCap - 8)
-            {
-                minDepth = this.worldSettings.worldHeightCap - 8;
-            }
-            if (i3 < 0)
-            {
-                i3 = 0;
-            }
-            if (i4 > 16)
-            {
-                i4 = 16;
-            }
+        if (maxDepth < 1)
+        {
+            maxDepth = 1;
+        }
+        if (minDepth > this.worldSettings.worldHeightCap - 8)
+        {
+            minDepth = this.worldSettings.worldHeightCap - 8;
+        }
+        if (i3 < 0)
+        {
+            i3 = 0;
+        }
+        if (i4 > 16)
+        {
+            i4 = 16;
+        }
 
-            // Search for water
-            waterFound = false;
-            for (int local_x = m; (!waterFound) && (local_x < n); local_x++)
+        // Search for water
+        waterFound = false;
+        for (int local_x = m; (!waterFound) && (local_x < n); local_x++)
+        {
+            for (int local_z = i3; (!waterFound) && (local_z < i4); local_z++)
             {
-                for (int local_z = i3; (!waterFound) && (local_z < i4); local_z++)
+                for (int local_y = minDepth + 1; (!waterFound) && (local_y >= maxDepth - 1); local_y--)
                 {
-                    for (int local_y = minDepth + 1; (!waterFound) && (local_y >= maxDepth - 1); local_y--)
+                    if (local_y >= 0 && local_y < this.worldSettings.worldHeightCap)
                     {
-                        if (local_y >= 0 && local_y < this.worldSettings.worldHeightCap)
+                        material = generatingChunkBuffer.getBlock(local_x, local_y, local_z);
+                        if (
+                    		material.isMaterial(DefaultMaterial.WATER) ||
+                    		material.isMaterial(DefaultMaterial.STATIONARY_WATER)
+                		)
                         {
-                            material = generatingChunkBuffer.getBlock(local_x, local_y, local_z);
-                            if (
-                        		material.isMaterial(DefaultMaterial.WATER) ||
-                        		material.isMaterial(DefaultMaterial.STATIONARY_WATER)
-                    		)
-                            {
-                                waterFound = true;
-                            }
-                            if ((local_y != maxDepth - 1) && (local_x != m) && (local_x != n - 1) && (local_z != i3) && (local_z != i4 - 1))
-                            {
-                                local_y = maxDepth;
-                            }
+                            waterFound = true;
+                        }
+                        if ((local_y != maxDepth - 1) && (local_x != m) && (local_x != n - 1) && (local_z != i3) && (local_z != i4 - 1))
+                        {
+                            local_y = maxDepth;
                         }
                     }
                 }
             }
-            if (waterFound)
-            {
-                continue;
-            }
+        }
+        if (waterFound)
+        {
+            return false;
+        }
 
-            // Generate cave
-            for (int local_x = m; local_x < n; local_x++)
+        // Generate cave
+        for (int local_x = m; local_x < n; local_x++)
+        {
+            d9 = (local_x + generatingChunk.getBlockX() + 0.5D - x) / d3;
+            for (int local_z = i3; local_z < i4; local_z++)
             {
-                d9 = (local_x + generatingChunk.getBlockX() + 0.5D - x) / d3;
-                for (int local_z = i3; local_z < i4; local_z++)
-                {
-                    //biome = this.world.getBiome(local_x + generatingChunk.getBlockX(), local_z + generatingChunk.getBlockZ());
-                    d10 = (local_z + generatingChunk.getBlockZ() + 0.5D - z) / d3;
+                //biome = this.world.getBiome(local_x + generatingChunk.getBlockX(), local_z + generatingChunk.getBlockZ());
+                d10 = (local_z + generatingChunk.getBlockZ() + 0.5D - z) / d3;
 
-                    surfaceBlockFound = false;
-                    LocalMaterialData surfaceBlockMaterial = null;
-                    if (d9 * d9 + d10 * d10 < 1.0D)
+                surfaceBlockFound = false;
+                LocalMaterialData surfaceBlockMaterial = null;
+                if (d9 * d9 + d10 * d10 < 1.0D)
+                {
+                	surfaceBlockDepth = 0;
+                	for (int currentDepth = minDepth; currentDepth > maxDepth; currentDepth--)
+                	{
+                		material = generatingChunkBuffer.getBlock(local_x, currentDepth, local_z);
+                		materialAbove = generatingChunkBuffer.getBlock(local_x, currentDepth + 1, local_z);
+                		if((materialAbove.isAir() || materialAbove.isLiquid()) && !(material.isAir() || material.isLiquid() ))
+                		{
+                			surfaceBlockDepth = currentDepth;
+                			break;
+                		}
+                	}
+                	
+                    for (int currentDepth = minDepth; currentDepth > maxDepth; currentDepth--)
                     {
-                    	surfaceBlockDepth = 0;
-                    	for (int currentDepth = minDepth; currentDepth > maxDepth; currentDepth--)
-                    	{
-                    		material = generatingChunkBuffer.getBlock(local_x, currentDepth, local_z);
-                    		materialAbove = generatingChunkBuffer.getBlock(local_x, currentDepth + 1, local_z);
-                    		if((materialAbove.isAir() || materialAbove.isLiquid()) && !(material.isAir() || material.isLiquid() ))
-                    		{
-                    			surfaceBlockDepth = currentDepth;
-                    			break;
-                    		}
-                    	}
-                    	
-                        for (int currentDepth = minDepth; currentDepth > maxDepth; currentDepth--)
+                        d11 = ((currentDepth - 1) + 0.5D - y) / d4;
+                        if ((d11 > -0.7D) && (d9 * d9 + d11 * d11 + d10 * d10 < 1.0D))
                         {
-                            d11 = ((currentDepth - 1) + 0.5D - y) / d4;
-                            if ((d11 > -0.7D) && (d9 * d9 + d11 * d11 + d10 * d10 < 1.0D))
+                            material = generatingChunkBuffer.getBlock(local_x, currentDepth, local_z);
+                            materialAbove = generatingChunkBuffer.getBlock(local_x, currentDepth + 1, local_z);
+                            //if (!surfaceBlockFound && material.isMaterial(biome.getBiomeConfig().surfaceBlock.toDefaultMaterial()))
+                            if(!surfaceBlockFound && currentDepth == surfaceBlockDepth)
                             {
-                                material = generatingChunkBuffer.getBlock(local_x, currentDepth, local_z);
-                                materialAbove = generatingChunkBuffer.getBlock(local_x, currentDepth + 1, local_z);
-                                //if (!surfaceBlockFound && material.isMaterial(biome.getBiomeConfig().surfaceBlock.toDefaultMaterial()))
-                                if(!surfaceBlockFound && currentDepth == surfaceBlockDepth)
-                                {
-                                	surfaceBlockFound = true;
-                                	surfaceBlockMaterial = material;
-                                }
-                                if (this.isSuitableBlock(material, materialAbove))//, biome.getBiomeConfig()))
+                            	surfaceBlockFound = true;
+                            	surfaceBlockMaterial = material;
+                            }
+                            if (this.isSuitableBlock(material, materialAbove))//, biome.getBiomeConfig()))
+                            {
+                                generatingChunkBuffer.setBlock(local_x, currentDepth, local_z, air);
+                                block = generatingChunkBuffer.getBlock(local_x, currentDepth - 1, local_z);
+
+                                // If a surface block was just deleted, try to move it down
+                                if (
+                            		surfaceBlockFound &&
+                            		!block.isLiquid() &&
+                            		!block.isMaterial(DefaultMaterial.BEDROCK)
+                        		)
                                 {
-                                    generatingChunkBuffer.setBlock(local_x, currentDepth, local_z, air);
-                                    block = generatingChunkBuffer.getBlock(local_x, currentDepth - 1, local_z);
-
-                                    // If a surface block was just deleted, try to move it down
-                                    if (
-                                		surfaceBlockFound &&
-                                		!block.isLiquid() &&
-                                		!block.isMaterial(DefaultMaterial.BEDROCK)
-                            		)
-                                    {
-                                        generatingChunkBuffer.setBlock(local_x, currentDepth - 1, local_z, surfaceBlockMaterial);
-                                    }
+                                    generatingChunkBuffer.setBlock(local_x, currentDepth - 1, local_z, surfaceBlockMaterial);
                                 }
                             }
                         }
                     }
                 }
             }
-            if (isLargeCave)
-            {
-                break;
-            }
         }
+        return true;
     }
 
     private boolean isSuitableBlock(LocalMaterialData material, LocalMaterialData materialAbove)//, BiomeConfig biomeConfig)
@@ -326,7 +317,7 @@ public class CavesGen extends TerrainGenBase
     }
 
     @Override
-    protected void generateChunk(ChunkCoordinate chunkCoord, ChunkBuffer generatingChunkBuffer)
+    void generateChunk(ChunkCoordinate chunkCoord, List<CarverTunnel> tunnels)
     {
     	int i = 0;
     	if(this.worldSettings.caveRarity > 0 && this.worldSettings.caveFrequency > 0)
@@ -367,7 +358,7 @@ public class CavesGen extends TerrainGenBase
             largeCaveSpawned = false;
             if (this.random.nextInt(100) <= this.worldSettings.individualCaveRarity)
             {
-                generateLargeCaveNode(this.random.nextLong(), generatingChunkBuffer, x, y, z);
+                tunnels.add(traceLargeCaveNode(this.random.nextLong(), x, y, z));
                 largeCaveSpawned = true;
             }
 
@@ -382,7 +373,7 @@ public class CavesGen extends TerrainGenBase
                 f2 = (this.random.nextFloat() - 0.5F) * 2.0F / 8.0F;
                 f3 = this.random.nextFloat() * 2.0F + this.random.nextFloat();
 
-                generateCaveNode(this.random.nextLong(), generatingChunkBuffer, x, y, z, f3, f1, f2, 0, 0, 1.0D);
+                tunnels.add(traceCaveNode(this.random.nextLong(), x, y, z, f3, f1, f2, 0, 0, 1.0D));
             }
         }
     }
@@ -11,11 +11,11 @@ import com.pg85.otg.util.helpers.MathHelper;
 import com.pg85.otg.util.helpers.RandomHelper;
 import com.pg85.otg.util.minecraft.defaults.DefaultMaterial;
 
+import java.util.List;
 import java.util.Random;
 
 public class RavinesGen extends TerrainGenBase
 {
-    private float[] a = new float[1024];
     private WorldConfig worldSettings;
 
     public RavinesGen(WorldConfig wrk, LocalWorld world)
@@ -24,19 +24,21 @@ public class RavinesGen extends TerrainGenBase
         this.worldSettings = wrk;
     }
 
-    private void placeBlocks(long paramLong, ChunkBuffer generatingChunkBuffer, double paramDouble1, double paramDouble2, double paramDouble3, float paramFloat1, float paramFloat2, float paramFloat3, int size, double paramDouble4)
+    /**
+     * Traces the path of a ravine, without looking at any chunk. Each step
+     * that would be checked against the generating chunk is stored in the
+     * returned tunnel.
+     */
+    private CarverTunnel traceRavine(long paramLong, double paramDouble1, double paramDouble2, double paramDouble3, float paramFloat1, float paramFloat2, float paramFloat3, int size, double paramDouble4)
     {
         Random localRandom = new Random(paramLong);
 
-        ChunkCoordinate generatingChunk = generatingChunkBuffer.getChunkCoordinate();
-        double d1 = generatingChunk.getBlockXCenter();
-        double d2 = generatingChunk.getBlockZCenter();
-
         float f1 = 0.0F;
         float f2 = 0.0F;
 
         int i = 0;
 
+        float[] a = new float[worldSettings.worldHeightCap];
         float f3 = 1.0F;
         for (int j = 0; ; j++)
         {
@@ -48,9 +50,11 @@ public class RavinesGen extends TerrainGenBase
             {
                 f3 = 1.0F + localRandom.nextFloat() * localRandom.nextFloat() * 1.0F;
             }
-            this.a[j] = (f3 * f3);
+            a[j] = (f3 * f3);
         }
 
+        CarverTunnel tunnel = new CarverTunnel(paramFloat1 + 2.0F + 16.0F, i != 0, a);
+
         for (int stepCount = 0; stepCount < size; stepCount++)
         {
             double d3 = 1.5D + MathHelper.sin(stepCount * 3.141593F / size) * paramFloat1 * 1.0F;
@@ -79,127 +83,127 @@ public class RavinesGen extends TerrainGenBase
             {
                 continue;
             }
-            double d5 = paramDouble1 - d1;
-            double d6 = paramDouble3 - d2;
-            double d7 = size - stepCount;
-            double d8 = paramFloat1 + 2.0F + 16.0F;
-            if (d5 * d5 + d6 * d6 - d7 * d7 > d8 * d8)
-            {
-                return;
-            }
 
-            if ((paramDouble1 < d1 - 16.0D - d3 * 2.0D) || (paramDouble3 < d2 - 16.0D - d3 * 2.0D) || (paramDouble1 > d1 + 16.0D + d3 * 2.0D) || (paramDouble3 > d2 + 16.0D + d3 * 2.0D))
-            {
-                continue;
-            }
-            int k = MathHelper.floor(paramDouble1 - d3) - generatingChunk.getBlockX() - 1;
-            int m = MathHelper.floor(paramDouble1 + d3) - generatingChunk.getBlockX() + 1;
+            tunnel.addStep(paramDouble1, paramDouble2, paramDouble3, d3, d4, size - stepCount);
+        }
+        tunnel.trim();
+        return tunnel;
+    }
 
-            int maxDepth = MathHelper.floor(paramDouble2 - d4) - 1;
-            int minDepth = MathHelper.floor(paramDouble2 + d4) + 1;
+    @Override
+    boolean carveStep(CarverTunnel tunnel, double paramDouble1, double paramDouble2, double paramDouble3, double d3, double d4, ChunkBuffer generatingChunkBuffer)
+    {
+        ChunkCoordinate generatingChunk = generatingChunkBuffer.getChunkCoordinate();
+        float[] a = tunnel.heightScale;
 
-            int i2 = MathHelper.floor(paramDouble3 - d3) - generatingChunk.getBlockZ() - 1;
-            int i3 = MathHelper.floor(paramDouble3 + d3) - generatingChunk.getBlockZ() + 1;
+        int k = MathHelper.floor(paramDouble1 - d3) - generatingChunk.getBlockX() - 1;
+        int m = MathHelper.floor(paramDouble1 + d3) - generatingChunk.getBlockX() + 1;
 
-            if (k < 0)
-            {
-                k = 0;
-            }
-            if (m > 16)
-            {
-                m = 16;
-            }
-            if (maxDepth < 1)
-            {
-                maxDepth = 1;
-            }
-            if (minDepth > worldSettings.worldHeightCap - 8)
-            {
-                minDepth = worldSettings.worldHeightCap - 8;
-            }
+        int maxDepth = MathHelper.floor(paramDouble2 - d4) - 1;
+        int minDepth = MathHelper.floor(paramDouble2 + d4) + 1;
 
-            if (i2 < 0)
-            {
-                i2 = 0;
-            }
-            if (i3 > 16)
-            {
-                i3 = 16;
-            }
+        int i2 = MathHelper.floor(paramDouble3 - d3) - generatingChunk.getBlockZ() - 1;
+        int i3 = MathHelper.floor(paramDouble3 + d3) - generatingChunk.getBlockZ() + 1;
+
+        if (k < 0)
+        {
+            k = 0;
+        }
+        if (m > 16)
+        {
+            m = 16;
+        }
+        if (maxDepth < 1)
+        {
+            maxDepth = 1;
+        }
+        if (minDepth > worldSettings.worldHeightCap - 8)
+        {
+            minDepth = worldSettings.worldHeightCap - 8;
+        }
+
+        if (i2 < 0)
+        {
+            i2 = 0;
+        }
+        if (i3 > 16)
+        {
+            i3 = 16;
+        }
 
-            int i4 = 0;
-            for (int localX = k; (i4 == 0) && (localX < m); localX++)
+        int i4 = 0;
+        for (int localX = k; (i4 == 0) && (localX < m); localX++)
+        {
+            for (int localZ = i2; (i4 == 0) && (localZ < i3); localZ++)
             {
-                for (int localZ = i2; (i4 == 0) && (localZ < i3); localZ++)
+                for (int localY = minDepth + 1; (i4 == 0) && (localY >= maxDepth - 1); localY--)
                 {
-                    for (int localY = minDepth + 1; (i4 == 0) && (localY >= maxDepth - 1); localY--)
+                    if (localY < 0)
                     {
-                        if (localY < 0)
+                        continue;
+                    }
+                    if (localY < worldSettings.worldHeightCap)
+                    {
+                        DefaultMaterial materialAtPosition = generatingChunkBuffer.getBlock(localX, localY, localZ).toDefaultMaterial();
+                        if (
+                    		materialAtPosition == DefaultMaterial.WATER || 
+                    		materialAtPosition == DefaultMaterial.STATIONARY_WATER
+                		)
                         {
-                            continue;
+                            i4 = 1;
                         }
-                        if (localY < worldSettings.worldHeightCap)
+                        if ((localY != maxDepth - 1) && (localX != k) && (localX != m - 1) && (localZ != i2) && (localZ != i3 - 1))
                         {
-                            DefaultMaterial materialAtPosition = generatingChunkBuffer.getBlock(localX, localY, localZ).toDefaultMaterial();
-                            if (
-                        		materialAtPosition == DefaultMaterial.WATER || 
-                        		materialAtPosition == DefaultMaterial.STATIONARY_WATER
-                    		)
-                            {
-                                i4 = 1;
-                            }
-                            if ((localY != maxDepth - 1) && (localX != k) && (localX != m - 1) && (localZ != i2) && (localZ != i3 - 1))
-                            {
-                                localY = maxDepth;
-                            }
+                            localY = maxDepth;
                         }
                     }
                 }
             }
-            if (i4 != 0)
-            {
-                continue;
-            }
-            for (int localX = k; localX < m; localX++)
+        }
+        if (i4 != 0)
+        {
+            return false;
+        }
+        for (int localX = k; localX < m; localX++)
+        {
+            double d9 = (localX + generatingChunk.getBlockX() + 0.5D - paramDouble1) / d3;
+            for (int localZ = i2; localZ < i3; localZ++)
             {
-                double d9 = (localX + generatingChunk.getBlockX() + 0.5D - paramDouble1) / d3;
-                for (int localZ = i2; localZ < i3; localZ++)
+                LocalBiome biome = world.getBiome(localZ + generatingChunk.getBlockX(), localX + generatingChunk.getBlockZ());
+                BiomeConfig biomeConfig = biome.getBiomeConfig();
+                DefaultMaterial surfaceblockDefaultMaterial = biomeConfig.surfaceBlock.toDefaultMaterial();
+                double d10 = (localZ + generatingChunk.getBlockZ() + 0.5D - paramDouble3) / d3;
+                boolean surfaceBlockFound = false;
+                LocalMaterialData surfaceBlockMaterial = null;
+                if (d9 * d9 + d10 * d10 < 1.0D)
                 {
-                    LocalBiome biome = world.getBiome(localZ + generatingChunk.getBlockX(), localX + generatingChunk.getBlockZ());
-                    BiomeConfig biomeConfig = biome.getBiomeConfig();
-                    DefaultMaterial surfaceblockDefaultMaterial = biomeConfig.surfaceBlock.toDefaultMaterial();
-                    double d10 = (localZ + generatingChunk.getBlockZ() + 0.5D - paramDouble3) / d3;
-                    boolean surfaceBlockFound = false;
-                    LocalMaterialData surfaceBlockMaterial = null;
-                    if (d9 * d9 + d10 * d10 < 1.0D)
+                	// If surfaceBlock is found then replace the bottom block with surfaceblock
+                    for (int currentDepth = minDepth; currentDepth >= maxDepth; currentDepth--)
                     {
-                    	// If surfaceBlock is found then replace the bottom block with surfaceblock
-                        for (int currentDepth = minDepth; currentDepth >= maxDepth; currentDepth--)
+                        double d11 = ((currentDepth - 1) + 0.5D - paramDouble2) / d4;
+                        if ((d9 * d9 + d10 * d10) * a[currentDepth - 1] + d11 * d11 / 6.0D < 1.0D)
                         {
-                            double d11 = ((currentDepth - 1) + 0.5D - paramDouble2) / d4;
-                            if ((d9 * d9 + d10 * d10) * this.a[currentDepth - 1] + d11 * d11 / 6.0D < 1.0D)
+                        	LocalMaterialData material = generatingChunkBuffer.getBlock(localX, currentDepth, localZ);
+                            DefaultMaterial defaultMaterial = material.toDefaultMaterial();
+                            
+                            if (!surfaceBlockFound && defaultMaterial == surfaceblockDefaultMaterial)
                             {
-                            	LocalMaterialData material = generatingChunkBuffer.getBlock(localX, currentDepth, localZ);
-                                DefaultMaterial defaultMaterial = material.toDefaultMaterial();
-                                
-                                if (!surfaceBlockFound && defaultMaterial == surfaceblockDefaultMaterial)
-                                {
-                                	surfaceBlockFound = true;
-                                	surfaceBlockMaterial = material;
-                                }
-                                
-                                if (
-                            		defaultMaterial != DefaultMaterial.BEDROCK &&
-                    				defaultMaterial != DefaultMaterial.AIR
-                        		)
-                                {                               	
-                                    generatingChunkBuffer.setBlock(localX, currentDepth, localZ, air);
-                                }
-                                
-                                DefaultMaterial block = generatingChunkBuffer.getBlock(localX, currentDepth - 1, localZ).toDefaultMaterial();
-                                if (
-                            		surfaceBlockFound &&
-                            		(
+                            	surfaceBlockFound = true;
+                            	surfaceBlockMaterial = material;
+                            }
+                            
+                            if (
+                        		defaultMaterial != DefaultMaterial.BEDROCK &&
+                				defaultMaterial != DefaultMaterial.AIR
+                    		)
+                            {                               	
+                                generatingChunkBuffer.setBlock(localX, currentDepth, localZ, air);
+                            }
+                            
+                            DefaultMaterial block = generatingChunkBuffer.getBlock(localX, currentDepth - 1, localZ).toDefaultMaterial();
+                            if (
+                        		surfaceBlockFound &&
+                        		(
 	                                	block != DefaultMaterial.BEDROCK &&
 										block != DefaultMaterial.WATER &&
 										block != DefaultMaterial.STATIONARY_WATER &&
@@ -207,25 +211,21 @@ public class RavinesGen extends TerrainGenBase
 										block != DefaultMaterial.STATIONARY_LAVA &&
 										block != DefaultMaterial.MAGMA &&
 										block != DefaultMaterial.AIR
-                    				)
-                                )
-                                {
-                                    generatingChunkBuffer.setBlock(localX, currentDepth - 1, localZ, surfaceBlockMaterial);
-                                }
+                				)
+                            )
+                            {
+                                generatingChunkBuffer.setBlock(localX, currentDepth - 1, localZ, surfaceBlockMaterial);
                             }
                         }
                     }
                 }
             }
-            if (i != 0)
-            {
-                break;
-            }
         }
+        return true;
     }
 
     @Override
-    protected void generateChunk(ChunkCoordinate currentChunk, ChunkBuffer generatingChunkBuffer)
+    void generateChunk(ChunkCoordinate currentChunk, List<CarverTunnel> tunnels)
     {
         if (this.random.nextInt(100) >= this.worldSettings.ravineRarity)
         {
@@ -245,7 +245,7 @@ public class RavinesGen extends TerrainGenBase
 
             int size = RandomHelper.numberInRange(random, this.worldSettings.ravineMinLength, this.worldSettings.ravineMaxLength);
 
-            placeBlocks(this.random.nextLong(), generatingChunkBuffer, d1, d2, d3, f3, f1, f2, size, this.worldSettings.ravineDepth);
+            tunnels.add(traceRavine(this.random.nextLong(), d1, d2, d3, f3, f1, f2, size, this.worldSettings.ravineDepth));
         }
     }
 }
\ No newline at end of file
@@ -7,10 +7,21 @@ import com.pg85.otg.util.ChunkCoordinate;
 import com.pg85.otg.util.helpers.MaterialHelper;
 import com.pg85.otg.util.minecraft.defaults.DefaultMaterial;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
 public abstract class TerrainGenBase
 {
+    /**
+     * Amount of source chunks to keep the tunnels of. Generating a chunk
+     * needs the tunnels of the 17x17 chunks around it, this keeps enough
+     * for several rows of chunks.
+     */
+    private static final int MAX_CACHED_CHUNKS = 4096;
+
     // Hardcoded materials that cannot be changed for now
     protected final LocalMaterialData air = MaterialHelper.toLocalMaterialData(DefaultMaterial.AIR, 0);
     protected final LocalMaterialData lava = MaterialHelper.toLocalMaterialData(DefaultMaterial.STATIONARY_LAVA, 0);
@@ -21,6 +32,17 @@ public abstract class TerrainGenBase
     private final long worldLong1;
     private final long worldLong2;
 
+    private final Map<ChunkCoordinate, CarverTunnel[]> tunnelCache = new LinkedHashMap<ChunkCoordinate, CarverTunnel[]>(MAX_CACHED_CHUNKS, 0.75f, true)
+    {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ChunkCoordinate, CarverTunnel[]> eldest)
+        {
+            return size() > MAX_CACHED_CHUNKS;
+        }
+    };
+
     TerrainGenBase(LocalWorld world)
     {
         this.world = world;
@@ -39,21 +61,114 @@ public abstract class TerrainGenBase
         for (int x = chunkX - i; x <= chunkX + i; x++)
             for (int z = chunkZ - i; z <= chunkZ + i; z++)
             {
-                long l3 = x * worldLong1;
-                long l4 = z * worldLong2;
+                for (CarverTunnel tunnel : getTunnels(x, z))
+                {
+                    carveTunnel(tunnel, chunkBuffer);
+                }
+            }
+    }
+
+    /**
+     * Gets the tunnels starting in the given chunk, calculating them if they
+     * are not cached.
+     */
+    private CarverTunnel[] getTunnels(int chunkX, int chunkZ)
+    {
+        ChunkCoordinate chunkCoord = ChunkCoordinate.fromChunkCoords(chunkX, chunkZ);
+        synchronized (this.tunnelCache)
+        {
+            CarverTunnel[] tunnels = this.tunnelCache.get(chunkCoord);
+            if (tunnels == null)
+            {
+                long l3 = chunkX * worldLong1;
+                long l4 = chunkZ * worldLong2;
                 this.random.setSeed(l3 ^ l4 ^ this.world.getSeed());
-                generateChunk(ChunkCoordinate.fromChunkCoords(x, z), chunkBuffer);
+                List<CarverTunnel> tunnelList = new ArrayList<CarverTunnel>();
+                generateChunk(chunkCoord, tunnelList);
+                tunnels = tunnelList.isEmpty() ? CarverTunnel.NONE : tunnelList.toArray(new CarverTunnel[tunnelList.size()]);
+                this.tunnelCache.put(chunkCoord, tunnels);
             }
+            return tunnels;
+        }
     }
 
     /**
-     * Generates the structure for the given chunk. The terrain generator
-     * calls this method for all chunks not more than {@link #checkAreaSize}
-     * chunks away on either axis from the generatingChunk.
+     * Carves the parts of the tunnel that are inside the generating chunk.
+     * Steps are checked in the same order and with the same bounds as the
+     * tunnel was generated, so every chunk gets the same blocks as when the
+     * tunnel would be traced again for that chunk.
+     */
+    private void carveTunnel(CarverTunnel tunnel, ChunkBuffer generatingChunkBuffer)
+    {
+        ChunkCoordinate generatingChunk = generatingChunkBuffer.getChunkCoordinate();
+        double real_x = generatingChunk.getBlockXCenter();
+        double real_z = generatingChunk.getBlockZCenter();
+
+        double[] steps = tunnel.steps;
+        double x;
+        double z;
+        double d3;
+        double d5;
+        double d6;
+        double d7;
+        double d8 = tunnel.reach;
+        for (int i = 0; i < tunnel.stepCount * CarverTunnel.STEP_SIZE; i += CarverTunnel.STEP_SIZE)
+        {
+            x = steps[i + CarverTunnel.X];
+            z = steps[i + CarverTunnel.Z];
+            d3 = steps[i + CarverTunnel.RADIUS];
+
+            // Check if distance to working point (x and z) too larger than working radius
+            d5 = x - real_x;
+            d6 = z - real_z;
+            d7 = steps[i + CarverTunnel.REMAINING];
+            if (d5 * d5 + d6 * d6 - d7 * d7 > d8 * d8)
+            {
+                // Also skips the branches, they start after the last step
+                return;
+            }
+
+            //Boundaries check.
+            if ((x < real_x - 16.0D - d3 * 2.0D) || (z < real_z - 16.0D - d3 * 2.0D) || (x > real_x + 16.0D + d3 * 2.0D) || (z > real_z + 16.0D + d3 * 2.0D))
+            {
+                continue;
+            }
+
+            if (carveStep(tunnel, x, steps[i + CarverTunnel.Y], z, d3, steps[i + CarverTunnel.RADIUS_Y], generatingChunkBuffer) && tunnel.singleStep)
+            {
+                return;
+            }
+        }
+
+        for (CarverTunnel branch : tunnel.branches)
+        {
+            carveTunnel(branch, generatingChunkBuffer);
+        }
+    }
+
+    /**
+     * Calculates the tunnels starting in the given chunk. The terrain
+     * generator calls this method once for every chunk not more than
+     * {@link #checkAreaSize} chunks away on either axis from a generating
+     * chunk, the result is cached. {@link #random} is seeded for the chunk.
+     *
+     * @param currentChunk The chunk we're searching.
+     * @param tunnels      List to add the tunnels to, in carving order.
+     */
+    abstract void generateChunk(ChunkCoordinate currentChunk, List<CarverTunnel> tunnels);
+
+    /**
+     * Carves a single step of a tunnel into the generating chunk.
      *
-     * @param currentChunk          The chunk we're searching.
+     * @param tunnel                The tunnel.
+     * @param x                     X of the step center, in blocks.
+     * @param y                     Y of the step center, in blocks.
+     * @param z                     Z of the step center, in blocks.
+     * @param radius                Horizontal radius of the step.
+     * @param radiusY               Vertical radius of the step.
      * @param generatingChunkBuffer The chunk that is currently being
      *                              generated.
+     * @return False if nothing was carved because water was found.
      */
-    protected abstract void generateChunk(ChunkCoordinate currentChunk, ChunkBuffer generatingChunkBuffer);
+    abstract boolean carveStep(CarverTunnel tunnel, double x, double y, double z, double radius, double radiusY, ChunkBuffer generatingChunkBuffer);
 }
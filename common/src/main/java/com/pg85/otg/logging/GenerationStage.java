@@ -0,0 +1,50 @@
+package com.pg85.otg.logging;
+
+/**
+ * The parts of chunk generation and population that are timed by
+ * {@link GenerationStats}. Some stages run inside others, for example the
+ * biome layers are usually queried while generating terrain, so the times
+ * of the stages don't add up to the total.
+ */
+public enum GenerationStage
+{
+    /** The whole of ChunkProviderOTG.generate. */
+    CHUNK("Chunk generation"),
+    /** The biome layer chain, at every call from the biome generator. */
+    BIOME_LAYERS("Biome layers"),
+    /** Terrain shape: biome lookups, terrain noise and block placement. */
+    TERRAIN("Terrain"),
+    /** Terrain noise, part of TERRAIN. */
+    NOISE("Terrain noise"),
+    /** Surface and ground blocks. */
+    SURFACE("Surface"),
+    /** Caves and ravines. */
+    CARVERS("Carvers"),
+    /** ReplacedBlocks, both during terrain generation and population. */
+    REPLACE_BLOCKS("Replace blocks"),
+    /**
+     * Waiting in ObjectSpawner.populate for another thread populating or
+     * saving the structure cache.
+     */
+    POPULATION_WAIT("Population wait"),
+    /** ObjectSpawner.populate, after the lock was placed. */
+    POPULATION("Population"),
+    /** Resources from the biome configs. */
+    RESOURCES("Resources"),
+    /** Spawning plotted BO3s/BO4s. */
+    BO3("BO3 spawning"),
+    /** Plotting BO4 structures. */
+    BO4_PLOTTING("BO4 plotting");
+
+    private final String displayName;
+
+    private GenerationStage(String displayName)
+    {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName()
+    {
+        return this.displayName;
+    }
+}
@@ -0,0 +1,214 @@
+package com.pg85.otg.logging;
+
+import com.pg85.otg.OTG;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Timer;
+import java.util.TimerTask;
+
+/**
+ * Collects how long each {@link GenerationStage} takes. Disabled by
+ * default, enabled with the /otg stats command. Usage:
+ *
+ * <pre>
+ * long startTime = GenerationStats.start();
+ * ...
+ * GenerationStats.end(GenerationStage.TERRAIN, startTime);
+ * </pre>
+ *
+ * When disabled, this costs a single volatile read in {@link #start()}.
+ *
+ * <p>
+ * While enabled, the stats are periodically written to the log and
+ * appended to {@value #CSV_FILE_NAME} in the OTG folder.
+ */
+public final class GenerationStats
+{
+    public static final String CSV_FILE_NAME = "GenerationStats.csv";
+
+    private static final double NANOS_PER_MILLI = 1000000.0;
+
+    private static volatile boolean enabled;
+
+    private static final LatencyHistogram[] histograms = new LatencyHistogram[GenerationStage.values().length];
+    static
+    {
+        for (int i = 0; i < histograms.length; i++)
+        {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    private static Timer dumpTimer;
+
+    private GenerationStats()
+    {
+        // No instances
+    }
+
+    /**
+     * Gets the start time for a stage.
+     * @return The start time, or 0 if the stats are disabled.
+     */
+    public static long start()
+    {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the time since the given start time for the stage.
+     * @param stage     The stage.
+     * @param startTime The value returned by {@link #start()}. Nothing is
+     *                  recorded if this is 0.
+     */
+    public static void end(GenerationStage stage, long startTime)
+    {
+        if (startTime != 0)
+        {
+            histograms[stage.ordinal()].record(System.nanoTime() - startTime);
+        }
+    }
+
+    public static boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Enables the stats. Stats that were already collected are kept.
+     * @param dumpIntervalMinutes Minutes between writing the stats to the
+     *                            log and the csv file, 0 to never write
+     *                            them.
+     */
+    public static synchronized void enable(int dumpIntervalMinutes)
+    {
+        stopDumpTimer();
+        if (dumpIntervalMinutes > 0)
+        {
+            long interval = dumpIntervalMinutes * 60000L;
+            dumpTimer = new Timer("OTG-GenerationStats", true);
+            dumpTimer.schedule(new TimerTask()
+            {
+                @Override
+                public void run()
+                {
+                    dump();
+                }
+            }, interval, interval);
+        }
+        enabled = true;
+    }
+
+    public static synchronized void disable()
+    {
+        enabled = false;
+        stopDumpTimer();
+    }
+
+    public static void reset()
+    {
+        for (LatencyHistogram histogram : histograms)
+        {
+            histogram.reset();
+        }
+    }
+
+    public static LatencyHistogram getHistogram(GenerationStage stage)
+    {
+        return histograms[stage.ordinal()];
+    }
+
+    /**
+     * Gets a line of text for every stage that was recorded at least once.
+     * @return The lines, times are in milliseconds.
+     */
+    public static List<String> getSummary()
+    {
+        List<String> lines = new ArrayList<String>();
+        for (GenerationStage stage : GenerationStage.values())
+        {
+            LatencyHistogram histogram = getHistogram(stage);
+            if (histogram.getCount() == 0)
+            {
+                continue;
+            }
+            lines.add(String.format(Locale.ROOT, "%s: %d calls, %.0f ms total, mean %.3f, p50 %.3f, p90 %.3f, p99 %.3f, max %.3f ms",
+                    stage.getDisplayName(), histogram.getCount(), toMillis(histogram.getTotal()), toMillis(histogram.getMean()),
+                    toMillis(histogram.getPercentile(0.5)), toMillis(histogram.getPercentile(0.9)), toMillis(histogram.getPercentile(0.99)),
+                    toMillis(histogram.getMax())));
+        }
+        return lines;
+    }
+
+    /**
+     * Writes the stats to the log and appends them to the csv file.
+     * @return False if nothing was recorded yet, in which case nothing is
+     *         written.
+     */
+    public static boolean dump()
+    {
+        List<String> summary = getSummary();
+        if (summary.isEmpty())
+        {
+            return false;
+        }
+        OTG.log(LogMarker.INFO, "-- Generation stats --");
+        for (String line : summary)
+        {
+            OTG.log(LogMarker.INFO, line);
+        }
+
+        File csvFile = new File(OTG.getEngine().getOTGRootFolder(), CSV_FILE_NAME);
+        boolean writeHeader = !csvFile.exists();
+        PrintWriter writer = null;
+        try
+        {
+            writer = new PrintWriter(new FileWriter(csvFile, true));
+            if (writeHeader)
+            {
+                writer.println("time,stage,count,total_ms,mean_ms,p50_ms,p90_ms,p99_ms,max_ms");
+            }
+            long time = System.currentTimeMillis();
+            for (GenerationStage stage : GenerationStage.values())
+            {
+                LatencyHistogram histogram = getHistogram(stage);
+                writer.println(String.format(Locale.ROOT, "%d,%s,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f",
+                        time, stage.name(), histogram.getCount(), toMillis(histogram.getTotal()), toMillis(histogram.getMean()),
+                        toMillis(histogram.getPercentile(0.5)), toMillis(histogram.getPercentile(0.9)), toMillis(histogram.getPercentile(0.99)),
+                        toMillis(histogram.getMax())));
+            }
+        }
+        catch (IOException e)
+        {
+            OTG.log(LogMarker.WARN, "Could not write generation stats to {}: {}", csvFile.getAbsolutePath(), e.getMessage());
+        }
+        finally
+        {
+            if (writer != null)
+            {
+                writer.close();
+            }
+        }
+        return true;
+    }
+
+    private static void stopDumpTimer()
+    {
+        if (dumpTimer != null)
+        {
+            dumpTimer.cancel();
+            dumpTimer = null;
+        }
+    }
+
+    private static double toMillis(long nanos)
+    {
+        return nanos / NANOS_PER_MILLI;
+    }
+}
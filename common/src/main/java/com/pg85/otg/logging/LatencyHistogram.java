@@ -0,0 +1,128 @@
+package com.pg85.otg.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe histogram of durations in nanoseconds. Values are counted in
+ * buckets that grow with the value: every power of two is split into 16
+ * buckets, so percentiles are accurate to within about 3% of the value no
+ * matter how large it is. Recording a value never allocates.
+ */
+public class LatencyHistogram
+{
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Enough buckets for any positive long
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a duration.
+     * @param nanos The duration, negative values are counted as 0.
+     */
+    public void record(long nanos)
+    {
+        if (nanos < 0)
+        {
+            nanos = 0;
+        }
+        this.buckets.incrementAndGet(getBucket(nanos));
+        this.count.incrementAndGet();
+        this.total.addAndGet(nanos);
+        long currentMax;
+        while (nanos > (currentMax = this.max.get()) && !this.max.compareAndSet(currentMax, nanos))
+        {
+            // Another thread changed the max, try again
+        }
+    }
+
+    public long getCount()
+    {
+        return this.count.get();
+    }
+
+    public long getTotal()
+    {
+        return this.total.get();
+    }
+
+    public long getMax()
+    {
+        return this.max.get();
+    }
+
+    public long getMean()
+    {
+        long count = this.count.get();
+        return count == 0 ? 0 : this.total.get() / count;
+    }
+
+    /**
+     * Gets the duration below or at which the given fraction of the values
+     * lies.
+     * @param fraction The fraction, from 0 to 1. For example 0.99 for the
+     *                 99th percentile.
+     * @return The duration, or 0 if nothing was recorded.
+     */
+    public long getPercentile(double fraction)
+    {
+        long count = this.count.get();
+        if (count == 0)
+        {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(fraction * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            seen += this.buckets.get(i);
+            if (seen >= target)
+            {
+                return Math.min(getBucketValue(i), this.max.get());
+            }
+        }
+        return this.max.get();
+    }
+
+    public void reset()
+    {
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            this.buckets.set(i, 0);
+        }
+        this.count.set(0);
+        this.total.set(0);
+        this.max.set(0);
+    }
+
+    private static int getBucket(long value)
+    {
+        if (value < SUB_BUCKETS)
+        {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Gets the value in the middle of the given bucket.
+     */
+    private static long getBucketValue(int bucket)
+    {
+        if (bucket < SUB_BUCKETS)
+        {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowest + ((1L << shift) >> 1);
+    }
+}
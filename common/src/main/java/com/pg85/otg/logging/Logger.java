@@ -1,19 +1,49 @@
 package com.pg85.otg.logging;
 
+import com.pg85.otg.util.FifoMap;
 import com.pg85.otg.util.helpers.StringHelper;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 public abstract class Logger
 {
+    /**
+     * A repeated message is logged at most once per this many milliseconds,
+     * see {@link #logRepeated(LogMarker, String, Object...)}.
+     */
+    public static final long REPEATED_MESSAGE_INTERVAL_MILLIS = 60 * 1000;
+
+    /**
+     * Maximum number of different repeated messages that are remembered.
+     * When more messages are repeated, the oldest ones are forgotten and
+     * may be logged again before their interval has passed.
+     */
+    private static final int MAX_REPEATED_MESSAGES = 1000;
 
     protected LogMarker minimumLevel = LogMarker.INFO;
 
+    // Repeated messages by their format string and parameters
+    private final Map<RepeatedMessageKey, RepeatedMessage> repeatedMessages = new FifoMap<RepeatedMessageKey, RepeatedMessage>(MAX_REPEATED_MESSAGES);
+
     public void setLevel(LogMarker level)
     {
         minimumLevel = level;
     }
 
+    /**
+     * Gets whether messages with the given importance are logged. Callers
+     * can check this before building a message or its parameters.
+     *
+     * @param level The severity of the message
+     * @return True if the message would be logged
+     */
+    public boolean canLog(LogMarker level)
+    {
+        return this.minimumLevel.compareTo(level) >= 0;
+    }
+
     /**
      * Logs the message(s) with the given importance. Message will be prefixed
      * with [OpenTerrainGenerator], so don't do that yourself.
@@ -36,4 +66,103 @@ public abstract class Logger
      * @param params  The parameters belonging to {0...} in the message string
      */
     public abstract void log(LogMarker level, String message, Object... params);
+
+    /**
+     * Logs a format string message that may be repeated many times, for
+     * example for every chunk that is populated. A message with the same
+     * format string and parameters is logged at most once per
+     * {@link #REPEATED_MESSAGE_INTERVAL_MILLIS}, together with the number of
+     * times it was not logged in between.
+     *
+     * <p>
+     * The parameter array is remembered without copying it, so callers must
+     * not change it afterwards. This is never a problem when the parameters
+     * are passed as varargs.
+     *
+     * @param level   The severity of the message
+     * @param message The message, formatted like for
+     *                {@link #log(LogMarker, String, Object...)}.
+     * @param params  The parameters belonging to {} in the message string
+     */
+    public void logRepeated(LogMarker level, String message, Object... params)
+    {
+        if (!canLog(level))
+        {
+            return;
+        }
+
+        // Messages about different objects or biomes are counted separately
+        RepeatedMessageKey key = new RepeatedMessageKey(message, params);
+
+        int skippedCount;
+        long now = System.currentTimeMillis();
+        synchronized (this.repeatedMessages)
+        {
+            RepeatedMessage repeatedMessage = this.repeatedMessages.get(key);
+            if (repeatedMessage == null)
+            {
+                repeatedMessage = new RepeatedMessage();
+                this.repeatedMessages.put(key, repeatedMessage);
+            }
+            else if (now - repeatedMessage.lastLogTime < REPEATED_MESSAGE_INTERVAL_MILLIS)
+            {
+                repeatedMessage.skippedCount++;
+                return;
+            }
+            skippedCount = repeatedMessage.skippedCount;
+            repeatedMessage.skippedCount = 0;
+            repeatedMessage.lastLogTime = now;
+        }
+
+        if (skippedCount > 0)
+        {
+            Object[] paramsWithCount = new Object[params.length + 1];
+            System.arraycopy(params, 0, paramsWithCount, 0, params.length);
+            paramsWithCount[params.length] = skippedCount;
+            log(level, message + " (repeated {} more times)", paramsWithCount);
+        } else {
+            log(level, message, params);
+        }
+    }
+
+    private static final class RepeatedMessageKey
+    {
+        private final String message;
+        private final Object[] params;
+        private final int hashCode;
+
+        private RepeatedMessageKey(String message, Object[] params)
+        {
+            this.message = message;
+            this.params = params;
+            this.hashCode = message.hashCode() * 31 + Arrays.hashCode(params);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return this.hashCode;
+        }
+
+        @Override
+        public boolean equals(Object other)
+        {
+            if (this == other)
+            {
+                return true;
+            }
+            if (!(other instanceof RepeatedMessageKey))
+            {
+                return false;
+            }
+            RepeatedMessageKey that = (RepeatedMessageKey) other;
+            return this.hashCode == that.hashCode && this.message.equals(that.message) && Arrays.equals(this.params, that.params);
+        }
+    }
+
+    private static class RepeatedMessage
+    {
+        private long lastLogTime;
+        private int skippedCount;
+    }
 }
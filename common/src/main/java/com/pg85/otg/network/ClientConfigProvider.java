@@ -4,6 +4,7 @@ import com.pg85.otg.OTG;
 import com.pg85.otg.common.BiomeIds;
 import com.pg85.otg.common.LocalBiome;
 import com.pg85.otg.common.LocalWorld;
+import com.pg85.otg.configuration.ConfigValuePool;
 import com.pg85.otg.configuration.biome.BiomeConfig;
 import com.pg85.otg.configuration.biome.BiomeLoadInstruction;
 import com.pg85.otg.configuration.io.SettingsMap;
@@ -59,6 +60,7 @@ public final class ClientConfigProvider implements ConfigProvider
         StandardBiomeTemplate defaultSettings = new StandardBiomeTemplate(worldConfig.worldHeightCap);
         biomesByOTGId = new LocalBiome[world.getMaxBiomesCount()];
         biomesBySavedId = new LocalBiome[world.getMaxBiomesCount()];
+        ConfigValuePool valuePool = new ConfigValuePool();
 
         int count = stream.readInt();
         while (count-- > 0)
@@ -84,7 +86,7 @@ public final class ClientConfigProvider implements ConfigProvider
         	biomeReader.putSetting(BiomeStandardValues.BIOME_DICT_ID, biomeDictId); // <-- This might be used even in MP by client mods?
 
             BiomeLoadInstruction instruction = new BiomeLoadInstruction(biomeName, defaultSettings);
-            BiomeConfig config = new BiomeConfig(instruction, null, biomeReader, worldConfig);
+            BiomeConfig config = new BiomeConfig(instruction, null, biomeReader, worldConfig, valuePool);
 
             LocalBiome biome = world.createBiomeFor(config, new BiomeIds(otgBiomeId, savedBiomeId), this, false);
             biomesByOTGId[otgBiomeId] = biome;
@@ -4,6 +4,7 @@ import com.pg85.otg.OTG;
 import com.pg85.otg.common.BiomeIds;
 import com.pg85.otg.common.LocalBiome;
 import com.pg85.otg.common.LocalWorld;
+import com.pg85.otg.configuration.ConfigValuePool;
 import com.pg85.otg.configuration.biome.BiomeConfig;
 import com.pg85.otg.configuration.biome.BiomeConfigFinder;
 import com.pg85.otg.configuration.biome.BiomeLoadInstruction;
@@ -225,6 +226,7 @@ public final class ServerConfigProvider implements ConfigProvider
     private Map<String, BiomeConfig> readAndWriteSettings(SettingsMap worldConfigSettings, Map<String, BiomeConfigStub> biomeConfigStubs)
     {
         Map<String, BiomeConfig> loadedBiomes = new HashMap<String, BiomeConfig>();
+        ConfigValuePool valuePool = new ConfigValuePool();
 
         for (BiomeConfigStub biomeConfigStub : biomeConfigStubs.values())
         {
@@ -236,7 +238,7 @@ public final class ServerConfigProvider implements ConfigProvider
             processMobInheritance(biomeConfigStubs, biomeConfigStub, 0);
 
             // Settings reading
-            BiomeConfig biomeConfig = new BiomeConfig(biomeConfigStub.getLoadInstructions(), biomeConfigStub, biomeConfigStub.getSettings(), worldConfig);
+            BiomeConfig biomeConfig = new BiomeConfig(biomeConfigStub.getLoadInstructions(), biomeConfigStub, biomeConfigStub.getSettings(), worldConfig, valuePool);
             loadedBiomes.put(biomeConfigStub.getBiomeName(), biomeConfig);
 
             // Settings writing
@@ -247,6 +249,7 @@ public final class ServerConfigProvider implements ConfigProvider
             }
             FileSettingsWriter.writeToFile(biomeConfig.getSettingsAsMap(), writeFile, worldConfig.settingsMode);
         }
+        OTG.log(LogMarker.DEBUG, "Shared {} of {} biome settings and resources between biomes", valuePool.getSharedCount(), valuePool.getLookupCount());
 
         return loadedBiomes;
     }
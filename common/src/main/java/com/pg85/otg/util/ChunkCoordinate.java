@@ -138,6 +138,60 @@ public class ChunkCoordinate
         return new ChunkCoordinate(chunkX, chunkZ);
     }
 
+    /**
+     * Gets the chunk with the given packed key.
+     * @param key The key, see {@link #toKey(int, int)}.
+     * @return The coordinates.
+     */
+    public static ChunkCoordinate fromKey(long key)
+    {
+        return new ChunkCoordinate(getChunkXFromKey(key), getChunkZFromKey(key));
+    }
+
+    /**
+     * Packs the chunk coordinates into a single long, so that chunks can be
+     * used as keys without creating a ChunkCoordinate for every lookup. The
+     * chunk x is stored in the upper 32 bits, the chunk z in the lower 32
+     * bits. Every pair of ints has its own key.
+     * @param chunkX The x position of the chunk.
+     * @param chunkZ The z position of the chunk.
+     * @return The key.
+     */
+    public static long toKey(int chunkX, int chunkZ)
+    {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Gets the chunk x position from a key made by {@link #toKey(int, int)}.
+     * @param key The key.
+     * @return The x position.
+     */
+    public static int getChunkXFromKey(long key)
+    {
+        return (int) (key >> 32);
+    }
+
+    /**
+     * Gets the chunk z position from a key made by {@link #toKey(int, int)}.
+     * @param key The key.
+     * @return The z position.
+     */
+    public static int getChunkZFromKey(long key)
+    {
+        return (int) key;
+    }
+
+    /**
+     * Gets the packed key of this chunk.
+     * @return The key.
+     * @see #toKey(int, int)
+     */
+    public long toKey()
+    {
+        return toKey(chunkX, chunkZ);
+    }
+
     @Override
     public String toString()
     {
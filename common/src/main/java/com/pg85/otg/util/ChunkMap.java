@@ -0,0 +1,249 @@
+package com.pg85.otg.util;
+
+import java.util.Arrays;
+
+/**
+ * Map with chunks as keys. Chunk coordinates are packed into longs (see
+ * {@link ChunkCoordinate#toKey(int, int)}) and stored in an open addressing
+ * hash table, so lookups don't need a ChunkCoordinate object and entries
+ * don't need an entry object. Null values are allowed.
+ *
+ * <p>
+ * Not thread-safe, like HashMap.
+ *
+ * @param <V> Type of the values.
+ */
+public class ChunkMap<V>
+{
+    private static final int MIN_CAPACITY = 16;
+
+    // Marks free slots in the table. Its value is stored separately, as it
+    // is a valid key.
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    // Hash table, at most half full
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+
+    private boolean hasEmptyKey;
+    private Object emptyKeyValue;
+
+    public ChunkMap()
+    {
+        allocate(MIN_CAPACITY);
+    }
+
+    public int size()
+    {
+        return this.size;
+    }
+
+    public boolean isEmpty()
+    {
+        return this.size == 0;
+    }
+
+    public boolean containsKey(long key)
+    {
+        if (key == EMPTY)
+        {
+            return this.hasEmptyKey;
+        }
+        return this.keys[indexOf(key)] == key;
+    }
+
+    public boolean containsKey(ChunkCoordinate chunkCoord)
+    {
+        return containsKey(chunkCoord.toKey());
+    }
+
+    /**
+     * Gets the value for the given chunk.
+     * @param key Packed chunk coordinates.
+     * @return The value, or null if the chunk is not in this map.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key)
+    {
+        if (key == EMPTY)
+        {
+            return (V) this.emptyKeyValue;
+        }
+        int i = indexOf(key);
+        return this.keys[i] == key ? (V) this.values[i] : null;
+    }
+
+    public V get(ChunkCoordinate chunkCoord)
+    {
+        return get(chunkCoord.toKey());
+    }
+
+    /**
+     * Sets the value for the given chunk.
+     * @param key   Packed chunk coordinates.
+     * @param value The value, may be null.
+     * @return The previous value, or null if the chunk was not in this map.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value)
+    {
+        if (key == EMPTY)
+        {
+            V previous = (V) this.emptyKeyValue;
+            if (!this.hasEmptyKey)
+            {
+                this.hasEmptyKey = true;
+                this.size++;
+            }
+            this.emptyKeyValue = value;
+            return previous;
+        }
+
+        int i = indexOf(key);
+        if (this.keys[i] == key)
+        {
+            V previous = (V) this.values[i];
+            this.values[i] = value;
+            return previous;
+        }
+
+        this.keys[i] = key;
+        this.values[i] = value;
+        this.size++;
+        if (this.size * 2 > this.keys.length)
+        {
+            rehash(this.keys.length * 2);
+        }
+        return null;
+    }
+
+    public V put(ChunkCoordinate chunkCoord, V value)
+    {
+        return put(chunkCoord.toKey(), value);
+    }
+
+    /**
+     * Removes the given chunk from this map.
+     * @param key Packed chunk coordinates.
+     * @return The removed value, or null if the chunk was not in this map.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key)
+    {
+        if (key == EMPTY)
+        {
+            V previous = (V) this.emptyKeyValue;
+            if (this.hasEmptyKey)
+            {
+                this.hasEmptyKey = false;
+                this.emptyKeyValue = null;
+                this.size--;
+            }
+            return previous;
+        }
+
+        int i = indexOf(key);
+        if (this.keys[i] != key)
+        {
+            return null;
+        }
+        V previous = (V) this.values[i];
+
+        // Shift following keys back so that no lookup hits the gap
+        int next = (i + 1) & this.mask;
+        while (this.keys[next] != EMPTY)
+        {
+            int home = (int) RecentChunkSet.mix(this.keys[next]) & this.mask;
+            if (((next - home) & this.mask) >= ((next - i) & this.mask))
+            {
+                this.keys[i] = this.keys[next];
+                this.values[i] = this.values[next];
+                i = next;
+            }
+            next = (next + 1) & this.mask;
+        }
+        this.keys[i] = EMPTY;
+        this.values[i] = null;
+        this.size--;
+        return previous;
+    }
+
+    public V remove(ChunkCoordinate chunkCoord)
+    {
+        return remove(chunkCoord.toKey());
+    }
+
+    public void clear()
+    {
+        if (this.size > 0)
+        {
+            allocate(MIN_CAPACITY);
+            this.size = 0;
+            this.hasEmptyKey = false;
+            this.emptyKeyValue = null;
+        }
+    }
+
+    /**
+     * Gets the packed coordinates of all chunks in this map. The array is a
+     * copy, so the map can be changed while looping over it.
+     * @return The keys, in no particular order.
+     */
+    public long[] keys()
+    {
+        long[] result = new long[this.size];
+        int j = 0;
+        if (this.hasEmptyKey)
+        {
+            result[j++] = EMPTY;
+        }
+        for (long key : this.keys)
+        {
+            if (key != EMPTY)
+            {
+                result[j++] = key;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the slot of the given key, or the free slot where it would be
+     * inserted if it is not in this map.
+     */
+    private int indexOf(long key)
+    {
+        int i = (int) RecentChunkSet.mix(key) & this.mask;
+        while (this.keys[i] != EMPTY && this.keys[i] != key)
+        {
+            i = (i + 1) & this.mask;
+        }
+        return i;
+    }
+
+    private void allocate(int capacity)
+    {
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(this.keys, EMPTY);
+    }
+
+    private void rehash(int capacity)
+    {
+        long[] oldKeys = this.keys;
+        Object[] oldValues = this.values;
+        allocate(capacity);
+        for (int j = 0; j < oldKeys.length; j++)
+        {
+            if (oldKeys[j] != EMPTY)
+            {
+                int i = indexOf(oldKeys[j]);
+                this.keys[i] = oldKeys[j];
+                this.values[i] = oldValues[j];
+            }
+        }
+    }
+}
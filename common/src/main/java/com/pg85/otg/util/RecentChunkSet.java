@@ -0,0 +1,185 @@
+package com.pg85.otg.util;
+
+import java.util.Arrays;
+
+/**
+ * Thread-safe set of the chunks that were added most recently. When the set
+ * is full, the chunk that was added first is forgotten, so memory use stays
+ * the same no matter how many chunks are added.
+ *
+ * <p>
+ * Chunk coordinates are packed into longs and stored in open addressing
+ * hash tables. The set is split into segments with their own lock, so
+ * threads adding different chunks rarely have to wait for each other.
+ */
+public class RecentChunkSet
+{
+    private static final int SEGMENT_COUNT = 16;
+
+    // Marks free slots in the tables. It is also the key of chunk
+    // (Integer.MIN_VALUE, 0), segments store that chunk separately.
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+
+    /**
+     * Creates a new set.
+     * @param maxSize Amount of chunks to remember. Rounded up to a multiple
+     * of the amount of segments.
+     */
+    public RecentChunkSet(int maxSize)
+    {
+        int segmentSize = Math.max(1, (maxSize + SEGMENT_COUNT - 1) / SEGMENT_COUNT);
+        for (int i = 0; i < SEGMENT_COUNT; i++)
+        {
+            this.segments[i] = new Segment(segmentSize);
+        }
+    }
+
+    /**
+     * Adds the chunk to this set.
+     * @return False if the chunk was already in the set.
+     */
+    public boolean add(int chunkX, int chunkZ)
+    {
+        long key = ChunkCoordinate.toKey(chunkX, chunkZ);
+        long hash = mix(key);
+        Segment segment = this.segments[(int) (hash >>> 60)];
+        synchronized (segment)
+        {
+            return segment.add(key, (int) hash);
+        }
+    }
+
+    public boolean contains(int chunkX, int chunkZ)
+    {
+        long key = ChunkCoordinate.toKey(chunkX, chunkZ);
+        long hash = mix(key);
+        Segment segment = this.segments[(int) (hash >>> 60)];
+        synchronized (segment)
+        {
+            return segment.contains(key, (int) hash);
+        }
+    }
+
+    public int size()
+    {
+        int size = 0;
+        for (Segment segment : this.segments)
+        {
+            synchronized (segment)
+            {
+                size += segment.size;
+            }
+        }
+        return size;
+    }
+
+    static long mix(long key)
+    {
+        // Finalizer of MurmurHash3, spreads the bits of nearby chunks
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private static class Segment
+    {
+        // Hash table, at most half full
+        private final long[] table;
+        private final int mask;
+        // Keys in the order they were added, oldest at insertionIndex when full
+        private final long[] insertionOrder;
+        private int insertionIndex;
+        private int size;
+        private boolean hasEmptyKey;
+
+        Segment(int maxSize)
+        {
+            int capacity = Integer.highestOneBit(maxSize * 2 - 1) << 1;
+            this.table = new long[capacity];
+            this.mask = capacity - 1;
+            Arrays.fill(this.table, EMPTY);
+            this.insertionOrder = new long[maxSize];
+        }
+
+        boolean contains(long key, int hash)
+        {
+            if (key == EMPTY)
+            {
+                return this.hasEmptyKey;
+            }
+            for (int i = hash & this.mask; this.table[i] != EMPTY; i = (i + 1) & this.mask)
+            {
+                if (this.table[i] == key)
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean add(long key, int hash)
+        {
+            if (contains(key, hash))
+            {
+                return false;
+            }
+
+            if (this.size == this.insertionOrder.length)
+            {
+                // Forget the oldest chunk. This may move other keys, so
+                // the free slot is searched afterwards.
+                remove(this.insertionOrder[this.insertionIndex]);
+                this.size--;
+            }
+
+            if (key == EMPTY)
+            {
+                this.hasEmptyKey = true;
+            } else {
+                int i = hash & this.mask;
+                while (this.table[i] != EMPTY)
+                {
+                    i = (i + 1) & this.mask;
+                }
+                this.table[i] = key;
+            }
+            this.insertionOrder[this.insertionIndex] = key;
+            this.insertionIndex = (this.insertionIndex + 1) % this.insertionOrder.length;
+            this.size++;
+            return true;
+        }
+
+        private void remove(long key)
+        {
+            if (key == EMPTY)
+            {
+                this.hasEmptyKey = false;
+                return;
+            }
+            int i = (int) mix(key) & this.mask;
+            while (this.table[i] != key)
+            {
+                i = (i + 1) & this.mask;
+            }
+
+            // Shift following keys back so that no lookup hits the gap
+            int next = (i + 1) & this.mask;
+            while (this.table[next] != EMPTY)
+            {
+                int home = (int) mix(this.table[next]) & this.mask;
+                if (((next - home) & this.mask) >= ((next - i) & this.mask))
+                {
+                    this.table[i] = this.table[next];
+                    i = next;
+                }
+                next = (next + 1) & this.mask;
+            }
+            this.table[i] = EMPTY;
+        }
+    }
+}
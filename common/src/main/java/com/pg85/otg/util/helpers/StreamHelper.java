@@ -1,13 +1,19 @@
 package com.pg85.otg.util.helpers;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutput;
+import java.io.DataOutputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.nio.MappedByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 public class StreamHelper
 {
@@ -70,4 +76,79 @@ public class StreamHelper
     		return "";
 	    }
 	}
+
+	/**
+	 * Compresses the bytes with a {@link Deflater}. The result starts with the
+	 * uncompressed and compressed length and can be written to a stream as-is,
+	 * use {@link #readCompressedFromStream(DataInputStream)} to read it.
+	 */
+	public static byte[] compress(byte[] bytes)
+	{
+		Deflater deflater = new Deflater();
+		deflater.setInput(bytes);
+		deflater.finish();
+
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4 + 64);
+		byte[] buffer = new byte[8192];
+		while (!deflater.finished())
+		{
+			int length = deflater.deflate(buffer);
+			compressed.write(buffer, 0, length);
+		}
+		deflater.end();
+
+		ByteArrayOutputStream result = new ByteArrayOutputStream(compressed.size() + 8);
+		DataOutputStream resultStream = new DataOutputStream(result);
+		try
+		{
+			resultStream.writeInt(bytes.length);
+			resultStream.writeInt(compressed.size());
+			compressed.writeTo(resultStream);
+		}
+		catch (IOException e)
+		{
+			// Can't happen, writing to memory
+			throw new RuntimeException(e);
+		}
+		return result.toByteArray();
+	}
+
+	/**
+	 * Reads bytes written by {@link #compress(byte[])}.
+	 * @return A stream of the uncompressed bytes.
+	 */
+	public static DataInputStream readCompressedFromStream(DataInputStream stream) throws IOException
+	{
+		int length = stream.readInt();
+		byte[] compressed = new byte[stream.readInt()];
+		stream.readFully(compressed);
+
+		byte[] bytes = new byte[length];
+		Inflater inflater = new Inflater();
+		inflater.setInput(compressed);
+		try
+		{
+			int offset = 0;
+			while (offset < length && !inflater.finished())
+			{
+				int read = inflater.inflate(bytes, offset, length - offset);
+				if (read == 0 && inflater.needsInput())
+				{
+					throw new EOFException();
+				}
+				offset += read;
+			}
+			if (offset != length)
+			{
+				throw new EOFException();
+			}
+		}
+		catch (DataFormatException e)
+		{
+			throw new IOException("Invalid compressed data", e);
+		} finally {
+			inflater.end();
+		}
+		return new DataInputStream(new ByteArrayInputStream(bytes));
+	}
 }
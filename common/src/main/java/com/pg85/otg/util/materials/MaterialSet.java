@@ -7,6 +7,7 @@ import com.pg85.otg.util.helpers.MaterialHelper;
 import com.pg85.otg.util.helpers.StringHelper;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
@@ -15,6 +16,11 @@ import java.util.Set;
  * special values make it almost impossible to know which materials are in
  * this set, and as such, this set can't be iterated over and its size remains
  * unknown.
+ *
+ * <p>
+ * Sets are {@link #freeze() frozen} once they are read from the configs.
+ * After that they can't be changed anymore and can be used by multiple
+ * threads at once.
  */
 public class MaterialSet
 {
@@ -40,9 +46,20 @@ public class MaterialSet
     private boolean allSolidMaterials = false;
     private boolean allNonSolidMaterials = false;
 
-    private int[] materialIntSet = new int[0];
     private Set<MaterialSetEntry> materials = new LinkedHashSet<MaterialSetEntry>();
-    private boolean intSetUpToDate = true;
+
+    /**
+     * Bit set of the hashCodes of all entries, see
+     * {@link MaterialSetEntry#hashCode()}. A hashCode is in the set if bit
+     * {@code hashCode & 63} of {@code materialBits[hashCode >>> 6]} is set.
+     * Replaced by a new array when entries are added, never modified after
+     * it is assigned. Assigned last in {@link #freeze()} and read first in
+     * {@link #contains(LocalMaterialData)}, so that threads reading it also
+     * see the other fields.
+     */
+    private volatile long[] materialBits = new long[0];
+
+    private volatile boolean frozen = false;
 
     /**
      * Adds the given material to the list.
@@ -60,9 +77,11 @@ public class MaterialSet
      *
      * @param input The name of the material to add.
      * @throws InvalidConfigException If the name is invalid.
+     * @throws IllegalStateException If this set is frozen.
      */
     public void parseAndAdd(String input) throws InvalidConfigException
     {
+        checkNotFrozen();
         if (input.equalsIgnoreCase(ALL_MATERIALS))
         {
             this.allMaterials = true;
@@ -92,6 +111,42 @@ public class MaterialSet
         add(new MaterialSetEntry(material, checkIncludesBlockData));
     }
 
+    /**
+     * Prevents further changes to this set, so that it can be shared by
+     * multiple threads. Called when the set is fully read from the configs.
+     *
+     * @return This set.
+     */
+    public MaterialSet freeze()
+    {
+        if (!this.frozen)
+        {
+            this.materials = Collections.unmodifiableSet(this.materials);
+            this.frozen = true;
+            // Publishes all fields above to threads that read the bits
+            this.materialBits = this.materialBits;
+        }
+        return this;
+    }
+
+    /**
+     * Gets whether this set can't be changed anymore.
+     *
+     * @return True if {@link #freeze()} was called.
+     */
+    public boolean isFrozen()
+    {
+        return this.frozen;
+    }
+
+    private void checkNotFrozen()
+    {
+        if (this.frozen)
+        {
+            throw new IllegalStateException("Material set " + this + " is frozen");
+        }
+    }
+
     @Override
     public int hashCode()
     {
@@ -146,34 +201,28 @@ public class MaterialSet
      */
     private void add(MaterialSetEntry entry)
     {
-        // Add the appropriate hashCode
-        intSetUpToDate = false;
         materials.add(entry);
-    }
 
-    /**
-     * Updates the int (hashCode) set, so that is is up to date again with the
-     * material set.
-     */
-    private void updateIntSet()
-    {
-        if (intSetUpToDate)
+        int hashCode = entry.hashCode();
+        if (hashCode < 0)
         {
-            // Already up to date
+            // Unregistered block, can never be found in the world
             return;
         }
 
-        // Update the int set
-        materialIntSet = new int[materials.size()];
-        int i = 0;
-        for (MaterialSetEntry entry : materials)
-        {
-            materialIntSet[i] = entry.hashCode();
-            i++;
-        }
-        // Sort int set so that we can use Arrays.binarySearch
-        Arrays.sort(materialIntSet);
-        intSetUpToDate = true;
+        // Copy the bits, so that threads using the old array are not affected
+        long[] bits = Arrays.copyOf(materialBits, Math.max(materialBits.length, (hashCode >>> 6) + 1));
+        bits[hashCode >>> 6] |= 1L << hashCode;
+        materialBits = bits;
+    }
+
+    /**
+     * Gets whether the given hashCode is in the bit set.
+     */
+    private static boolean containsHashCode(long[] bits, int hashCode)
+    {
+        int index = hashCode >>> 6;
+        return index < bits.length && (bits[index] & (1L << hashCode)) != 0;
     }
 
     /**
@@ -189,6 +238,7 @@ public class MaterialSet
         {
             return false;
         }
+        long[] bits = materialBits;
         if (allMaterials && !material.isAir())
         {
             return true;
@@ -202,19 +252,8 @@ public class MaterialSet
             return true;
         }
 
-        // Try to update int set
-        updateIntSet();
-
         // Check if the material is included
-        if (Arrays.binarySearch(materialIntSet, material.hashCodeWithoutBlockData()) >= 0)
-        {
-            return true;
-        }
-        if (Arrays.binarySearch(materialIntSet, material.hashCode()) >= 0)
-        {
-            return true;
-        }
-        return false;
+        return containsHashCode(bits, material.hashCodeWithoutBlockData()) || containsHashCode(bits, material.hashCode());
     }
 
     /**
@@ -262,7 +301,7 @@ public class MaterialSet
     /**
      * Gets a new material set where all blocks are rotated.
      *
-     * @return The new material set.
+     * @return The new material set, frozen.
      */
     public MaterialSet rotate()
     {
@@ -279,12 +318,11 @@ public class MaterialSet
         {
             rotated.allNonSolidMaterials = true;
         }
-        rotated.intSetUpToDate = false;
         for (MaterialSetEntry material : this.materials)
         {
-            rotated.materials.add(material.rotate());
+            rotated.add(material.rotate());
         }
-        return rotated;
+        return rotated.freeze();
     }
 
 }
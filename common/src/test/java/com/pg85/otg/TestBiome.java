@@ -0,0 +1,65 @@
+package com.pg85.otg;
+
+import com.pg85.otg.common.BiomeIds;
+import com.pg85.otg.common.LocalBiome;
+import com.pg85.otg.configuration.biome.BiomeConfig;
+
+/**
+ * Biome for tests. The temperature is calculated like Minecraft does:
+ * the base temperature up to y=64, and above that lower by 0.05 per 30
+ * blocks, shifted by a noise value of up to 3.6 blocks.
+ */
+public class TestBiome implements LocalBiome
+{
+    private final BiomeIds ids;
+    private final float baseTemperature;
+    private final BiomeConfig biomeConfig;
+
+    public TestBiome(int id, float baseTemperature, BiomeConfig biomeConfig)
+    {
+        this.ids = new BiomeIds(id, id);
+        this.baseTemperature = baseTemperature;
+        this.biomeConfig = biomeConfig;
+    }
+
+    @Override
+    public boolean isCustom()
+    {
+        return true;
+    }
+
+    @Override
+    public String getName()
+    {
+        return "TestBiome" + this.ids.getOTGBiomeId();
+    }
+
+    @Override
+    public BiomeIds getIds()
+    {
+        return this.ids;
+    }
+
+    @Override
+    public float getTemperatureAt(int x, int y, int z)
+    {
+        if (y > 64)
+        {
+            float noise = (float) (Math.sin(x * 0.37 + z * 0.11) * Math.cos(z * 0.29 - x * 0.07) * 0.9 * 4);
+            return this.baseTemperature - (noise + (float) y - 64.0F) * 0.05F / 30.0F;
+        }
+        return this.baseTemperature;
+    }
+
+    @Override
+    public float getBaseTemperature()
+    {
+        return this.baseTemperature;
+    }
+
+    @Override
+    public BiomeConfig getBiomeConfig()
+    {
+        return this.biomeConfig;
+    }
+}
@@ -0,0 +1,110 @@
+package com.pg85.otg;
+
+import com.pg85.otg.common.LocalMaterialData;
+import com.pg85.otg.common.LocalWorld;
+import com.pg85.otg.exception.InvalidConfigException;
+import com.pg85.otg.logging.LogMarker;
+import com.pg85.otg.logging.Logger;
+import com.pg85.otg.util.minecraft.defaults.DefaultMaterial;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+
+/**
+ * Engine for tests, without a platform. Materials are
+ * {@link TestMaterial}s and there are no worlds. The OTG folder is a
+ * temporary directory.
+ */
+public class TestEngine extends OTGEngine
+{
+    private final File rootFolder;
+
+    private TestEngine(File rootFolder)
+    {
+        super(new TestLogger());
+        this.rootFolder = rootFolder;
+    }
+
+    /**
+     * Starts the test engine, unless an engine is already running.
+     */
+    public static synchronized void start()
+    {
+        if (OTG.getEngine() != null)
+        {
+            return;
+        }
+        try
+        {
+            File rootFolder = Files.createTempDirectory("otg-test").toFile();
+            rootFolder.deleteOnExit();
+            OTG.setEngine(new TestEngine(rootFolder));
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public File getOTGRootFolder()
+    {
+        return this.rootFolder;
+    }
+
+    @Override
+    public File getGlobalObjectsDirectory()
+    {
+        return new File(this.rootFolder, "GlobalObjects");
+    }
+
+    @Override
+    public File getWorldsDirectory()
+    {
+        return new File(this.rootFolder, "worlds");
+    }
+
+    @Override
+    public LocalWorld getWorld(String name)
+    {
+        return null;
+    }
+
+    @Override
+    public LocalWorld getUnloadedWorld(String name)
+    {
+        return null;
+    }
+
+    @Override
+    public ArrayList<LocalWorld> getAllWorlds()
+    {
+        return new ArrayList<LocalWorld>();
+    }
+
+    @Override
+    public LocalMaterialData readMaterial(String name) throws InvalidConfigException
+    {
+        return TestMaterial.parse(name);
+    }
+
+    @Override
+    public LocalMaterialData toLocalMaterialData(DefaultMaterial defaultMaterial, int blockData)
+    {
+        return TestMaterial.of(defaultMaterial, blockData);
+    }
+
+    /**
+     * Logger that drops all messages.
+     */
+    public static class TestLogger extends Logger
+    {
+        @Override
+        public void log(LogMarker level, String message, Object... params)
+        {
+            // Tests check results, not log output
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.pg85.otg;
+
+import com.pg85.otg.common.LocalMaterialData;
+import com.pg85.otg.configuration.standard.PluginStandardValues;
+import com.pg85.otg.exception.InvalidConfigException;
+import com.pg85.otg.util.minecraft.defaults.DefaultMaterial;
+
+/**
+ * Material for tests, backed by a {@link DefaultMaterial} and block data.
+ * The hashCodes are the same as those of the platform materials, so that
+ * code relying on them (like material sets) behaves the same.
+ */
+public final class TestMaterial implements LocalMaterialData
+{
+    private static final TestMaterial[] Cache = new TestMaterial[256 * 16];
+
+    private final DefaultMaterial material;
+    private final int blockData;
+
+    private TestMaterial(DefaultMaterial material, int blockData)
+    {
+        this.material = material;
+        this.blockData = blockData;
+    }
+
+    /**
+     * Gets the material with the given block data.
+     * @param material  The material.
+     * @param blockData The block data, 0 to 15.
+     * @return The material.
+     */
+    public static synchronized TestMaterial of(DefaultMaterial material, int blockData)
+    {
+        int index = material.id * 16 + blockData;
+        if (Cache[index] == null)
+        {
+            Cache[index] = new TestMaterial(material, blockData);
+        }
+        return Cache[index];
+    }
+
+    /**
+     * Gets the material with block data 0.
+     * @param material The material.
+     * @return The material.
+     */
+    public static TestMaterial of(DefaultMaterial material)
+    {
+        return of(material, 0);
+    }
+
+    /**
+     * Parses a material name like "STONE", "minecraft:stone" or "WOOL:3".
+     * The Minecraft names that OTG uses for water, lava and snow layers
+     * are also accepted.
+     * @param name The name.
+     * @return The material.
+     * @throws InvalidConfigException If the name is not a known material.
+     */
+    public static TestMaterial parse(String name) throws InvalidConfigException
+    {
+        String materialName = name;
+        int blockData = 0;
+        int colonIndex = name.lastIndexOf(':');
+        if (colonIndex != -1)
+        {
+            try
+            {
+                blockData = Integer.parseInt(name.substring(colonIndex + 1));
+                materialName = name.substring(0, colonIndex);
+            }
+            catch (NumberFormatException e)
+            {
+                // No block data
+            }
+        }
+        if (materialName.toLowerCase().startsWith("minecraft:"))
+        {
+            materialName = materialName.substring("minecraft:".length());
+        }
+        if (materialName.equalsIgnoreCase("FLOWING_WATER"))
+        {
+            materialName = DefaultMaterial.WATER.name();
+        }
+        else if (materialName.equalsIgnoreCase("FLOWING_LAVA"))
+        {
+            materialName = DefaultMaterial.LAVA.name();
+        }
+        else if (materialName.equalsIgnoreCase("SNOW_LAYER"))
+        {
+            materialName = DefaultMaterial.SNOW.name();
+        }
+        DefaultMaterial material = DefaultMaterial.getMaterial(materialName);
+        if (material == DefaultMaterial.UNKNOWN_BLOCK || blockData < 0 || blockData > 15)
+        {
+            throw new InvalidConfigException("Unknown material: " + name);
+        }
+        return of(material, blockData);
+    }
+
+    @Override
+    public boolean isSmoothAreaAnchor(boolean allowWood, boolean ignoreWater)
+    {
+        return this.material.isSolid() || (!ignoreWater && this.material.isLiquid());
+    }
+
+    @Override
+    public String getName()
+    {
+        return this.blockData == 0 ? this.material.name() : this.material.name() + ":" + this.blockData;
+    }
+
+    @Override
+    public String toString()
+    {
+        return getName();
+    }
+
+    @Override
+    public int getBlockId()
+    {
+        return this.material.id;
+    }
+
+    @Override
+    public byte getBlockData()
+    {
+        return (byte) this.blockData;
+    }
+
+    @Override
+    public boolean isLiquid()
+    {
+        return this.material.isLiquid();
+    }
+
+    @Override
+    public boolean isSolid()
+    {
+        return this.material.isSolid();
+    }
+
+    @Override
+    public boolean isAir()
+    {
+        return this.material == DefaultMaterial.AIR;
+    }
+
+    @Override
+    public DefaultMaterial toDefaultMaterial()
+    {
+        return this.material;
+    }
+
+    @Override
+    public boolean canSnowFallOn()
+    {
+        return this.material.canSnowFallOn();
+    }
+
+    @Override
+    public boolean isMaterial(DefaultMaterial material)
+    {
+        return this.material == material;
+    }
+
+    @Override
+    public LocalMaterialData withBlockData(int newData)
+    {
+        return of(this.material, newData);
+    }
+
+    @Override
+    public LocalMaterialData withDefaultBlockData()
+    {
+        return of(this.material, 0);
+    }
+
+    @Override
+    public boolean equals(Object other)
+    {
+        return this == other;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return PluginStandardValues.SUPPORTED_BLOCK_IDS + getBlockId() * 16 + getBlockData();
+    }
+
+    @Override
+    public int hashCodeWithoutBlockData()
+    {
+        return getBlockId();
+    }
+
+    @Override
+    public LocalMaterialData rotate()
+    {
+        return rotate(1);
+    }
+
+    @Override
+    public LocalMaterialData rotate(int rotateTimes)
+    {
+        // Rotating changes the block data of directional blocks, good
+        // enough for tests
+        return of(this.material, (this.blockData + rotateTimes) & 3 | (this.blockData & 12));
+    }
+
+    @Override
+    public boolean canFall()
+    {
+        return this.material == DefaultMaterial.SAND || this.material == DefaultMaterial.GRAVEL;
+    }
+}
@@ -0,0 +1,157 @@
+package com.pg85.otg.configuration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.pg85.otg.TestEngine;
+import com.pg85.otg.configuration.biome.BiomeConfig;
+import com.pg85.otg.configuration.biome.BiomeLoadInstruction;
+import com.pg85.otg.configuration.io.SimpleSettingsMap;
+import com.pg85.otg.configuration.standard.StandardBiomeTemplate;
+import com.pg85.otg.configuration.world.WorldConfig;
+import com.pg85.otg.exception.InvalidConfigException;
+import com.pg85.otg.generator.resource.CustomObjectGen;
+import com.pg85.otg.util.materials.MaterialSet;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ConfigValuePoolTest
+{
+    private static final int BIOME_COUNT = 20;
+
+    private static WorldConfig worldConfig;
+
+    @BeforeClass
+    public static void loadWorldConfig()
+    {
+        TestEngine.start();
+        worldConfig = new WorldConfig(new File("."), new SimpleSettingsMap("PoolTest", true), null, null);
+    }
+
+    private static MaterialSet materials(String... names) throws InvalidConfigException
+    {
+        MaterialSet set = new MaterialSet();
+        for (String name : names)
+        {
+            set.parseAndAdd(name);
+        }
+        return set;
+    }
+
+    private static List<BiomeConfig> loadBiomes(boolean sharedPool)
+    {
+        ConfigValuePool valuePool = new ConfigValuePool();
+        List<BiomeConfig> biomes = new ArrayList<BiomeConfig>();
+        for (int i = 0; i < BIOME_COUNT; i++)
+        {
+            BiomeLoadInstruction loadInstruction = new BiomeLoadInstruction("Biome" + i, new StandardBiomeTemplate(worldConfig.worldHeightCap));
+            biomes.add(new BiomeConfig(loadInstruction, null, new SimpleSettingsMap("Biome" + i, true), worldConfig, sharedPool ? valuePool : new ConfigValuePool()));
+        }
+        return biomes;
+    }
+
+    /**
+     * Collects the distinct instances of the resources and of the material
+     * sets in them. Custom objects are skipped, they are never shared.
+     */
+    private static Map<Object, Object> collectInstances(List<BiomeConfig> biomes, boolean materialSets) throws IllegalAccessException
+    {
+        Map<Object, Object> instances = new IdentityHashMap<Object, Object>();
+        for (BiomeConfig biome : biomes)
+        {
+            for (ConfigFunction<BiomeConfig> resource : biome.resourceSequence)
+            {
+                if (resource instanceof CustomObjectGen)
+                {
+                    continue;
+                }
+                if (!materialSets)
+                {
+                    instances.put(resource, resource);
+                    continue;
+                }
+                for (Class<?> type = resource.getClass(); type != null; type = type.getSuperclass())
+                {
+                    for (Field field : type.getDeclaredFields())
+                    {
+                        if (field.getType() == MaterialSet.class)
+                        {
+                            field.setAccessible(true);
+                            Object value = field.get(resource);
+                            if (value != null)
+                            {
+                                instances.put(value, value);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return instances;
+    }
+
+    @Test
+    public void testMaterialSets() throws InvalidConfigException
+    {
+        ConfigValuePool valuePool = new ConfigValuePool();
+        MaterialSet stone = materials("STONE", "DIRT").freeze();
+        assertSame(stone, valuePool.share(stone));
+        assertSame(stone, valuePool.share(materials("STONE", "DIRT").freeze()));
+        assertNull(valuePool.share((MaterialSet) null));
+
+        // Equal, but written in another order to the configs
+        MaterialSet otherOrder = materials("DIRT", "STONE").freeze();
+        assertSame(otherOrder, valuePool.share(otherOrder));
+
+        // May still be changed, so never shared
+        MaterialSet notFrozen = materials("STONE", "DIRT");
+        assertSame(notFrozen, valuePool.share(notFrozen));
+        assertEquals(1, valuePool.getSharedCount());
+    }
+
+    @Test
+    public void testBiomesShareResourcesAndMaterialSets() throws IllegalAccessException
+    {
+        List<BiomeConfig> unshared = loadBiomes(false);
+        List<BiomeConfig> shared = loadBiomes(true);
+
+        for (int i = 0; i < BIOME_COUNT; i++)
+        {
+            // Sharing never changes the configs
+            assertEquals(unshared.get(i).resourceSequence.toString(), shared.get(i).resourceSequence.toString());
+            if (i > 0)
+            {
+                assertSame(shared.get(0).resourceSequence.get(0), shared.get(i).resourceSequence.get(0));
+                assertNotSame(unshared.get(0).resourceSequence.get(0), unshared.get(i).resourceSequence.get(0));
+            }
+        }
+
+        int resourcesPerBiome = collectInstances(unshared.subList(0, 1), false).size();
+        assertEquals(resourcesPerBiome * BIOME_COUNT, collectInstances(unshared, false).size());
+        assertTrue(collectInstances(shared, false).size() <= resourcesPerBiome);
+
+        // Different resources with the same source blocks share their set,
+        // so there is one set for every distinct config string
+        Set<String> distinctSets = new HashSet<String>();
+        for (Object materials : collectInstances(shared, true).keySet())
+        {
+            distinctSets.add(materials.toString());
+        }
+        assertTrue(distinctSets.size() < resourcesPerBiome);
+        assertEquals(distinctSets.size(), collectInstances(shared, true).size());
+        assertEquals(distinctSets.size() * BIOME_COUNT, collectInstances(unshared, true).size());
+    }
+}
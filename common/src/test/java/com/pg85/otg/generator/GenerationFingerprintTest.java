@@ -0,0 +1,250 @@
+package com.pg85.otg.generator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.pg85.otg.TestBiome;
+import com.pg85.otg.TestEngine;
+import com.pg85.otg.TestMaterial;
+import com.pg85.otg.common.LocalBiome;
+import com.pg85.otg.common.LocalMaterialData;
+import com.pg85.otg.common.LocalWorld;
+import com.pg85.otg.configuration.ConfigValuePool;
+import com.pg85.otg.configuration.biome.BiomeConfig;
+import com.pg85.otg.configuration.biome.BiomeLoadInstruction;
+import com.pg85.otg.configuration.io.SimpleSettingsMap;
+import com.pg85.otg.configuration.standard.StandardBiomeTemplate;
+import com.pg85.otg.configuration.world.WorldConfig;
+import com.pg85.otg.generator.GenerationFingerprint.Stage;
+import com.pg85.otg.generator.biome.TestBiomeGenerator;
+import com.pg85.otg.network.ConfigProvider;
+import com.pg85.otg.util.ChunkCoordinate;
+import com.pg85.otg.util.minecraft.defaults.DefaultMaterial;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class GenerationFingerprintTest
+{
+    private static final int AREA_SIZE = 4;
+
+    private static WorldConfig worldConfig;
+    private static LocalBiome biome;
+
+    @BeforeClass
+    public static void loadConfigs()
+    {
+        TestEngine.start();
+        worldConfig = new WorldConfig(new File("."), new SimpleSettingsMap("FingerprintTest", true), null, null);
+        BiomeLoadInstruction loadInstruction = new BiomeLoadInstruction("FingerprintTest", new StandardBiomeTemplate(worldConfig.worldHeightCap));
+        BiomeConfig biomeConfig = new BiomeConfig(loadInstruction, null, new SimpleSettingsMap("FingerprintTest", true), worldConfig, new ConfigValuePool());
+        biome = new TestBiome(1, 0.8f, biomeConfig);
+    }
+
+    @AfterClass
+    public static void stopRecording()
+    {
+        GenerationFingerprint.stop();
+    }
+
+    /**
+     * World with a single biome and the given seed. Blocks that are set are
+     * kept in a map, for population.
+     */
+    private static class TestWorld implements InvocationHandler
+    {
+        private final long seed;
+        private final ConfigProvider configs;
+        private final Map<String, LocalMaterialData> blocks = new HashMap<String, LocalMaterialData>();
+        private final LocalWorld world;
+        private final TestBiomeGenerator biomeGenerator;
+
+        TestWorld(long seed)
+        {
+            this.seed = seed;
+            this.configs = (ConfigProvider) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { ConfigProvider.class }, new InvocationHandler()
+            {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args)
+                {
+                    if (method.getName().equals("getWorldConfig"))
+                    {
+                        return worldConfig;
+                    }
+                    if (method.getName().equals("getBiomeByOTGIdOrNull"))
+                    {
+                        return biome;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                }
+            });
+            this.world = (LocalWorld) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { LocalWorld.class }, this);
+            this.biomeGenerator = new TestBiomeGenerator(this.world, 1);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args)
+        {
+            String name = method.getName();
+            if (name.equals("getConfigs"))
+            {
+                return this.configs;
+            }
+            if (name.equals("getSeed"))
+            {
+                return this.seed;
+            }
+            if (name.equals("getHeightCap"))
+            {
+                return worldConfig.worldHeightCap;
+            }
+            if (name.equals("getHeightScale"))
+            {
+                return worldConfig.worldHeightScale;
+            }
+            if (name.equals("getBiomeGenerator"))
+            {
+                return this.biomeGenerator;
+            }
+            if (name.equals("getBiome"))
+            {
+                return biome;
+            }
+            if (name.equals("generateModdedCaveGen"))
+            {
+                return false;
+            }
+            if (name.equals("getMaterial") && args.length == 4)
+            {
+                LocalMaterialData material = this.blocks.get(args[0] + "," + args[1] + "," + args[2]);
+                return material == null ? TestMaterial.of(DefaultMaterial.AIR) : material;
+            }
+            throw new UnsupportedOperationException(name);
+        }
+
+        /**
+         * Places blocks like population does, in the chunk and the chunks
+         * to the east and south of it, and records the population.
+         */
+        void populate(ChunkCoordinate chunkCoord)
+        {
+            for (int x = 0; x <= 1; x++)
+            {
+                for (int z = 0; z <= 1; z++)
+                {
+                    ChunkCoordinate changedChunk = ChunkCoordinate.fromChunkCoords(chunkCoord.getChunkX() + x, chunkCoord.getChunkZ() + z);
+                    // Every chunk places a different block
+                    int y = 100 + x * 2 + z;
+                    this.blocks.put((changedChunk.getBlockX() + 8) + "," + y + "," + (changedChunk.getBlockZ() + 8), TestMaterial.of(DefaultMaterial.STONE));
+                }
+            }
+            GenerationFingerprint.recordPopulation(this.world, chunkCoord);
+        }
+    }
+
+    private static Map<ChunkCoordinate, long[]> generate(long seed)
+    {
+        return FingerprintGenerator.generate(new TestWorld(seed).world, ChunkCoordinate.fromChunkCoords(-2, -2), AREA_SIZE);
+    }
+
+    private static File write(Map<ChunkCoordinate, long[]> hashes) throws IOException
+    {
+        File file = Files.createTempFile("fingerprint", GenerationFingerprint.FILE_EXTENSION).toFile();
+        file.deleteOnExit();
+        GenerationFingerprint.write(hashes, file);
+        return file;
+    }
+
+    @Test
+    public void testGenerateIsRepeatable()
+    {
+        Map<ChunkCoordinate, long[]> first = generate(123);
+        Map<ChunkCoordinate, long[]> second = generate(123);
+
+        assertFalse(GenerationFingerprint.isEnabled());
+        assertEquals(AREA_SIZE * AREA_SIZE, first.size());
+        assertEquals(first.keySet(), second.keySet());
+        for (Map.Entry<ChunkCoordinate, long[]> entry : first.entrySet())
+        {
+            long[] hashes = entry.getValue();
+            for (Stage stage : Stage.values())
+            {
+                // Population is not done without a server
+                assertEquals(stage == Stage.POPULATION, hashes[stage.ordinal()] == 0);
+            }
+            assertEquals(entry.getKey().toString(), hashes[Stage.TERRAIN.ordinal()], second.get(entry.getKey())[Stage.TERRAIN.ordinal()]);
+        }
+        assertArrayEquals(GenerationFingerprint.getAreaHashes(first), GenerationFingerprint.getAreaHashes(second));
+    }
+
+    @Test
+    public void testDiffNamesFirstDifference() throws IOException
+    {
+        File expected = write(generate(123));
+        File same = write(generate(123));
+        File other = write(generate(456));
+
+        List<String> sameLines = GenerationFingerprint.diff(expected, same);
+        assertEquals("No differences found.", sameLines.get(sameLines.size() - 1));
+
+        // The biomes don't depend on the seed in the test world
+        List<String> otherLines = GenerationFingerprint.diff(expected, other);
+        assertTrue(otherLines.contains("BIOMES: same"));
+        assertEquals("First difference: stage TERRAIN in chunk -2,-2", otherLines.get(otherLines.size() - 1));
+    }
+
+    @Test
+    public void testPopulationHashDoesNotDependOnOrder()
+    {
+        TestWorld forwardWorld = new TestWorld(1);
+        GenerationFingerprint.start();
+        for (int x = 0; x < AREA_SIZE; x++)
+        {
+            for (int z = 0; z < AREA_SIZE; z++)
+            {
+                forwardWorld.populate(ChunkCoordinate.fromChunkCoords(x, z));
+            }
+        }
+        Map<ChunkCoordinate, long[]> forward = GenerationFingerprint.getHashes();
+
+        TestWorld backwardWorld = new TestWorld(1);
+        GenerationFingerprint.start();
+        for (int z = AREA_SIZE - 1; z >= 0; z--)
+        {
+            for (int x = AREA_SIZE - 1; x >= 0; x--)
+            {
+                backwardWorld.populate(ChunkCoordinate.fromChunkCoords(x, z));
+            }
+        }
+        Map<ChunkCoordinate, long[]> backward = GenerationFingerprint.getHashes();
+        GenerationFingerprint.stop();
+
+        // Only chunks whose neighbours to the north and west are populated
+        assertEquals((AREA_SIZE - 1) * (AREA_SIZE - 1), forward.size());
+        assertEquals(forward.keySet(), backward.keySet());
+        long firstHash = forward.get(ChunkCoordinate.fromChunkCoords(1, 1))[Stage.POPULATION.ordinal()];
+        for (Map.Entry<ChunkCoordinate, long[]> entry : forward.entrySet())
+        {
+            assertTrue(entry.getKey().getChunkX() >= 1 && entry.getKey().getChunkZ() >= 1);
+            long hash = entry.getValue()[Stage.POPULATION.ordinal()];
+            assertNotEquals(0, hash);
+            assertEquals(entry.getKey().toString(), hash, backward.get(entry.getKey())[Stage.POPULATION.ordinal()]);
+            // All chunks get the same blocks, at the same place
+            assertEquals(firstHash, hash);
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.pg85.otg.generator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.pg85.otg.TestEngine;
+import com.pg85.otg.common.LocalBiome;
+import com.pg85.otg.common.LocalWorld;
+import com.pg85.otg.configuration.io.SimpleSettingsMap;
+import com.pg85.otg.configuration.world.WorldConfig;
+import com.pg85.otg.network.ConfigProvider;
+import com.pg85.otg.util.ChunkCoordinate;
+
+import java.io.File;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests the locking of {@link ObjectSpawner#populate(ChunkCoordinate)}.
+ * Population runs until it looks up the biome of the chunk, where the tests
+ * hook in. The world has no biomes, so population stops there. A chunk
+ * populated during the population of another chunk doesn't look up its
+ * biome, the tests hook in when it starts.
+ */
+public class ObjectSpawnerTest
+{
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private static WorldConfig worldConfig;
+
+    @BeforeClass
+    public static void loadConfigs()
+    {
+        TestEngine.start();
+        worldConfig = new WorldConfig(new File("."), new SimpleSettingsMap("SpawnerTest", true), null, null);
+    }
+
+    /**
+     * Called when population of a chunk reaches the hook, see above.
+     */
+    private interface PopulationHook
+    {
+        void populating(ChunkCoordinate chunkCoord) throws Exception;
+    }
+
+    private static ObjectSpawner createSpawner(final PopulationHook hook)
+    {
+        final ConfigProvider configs = (ConfigProvider) Proxy.newProxyInstance(ObjectSpawnerTest.class.getClassLoader(), new Class<?>[] { ConfigProvider.class }, new InvocationHandler()
+        {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args)
+            {
+                if (method.getName().equals("getWorldConfig"))
+                {
+                    return worldConfig;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+        LocalWorld world = (LocalWorld) Proxy.newProxyInstance(ObjectSpawnerTest.class.getClassLoader(), new Class<?>[] { LocalWorld.class }, new InvocationHandler()
+        {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Exception
+            {
+                if (method.getName().equals("getConfigs"))
+                {
+                    return configs;
+                }
+                if (method.getName().equals("getBiome"))
+                {
+                    // Block coordinates of the corner of the chunk
+                    int x = (Integer) args[0];
+                    int z = (Integer) args[1];
+                    hook.populating(ChunkCoordinate.fromBlockCoords(x, z));
+                    return (LocalBiome) null;
+                }
+                if (method.getName().equals("startPopulation"))
+                {
+                    // Only for a chunk populated during another population
+                    hook.populating((ChunkCoordinate) args[0]);
+                    return null;
+                }
+                if (method.getName().equals("getSeed"))
+                {
+                    return 0L;
+                }
+                if (method.getName().equals("placeDefaultStructures"))
+                {
+                    return false;
+                }
+                if (method.getName().equals("endPopulation"))
+                {
+                    return null;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+        return new ObjectSpawner(configs, world);
+    }
+
+    private static Thread startPopulating(final ObjectSpawner spawner, final ChunkCoordinate chunkCoord)
+    {
+        Thread thread = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                spawner.populate(chunkCoord);
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static void join(Thread thread) throws InterruptedException
+    {
+        thread.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+        assertFalse("Population didn't finish", thread.isAlive());
+    }
+
+    @Test
+    public void testNestedPopulationKeepsLock()
+    {
+        final ChunkCoordinate outer = ChunkCoordinate.fromChunkCoords(0, 0);
+        final ChunkCoordinate nested = ChunkCoordinate.fromChunkCoords(1, 0);
+        final List<String> events = new ArrayList<String>();
+        final ObjectSpawner[] spawner = new ObjectSpawner[1];
+        spawner[0] = createSpawner(new PopulationHook()
+        {
+            @Override
+            public void populating(ChunkCoordinate chunkCoord)
+            {
+                if (chunkCoord.equals(outer))
+                {
+                    // Like a block placed over the edge of the chunk, which
+                    // makes Minecraft populate the neighbouring chunk
+                    spawner[0].populate(nested);
+                    events.add("outer " + spawner[0].populating);
+                } else {
+                    events.add("nested " + spawner[0].populating);
+                }
+            }
+        });
+
+        spawner[0].populate(outer);
+
+        assertEquals("[nested true, outer true]", events.toString());
+        assertFalse(spawner[0].populating);
+        assertFalse(spawner[0].processing);
+        assertTrue(spawner[0].saveRequired);
+    }
+
+    @Test
+    public void testOtherThreadWaits() throws Exception
+    {
+        final CountDownLatch firstStarted = new CountDownLatch(1);
+        final CountDownLatch releaseFirst = new CountDownLatch(1);
+        final CountDownLatch secondStarted = new CountDownLatch(1);
+        final ChunkCoordinate first = ChunkCoordinate.fromChunkCoords(0, 0);
+        ObjectSpawner spawner = createSpawner(new PopulationHook()
+        {
+            @Override
+            public void populating(ChunkCoordinate chunkCoord) throws Exception
+            {
+                if (chunkCoord.equals(first))
+                {
+                    firstStarted.countDown();
+                    assertTrue(releaseFirst.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+                } else {
+                    secondStarted.countDown();
+                }
+            }
+        });
+
+        Thread firstThread = startPopulating(spawner, first);
+        assertTrue(firstStarted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        // A chunk far away still waits, there is one random generator
+        Thread secondThread = startPopulating(spawner, ChunkCoordinate.fromChunkCoords(10, 10));
+        assertFalse("Populated while another thread was populating", secondStarted.await(200, TimeUnit.MILLISECONDS));
+
+        releaseFirst.countDown();
+        assertTrue(secondStarted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        join(firstThread);
+        join(secondThread);
+        assertFalse(spawner.populating);
+    }
+
+    @Test
+    public void testPopulationWaitsForSaving() throws Exception
+    {
+        final CountDownLatch started = new CountDownLatch(1);
+        ObjectSpawner spawner = createSpawner(new PopulationHook()
+        {
+            @Override
+            public void populating(ChunkCoordinate chunkCoord)
+            {
+                started.countDown();
+            }
+        });
+
+        synchronized (spawner.lockingObject)
+        {
+            spawner.saving = true;
+        }
+        Thread thread = startPopulating(spawner, ChunkCoordinate.fromChunkCoords(0, 0));
+        assertFalse("Populated while saving", started.await(200, TimeUnit.MILLISECONDS));
+
+        // Like the end of CustomStructureCache.saveToDisk
+        synchronized (spawner.lockingObject)
+        {
+            spawner.saving = false;
+            spawner.lockingObject.notifyAll();
+        }
+        assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        join(thread);
+    }
+
+    @Test
+    public void testExceptionReleasesLock() throws Exception
+    {
+        final ChunkCoordinate failing = ChunkCoordinate.fromChunkCoords(0, 0);
+        final CountDownLatch populated = new CountDownLatch(1);
+        ObjectSpawner spawner = createSpawner(new PopulationHook()
+        {
+            @Override
+            public void populating(ChunkCoordinate chunkCoord)
+            {
+                if (chunkCoord.equals(failing))
+                {
+                    throw new IllegalStateException("Test");
+                }
+                populated.countDown();
+            }
+        });
+
+        try
+        {
+            spawner.populate(failing);
+            fail("Exception was not thrown");
+        }
+        catch (IllegalStateException e)
+        {
+            // Expected
+        }
+        assertFalse(spawner.populating);
+        assertFalse(spawner.processing);
+
+        // Another thread can populate afterwards
+        join(startPopulating(spawner, ChunkCoordinate.fromChunkCoords(1, 0)));
+        assertEquals(0, populated.getCount());
+    }
+}
@@ -0,0 +1,31 @@
+package com.pg85.otg.generator.biome;
+
+import com.pg85.otg.common.LocalWorld;
+
+/**
+ * Biome generator for tests, with the same biome everywhere.
+ */
+public class TestBiomeGenerator extends BiomeGenerator
+{
+    private final int biomeId;
+
+    public TestBiomeGenerator(LocalWorld world, int biomeId)
+    {
+        super(world);
+        this.biomeId = biomeId;
+    }
+
+    @Override
+    public int[] getBiomes(int[] biomeArray, int x, int z, int xSize, int zSize, OutputType type)
+    {
+        if (biomeArray == null || biomeArray.length < xSize * zSize)
+        {
+            biomeArray = new int[xSize * zSize];
+        }
+        for (int i = 0; i < xSize * zSize; i++)
+        {
+            biomeArray[i] = this.biomeId;
+        }
+        return biomeArray;
+    }
+}
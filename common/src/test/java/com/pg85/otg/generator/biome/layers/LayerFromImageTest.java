@@ -0,0 +1,195 @@
+package com.pg85.otg.generator.biome.layers;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.pg85.otg.TestBiome;
+import com.pg85.otg.TestEngine;
+import com.pg85.otg.common.LocalWorld;
+import com.pg85.otg.configuration.io.SimpleSettingsMap;
+import com.pg85.otg.configuration.world.WorldConfig;
+import com.pg85.otg.configuration.world.WorldConfig.ImageMode;
+import com.pg85.otg.configuration.world.WorldConfig.ImageOrientation;
+import com.pg85.otg.generator.biome.ArraysCache;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Random;
+
+import javax.imageio.ImageIO;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Checks that biome maps read from a {@link TiledBiomeMap} are the same as
+ * biome maps kept on the heap.
+ */
+public class LayerFromImageTest
+{
+    private static final int FILL_BIOME = 77;
+
+    private File folder;
+
+    @BeforeClass
+    public static void startEngine()
+    {
+        TestEngine.start();
+    }
+
+    @Before
+    public void createFolder() throws IOException
+    {
+        this.folder = File.createTempFile("otg-image", "");
+        this.folder.delete();
+        this.folder.mkdir();
+    }
+
+    @After
+    public void deleteFolder()
+    {
+        for (File file : this.folder.listFiles())
+        {
+            file.delete();
+        }
+        this.folder.delete();
+    }
+
+    private static LocalWorld createWorld()
+    {
+        final TestBiome fillBiome = new TestBiome(FILL_BIOME, 0.5f, null);
+        return (LocalWorld) Proxy.newProxyInstance(LayerFromImageTest.class.getClassLoader(), new Class<?>[] { LocalWorld.class }, new InvocationHandler()
+        {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args)
+            {
+                if (method.getName().equals("getBiomeByNameOrNull"))
+                {
+                    return fillBiome;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    /**
+     * Child layer for {@link ImageMode#ContinueNormal}, with a different
+     * biome for every column.
+     */
+    private static class CoordinateLayer extends Layer
+    {
+        CoordinateLayer()
+        {
+            super(0, 0);
+        }
+
+        @Override
+        public int[] getInts(LocalWorld world, ArraysCache cache, int x, int z, int xSize, int zSize)
+        {
+            int[] biomes = cache.getArray(xSize * zSize);
+            for (int zi = 0; zi < zSize; zi++)
+            {
+                for (int xi = 0; xi < xSize; xi++)
+                {
+                    biomes[xi + zi * xSize] = 1000 + (((x + xi) * 31 + z + zi) & 0xFFF);
+                }
+            }
+            return biomes;
+        }
+    }
+
+    /**
+     * Writes an image with random colors, some of which are not in the
+     * color map, and with random alpha values.
+     */
+    private File writeImage(String name, int width, int height, Random random, int[] palette) throws IOException
+    {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < height; y++)
+        {
+            for (int x = 0; x < width; x++)
+            {
+                int color = palette[(x / 7 + y / 5 + random.nextInt(2)) % palette.length];
+                image.setRGB(x, y, random.nextInt(256) << 24 | color);
+            }
+        }
+        File file = new File(this.folder, name);
+        ImageIO.write(image, "png", file);
+        return file;
+    }
+
+    @Test
+    public void testTiledMatchesHeap() throws IOException
+    {
+        Random random = new Random(5);
+        int[] palette = new int[20];
+        HashMap<Integer, Integer> colorMap = new HashMap<Integer, Integer>();
+        for (int i = 0; i < palette.length; i++)
+        {
+            palette[i] = random.nextInt(0x1000000);
+            if (i < 15)
+            {
+                colorMap.put(palette[i], random.nextInt(1024));
+            }
+        }
+
+        WorldConfig config = new WorldConfig(this.folder, new SimpleSettingsMap("ImageTest", true), null, null);
+        config.biomeColorMap = colorMap;
+        config.imageXOffset = -40;
+        config.imageZOffset = 25;
+        LocalWorld world = createWorld();
+        Layer childLayer = new CoordinateLayer();
+
+        // Sizes that are and aren't a multiple of the tile size
+        int[][] sizes = { { 300, 517 }, { 256, 256 }, { 1000, 37 }, { 1, 1 } };
+        for (int[] size : sizes)
+        {
+            config.imageFile = "map" + size[0] + "x" + size[1] + ".png";
+            writeImage(config.imageFile, size[0], size[1], random, palette);
+
+            for (ImageOrientation orientation : ImageOrientation.values())
+            {
+                config.imageOrientation = orientation;
+                for (ImageMode mode : ImageMode.values())
+                {
+                    config.imageMode = mode;
+                    String message = config.imageFile + " " + orientation + " " + mode;
+
+                    LayerFromImage heapLayer = new LayerFromImage(1, 0, childLayer, config, world, Long.MAX_VALUE);
+                    LayerFromImage tiledLayer = new LayerFromImage(1, 0, childLayer, config, world, 1);
+                    assertFalse(message, heapLayer.isTiled());
+                    assertTrue(message, tiledLayer.isTiled());
+
+                    // Covers the whole map and the area around it, mirrored
+                    // and repeated at least once
+                    int areaWidth = Math.max(size[0], size[1]) * 2 + 120;
+                    for (int startZ = -areaWidth / 2; startZ < areaWidth; startZ += 64)
+                    {
+                        int[] expected = heapLayer.getInts(world, new ArraysCache(), -areaWidth / 2, startZ, areaWidth, 64).clone();
+                        int[] actual = tiledLayer.getInts(world, new ArraysCache(), -areaWidth / 2, startZ, areaWidth, 64);
+                        assertArrayEquals(message + " z " + startZ, expected, actual);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSmallImagesStayOnHeap() throws IOException
+    {
+        WorldConfig config = new WorldConfig(this.folder, new SimpleSettingsMap("ImageTest", true), null, null);
+        config.biomeColorMap = new HashMap<Integer, Integer>();
+        config.imageFile = "small.png";
+        writeImage(config.imageFile, 64, 64, new Random(1), new int[] { 0xFF0000 });
+        assertFalse(new LayerFromImage(1, 0, null, config, createWorld()).isTiled());
+        assertFalse(new File(this.folder, config.imageFile + TiledBiomeMap.FILE_EXTENSION).exists());
+    }
+}
@@ -0,0 +1,108 @@
+package com.pg85.otg.generator.noise;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks that {@link NoiseGeneratorPerlinOctaves} gives bit-identical
+ * output to the implementation that added one octave at a time,
+ * {@link LegacyNoiseGeneratorPerlinOctaves}.
+ */
+public class NoiseGeneratorPerlinOctavesTest
+{
+    private static void assertSameNoise(String message, double[] expected, double[] actual)
+    {
+        assertEquals(message + " length", expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++)
+        {
+            if (Double.doubleToRawLongBits(expected[i]) != Double.doubleToRawLongBits(actual[i]))
+            {
+                assertEquals(message + " at " + i, expected[i], actual[i], 0);
+                // Same value but different bits, for example 0.0 and -0.0
+                throw new AssertionError(message + " at " + i + ": " + expected[i] + " has different bits than " + actual[i]);
+            }
+        }
+    }
+
+    @Test
+    public void testTerrainNoiseSizes()
+    {
+        // The sizes and scales ChunkProviderOTG uses for terrain noise
+        for (int octaves : new int[] { 8, 16 })
+        {
+            LegacyNoiseGeneratorPerlinOctaves expected = new LegacyNoiseGeneratorPerlinOctaves(new Random(123), octaves);
+            NoiseGeneratorPerlinOctaves actual = new NoiseGeneratorPerlinOctaves(new Random(123), octaves);
+            double[] expectedArray = null;
+            double[] actualArray = null;
+            for (int chunkX = -3; chunkX < 3; chunkX++)
+            {
+                for (int chunkZ = -3; chunkZ < 3; chunkZ++)
+                {
+                    expectedArray = expected.Noise3D(expectedArray, chunkX * 4, 0, chunkZ * 4, 5, 33, 5, 684.412, 684.412, 684.412);
+                    actualArray = actual.Noise3D(actualArray, chunkX * 4, 0, chunkZ * 4, 5, 33, 5, 684.412, 684.412, 684.412);
+                    assertSameNoise("3D chunk " + chunkX + "," + chunkZ, expectedArray, actualArray);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRandomParameters()
+    {
+        Random random = new Random(42);
+        for (int test = 0; test < 300; test++)
+        {
+            long seed = random.nextLong();
+            int octaves = 1 + random.nextInt(16);
+            LegacyNoiseGeneratorPerlinOctaves expected = new LegacyNoiseGeneratorPerlinOctaves(new Random(seed), octaves);
+            NoiseGeneratorPerlinOctaves actual = new NoiseGeneratorPerlinOctaves(new Random(seed), octaves);
+            double[] expected3D = null;
+            double[] actual3D = null;
+            double[] expected2D = null;
+            double[] actual2D = null;
+
+            for (int call = 0; call < 5; call++)
+            {
+                int xSize = 1 + random.nextInt(6);
+                int ySize = 1 + random.nextInt(40);
+                int zSize = 1 + random.nextInt(6);
+                int xOffset = random.nextInt(2000000) - 1000000;
+                int yOffset = random.nextInt(64);
+                int zOffset = random.nextInt(2000000) - 1000000;
+                double xScale = random.nextBoolean() ? 684.412 : random.nextDouble() * 1000;
+                double yScale = random.nextBoolean() ? 684.412 : random.nextDouble() * 1000;
+                double zScale = random.nextDouble() * 1000;
+                if (random.nextInt(4) == 0)
+                {
+                    // Small scales, many samples in the same lattice cell
+                    xScale = random.nextDouble() * 0.01;
+                    yScale = random.nextDouble() * 0.05;
+                }
+
+                // Arrays are sometimes reused, they must be cleared first
+                if (random.nextBoolean() || expected3D == null || expected3D.length < xSize * ySize * zSize)
+                {
+                    expected3D = null;
+                    actual3D = null;
+                }
+                if (random.nextBoolean() || expected2D == null || expected2D.length < xSize * zSize)
+                {
+                    expected2D = null;
+                    actual2D = null;
+                }
+
+                String message = "Seed " + seed + ", " + octaves + " octaves, call " + call;
+                expected3D = expected.Noise3D(expected3D, xOffset, yOffset, zOffset, xSize, ySize, zSize, xScale, yScale, zScale);
+                actual3D = actual.Noise3D(actual3D, xOffset, yOffset, zOffset, xSize, ySize, zSize, xScale, yScale, zScale);
+                assertSameNoise(message + " 3D", expected3D, actual3D);
+
+                expected2D = expected.Noise2D(expected2D, xOffset, zOffset, xSize, zSize, xScale, zScale);
+                actual2D = actual.Noise2D(actual2D, xOffset, zOffset, xSize, zSize, xScale, zScale);
+                assertSameNoise(message + " 2D", expected2D, actual2D);
+            }
+        }
+    }
+}
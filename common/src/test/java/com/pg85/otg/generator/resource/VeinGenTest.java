@@ -0,0 +1,165 @@
+package com.pg85.otg.generator.resource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.pg85.otg.TestEngine;
+import com.pg85.otg.common.LocalWorld;
+import com.pg85.otg.exception.InvalidConfigException;
+import com.pg85.otg.util.ChunkCoordinate;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Checks that the cached vein starts of {@link VeinGen} are the same as the
+ * uncached ones.
+ */
+public class VeinGenTest
+{
+    private static final int AREA_SIZE = 64;
+
+    @BeforeClass
+    public static void startEngine()
+    {
+        TestEngine.start();
+    }
+
+    private static VeinGen createVeinGen() throws InvalidConfigException
+    {
+        // 20% of the chunks have a vein start
+        return new VeinGen(null, Arrays.asList("IRON_ORE", "10", "40", "20", "6", "10", "50", "5", "60", "STONE"));
+    }
+
+    private static LocalWorld createWorld(final long seed)
+    {
+        return (LocalWorld) Proxy.newProxyInstance(VeinGenTest.class.getClassLoader(), new Class<?>[] { LocalWorld.class }, new InvocationHandler()
+        {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args)
+            {
+                if (method.getName().equals("getSeed"))
+                {
+                    return seed;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    @Test
+    public void testCachedMatchesUncached() throws InvalidConfigException
+    {
+        VeinGen veinGen = createVeinGen();
+        LocalWorld world = createWorld(1234);
+        int veins = 0;
+        for (int chunkX = -AREA_SIZE / 2; chunkX < AREA_SIZE / 2; chunkX++)
+        {
+            for (int chunkZ = -AREA_SIZE / 2; chunkZ < AREA_SIZE / 2; chunkZ++)
+            {
+                Vein expected = veinGen.getVeinStartInChunk(world, chunkX, chunkZ);
+                // Both the first lookup and the cached one
+                assertEquals(expected, veinGen.getCachedVeinStartInChunk(world, chunkX, chunkZ));
+                assertEquals(expected, veinGen.getCachedVeinStartInChunk(world, chunkX, chunkZ));
+                if (expected != null)
+                {
+                    veins++;
+                }
+            }
+        }
+        // Both chunks with and without a vein start were tested
+        assertTrue(veins > 0);
+        assertTrue(veins < AREA_SIZE * AREA_SIZE);
+    }
+
+    @Test
+    public void testChunksWithoutVeinAreCached() throws InvalidConfigException
+    {
+        VeinGen veinGen = createVeinGen();
+        LocalWorld world = createWorld(1234);
+        for (int chunkX = 0; chunkX < AREA_SIZE; chunkX++)
+        {
+            if (veinGen.getVeinStartInChunk(world, chunkX, 0) == null)
+            {
+                assertNull(veinGen.getCachedVeinStartInChunk(world, chunkX, 0));
+                // Stored as a marker, so that the chunk isn't searched again
+                assertTrue(veinGen.veinStarts.containsKey(ChunkCoordinate.fromChunkCoords(chunkX, 0)));
+                assertNull(veinGen.getCachedVeinStartInChunk(world, chunkX, 0));
+                return;
+            }
+        }
+        throw new AssertionError("No chunk without vein start found");
+    }
+
+    @Test
+    public void testOldestEntriesAreEvicted() throws InvalidConfigException
+    {
+        VeinGen veinGen = createVeinGen();
+        LocalWorld world = createWorld(99);
+
+        // Exactly fills the cache
+        Vein[][] first = new Vein[AREA_SIZE][AREA_SIZE];
+        for (int chunkX = 0; chunkX < AREA_SIZE; chunkX++)
+        {
+            for (int chunkZ = 0; chunkZ < AREA_SIZE; chunkZ++)
+            {
+                first[chunkX][chunkZ] = veinGen.getCachedVeinStartInChunk(world, chunkX, chunkZ);
+            }
+        }
+        assertEquals(AREA_SIZE * AREA_SIZE, veinGen.veinStarts.size());
+
+        // Nothing was evicted, so the cached instances are returned
+        for (int chunkX = 0; chunkX < AREA_SIZE; chunkX++)
+        {
+            for (int chunkZ = 0; chunkZ < AREA_SIZE; chunkZ++)
+            {
+                assertSame(first[chunkX][chunkZ], veinGen.getCachedVeinStartInChunk(world, chunkX, chunkZ));
+            }
+        }
+
+        // One more row evicts the first row, as the cache is first in first out
+        for (int chunkZ = 0; chunkZ < AREA_SIZE; chunkZ++)
+        {
+            veinGen.getCachedVeinStartInChunk(world, AREA_SIZE, chunkZ);
+        }
+        assertEquals(AREA_SIZE * AREA_SIZE, veinGen.veinStarts.size());
+        for (int chunkZ = 0; chunkZ < AREA_SIZE; chunkZ++)
+        {
+            assertFalse(veinGen.veinStarts.containsKey(ChunkCoordinate.fromChunkCoords(0, chunkZ)));
+            assertTrue(veinGen.veinStarts.containsKey(ChunkCoordinate.fromChunkCoords(1, chunkZ)));
+        }
+
+        // Evicted chunks are calculated again with the same result
+        for (int chunkZ = 0; chunkZ < AREA_SIZE; chunkZ++)
+        {
+            assertEquals(veinGen.getVeinStartInChunk(world, 0, chunkZ), veinGen.getCachedVeinStartInChunk(world, 0, chunkZ));
+            assertEquals(first[0][chunkZ], veinGen.getCachedVeinStartInChunk(world, 0, chunkZ));
+        }
+        assertEquals(AREA_SIZE * AREA_SIZE, veinGen.veinStarts.size());
+    }
+
+    @Test
+    public void testCacheIsClearedForOtherSeed() throws InvalidConfigException
+    {
+        VeinGen veinGen = createVeinGen();
+        LocalWorld world = createWorld(1);
+        LocalWorld otherWorld = createWorld(2);
+        boolean differs = false;
+        for (int chunkX = 0; chunkX < AREA_SIZE; chunkX++)
+        {
+            Vein vein = veinGen.getCachedVeinStartInChunk(world, chunkX, 0);
+            Vein otherVein = veinGen.getCachedVeinStartInChunk(otherWorld, chunkX, 0);
+            assertEquals(veinGen.getVeinStartInChunk(otherWorld, chunkX, 0), otherVein);
+            differs |= vein == null ? otherVein != null : !vein.equals(otherVein);
+        }
+        assertTrue(differs);
+    }
+}
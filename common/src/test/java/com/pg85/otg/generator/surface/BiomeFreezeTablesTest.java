@@ -0,0 +1,78 @@
+package com.pg85.otg.generator.surface;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.pg85.otg.TestBiome;
+import com.pg85.otg.configuration.standard.PluginStandardValues;
+import com.pg85.otg.configuration.standard.WorldStandardValues;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class BiomeFreezeTablesTest
+{
+    private static void assertSameAsTemperature(TestBiome biome)
+    {
+        BiomeFreezeTables.FreezeTable table = new BiomeFreezeTables.FreezeTable(biome);
+        Random random = new Random(biome.getIds().getOTGBiomeId());
+        for (int i = 0; i < 20000; i++)
+        {
+            int x = random.nextInt(2000) - 1000;
+            int y = random.nextInt(PluginStandardValues.WORLD_HEIGHT + 1);
+            int z = random.nextInt(2000) - 1000;
+            float temperature = biome.getTemperatureAt(x, y, z);
+            boolean freezes = temperature < WorldStandardValues.SNOW_AND_ICE_MAX_TEMP;
+            float freezingTemperature = table.canFreeze() ? table.getFreezingTemperatureAt(x, y, z) : Float.NaN;
+            if (freezes)
+            {
+                assertEquals("Temperature at " + x + "," + y + "," + z, temperature, freezingTemperature, 0);
+            } else {
+                assertTrue("Freezes at " + x + "," + y + "," + z, Float.isNaN(freezingTemperature));
+            }
+        }
+    }
+
+    @Test
+    public void testMatchesTemperatureForAllBaseTemperatures()
+    {
+        int id = 0;
+        for (float baseTemperature = -0.5f; baseTemperature <= 2.0f; baseTemperature += 0.01f)
+        {
+            assertSameAsTemperature(new TestBiome(id++, baseTemperature, null));
+        }
+    }
+
+    @Test
+    public void testMatchesTemperatureAroundFreezingPoint()
+    {
+        float freezingPoint = WorldStandardValues.SNOW_AND_ICE_MAX_TEMP;
+        assertSameAsTemperature(new TestBiome(0, freezingPoint, null));
+        assertSameAsTemperature(new TestBiome(1, Math.nextUp(freezingPoint), null));
+        assertSameAsTemperature(new TestBiome(2, Math.nextDown(freezingPoint), null));
+    }
+
+    @Test
+    public void testWarmBiomesNeverFreeze()
+    {
+        assertFalse(new BiomeFreezeTables.FreezeTable(new TestBiome(0, 0.8f, null)).canFreeze());
+        assertFalse(new BiomeFreezeTables.FreezeTable(new TestBiome(1, 2.0f, null)).canFreeze());
+        assertTrue(new BiomeFreezeTables.FreezeTable(new TestBiome(2, 0.3f, null)).canFreeze());
+        assertTrue(new BiomeFreezeTables.FreezeTable(new TestBiome(3, 0.0f, null)).canFreeze());
+    }
+
+    @Test
+    public void testTablesAreReplacedWithBiome()
+    {
+        BiomeFreezeTables tables = new BiomeFreezeTables();
+        TestBiome biome = new TestBiome(5, 0.0f, null);
+        BiomeFreezeTables.FreezeTable table = tables.get(biome);
+        assertTrue(table == tables.get(biome));
+
+        // Reloaded configs create new biomes with the same id
+        TestBiome reloadedBiome = new TestBiome(5, 1.0f, null);
+        assertFalse(tables.get(reloadedBiome).canFreeze());
+    }
+}
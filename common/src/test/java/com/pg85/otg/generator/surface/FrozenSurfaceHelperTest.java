@@ -0,0 +1,306 @@
+package com.pg85.otg.generator.surface;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.pg85.otg.TestBiome;
+import com.pg85.otg.TestEngine;
+import com.pg85.otg.TestMaterial;
+import com.pg85.otg.common.LocalBiome;
+import com.pg85.otg.common.LocalMaterialData;
+import com.pg85.otg.common.LocalWorld;
+import com.pg85.otg.configuration.ConfigValuePool;
+import com.pg85.otg.configuration.biome.BiomeConfig;
+import com.pg85.otg.configuration.biome.BiomeLoadInstruction;
+import com.pg85.otg.configuration.io.SimpleSettingsMap;
+import com.pg85.otg.configuration.standard.StandardBiomeTemplate;
+import com.pg85.otg.configuration.world.WorldConfig;
+import com.pg85.otg.network.ConfigProvider;
+import com.pg85.otg.util.ChunkCoordinate;
+import com.pg85.otg.util.minecraft.defaults.DefaultMaterial;
+
+import java.io.File;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Random;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Compares the frozen blocks and snow layers placed by
+ * {@link FrozenSurfaceHelper} with those of the implementation before the
+ * biome freeze tables, {@link LegacyFrozenSurfaceHelper}.
+ */
+public class FrozenSurfaceHelperTest
+{
+    private static final int WORLD_SIZE = 96;
+    private static final int HEIGHT = 256;
+
+    private static WorldConfig worldConfig;
+    private static BiomeConfig biomeConfig;
+
+    @BeforeClass
+    public static void loadConfigs()
+    {
+        TestEngine.start();
+        worldConfig = new WorldConfig(new File("."), new SimpleSettingsMap("FreezeTest", true), null, null);
+        BiomeLoadInstruction loadInstruction = new BiomeLoadInstruction("FreezeTest", new StandardBiomeTemplate(worldConfig.worldHeightCap));
+        biomeConfig = new BiomeConfig(loadInstruction, null, new SimpleSettingsMap("FreezeTest", true), worldConfig, new ConfigValuePool());
+    }
+
+    /**
+     * Lays out biomes over the test world.
+     */
+    private interface BiomeLayout
+    {
+        LocalBiome getBiome(int x, int z);
+    }
+
+    /**
+     * World of {@link #WORLD_SIZE} by {@link #WORLD_SIZE} columns with
+     * mountains, lakes, lava pools and trees.
+     */
+    private static class TestWorld implements InvocationHandler
+    {
+        private final LocalMaterialData[] blocks = new LocalMaterialData[WORLD_SIZE * WORLD_SIZE * HEIGHT];
+        private final BiomeLayout biomes;
+        private final ConfigProvider configs;
+
+        TestWorld(long seed, BiomeLayout biomes)
+        {
+            this.biomes = biomes;
+            this.configs = (ConfigProvider) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { ConfigProvider.class }, new InvocationHandler()
+            {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args)
+                {
+                    if (method.getName().equals("getWorldConfig"))
+                    {
+                        return worldConfig;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                }
+            });
+
+            LocalMaterialData air = TestMaterial.of(DefaultMaterial.AIR);
+            for (int i = 0; i < this.blocks.length; i++)
+            {
+                this.blocks[i] = air;
+            }
+            Random random = new Random(seed);
+            for (int x = 0; x < WORLD_SIZE; x++)
+            {
+                for (int z = 0; z < WORLD_SIZE; z++)
+                {
+                    // Valleys below sea level up to mountains far above the
+                    // height where temperate biomes start to freeze
+                    int height = 100 + (int) (80 * Math.sin(x / 11.0) * Math.cos(z / 13.0)) + random.nextInt(3);
+                    set(x, 0, z, DefaultMaterial.BEDROCK);
+                    for (int y = 1; y < height; y++)
+                    {
+                        set(x, y, z, DefaultMaterial.STONE);
+                    }
+                    set(x, height, z, DefaultMaterial.GRASS);
+                    if (height < 64)
+                    {
+                        for (int y = height + 1; y <= 64; y++)
+                        {
+                            set(x, y, z, DefaultMaterial.STATIONARY_WATER);
+                        }
+                    }
+                    else if (random.nextInt(12) == 0)
+                    {
+                        set(x, height, z, random.nextBoolean() ? DefaultMaterial.STATIONARY_WATER : DefaultMaterial.STATIONARY_LAVA);
+                    }
+                    else if (random.nextInt(20) == 0 && height < HEIGHT - 8)
+                    {
+                        // Tree with an air gap under the leaves
+                        for (int y = height + 1; y <= height + 3; y++)
+                        {
+                            set(x, y, z, DefaultMaterial.LOG);
+                        }
+                        set(x, height + 4, z, DefaultMaterial.LEAVES);
+                        set(x, height + 6, z, DefaultMaterial.LEAVES);
+                    }
+                }
+            }
+        }
+
+        private void set(int x, int y, int z, DefaultMaterial material)
+        {
+            this.blocks[index(x, y, z)] = TestMaterial.of(material);
+        }
+
+        private static int index(int x, int y, int z)
+        {
+            return (x * WORLD_SIZE + z) * HEIGHT + y;
+        }
+
+        private static boolean isInside(int x, int y, int z)
+        {
+            return x >= 0 && x < WORLD_SIZE && z >= 0 && z < WORLD_SIZE && y >= 0 && y < HEIGHT;
+        }
+
+        LocalWorld asLocalWorld()
+        {
+            return (LocalWorld) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { LocalWorld.class }, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args)
+        {
+            String name = method.getName();
+            if (name.equals("getConfigs"))
+            {
+                return this.configs;
+            }
+            if (name.equals("getBiome"))
+            {
+                return this.biomes.getBiome((Integer) args[0], (Integer) args[1]);
+            }
+            if (name.equals("getHighestBlockYAt") && args.length == 2)
+            {
+                int x = (Integer) args[0];
+                int z = (Integer) args[1];
+                for (int y = HEIGHT - 1; y >= 0; y--)
+                {
+                    if (isInside(x, y, z) && !this.blocks[index(x, y, z)].isAir())
+                    {
+                        return y + 1;
+                    }
+                }
+                return -1;
+            }
+            if (name.equals("getMaterial") && args.length == 4)
+            {
+                int x = (Integer) args[0];
+                int y = (Integer) args[1];
+                int z = (Integer) args[2];
+                return isInside(x, y, z) ? this.blocks[index(x, y, z)] : TestMaterial.of(DefaultMaterial.AIR);
+            }
+            if (name.equals("setBlock") && args.length == 6)
+            {
+                int x = (Integer) args[0];
+                int y = (Integer) args[1];
+                int z = (Integer) args[2];
+                if (isInside(x, y, z))
+                {
+                    this.blocks[index(x, y, z)] = (LocalMaterialData) args[3];
+                }
+                return null;
+            }
+            throw new UnsupportedOperationException(name);
+        }
+    }
+
+    /**
+     * Freezes the chunks in the middle of the world with both helpers, and
+     * checks that the blocks are the same afterwards.
+     */
+    private static void assertSameOutput(BiomeLayout biomes, boolean expectChanges)
+    {
+        boolean oldBetterSnowFall = worldConfig.betterSnowFall;
+        boolean oldFullyFreezeLakes = worldConfig.fullyFreezeLakes;
+        try
+        {
+            for (int settings = 0; settings < 4; settings++)
+            {
+                worldConfig.betterSnowFall = (settings & 1) != 0;
+                worldConfig.fullyFreezeLakes = (settings & 2) != 0;
+
+                TestWorld expected = new TestWorld(settings, biomes);
+                TestWorld actual = new TestWorld(settings, biomes);
+                LocalMaterialData[] original = expected.blocks.clone();
+                LocalWorld expectedWorld = expected.asLocalWorld();
+                LocalWorld actualWorld = actual.asLocalWorld();
+                BiomeFreezeTables freezeTables = new BiomeFreezeTables();
+
+                // Chunks far enough from the border for lakes to freeze
+                for (int chunkX = 1; chunkX < WORLD_SIZE / 16 - 2; chunkX++)
+                {
+                    for (int chunkZ = 1; chunkZ < WORLD_SIZE / 16 - 2; chunkZ++)
+                    {
+                        ChunkCoordinate chunkCoord = ChunkCoordinate.fromChunkCoords(chunkX, chunkZ);
+                        new LegacyFrozenSurfaceHelper(expectedWorld).freezeChunk(chunkCoord);
+                        new FrozenSurfaceHelper(actualWorld, freezeTables).freezeChunk(chunkCoord);
+                    }
+                }
+
+                assertArrayEquals("Settings " + settings, expected.blocks, actual.blocks);
+                if (expectChanges)
+                {
+                    boolean changed = false;
+                    for (int i = 0; i < original.length && !changed; i++)
+                    {
+                        changed = original[i] != expected.blocks[i];
+                    }
+                    assertTrue("Nothing was frozen, test world is too warm", changed);
+                }
+            }
+        }
+        finally
+        {
+            worldConfig.betterSnowFall = oldBetterSnowFall;
+            worldConfig.fullyFreezeLakes = oldFullyFreezeLakes;
+        }
+    }
+
+    private static BiomeLayout singleBiome(float temperature)
+    {
+        final LocalBiome biome = new TestBiome(1, temperature, biomeConfig);
+        return new BiomeLayout()
+        {
+            @Override
+            public LocalBiome getBiome(int x, int z)
+            {
+                return biome;
+            }
+        };
+    }
+
+    @Test
+    public void testColdChunks()
+    {
+        assertSameOutput(singleBiome(0.0f), true);
+        assertSameOutput(singleBiome(-0.5f), true);
+    }
+
+    @Test
+    public void testTemperateChunks()
+    {
+        // Only freezes high up in the mountains
+        assertSameOutput(singleBiome(0.3f), true);
+        assertSameOutput(singleBiome(0.2f), true);
+    }
+
+    @Test
+    public void testWarmChunks()
+    {
+        assertSameOutput(singleBiome(0.8f), false);
+        assertSameOutput(singleBiome(2.0f), false);
+    }
+
+    @Test
+    public void testMixedChunks()
+    {
+        final LocalBiome[] biomes = {
+                new TestBiome(1, -0.5f, biomeConfig),
+                new TestBiome(2, 0.15f, biomeConfig),
+                new TestBiome(3, 0.3f, biomeConfig),
+                new TestBiome(4, 0.8f, biomeConfig),
+                null
+        };
+        assertSameOutput(new BiomeLayout()
+        {
+            @Override
+            public LocalBiome getBiome(int x, int z)
+            {
+                // Patches of different biomes, not aligned with chunks
+                int cell = ((x + 3) / 5 * 7 + (z + 1) / 6 * 3) % biomes.length;
+                return biomes[cell];
+            }
+        }, true);
+    }
+}
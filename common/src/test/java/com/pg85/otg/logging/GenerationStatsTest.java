@@ -0,0 +1,75 @@
+package com.pg85.otg.logging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.pg85.otg.OTG;
+import com.pg85.otg.TestEngine;
+
+import java.io.File;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class GenerationStatsTest
+{
+    @BeforeClass
+    public static void startEngine()
+    {
+        TestEngine.start();
+    }
+
+    @After
+    public void resetStats()
+    {
+        GenerationStats.disable();
+        GenerationStats.reset();
+        new File(OTG.getEngine().getOTGRootFolder(), GenerationStats.CSV_FILE_NAME).delete();
+    }
+
+    @Test
+    public void testNothingRecordedWhenDisabled()
+    {
+        long startTime = GenerationStats.start();
+        assertEquals(0, startTime);
+        GenerationStats.end(GenerationStage.TERRAIN, startTime);
+        assertEquals(0, GenerationStats.getHistogram(GenerationStage.TERRAIN).getCount());
+        assertTrue(GenerationStats.getSummary().isEmpty());
+    }
+
+    @Test
+    public void testRecordedWhenEnabled()
+    {
+        GenerationStats.enable(0);
+        for (int i = 0; i < 10; i++)
+        {
+            GenerationStats.end(GenerationStage.SURFACE, GenerationStats.start());
+        }
+        assertEquals(10, GenerationStats.getHistogram(GenerationStage.SURFACE).getCount());
+        assertEquals(0, GenerationStats.getHistogram(GenerationStage.TERRAIN).getCount());
+
+        List<String> summary = GenerationStats.getSummary();
+        assertEquals(1, summary.size());
+        assertTrue(summary.get(0), summary.get(0).startsWith("Surface: 10 calls"));
+    }
+
+    @Test
+    public void testDumpWithoutStats()
+    {
+        GenerationStats.enable(0);
+        assertFalse(GenerationStats.dump());
+        assertFalse(new File(OTG.getEngine().getOTGRootFolder(), GenerationStats.CSV_FILE_NAME).exists());
+    }
+
+    @Test
+    public void testDumpWritesCsv()
+    {
+        GenerationStats.enable(0);
+        GenerationStats.end(GenerationStage.CHUNK, GenerationStats.start());
+        assertTrue(GenerationStats.dump());
+        assertTrue(new File(OTG.getEngine().getOTGRootFolder(), GenerationStats.CSV_FILE_NAME).exists());
+    }
+}
@@ -0,0 +1,128 @@
+package com.pg85.otg.logging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest
+{
+    @Test
+    public void testEmpty()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMean());
+        assertEquals(0, histogram.getPercentile(0.5));
+        assertEquals(0, histogram.getPercentile(1.0));
+    }
+
+    @Test
+    public void testSmallValuesAreExact()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 16; i++)
+        {
+            histogram.record(i);
+        }
+        assertEquals(16, histogram.getCount());
+        assertEquals(120, histogram.getTotal());
+        assertEquals(15, histogram.getMax());
+        assertEquals(7, histogram.getMean());
+        assertEquals(0, histogram.getPercentile(0.0));
+        assertEquals(7, histogram.getPercentile(0.5));
+        assertEquals(15, histogram.getPercentile(1.0));
+    }
+
+    @Test
+    public void testNegativeValuesCountAsZero()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.getTotal());
+        assertEquals(0, histogram.getPercentile(1.0));
+    }
+
+    @Test
+    public void testPercentilesWithinThreePercent()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Random random = new Random(3);
+        long[] values = new long[200000];
+        for (int i = 0; i < values.length; i++)
+        {
+            // Spread over many powers of two, from nanoseconds to seconds
+            values[i] = (long) Math.exp(random.nextDouble() * 30);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double fraction : new double[] { 0.01, 0.5, 0.9, 0.99, 0.999, 1.0 })
+        {
+            long exact = values[(int) Math.ceil(fraction * values.length) - 1];
+            long estimate = histogram.getPercentile(fraction);
+            double error = Math.abs(estimate - exact) / (double) exact;
+            assertTrue("p" + fraction + ": exact " + exact + ", estimate " + estimate, error <= 0.035);
+        }
+        assertEquals(values[values.length - 1], histogram.getMax());
+    }
+
+    @Test
+    public void testPercentileNeverAboveMax()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1000001);
+        long estimate = histogram.getPercentile(1.0);
+        assertTrue(estimate <= 1000001);
+        assertTrue(estimate >= 1000001 * 0.97);
+        // The largest bucket must not overflow
+        histogram.record(Long.MAX_VALUE);
+        estimate = histogram.getPercentile(1.0);
+        assertTrue(estimate >= Long.MAX_VALUE * 0.97);
+    }
+
+    @Test
+    public void testReset()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1234);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getTotal());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(1.0));
+    }
+
+    @Test
+    public void testConcurrentRecording() throws InterruptedException
+    {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++)
+        {
+            final int threadNumber = i;
+            threads[i] = new Thread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    for (int j = 0; j < 100000; j++)
+                    {
+                        histogram.record(threadNumber * 1000 + j % 1000);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+        assertEquals(400000, histogram.getCount());
+        assertEquals(3999, histogram.getMax());
+    }
+}
@@ -0,0 +1,101 @@
+package com.pg85.otg.logging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class LoggerTest
+{
+    /**
+     * Remembers the formatted messages.
+     */
+    private static class RecordingLogger extends Logger
+    {
+        private final List<String> messages = new ArrayList<String>();
+
+        @Override
+        public void log(LogMarker level, String message, Object... params)
+        {
+            StringBuilder formatted = new StringBuilder(message);
+            for (Object param : params)
+            {
+                formatted.append('|').append(param);
+            }
+            this.messages.add(formatted.toString());
+        }
+    }
+
+    @Test
+    public void testRepeatedMessageIsLoggedOnce()
+    {
+        RecordingLogger logger = new RecordingLogger();
+        for (int i = 0; i < 100; i++)
+        {
+            logger.logRepeated(LogMarker.WARN, "Object {} not found", "Tree");
+        }
+        assertEquals(1, logger.messages.size());
+        assertEquals("Object {} not found|Tree", logger.messages.get(0));
+    }
+
+    @Test
+    public void testDifferentParamsAreLoggedSeparately()
+    {
+        RecordingLogger logger = new RecordingLogger();
+        for (int i = 0; i < 10; i++)
+        {
+            logger.logRepeated(LogMarker.WARN, "Object {} not found", "Tree" + (i % 3));
+            logger.logRepeated(LogMarker.WARN, "Biome {} not found", "Tree" + (i % 3));
+        }
+        assertEquals(6, logger.messages.size());
+    }
+
+    @Test
+    public void testDisabledLevelIsNotRemembered()
+    {
+        RecordingLogger logger = new RecordingLogger();
+        logger.setLevel(LogMarker.WARN);
+        logger.logRepeated(LogMarker.DEBUG, "Chunk {} populated", 1);
+        logger.setLevel(LogMarker.TRACE);
+        logger.logRepeated(LogMarker.DEBUG, "Chunk {} populated", 1);
+        assertEquals(1, logger.messages.size());
+    }
+
+    @Test
+    public void testDisabledLevelDoesNotAllocate()
+    {
+        java.lang.management.ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        assumeTrue(allocationBean.isThreadAllocatedMemorySupported());
+        allocationBean.setThreadAllocatedMemoryEnabled(true);
+
+        RecordingLogger logger = new RecordingLogger();
+        logger.setLevel(LogMarker.INFO);
+        // Passed as array, so that the varargs array of the call isn't counted
+        Object[] params = { "Tree", 1 };
+        long threadId = Thread.currentThread().getId();
+
+        // Warm up, so that class loading doesn't count
+        for (int i = 0; i < 10000; i++)
+        {
+            logger.logRepeated(LogMarker.DEBUG, "Object {} spawned {} times", params);
+        }
+
+        long before = allocationBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100000; i++)
+        {
+            logger.logRepeated(LogMarker.DEBUG, "Object {} spawned {} times", params);
+        }
+        long allocated = allocationBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals(0, logger.messages.size());
+        // Allow for a few bytes of bookkeeping of the allocation counter,
+        // one allocation per call would already be 1.6 MB
+        assertEquals("Bytes allocated", 0, allocated, 1024);
+    }
+}
@@ -0,0 +1,71 @@
+package com.pg85.otg.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class ChunkCoordinateTest
+{
+    private static final int[] EXTREME_VALUES = {
+            0, 1, -1, 2, -2, 1875000, -1875000, Short.MAX_VALUE, Short.MIN_VALUE,
+            Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE - 1, Integer.MIN_VALUE + 1
+    };
+
+    private static void assertRoundTrip(int chunkX, int chunkZ)
+    {
+        long key = ChunkCoordinate.toKey(chunkX, chunkZ);
+        assertEquals(chunkX, ChunkCoordinate.getChunkXFromKey(key));
+        assertEquals(chunkZ, ChunkCoordinate.getChunkZFromKey(key));
+
+        ChunkCoordinate chunkCoord = ChunkCoordinate.fromKey(key);
+        assertEquals(chunkX, chunkCoord.getChunkX());
+        assertEquals(chunkZ, chunkCoord.getChunkZ());
+        assertEquals(key, chunkCoord.toKey());
+        assertEquals(ChunkCoordinate.fromChunkCoords(chunkX, chunkZ), chunkCoord);
+    }
+
+    @Test
+    public void testExtremeCoordinatesRoundTrip()
+    {
+        for (int chunkX : EXTREME_VALUES)
+        {
+            for (int chunkZ : EXTREME_VALUES)
+            {
+                assertRoundTrip(chunkX, chunkZ);
+            }
+        }
+    }
+
+    @Test
+    public void testRandomCoordinatesRoundTrip()
+    {
+        Random random = new Random(37);
+        for (int i = 0; i < 100000; i++)
+        {
+            assertRoundTrip(random.nextInt(), random.nextInt());
+        }
+    }
+
+    @Test
+    public void testKeysAreUnique()
+    {
+        Set<Long> keys = new HashSet<Long>();
+        for (int chunkX : EXTREME_VALUES)
+        {
+            for (int chunkZ : EXTREME_VALUES)
+            {
+                keys.add(ChunkCoordinate.toKey(chunkX, chunkZ));
+            }
+        }
+        assertEquals(EXTREME_VALUES.length * EXTREME_VALUES.length, keys.size());
+
+        // A negative z must not change the x part of the key
+        assertNotEquals(ChunkCoordinate.toKey(0, -1), ChunkCoordinate.toKey(-1, -1));
+        assertEquals(0, ChunkCoordinate.getChunkXFromKey(ChunkCoordinate.toKey(0, -1)));
+    }
+}
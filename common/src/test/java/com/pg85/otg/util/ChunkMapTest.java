@@ -0,0 +1,85 @@
+package com.pg85.otg.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class ChunkMapTest
+{
+    @Test
+    public void testExtremeKeys()
+    {
+        ChunkMap<String> map = new ChunkMap<String>();
+        int[] values = { 0, -1, Integer.MIN_VALUE, Integer.MAX_VALUE };
+        for (int chunkX : values)
+        {
+            for (int chunkZ : values)
+            {
+                map.put(ChunkCoordinate.fromChunkCoords(chunkX, chunkZ), chunkX + "," + chunkZ);
+            }
+        }
+        assertEquals(16, map.size());
+        for (int chunkX : values)
+        {
+            for (int chunkZ : values)
+            {
+                assertEquals(chunkX + "," + chunkZ, map.get(ChunkCoordinate.toKey(chunkX, chunkZ)));
+            }
+        }
+        // Long.MIN_VALUE marks free slots, but is still a valid key
+        assertEquals(Integer.MIN_VALUE + ",0", map.remove(Long.MIN_VALUE));
+        assertNull(map.get(Long.MIN_VALUE));
+        assertEquals(15, map.size());
+    }
+
+    @Test
+    public void testMatchesHashMap()
+    {
+        ChunkMap<Integer> map = new ChunkMap<Integer>();
+        Map<Long, Integer> expected = new HashMap<Long, Integer>();
+        Random random = new Random(17);
+        for (int i = 0; i < 200000; i++)
+        {
+            long key = ChunkCoordinate.toKey(random.nextInt(64) - 32, random.nextInt(64) - 32);
+            if (random.nextInt(50) == 0)
+            {
+                key = Long.MIN_VALUE;
+            }
+            switch (random.nextInt(4))
+            {
+                case 0:
+                    // Null values are allowed
+                    Integer value = random.nextInt(10) == 0 ? null : i;
+                    assertEquals(expected.put(key, value), map.put(key, value));
+                    break;
+                case 1:
+                    assertEquals(expected.remove(key), map.remove(key));
+                    break;
+                case 2:
+                    assertEquals(expected.containsKey(key), map.containsKey(key));
+                    break;
+                default:
+                    assertEquals(expected.get(key), map.get(key));
+                    break;
+            }
+            assertEquals(expected.size(), map.size());
+        }
+
+        long[] keys = map.keys();
+        Arrays.sort(keys);
+        long[] expectedKeys = new long[expected.size()];
+        int i = 0;
+        for (Long key : expected.keySet())
+        {
+            expectedKeys[i++] = key;
+        }
+        Arrays.sort(expectedKeys);
+        assertEquals(Arrays.toString(expectedKeys), Arrays.toString(keys));
+    }
+}
@@ -0,0 +1,167 @@
+package com.pg85.otg.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class RecentChunkSetTest
+{
+    @Test
+    public void testAddAndContains()
+    {
+        RecentChunkSet set = new RecentChunkSet(1000);
+        assertFalse(set.contains(3, -4));
+        assertTrue(set.add(3, -4));
+        assertTrue(set.contains(3, -4));
+        assertFalse(set.contains(-4, 3));
+        assertFalse(set.add(3, -4));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    public void testExtremeCoordinates()
+    {
+        int[] values = { 0, -1, 1, Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE + 1, -1875000, 1875000 };
+        RecentChunkSet set = new RecentChunkSet(1000);
+        for (int chunkX : values)
+        {
+            for (int chunkZ : values)
+            {
+                assertTrue(chunkX + "," + chunkZ, set.add(chunkX, chunkZ));
+            }
+        }
+        assertEquals(values.length * values.length, set.size());
+        for (int chunkX : values)
+        {
+            for (int chunkZ : values)
+            {
+                assertTrue(chunkX + "," + chunkZ, set.contains(chunkX, chunkZ));
+                assertFalse(chunkX + "," + chunkZ, set.add(chunkX, chunkZ));
+            }
+        }
+    }
+
+    @Test
+    public void testSizeIsBounded()
+    {
+        RecentChunkSet set = new RecentChunkSet(256);
+        for (int chunkX = -100; chunkX < 100; chunkX++)
+        {
+            for (int chunkZ = -100; chunkZ < 100; chunkZ++)
+            {
+                set.add(chunkX, chunkZ);
+                assertTrue(set.size() <= 256);
+            }
+        }
+        assertEquals(256, set.size());
+    }
+
+    @Test
+    public void testOldestChunksAreEvictedFirst()
+    {
+        // With a single chunk per segment, every segment remembers only the
+        // chunk added to it last
+        RecentChunkSet set = new RecentChunkSet(16 * 4);
+        List<long[]> added = new ArrayList<long[]>();
+        Random random = new Random(5);
+        for (int i = 0; i < 5000; i++)
+        {
+            int chunkX = random.nextInt(2000) - 1000;
+            int chunkZ = random.nextInt(2000) - 1000;
+            if (set.add(chunkX, chunkZ))
+            {
+                added.add(new long[] { chunkX, chunkZ, RecentChunkSet.mix(ChunkCoordinate.toKey(chunkX, chunkZ)) >>> 60 });
+            }
+        }
+
+        // Walk back from the newest chunk: the four most recent chunks of
+        // every segment are remembered, all older ones are forgotten
+        int[] seenPerSegment = new int[16];
+        for (int i = added.size() - 1; i >= 0; i--)
+        {
+            long[] chunk = added.get(i);
+            int segment = (int) chunk[2];
+            boolean expected = seenPerSegment[segment] < 4;
+            seenPerSegment[segment]++;
+            assertEquals("Chunk " + i, expected, set.contains((int) chunk[0], (int) chunk[1]));
+        }
+    }
+
+    @Test
+    public void testMatchesSimpleImplementation()
+    {
+        // Per segment, the set must behave like a list of the most recent
+        // chunks, also when evictions shift keys in the hash table
+        RecentChunkSet set = new RecentChunkSet(16 * 8);
+        List<List<Long>> segments = new ArrayList<List<Long>>();
+        for (int i = 0; i < 16; i++)
+        {
+            segments.add(new ArrayList<Long>());
+        }
+        Random random = new Random(11);
+        for (int i = 0; i < 200000; i++)
+        {
+            // Small area, so that chunks are often added again
+            int chunkX = random.nextInt(40) - 20;
+            int chunkZ = random.nextInt(40) - 20;
+            long key = ChunkCoordinate.toKey(chunkX, chunkZ);
+            List<Long> segment = segments.get((int) (RecentChunkSet.mix(key) >>> 60));
+
+            if (random.nextBoolean())
+            {
+                assertEquals(segment.contains(key), set.contains(chunkX, chunkZ));
+            } else {
+                boolean isNew = !segment.contains(key);
+                assertEquals(isNew, set.add(chunkX, chunkZ));
+                if (isNew)
+                {
+                    if (segment.size() == 8)
+                    {
+                        segment.remove(0);
+                    }
+                    segment.add(key);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrentAdds() throws InterruptedException
+    {
+        final RecentChunkSet set = new RecentChunkSet(1 << 16);
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++)
+        {
+            final int threadNumber = i;
+            threads[i] = new Thread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    // Threads add the same chunks, in a different order
+                    for (int j = 0; j < 10000; j++)
+                    {
+                        int n = (j * (threadNumber * 2 + 1)) % 10000;
+                        set.add(n / 100, n % 100);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+        assertEquals(10000, set.size());
+        for (int n = 0; n < 10000; n++)
+        {
+            assertTrue(set.contains(n / 100, n % 100));
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.pg85.otg.util.materials;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.pg85.otg.TestEngine;
+import com.pg85.otg.TestMaterial;
+import com.pg85.otg.common.LocalMaterialData;
+import com.pg85.otg.exception.InvalidConfigException;
+import com.pg85.otg.util.minecraft.defaults.DefaultMaterial;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class MaterialSetTest
+{
+    @BeforeClass
+    public static void startEngine()
+    {
+        TestEngine.start();
+    }
+
+    private static MaterialSet create(String... materials) throws InvalidConfigException
+    {
+        MaterialSet set = new MaterialSet();
+        for (String material : materials)
+        {
+            set.parseAndAdd(material);
+        }
+        return set.freeze();
+    }
+
+    @Test
+    public void testWithoutBlockDataMatchesAllBlockData() throws InvalidConfigException
+    {
+        MaterialSet set = create("WOOL", "STONE");
+        for (int data = 0; data < 16; data++)
+        {
+            assertTrue(set.contains(TestMaterial.of(DefaultMaterial.WOOL, data)));
+        }
+        assertTrue(set.contains(TestMaterial.of(DefaultMaterial.STONE)));
+        assertFalse(set.contains(TestMaterial.of(DefaultMaterial.DIRT)));
+        assertFalse(set.contains(null));
+    }
+
+    @Test
+    public void testBlockDataVariants() throws InvalidConfigException
+    {
+        MaterialSet set = create("WOOL:3", "WOOL:0", "LOG:13");
+        for (int data = 0; data < 16; data++)
+        {
+            assertEquals("Wool " + data, data == 0 || data == 3, set.contains(TestMaterial.of(DefaultMaterial.WOOL, data)));
+            assertEquals("Log " + data, data == 13, set.contains(TestMaterial.of(DefaultMaterial.LOG, data)));
+        }
+        assertEquals("WOOL:3,WOOL:0,LOG:13", set.toString());
+    }
+
+    @Test
+    public void testAllMaterials() throws InvalidConfigException
+    {
+        MaterialSet set = create("All");
+        assertTrue(set.contains(TestMaterial.of(DefaultMaterial.STONE)));
+        assertTrue(set.contains(TestMaterial.of(DefaultMaterial.WATER)));
+        assertFalse(set.contains(TestMaterial.of(DefaultMaterial.AIR)));
+        assertEquals("All", set.toString());
+    }
+
+    @Test
+    public void testSolidAndNonSolidMaterials() throws InvalidConfigException
+    {
+        MaterialSet solid = create("Solid", "WATER");
+        assertTrue(solid.contains(TestMaterial.of(DefaultMaterial.STONE)));
+        assertTrue(solid.contains(TestMaterial.of(DefaultMaterial.WATER)));
+        assertFalse(solid.contains(TestMaterial.of(DefaultMaterial.LAVA)));
+        assertFalse(solid.contains(TestMaterial.of(DefaultMaterial.AIR)));
+        assertEquals("Solid,WATER", solid.toString());
+
+        MaterialSet nonSolid = create("NonSolid");
+        assertFalse(nonSolid.contains(TestMaterial.of(DefaultMaterial.STONE)));
+        assertTrue(nonSolid.contains(TestMaterial.of(DefaultMaterial.LAVA)));
+        assertTrue(nonSolid.contains(TestMaterial.of(DefaultMaterial.AIR)));
+    }
+
+    @Test
+    public void testInvalidMaterial()
+    {
+        try
+        {
+            create("NOT_A_BLOCK");
+            fail();
+        }
+        catch (InvalidConfigException e)
+        {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testFrozenSetRejectsChanges() throws InvalidConfigException
+    {
+        MaterialSet set = create("STONE");
+        assertTrue(set.isFrozen());
+        assertSame(set, set.freeze());
+        try
+        {
+            set.parseAndAdd("DIRT");
+            fail();
+        }
+        catch (IllegalStateException e)
+        {
+            // Expected
+        }
+        assertFalse(set.contains(TestMaterial.of(DefaultMaterial.DIRT)));
+    }
+
+    @Test
+    public void testRotate() throws InvalidConfigException
+    {
+        MaterialSet set = create("WOOL", "LOG:1");
+        MaterialSet rotated = set.rotate();
+        assertTrue(rotated.isFrozen());
+        assertTrue(rotated.contains(TestMaterial.of(DefaultMaterial.WOOL, 7)));
+        LocalMaterialData rotatedLog = TestMaterial.of(DefaultMaterial.LOG, 1).rotate();
+        assertTrue(rotated.contains(rotatedLog));
+        assertEquals(rotatedLog.getBlockData() == 1, rotated.contains(TestMaterial.of(DefaultMaterial.LOG, 1)));
+    }
+
+    @Test
+    public void testEquals() throws InvalidConfigException
+    {
+        assertEquals(create("STONE", "WOOL:2"), create("STONE", "WOOL:2"));
+        assertEquals(create("STONE", "WOOL:2").hashCode(), create("STONE", "WOOL:2").hashCode());
+        assertFalse(create("STONE", "WOOL:2").equals(create("STONE", "WOOL")));
+        assertFalse(create("Solid").equals(create("NonSolid")));
+    }
+
+    @Test
+    public void testConcurrentReads() throws Exception
+    {
+        final MaterialSet set = create("STONE", "WOOL:3", "LOG", "NonSolid");
+        final List<LocalMaterialData> materials = new ArrayList<LocalMaterialData>();
+        final List<Boolean> expected = new ArrayList<Boolean>();
+        for (DefaultMaterial material : DefaultMaterial.values())
+        {
+            if (material == DefaultMaterial.UNKNOWN_BLOCK)
+            {
+                continue;
+            }
+            for (int data = 0; data < 16; data++)
+            {
+                LocalMaterialData localMaterial = TestMaterial.of(material, data);
+                materials.add(localMaterial);
+                expected.add(set.contains(localMaterial));
+            }
+        }
+
+        final AtomicReference<String> failure = new AtomicReference<String>();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++)
+        {
+            threads[i] = new Thread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    for (int repeat = 0; repeat < 200; repeat++)
+                    {
+                        for (int j = 0; j < materials.size(); j++)
+                        {
+                            if (set.contains(materials.get(j)) != expected.get(j))
+                            {
+                                failure.set(materials.get(j).toString());
+                                return;
+                            }
+                        }
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+        assertEquals(null, failure.get());
+    }
+
+    @Test
+    public void testSetsArePublishedToOtherThreads() throws Exception
+    {
+        // Sets are created by one thread and read by another
+        final TestMaterial stone = TestMaterial.of(DefaultMaterial.STONE);
+        final AtomicReference<MaterialSet> shared = new AtomicReference<MaterialSet>();
+        final AtomicReference<String> failure = new AtomicReference<String>();
+        Thread reader = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                for (int i = 0; i < 10000; i++)
+                {
+                    MaterialSet set;
+                    while ((set = shared.getAndSet(null)) == null)
+                    {
+                        Thread.yield();
+                    }
+                    if (!set.contains(stone))
+                    {
+                        failure.set("Set " + i);
+                        return;
+                    }
+                }
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 10000 && failure.get() == null && reader.isAlive(); i++)
+        {
+            MaterialSet set = create("DIRT", "STONE", "WOOL:" + (i % 16));
+            while (!shared.compareAndSet(null, set) && reader.isAlive())
+            {
+                Thread.yield();
+            }
+        }
+        reader.join();
+        assertEquals(null, failure.get());
+    }
+}
@@ -69,6 +69,12 @@ public class BukkitBiome implements LocalBiome
         return this.biomeBase.a(new BlockPosition(x, y, z));
     }
 
+    @Override
+    public float getBaseTemperature()
+    {
+        return this.biomeBase.getTemperature();
+    }
+
     @Override
     public BiomeConfig getBiomeConfig()
     {
@@ -21,7 +21,7 @@ final class BukkitLogger extends Logger
     @Override
     public void log(LogMarker level, String message, Object... params)
     {
-        if (minimumLevel.compareTo(level) < 0)
+        if (!canLog(level))
         {
             // Only log messages that we want to see...
             return;
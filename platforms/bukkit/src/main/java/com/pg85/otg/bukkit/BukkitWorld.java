@@ -13,10 +13,12 @@ import com.pg85.otg.common.BiomeIds;
 import com.pg85.otg.common.LocalBiome;
 import com.pg85.otg.common.LocalMaterialData;
 import com.pg85.otg.common.LocalWorld;
+import com.pg85.otg.common.PopulationRegion;
 import com.pg85.otg.common.WorldSession;
 import com.pg85.otg.configuration.biome.BiomeConfig;
 import com.pg85.otg.configuration.biome.BiomeLoadInstruction;
 import com.pg85.otg.configuration.biome.BiomeConfigFinder.BiomeConfigStub;
+import com.pg85.otg.configuration.biome.settings.ReplacedBlocksMatrix;
 import com.pg85.otg.configuration.standard.PluginStandardValues;
 import com.pg85.otg.configuration.world.WorldConfig;
 import com.pg85.otg.customobjects.SpawnableObject;
@@ -169,6 +171,10 @@ public class BukkitWorld implements LocalWorld
     private Chunk[] chunkCache;
 	private BukkitWorldSession worldSession;
 
+    // Block batching, see startBlockBatch()
+    private int blockBatchDepth = 0;
+    private final Set<BlockPosition> batchedLightUpdates = new LinkedHashSet<BlockPosition>();
+
     BukkitWorld(String _name)
     {
         this.name = _name;
@@ -466,6 +472,13 @@ public class BukkitWorld implements LocalWorld
         }
         this.chunkCache = null;
     }
+
+    @Override
+    public PopulationRegion getPopulationRegion(ChunkCoordinate chunkCoord)
+    {
+        // The four chunks are already cached by startPopulation
+        return new PopulationRegion(this, chunkCoord);
+    }
     
     // Biomes
     
@@ -765,25 +778,55 @@ public class BukkitWorld implements LocalWorld
         int worldStartX = rawChunk.locX * 16;
         int worldStartZ = rawChunk.locZ * 16;
 
+        // Look up the replace settings once per column instead of once per
+        // column per section, and find the height range they apply to.
+        LocalMaterialData[][][] replaceArrays = new LocalMaterialData[ChunkCoordinate.CHUNK_X_SIZE * ChunkCoordinate.CHUNK_Z_SIZE][][];
+        int minReplacedHeight = Integer.MAX_VALUE;
+        int maxReplacedHeight = Integer.MIN_VALUE;
+        for (int sectionX = startXInChunk; sectionX < endXInChunk; sectionX++)
+        {
+            for (int sectionZ = startZInChunk; sectionZ < endZInChunk; sectionZ++)
+            {
+                LocalBiome biome = this.getBiome(worldStartX + sectionX, worldStartZ + sectionZ);
+                if (biome != null && biome.getBiomeConfig().replacedBlocks.hasReplaceSettings())
+                {
+                    ReplacedBlocksMatrix replacedBlocks = biome.getBiomeConfig().replacedBlocks;
+                    replaceArrays[sectionX * ChunkCoordinate.CHUNK_Z_SIZE + sectionZ] = replacedBlocks.compiledInstructions;
+                    minReplacedHeight = Math.min(minReplacedHeight, replacedBlocks.minReplacedHeight);
+                    maxReplacedHeight = Math.max(maxReplacedHeight, replacedBlocks.maxReplacedHeight);
+                }
+            }
+        }
+        if (minReplacedHeight > maxReplacedHeight)
+            return; // No biome in this chunk replaces blocks
+
         ChunkSection[] sectionsArray = rawChunk.getSections();
 
+        IBlockData lastBlock = null;
+        int blockId = 0;
         for (ChunkSection section : sectionsArray)
         {
-            if (section == null)
+            // Skip sections outside the height range of the replace settings
+            if (section == null || section.getYPosition() > maxReplacedHeight || section.getYPosition() + 15 < minReplacedHeight)
                 continue;
 
             for (int sectionX = startXInChunk; sectionX < endXInChunk; sectionX++)
             {
                 for (int sectionZ = startZInChunk; sectionZ < endZInChunk; sectionZ++)
                 {
-                    LocalBiome biome = this.getBiome(worldStartX + sectionX, worldStartZ + sectionZ);
-                    if (biome != null && biome.getBiomeConfig().replacedBlocks.hasReplaceSettings())
+                    LocalMaterialData[][] replaceArray = replaceArrays[sectionX * ChunkCoordinate.CHUNK_Z_SIZE + sectionZ];
+                    if (replaceArray != null)
                     {
-                        LocalMaterialData[][] replaceArray = biome.getBiomeConfig().replacedBlocks.compiledInstructions;
                         for (int sectionY = 0; sectionY < 16; sectionY++)
                         {
                             IBlockData block = section.getType(sectionX, sectionY, sectionZ);
-                            int blockId = Block.getId(block.getBlock());
+                            // Most blocks are the same as the one before them,
+                            // only look up the id when the block changes.
+                            if (block != lastBlock)
+                            {
+                                lastBlock = block;
+                                blockId = Block.getId(block.getBlock());
+                            }
                             if (replaceArray[blockId] == null)
                                 continue;
 
@@ -1750,7 +1793,12 @@ public class BukkitWorld implements LocalWorld
 
             if (blockData.c() != oldBlockData.c() || blockData.d() != oldBlockData.d())
             {
-                if (isSafeForLightUpdates(chunk, x, z))
+                if (this.blockBatchDepth > 0)
+                {
+                    // Relight when the batch ends
+                    this.batchedLightUpdates.add(blockPos);
+                }
+                else if (isSafeForLightUpdates(chunk, x, z))
                 {
                     // Relight
                     world.methodProfiler.a("checkLight");
@@ -1779,6 +1827,34 @@ public class BukkitWorld implements LocalWorld
         }
     }    
     
+    @Override
+    public void startBlockBatch()
+    {
+        this.blockBatchDepth++;
+    }
+
+    @Override
+    public void endBlockBatch()
+    {
+        if (this.blockBatchDepth == 0 || --this.blockBatchDepth > 0)
+        {
+            return;
+        }
+
+        // Blocks that were changed multiple times only need one light update
+        world.methodProfiler.a("checkLight");
+        for (BlockPosition blockPos : this.batchedLightUpdates)
+        {
+            Chunk chunk = this.getChunk(blockPos.getX(), blockPos.getY(), blockPos.getZ());
+            if (chunk != null && isSafeForLightUpdates(chunk, blockPos.getX(), blockPos.getZ()))
+            {
+                world.w(blockPos);
+            }
+        }
+        world.methodProfiler.b();
+        this.batchedLightUpdates.clear();
+    }
+
     private void attachMetadata(int x, int y, int z, NamedBinaryTag tag)
     {
         // Convert NamedBinaryTag to a native nms tag
@@ -9,7 +9,9 @@ public enum OTGPerm
     CMD_LIST("cmd.list"),
     CMD_MAP("cmd.map"),
     CMD_RELOAD("cmd.reload"),
-    CMD_SPAWN("cmd.spawn");
+    CMD_SPAWN("cmd.spawn"),
+    CMD_STATS("cmd.stats"),
+    CMD_FINGERPRINT("cmd.fingerprint");
 
     public final String node;
 
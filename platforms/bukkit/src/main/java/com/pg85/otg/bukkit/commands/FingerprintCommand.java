@@ -0,0 +1,99 @@
+package com.pg85.otg.bukkit.commands;
+
+import com.pg85.otg.bukkit.OTGPerm;
+import com.pg85.otg.bukkit.OTGPlugin;
+import com.pg85.otg.common.LocalWorld;
+import com.pg85.otg.generator.FingerprintGenerator;
+import com.pg85.otg.generator.GenerationFingerprint;
+import com.pg85.otg.util.ChunkCoordinate;
+import org.bukkit.Location;
+import org.bukkit.command.CommandSender;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+public class FingerprintCommand extends BaseCommand
+{
+    FingerprintCommand(OTGPlugin _plugin)
+    {
+        super(_plugin);
+        name = "fingerprint";
+        perm = OTGPerm.CMD_FINGERPRINT.node;
+        usage = "fingerprint [start | stop | save <name> | generate <name> <size> [world] | diff <expectedName> <actualName>]";
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, List<String> args)
+    {
+        String action = args.isEmpty() ? "" : args.get(0).toLowerCase();
+        if (action.equals("start"))
+        {
+            GenerationFingerprint.start();
+            sender.sendMessage(MESSAGE_COLOR + "Recording generation fingerprints. Generate an area, then use " + VALUE_COLOR + "/otg fingerprint save <name>" + MESSAGE_COLOR + ".");
+        }
+        else if (action.equals("stop"))
+        {
+            GenerationFingerprint.stop();
+            sender.sendMessage(MESSAGE_COLOR + "Stopped recording generation fingerprints.");
+        }
+        else if (action.equals("save") && args.size() > 1)
+        {
+            File file = GenerationFingerprint.getFile(args.get(1));
+            try
+            {
+                GenerationFingerprint.write(file);
+                sender.sendMessage(MESSAGE_COLOR + "Saved fingerprints of " + VALUE_COLOR + GenerationFingerprint.getChunkCount() + MESSAGE_COLOR + " chunks to " + VALUE_COLOR + file.getAbsolutePath());
+            } catch (IOException e)
+            {
+                sender.sendMessage(ERROR_COLOR + "Could not save fingerprints: " + e.getMessage());
+            }
+        }
+        else if (action.equals("generate") && args.size() > 2)
+        {
+            LocalWorld world = getWorld(sender, args.size() > 3 ? args.get(3) : "");
+            if (world == null)
+            {
+                sender.sendMessage(ERROR_COLOR + "World not found. Either you are not in a world with Open Terrain Generator, or you are the console.");
+                return true;
+            }
+            try
+            {
+                // Area of size by size chunks around the sender
+                int size = Integer.parseInt(args.get(2));
+                Location location = getLocation(sender);
+                ChunkCoordinate centerChunk = location == null ? ChunkCoordinate.fromChunkCoords(0, 0) : ChunkCoordinate.fromBlockCoords(location.getBlockX(), location.getBlockZ());
+                ChunkCoordinate fromChunk = ChunkCoordinate.fromChunkCoords(centerChunk.getChunkX() - size / 2, centerChunk.getChunkZ() - size / 2);
+                Map<ChunkCoordinate, long[]> hashes = FingerprintGenerator.generate(world, fromChunk, size);
+                File file = GenerationFingerprint.getFile(args.get(1));
+                GenerationFingerprint.write(hashes, file);
+                sender.sendMessage(MESSAGE_COLOR + "Saved fingerprints of " + VALUE_COLOR + hashes.size() + MESSAGE_COLOR + " chunks to " + VALUE_COLOR + file.getAbsolutePath());
+            } catch (NumberFormatException e)
+            {
+                sender.sendMessage(ERROR_COLOR + "Invalid size: " + args.get(2));
+            } catch (IOException e)
+            {
+                sender.sendMessage(ERROR_COLOR + "Could not save fingerprints: " + e.getMessage());
+            }
+        }
+        else if (action.equals("diff") && args.size() > 2)
+        {
+            try
+            {
+                for (String line : GenerationFingerprint.diff(GenerationFingerprint.getFile(args.get(1)), GenerationFingerprint.getFile(args.get(2))))
+                {
+                    sender.sendMessage(VALUE_COLOR + line);
+                }
+            } catch (IOException e)
+            {
+                sender.sendMessage(ERROR_COLOR + "Could not compare fingerprints: " + e.getMessage());
+            }
+        } else
+        {
+            sender.sendMessage(MESSAGE_COLOR + "Generation fingerprints are " + (GenerationFingerprint.isEnabled() ? "being recorded" : "not being recorded") + ", " + VALUE_COLOR + GenerationFingerprint.getChunkCount() + MESSAGE_COLOR + " chunks recorded.");
+            sender.sendMessage(MESSAGE_COLOR + "Usage: " + VALUE_COLOR + "/otg " + usage);
+        }
+        return true;
+    }
+}
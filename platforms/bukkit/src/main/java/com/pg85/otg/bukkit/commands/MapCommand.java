@@ -3,6 +3,9 @@ package com.pg85.otg.bukkit.commands;
 import com.pg85.otg.bukkit.OTGPerm;
 import com.pg85.otg.bukkit.OTGPlugin;
 import com.pg85.otg.bukkit.commands.runnable.MapWriter;
+import com.pg85.otg.bukkit.commands.runnable.TiledMapWriter;
+import com.pg85.otg.bukkit.util.WorldHelper;
+import com.pg85.otg.common.LocalWorld;
 import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.ConsoleCommandSender;
@@ -18,7 +21,7 @@ public class MapCommand extends BaseCommand
         super(_plugin);
         name = "map";
         perm = OTGPerm.CMD_MAP.node;
-        usage = "map [World] [-s size] [-r rotate_angle] [-o offsetX offsetZ] [-l (add coordinate label to filename)]";
+        usage = "map [World] [-s size] [-r rotate_angle] [-o offsetX offsetZ] [-l (add coordinate label to filename)] [-z zoomLevels (write tiles)] [-t threads]";
     }
 
     @Override
@@ -30,6 +33,8 @@ public class MapCommand extends BaseCommand
         int offsetZ = 0;
         MapWriter.Angle angle = MapWriter.Angle.d0;
         String label = "";
+        int zoomLevels = 0;
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
 
         if (!args.isEmpty() && !args.get(0).startsWith("-"))
         {
@@ -105,6 +110,39 @@ public class MapCommand extends BaseCommand
             {
                 label = "[" + offsetX + "_" + offsetZ + "]";
             }
+            if (args.get(i).equals("-z"))
+            {
+                try
+                {
+                    zoomLevels = Integer.parseInt(args.get(i + 1));
+                } catch (Exception e)
+                {
+                    sender.sendMessage(ERROR_COLOR + "Wrong zoom levels " + args.get(i + 1));
+                }
+            }
+            if (args.get(i).equals("-t"))
+            {
+                try
+                {
+                    threads = Integer.parseInt(args.get(i + 1));
+                } catch (Exception e)
+                {
+                    sender.sendMessage(ERROR_COLOR + "Wrong thread count " + args.get(i + 1));
+                }
+            }
+        }
+
+        if (zoomLevels > 0)
+        {
+            LocalWorld localWorld = WorldHelper.toLocalWorld(world.getHandle());
+            if (localWorld == null)
+            {
+                sender.sendMessage(ERROR_COLOR + "Tiled maps are only available for OpenTerrainGenerator worlds");
+                return true;
+            }
+            TiledMapWriter tiledMap = new TiledMapWriter(localWorld, size * 16, zoomLevels, threads, sender, offsetX, offsetZ);
+            this.plugin.getServer().getScheduler().runTaskAsynchronously(this.plugin, tiledMap);
+            return true;
         }
 
 
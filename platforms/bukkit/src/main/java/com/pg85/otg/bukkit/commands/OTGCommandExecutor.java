@@ -52,6 +52,8 @@ public class OTGCommandExecutor implements CommandExecutor
         this.addCommand(new BiomeCommand(plugin));
         this.addCommand(new SpawnCommand(plugin));
         this.addCommand(new MapCommand(plugin));
+        this.addCommand(new StatsCommand(plugin));
+        this.addCommand(new FingerprintCommand(plugin));
         this.addCommand(this.helpCommand);
     }
 
@@ -0,0 +1,73 @@
+package com.pg85.otg.bukkit.commands;
+
+import com.pg85.otg.bukkit.OTGPerm;
+import com.pg85.otg.bukkit.OTGPlugin;
+import com.pg85.otg.logging.GenerationStats;
+import org.bukkit.command.CommandSender;
+
+import java.util.List;
+
+public class StatsCommand extends BaseCommand
+{
+    StatsCommand(OTGPlugin _plugin)
+    {
+        super(_plugin);
+        name = "stats";
+        perm = OTGPerm.CMD_STATS.node;
+        usage = "stats [on [dumpIntervalMinutes] | off | reset | dump]";
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, List<String> args)
+    {
+        String action = args.isEmpty() ? "" : args.get(0).toLowerCase();
+        if (action.equals("on"))
+        {
+            int dumpInterval = 5;
+            if (args.size() > 1)
+            {
+                try
+                {
+                    dumpInterval = Integer.parseInt(args.get(1));
+                } catch (NumberFormatException e)
+                {
+                    sender.sendMessage(ERROR_COLOR + "Expected a number: " + e.getMessage());
+                    return true;
+                }
+            }
+            GenerationStats.enable(dumpInterval);
+            sender.sendMessage(MESSAGE_COLOR + "Generation stats enabled" + (dumpInterval > 0 ? ", writing them to the log and " + VALUE_COLOR + GenerationStats.CSV_FILE_NAME + MESSAGE_COLOR + " every " + VALUE_COLOR + dumpInterval + MESSAGE_COLOR + " minutes." : "."));
+        }
+        else if (action.equals("off"))
+        {
+            GenerationStats.disable();
+            sender.sendMessage(MESSAGE_COLOR + "Generation stats disabled.");
+        }
+        else if (action.equals("reset"))
+        {
+            GenerationStats.reset();
+            sender.sendMessage(MESSAGE_COLOR + "Generation stats reset.");
+        }
+        else if (action.equals("dump"))
+        {
+            if (GenerationStats.dump())
+            {
+                sender.sendMessage(MESSAGE_COLOR + "Generation stats written to the log and " + VALUE_COLOR + GenerationStats.CSV_FILE_NAME + MESSAGE_COLOR + ".");
+            } else
+            {
+                sender.sendMessage(MESSAGE_COLOR + "No stats recorded, nothing was written.");
+            }
+        } else
+        {
+            if (!GenerationStats.isEnabled())
+            {
+                sender.sendMessage(MESSAGE_COLOR + "Stats are disabled, use " + VALUE_COLOR + "/otg stats on" + MESSAGE_COLOR + " to enable them.");
+            }
+            for (String line : GenerationStats.getSummary())
+            {
+                sender.sendMessage(VALUE_COLOR + line);
+            }
+        }
+        return true;
+    }
+}
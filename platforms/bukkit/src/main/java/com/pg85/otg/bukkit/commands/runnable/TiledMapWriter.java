@@ -0,0 +1,86 @@
+package com.pg85.otg.bukkit.commands.runnable;
+
+import com.pg85.otg.OTG;
+import com.pg85.otg.bukkit.commands.BaseCommand;
+import com.pg85.otg.common.LocalWorld;
+import com.pg85.otg.generator.biome.BiomeMapExporter;
+import com.pg85.otg.logging.LogMarker;
+import org.bukkit.command.CommandSender;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Writes the biome and temperature maps as PNG tiles using the
+ * {@link BiomeMapExporter}. Unlike {@link MapWriter}, this can run
+ * asynchronously and can handle very large areas.
+ */
+public class TiledMapWriter implements Runnable
+{
+    private LocalWorld world;
+    private int size;
+    private int zoomLevels;
+    private int threads;
+    private CommandSender sender;
+    private int offsetX;
+    private int offsetZ;
+
+    public TiledMapWriter(LocalWorld _world, int _size, int _zoomLevels, int _threads, CommandSender _sender, int _offsetX, int _offsetZ)
+    {
+        this.world = _world;
+        this.size = _size;
+        this.zoomLevels = _zoomLevels;
+        this.threads = _threads;
+        this.sender = _sender;
+        this.offsetX = _offsetX;
+        this.offsetZ = _offsetZ;
+    }
+
+    @Override
+    public void run()
+    {
+        if (!BiomeMapExporter.canExport(world))
+        {
+            sender.sendMessage(BaseCommand.ERROR_COLOR + "Maps can't be exported for worlds that use the vanilla biome generator");
+            return;
+        }
+
+        File outputDir = BiomeMapExporter.getDefaultOutputDir(world);
+        BiomeMapExporter exporter = new BiomeMapExporter(world, outputDir, offsetX, offsetZ, size, zoomLevels, threads);
+
+        sender.sendMessage(BaseCommand.MESSAGE_COLOR + "Generating map...");
+
+        try
+        {
+            boolean started = exporter.export(new BiomeMapExporter.ProgressListener()
+            {
+                private long time = System.currentTimeMillis();
+
+                @Override
+                public synchronized void onProgress(int tilesDone, int tilesTotal)
+                {
+                    long time2 = System.currentTimeMillis();
+                    if (time2 > time + 2000L)
+                    {
+                        sender.sendMessage(BaseCommand.MESSAGE_COLOR + (tilesDone * 100L / tilesTotal) + "%");
+                        time = time2;
+                    }
+                }
+            });
+
+            if (started)
+            {
+                sender.sendMessage(BaseCommand.MESSAGE_COLOR + "Done, map written to " + outputDir.getAbsolutePath());
+            } else
+            {
+                sender.sendMessage(BaseCommand.ERROR_COLOR + "Another instance of map writer is running");
+            }
+        }
+        catch (IOException e)
+        {
+            sender.sendMessage(BaseCommand.ERROR_COLOR + "Exception while writing images: " + e.getLocalizedMessage());
+            OTG.log(LogMarker.ERROR, "Failed to write image.");
+            OTG.printStackTrace(LogMarker.ERROR, e);
+        }
+    }
+}
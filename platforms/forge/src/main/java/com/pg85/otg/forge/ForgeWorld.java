@@ -5,10 +5,12 @@ import com.pg85.otg.common.BiomeIds;
 import com.pg85.otg.common.LocalBiome;
 import com.pg85.otg.common.LocalMaterialData;
 import com.pg85.otg.common.LocalWorld;
+import com.pg85.otg.common.PopulationRegion;
 import com.pg85.otg.common.WorldSession;
 import com.pg85.otg.configuration.biome.BiomeConfig;
 import com.pg85.otg.configuration.biome.BiomeLoadInstruction;
 import com.pg85.otg.configuration.biome.BiomeConfigFinder.BiomeConfigStub;
+import com.pg85.otg.configuration.biome.settings.ReplacedBlocksMatrix;
 import com.pg85.otg.configuration.dimensions.DimensionConfig;
 import com.pg85.otg.configuration.standard.PluginStandardValues;
 import com.pg85.otg.configuration.world.WorldConfig;
@@ -20,6 +22,7 @@ import com.pg85.otg.forge.biomes.ForgeBiome;
 import com.pg85.otg.forge.biomes.ForgeBiomeRegistryManager;
 import com.pg85.otg.forge.dimensions.OTGDimensionManager;
 import com.pg85.otg.forge.generator.ForgeChunkBuffer;
+import com.pg85.otg.forge.generator.ForgePopulationRegion;
 import com.pg85.otg.forge.generator.OTGChunkGenerator;
 import com.pg85.otg.forge.generator.structure.*;
 import com.pg85.otg.forge.util.ForgeMaterialData;
@@ -33,6 +36,8 @@ import com.pg85.otg.generator.ObjectSpawner;
 import com.pg85.otg.generator.biome.BiomeGenerator;
 import com.pg85.otg.generator.terrain.CavesGen;
 import com.pg85.otg.generator.terrain.TerrainGenBase;
+import com.pg85.otg.logging.GenerationStage;
+import com.pg85.otg.logging.GenerationStats;
 import com.pg85.otg.logging.LogMarker;
 import com.pg85.otg.network.ClientConfigProvider;
 import com.pg85.otg.network.ConfigProvider;
@@ -69,6 +74,7 @@ import net.minecraft.world.WorldEntitySpawner;
 import net.minecraft.world.WorldServer;
 import net.minecraft.world.biome.Biome;
 import net.minecraft.world.biome.Biome.SpawnListEntry;
+import net.minecraft.world.chunk.BlockStateContainer;
 import net.minecraft.world.chunk.Chunk;
 import net.minecraft.world.chunk.ChunkPrimer;
 import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
@@ -341,6 +347,12 @@ public class ForgeWorld implements LocalWorld
     {
     	// TODO: Only used for Spigot, remove?
     }
+
+    @Override
+    public PopulationRegion getPopulationRegion(ChunkCoordinate chunkCoord)
+    {
+        return new ForgePopulationRegion(this, chunkCoord);
+    }
     
     // World session
     
@@ -654,6 +666,18 @@ public class ForgeWorld implements LocalWorld
     	this.getChunkGenerator().setBlock(x, y, z, material, metaDataTag, allowOutsidePopulatingArea);
     }
 
+    @Override
+    public void startBlockBatch()
+    {
+    	this.getChunkGenerator().startBlockBatch();
+    }
+
+    @Override
+    public void endBlockBatch()
+    {
+    	this.getChunkGenerator().endBlockBatch();
+    }
+
     @Override
     public NamedBinaryTag getMetadata(int x, int y, int z)
     {
@@ -940,10 +964,12 @@ public class ForgeWorld implements LocalWorld
             return;
         }
 
+    	long startTime = GenerationStats.start();
     	replaceBlocks(this.getChunk(chunkCoord.getBlockX() + 16, chunkCoord.getBlockZ() + 16, false), 0, 0, 16);
     	replaceBlocks(this.getChunk(chunkCoord.getBlockX(), chunkCoord.getBlockZ() + 16, false), 0, 0, 16);
     	replaceBlocks(this.getChunk(chunkCoord.getBlockX() + 16, chunkCoord.getBlockZ(), false), 0, 0, 16);
     	replaceBlocks(this.getChunk(chunkCoord.getBlockX(), chunkCoord.getBlockZ(), false), 0, 0, 16);
+    	GenerationStats.end(GenerationStage.REPLACE_BLOCKS, startTime);
     }
 
     private void replaceBlocks(Chunk rawChunk, int startXInChunk, int startZInChunk, int size)
@@ -953,34 +979,69 @@ public class ForgeWorld implements LocalWorld
         int worldStartX = rawChunk.x * 16;
         int worldStartZ = rawChunk.z * 16;
 
+        // Look up the replace settings once per column instead of once per
+        // column per section, and find the height range they apply to.
+        LocalMaterialData[][][] replaceArrays = new LocalMaterialData[ChunkCoordinate.CHUNK_X_SIZE * ChunkCoordinate.CHUNK_Z_SIZE][][];
+        int minReplacedHeight = Integer.MAX_VALUE;
+        int maxReplacedHeight = Integer.MIN_VALUE;
+        LocalBiome biome;
+        ReplacedBlocksMatrix replacedBlocks;
+        for (int sectionX = startXInChunk; sectionX < endXInChunk; sectionX++)
+        {
+            for (int sectionZ = startZInChunk; sectionZ < endZInChunk; sectionZ++)
+            {
+                biome = this.getBiome(worldStartX + sectionX, worldStartZ + sectionZ);
+                if (biome != null && biome.getBiomeConfig().replacedBlocks.hasReplaceSettings())
+                {
+                    replacedBlocks = biome.getBiomeConfig().replacedBlocks;
+                    replaceArrays[sectionX * ChunkCoordinate.CHUNK_Z_SIZE + sectionZ] = replacedBlocks.compiledInstructions;
+                    minReplacedHeight = Math.min(minReplacedHeight, replacedBlocks.minReplacedHeight);
+                    maxReplacedHeight = Math.max(maxReplacedHeight, replacedBlocks.maxReplacedHeight);
+                }
+            }
+        }
+        if (minReplacedHeight > maxReplacedHeight)
+        {
+            // No biome in this chunk replaces blocks
+            return;
+        }
+
         ExtendedBlockStorage[] sectionsArray = rawChunk.getBlockStorageArray();
 
         IBlockState block;
-        int blockId;
+        IBlockState lastBlock = null;
+        int blockId = 0;
         int y;
         ForgeMaterialData replaceTo;
-        LocalBiome biome;
         LocalMaterialData[][] replaceArray;
-        
+        BlockStateContainer data;
+
         for (ExtendedBlockStorage section : sectionsArray)
         {
-            if (section == null)
+            // Skip sections outside the height range of the replace settings
+            if (section == null || section.getYLocation() > maxReplacedHeight || section.getYLocation() + 15 < minReplacedHeight)
             {
                 continue;
             }
 
+            data = section.getData();
             for (int sectionX = startXInChunk; sectionX < endXInChunk; sectionX++)
             {
                 for (int sectionZ = startZInChunk; sectionZ < endZInChunk; sectionZ++)
                 {
-                    biome = this.getBiome(worldStartX + sectionX, worldStartZ + sectionZ);
-                    if (biome != null && biome.getBiomeConfig().replacedBlocks.hasReplaceSettings())
+                    replaceArray = replaceArrays[sectionX * ChunkCoordinate.CHUNK_Z_SIZE + sectionZ];
+                    if (replaceArray != null)
                     {
-                        replaceArray = biome.getBiomeConfig().replacedBlocks.compiledInstructions;
                         for (int sectionY = 0; sectionY < 16; sectionY++)
                         {
-                            block = section.getData().get(sectionX, sectionY, sectionZ);
-                            blockId = Block.getIdFromBlock(block.getBlock());
+                            block = data.get(sectionX, sectionY, sectionZ);
+                            // Most blocks are the same as the one before them,
+                            // only look up the id when the block changes.
+                            if (block != lastBlock)
+                            {
+                                lastBlock = block;
+                                blockId = Block.getIdFromBlock(block.getBlock());
+                            }
                             if (replaceArray[blockId] == null)
                             {
                                 continue;
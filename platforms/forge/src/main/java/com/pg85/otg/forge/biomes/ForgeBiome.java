@@ -62,6 +62,12 @@ public class ForgeBiome implements LocalBiome
         return this.biomeBase.getTemperature(new BlockPos(x, y, z));
     }
 
+    @Override
+    public float getBaseTemperature()
+    {
+        return this.biomeBase.getDefaultTemperature();
+    }
+
     @Override
     public BiomeConfig getBiomeConfig()
     {
@@ -0,0 +1,199 @@
+package com.pg85.otg.forge.events.server;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import com.pg85.otg.customobjects.bofunctions.SpawnerFunction;
+import com.pg85.otg.util.ChunkCoordinate;
+
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.math.MathHelper;
+
+/**
+ * Keeps track of the chunks of a world where OTG mobs and particles can
+ * spawn, the 15x15 chunk area around each player. The set is only updated
+ * for players that moved to another chunk, instead of being rebuilt every
+ * spawning cycle.
+ *
+ * <p>
+ * Also remembers per chunk when its spawners are due next, so that chunks
+ * without due spawners can be skipped without checking their distance to
+ * the players.
+ */
+class ActiveChunkTracker
+{
+    private static final int RADIUS = 7;
+
+    private final Map<EntityPlayer, ChunkCoordinate> playerChunks = new HashMap<EntityPlayer, ChunkCoordinate>();
+    // Amount of players near each active chunk
+    private final Map<ChunkCoordinate, int[]> activeChunks = new HashMap<ChunkCoordinate, int[]>();
+    private final Set<ChunkCoordinate> activeChunksView = Collections.unmodifiableSet(this.activeChunks.keySet());
+
+    private final Map<ChunkCoordinate, SpawnerSchedule> spawnerSchedules = new HashMap<ChunkCoordinate, SpawnerSchedule>();
+    private final List<ChunkCoordinate> checkedSpawnerChunks = new ArrayList<ChunkCoordinate>();
+
+    /**
+     * Updates the active chunks for the current positions of the players.
+     * @param players All players in the world.
+     */
+    void update(List<EntityPlayer> players)
+    {
+        Set<EntityPlayer> currentPlayers = new HashSet<EntityPlayer>(players);
+        Iterator<Entry<EntityPlayer, ChunkCoordinate>> it = this.playerChunks.entrySet().iterator();
+        while (it.hasNext())
+        {
+            Entry<EntityPlayer, ChunkCoordinate> entry = it.next();
+            if (!currentPlayers.contains(entry.getKey()))
+            {
+                // Player left the world
+                moveArea(entry.getValue(), null);
+                it.remove();
+            }
+        }
+
+        for (EntityPlayer player : players)
+        {
+            ChunkCoordinate playerChunk = ChunkCoordinate.fromChunkCoords(MathHelper.floor(player.posX / 16.0D), MathHelper.floor(player.posZ / 16.0D));
+            ChunkCoordinate previousChunk = this.playerChunks.put(player, playerChunk);
+            if (!playerChunk.equals(previousChunk))
+            {
+                moveArea(previousChunk, playerChunk);
+            }
+        }
+    }
+
+    /**
+     * Gets all chunks close enough to a player to spawn mobs and particles.
+     */
+    Set<ChunkCoordinate> getActiveChunks()
+    {
+        return this.activeChunksView;
+    }
+
+    /**
+     * Gets whether any of the spawners in the chunk can be due this second.
+     * Chunks for which this returns true are rescheduled by
+     * {@link #scheduleSpawners(int)} after the spawners have been processed.
+     * @param chunkCoord The chunk.
+     * @param spawners   The spawners in the chunk.
+     * @param currentTimeInSeconds The current time.
+     */
+    boolean hasDueSpawners(ChunkCoordinate chunkCoord, List<SpawnerFunction<?>> spawners, int currentTimeInSeconds)
+    {
+        SpawnerSchedule schedule = this.spawnerSchedules.get(chunkCoord);
+        // The spawner lists of a structure are replaced when spawners are added,
+        // so a different list means the schedule is outdated.
+        if (schedule != null && schedule.spawners == spawners && currentTimeInSeconds < schedule.nextDue)
+        {
+            return false;
+        }
+        this.spawnerSchedules.put(chunkCoord, new SpawnerSchedule(spawners));
+        this.checkedSpawnerChunks.add(chunkCoord);
+        return true;
+    }
+
+    /**
+     * Calculates when the spawners of the chunks that were checked this
+     * second are due next. Call this after the spawners have been processed,
+     * spawning changes the interval offsets.
+     */
+    void scheduleSpawners(int currentTimeInSeconds)
+    {
+        for (ChunkCoordinate chunkCoord : this.checkedSpawnerChunks)
+        {
+            SpawnerSchedule schedule = this.spawnerSchedules.get(chunkCoord);
+            if (schedule == null)
+            {
+                continue;
+            }
+            int nextDue = Integer.MAX_VALUE;
+            for (SpawnerFunction<?> spawnerData : schedule.spawners)
+            {
+                int spawnerNextDue;
+                if (spawnerData.firstSpawn || spawnerData.interval <= 0)
+                {
+                    // Spawns as soon as a player comes close
+                    spawnerNextDue = currentTimeInSeconds + 1;
+                } else {
+                    spawnerNextDue = currentTimeInSeconds + spawnerData.interval - Math.floorMod(currentTimeInSeconds - spawnerData.intervalOffset, spawnerData.interval);
+                }
+                nextDue = Math.min(nextDue, spawnerNextDue);
+            }
+            schedule.nextDue = nextDue;
+        }
+        this.checkedSpawnerChunks.clear();
+    }
+
+    /**
+     * Moves the area of a player from one chunk to another. Chunks that are
+     * in both areas are left alone.
+     * @param from Previous chunk of the player, or null if the player is new.
+     * @param to   New chunk of the player, or null if the player left.
+     */
+    private void moveArea(ChunkCoordinate from, ChunkCoordinate to)
+    {
+        if (from != null)
+        {
+            for (int x = from.getChunkX() - RADIUS; x <= from.getChunkX() + RADIUS; x++)
+            {
+                for (int z = from.getChunkZ() - RADIUS; z <= from.getChunkZ() + RADIUS; z++)
+                {
+                    if (to == null || !isInArea(to, x, z))
+                    {
+                        ChunkCoordinate chunkCoord = ChunkCoordinate.fromChunkCoords(x, z);
+                        int[] playerCount = this.activeChunks.get(chunkCoord);
+                        if (playerCount != null && --playerCount[0] <= 0)
+                        {
+                            this.activeChunks.remove(chunkCoord);
+                            this.spawnerSchedules.remove(chunkCoord);
+                        }
+                    }
+                }
+            }
+        }
+        if (to != null)
+        {
+            for (int x = to.getChunkX() - RADIUS; x <= to.getChunkX() + RADIUS; x++)
+            {
+                for (int z = to.getChunkZ() - RADIUS; z <= to.getChunkZ() + RADIUS; z++)
+                {
+                    if (from == null || !isInArea(from, x, z))
+                    {
+                        ChunkCoordinate chunkCoord = ChunkCoordinate.fromChunkCoords(x, z);
+                        int[] playerCount = this.activeChunks.get(chunkCoord);
+                        if (playerCount == null)
+                        {
+                            this.activeChunks.put(chunkCoord, new int[] { 1 });
+                        } else {
+                            playerCount[0]++;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean isInArea(ChunkCoordinate center, int chunkX, int chunkZ)
+    {
+        return Math.abs(chunkX - center.getChunkX()) <= RADIUS && Math.abs(chunkZ - center.getChunkZ()) <= RADIUS;
+    }
+
+    private static class SpawnerSchedule
+    {
+        private final List<SpawnerFunction<?>> spawners;
+        // Spawners are only checked again at or after this time
+        private int nextDue;
+
+        SpawnerSchedule(List<SpawnerFunction<?>> spawners)
+        {
+            this.spawners = spawners;
+        }
+    }
+}
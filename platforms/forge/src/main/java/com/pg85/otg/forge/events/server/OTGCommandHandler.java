@@ -1,9 +1,11 @@
 package com.pg85.otg.forge.events.server;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.Map.Entry;
 
@@ -30,6 +32,10 @@ import com.pg85.otg.forge.dimensions.OTGTeleporter;
 import com.pg85.otg.forge.network.server.ServerPacketManager;
 import com.pg85.otg.forge.pregenerator.Pregenerator;
 import com.pg85.otg.forge.world.ForgeWorldSession;
+import com.pg85.otg.generator.FingerprintGenerator;
+import com.pg85.otg.generator.GenerationFingerprint;
+import com.pg85.otg.generator.biome.BiomeMapExporter;
+import com.pg85.otg.logging.GenerationStats;
 import com.pg85.otg.logging.LogMarker;
 import com.pg85.otg.util.ChunkCoordinate;
 import com.pg85.otg.util.minecraft.defaults.MobNames;
@@ -138,6 +144,9 @@ public final class OTGCommandHandler implements ICommand
 					sender.sendMessage(new TextComponentString(MESSAGE_COLOR + "/otg flushcache " + VALUE_COLOR + "Unloads all loaded BO2/BO3 files, use this to refresh BO2's/BO3's after editing them. Also flushes chunk generator cache to free up memory."));
 					sender.sendMessage(new TextComponentString(MESSAGE_COLOR + "/otg GetModData <ModName> <Radius> " + VALUE_COLOR + "Sends any ModData() tags in BO3's within the specified <Radius> in chunks to the specified <ModName>. Some OTG mob spawning commands can be used this way. Be sure to set up ModData() tags in your BO3 to make this work."));
 					sender.sendMessage(new TextComponentString(MESSAGE_COLOR + "/otg summon <Radius> " + VALUE_COLOR + "Shorthand for /mcw GetModData OTG <Radius>. Used to summon mobs and entities that are configured to spawn inside BO3's."));
+					sender.sendMessage(new TextComponentString(MESSAGE_COLOR + "/otg map [-s size] [-z zoomLevels] [-t threads] [-o centerX centerZ] " + VALUE_COLOR + "Renders the biome and temperature maps around the player (or the given center) as PNG tiles in the world's OpenTerrainGenerator/Map folder."));
+					sender.sendMessage(new TextComponentString(MESSAGE_COLOR + "/otg stats [on [dumpIntervalMinutes] | off | reset | dump] " + VALUE_COLOR + "Shows how long each stage of chunk generation and population takes. Stats are collected while enabled, and written to the log and " + GenerationStats.CSV_FILE_NAME + " every 5 minutes unless another interval is given (0 for never)."));
+					sender.sendMessage(new TextComponentString(MESSAGE_COLOR + "/otg fingerprint [start | stop | save <name> | generate <name> <size> | diff <expectedName> <actualName>] " + VALUE_COLOR + "Records hashes of every stage of chunk generation for the chunks that are generated, and saves them in the OpenTerrainGenerator/" + GenerationFingerprint.FOLDER_NAME + " folder. Generate saves the terrain fingerprints of an area of size by size chunks around you, without adding the chunks to the world. Compare two saved fingerprints of the same area, preset and seed to check that terrain didn't change."));
 					sender.sendMessage(new TextComponentString(MESSAGE_COLOR + "/otg exportBO4Data " + VALUE_COLOR + "Exports all BO4 files and BO3 files that have isOTGPlus:true as BO4Data files (if none exist already). BO4Data files can significantly reduce filesize and loading times, and should be used by OTG content creators when packaging presets for players."));
 				}
 
@@ -617,6 +626,227 @@ public final class OTGCommandHandler implements ICommand
         			sender.sendMessage(new TextComponentTranslation("There's nothing here."));
         		}
         	}
+        	else if(argString[0].toLowerCase().trim().equals("stats") && isOp)
+        	{
+        		String action = argString.length > 1 ? argString[1].toLowerCase().trim() : "";
+        		if(action.equals("on"))
+        		{
+        			int dumpInterval = 5;
+        			if(argString.length > 2)
+        			{
+	        			try
+	        			{
+	        				dumpInterval = Integer.parseInt(argString[2]);
+	        			}
+	        			catch(NumberFormatException ex)
+	        			{
+	        				sender.sendMessage(new TextComponentString(ERROR_COLOR + "Expected a number: " + ex.getMessage()));
+	        				return;
+	        			}
+        			}
+        			GenerationStats.enable(dumpInterval);
+        			sender.sendMessage(new TextComponentString(MESSAGE_COLOR + "Generation stats enabled" + (dumpInterval > 0 ? ", writing them to the log and " + VALUE_COLOR + GenerationStats.CSV_FILE_NAME + MESSAGE_COLOR + " every " + VALUE_COLOR + dumpInterval + MESSAGE_COLOR + " minutes." : ".")));
+        		}
+        		else if(action.equals("off"))
+        		{
+        			GenerationStats.disable();
+        			sender.sendMessage(new TextComponentString(MESSAGE_COLOR + "Generation stats disabled."));
+        		}
+        		else if(action.equals("reset"))
+        		{
+        			GenerationStats.reset();
+        			sender.sendMessage(new TextComponentString(MESSAGE_COLOR + "Generation stats reset."));
+        		}
+        		else if(action.equals("dump"))
+        		{
+        			if(GenerationStats.dump())
+        			{
+        				sender.sendMessage(new TextComponentString(MESSAGE_COLOR + "Generation stats written to the log and " + VALUE_COLOR + GenerationStats.CSV_FILE_NAME + MESSAGE_COLOR + "."));
+        			} else {
+        				sender.sendMessage(new TextComponentString(MESSAGE_COLOR + "No stats recorded, nothing was written."));
+        			}
+        		} else {
+        			sender.sendMessage(new TextComponentString(""));
+        			sender.sendMessage(new TextComponentString("-- Generation stats --"));
+        			sender.sendMessage(new TextComponentString(""));
+        			if(!GenerationStats.isEnabled())
+        			{
+        				sender.sendMessage(new TextComponentString(MESSAGE_COLOR + "Stats are disabled, use " + VALUE_COLOR + "/otg stats on" + MESSAGE_COLOR + " to enable them."));
+        			}
+        			for(String line : GenerationStats.getSummary())
+        			{
+        				sender.sendMessage(new TextComponentString(VALUE_COLOR + line));
+        			}
+        		}
+        	}
+        	else if(argString[0].toLowerCase().trim().equals("fingerprint") && isOp)
+        	{
+        		String action = argString.length > 1 ? argString[1].toLowerCase().trim() : "";
+        		if(action.equals("start"))
+        		{
+        			GenerationFingerprint.start();
+        			sender.sendMessage(new TextComponentString(MESSAGE_COLOR + "Recording generation fingerprints. Generate an area, for instance with the pregenerator, then use " + VALUE_COLOR + "/otg fingerprint save <name>" + MESSAGE_COLOR + "."));
+        		}
+        		else if(action.equals("stop"))
+        		{
+        			GenerationFingerprint.stop();
+        			sender.sendMessage(new TextComponentString(MESSAGE_COLOR + "Stopped recording generation fingerprints."));
+        		}
+        		else if(action.equals("save") && argString.length > 2)
+        		{
+        			File file = GenerationFingerprint.getFile(argString[2]);
+        			try
+        			{
+        				GenerationFingerprint.write(file);
+        				sender.sendMessage(new TextComponentString(MESSAGE_COLOR + "Saved fingerprints of " + VALUE_COLOR + GenerationFingerprint.getChunkCount() + MESSAGE_COLOR + " chunks to " + VALUE_COLOR + file.getAbsolutePath()));
+        			}
+        			catch(IOException ex)
+        			{
+        				sender.sendMessage(new TextComponentString(ERROR_COLOR + "Could not save fingerprints: " + ex.getMessage()));
+        			}
+        		}
+        		else if(action.equals("generate") && argString.length > 3)
+        		{
+        			if(world == null)
+        			{
+        				sender.sendMessage(new TextComponentString(ERROR_COLOR + "This command is only available for OpenTerrainGenerator worlds."));
+        				return;
+        			}
+        			try
+        			{
+        				int size = Integer.parseInt(argString[3]);
+        				ChunkCoordinate playerChunk = ChunkCoordinate.fromBlockCoords(playerX, playerZ);
+        				ChunkCoordinate fromChunk = ChunkCoordinate.fromChunkCoords(playerChunk.getChunkX() - size / 2, playerChunk.getChunkZ() - size / 2);
+        				Map<ChunkCoordinate, long[]> hashes = FingerprintGenerator.generate(world, fromChunk, size);
+        				File file = GenerationFingerprint.getFile(argString[2]);
+        				GenerationFingerprint.write(hashes, file);
+        				sender.sendMessage(new TextComponentString(MESSAGE_COLOR + "Saved fingerprints of " + VALUE_COLOR + hashes.size() + MESSAGE_COLOR + " chunks to " + VALUE_COLOR + file.getAbsolutePath()));
+        			}
+        			catch(NumberFormatException ex)
+        			{
+        				sender.sendMessage(new TextComponentString(ERROR_COLOR + "Invalid size: " + argString[3]));
+        			}
+        			catch(IOException ex)
+        			{
+        				sender.sendMessage(new TextComponentString(ERROR_COLOR + "Could not save fingerprints: " + ex.getMessage()));
+        			}
+        		}
+        		else if(action.equals("diff") && argString.length > 3)
+        		{
+        			try
+        			{
+        				for(String line : GenerationFingerprint.diff(GenerationFingerprint.getFile(argString[2]), GenerationFingerprint.getFile(argString[3])))
+        				{
+        					sender.sendMessage(new TextComponentString(VALUE_COLOR + line));
+        				}
+        			}
+        			catch(IOException ex)
+        			{
+        				sender.sendMessage(new TextComponentString(ERROR_COLOR + "Could not compare fingerprints: " + ex.getMessage()));
+        			}
+        		} else {
+        			sender.sendMessage(new TextComponentString(MESSAGE_COLOR + "Generation fingerprints are " + (GenerationFingerprint.isEnabled() ? "being recorded" : "not being recorded") + ", " + VALUE_COLOR + GenerationFingerprint.getChunkCount() + MESSAGE_COLOR + " chunks recorded."));
+        			sender.sendMessage(new TextComponentString(MESSAGE_COLOR + "Usage: " + VALUE_COLOR + "/otg fingerprint [start | stop | save <name> | generate <name> <size> | diff <expectedName> <actualName>]"));
+        		}
+        	}
+        	else if(argString[0].toLowerCase().trim().equals("map") && isOp)
+        	{
+            	if(!isOTGWorld)
+            	{
+                	sender.sendMessage(new TextComponentString(""));
+                    sender.sendMessage(new TextComponentTranslation(ERROR_COLOR + "This command is only available for OpenTerrainGenerator worlds."));
+                    return;
+            	}
+
+        		int size = 4096;
+        		int zoomLevels = 1;
+        		int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        		int centerX = playerX;
+        		int centerZ = playerZ;
+        		try
+        		{
+	        		for(int i = 1; i < argString.length - 1; i++)
+	        		{
+	        			if(argString[i].equals("-s"))
+	        			{
+	        				size = Integer.parseInt(argString[i + 1]);
+	        			}
+	        			else if(argString[i].equals("-z"))
+	        			{
+	        				zoomLevels = Integer.parseInt(argString[i + 1]);
+	        			}
+	        			else if(argString[i].equals("-t"))
+	        			{
+	        				threads = Integer.parseInt(argString[i + 1]);
+	        			}
+	        			else if(argString[i].equals("-o") && i < argString.length - 2)
+	        			{
+	        				centerX = Integer.parseInt(argString[i + 1]);
+	        				centerZ = Integer.parseInt(argString[i + 2]);
+	        			}
+	        		}
+        		}
+        		catch(NumberFormatException ex)
+        		{
+        			sender.sendMessage(new TextComponentString(ERROR_COLOR + "Expected a number: " + ex.getMessage()));
+        			return;
+        		}
+
+        		if(!BiomeMapExporter.canExport(world))
+        		{
+        			sender.sendMessage(new TextComponentString(ERROR_COLOR + "Maps can't be exported for worlds that use the vanilla biome generator."));
+        			return;
+        		}
+
+        		final File outputDir = BiomeMapExporter.getDefaultOutputDir(world);
+        		final BiomeMapExporter exporter = new BiomeMapExporter(world, outputDir, centerX, centerZ, size, zoomLevels, threads);
+        		final ICommandSender commandSender = sender;
+        		final MinecraftServer minecraftServer = server;
+        		sender.sendMessage(new TextComponentString(MESSAGE_COLOR + "Generating map, this may take a while."));
+        		Thread exportThread = new Thread(new Runnable()
+				{
+					@Override
+					public void run()
+					{
+						String result;
+						try
+						{
+							result = exporter.export(new BiomeMapExporter.ProgressListener()
+							{
+								private long lastMessage = System.currentTimeMillis();
+
+								@Override
+								public synchronized void onProgress(int tilesDone, int tilesTotal)
+								{
+									long time = System.currentTimeMillis();
+									if(time > this.lastMessage + 5000L)
+									{
+										this.lastMessage = time;
+										OTG.log(LogMarker.INFO, "Map export: " + (tilesDone * 100L / tilesTotal) + "%");
+									}
+								}
+							}) ? MESSAGE_COLOR + "Map written to " + outputDir.getAbsolutePath() : ERROR_COLOR + "Another map export is already running.";
+						}
+						catch (IOException e)
+						{
+							OTG.log(LogMarker.ERROR, "Failed to write map.");
+							OTG.printStackTrace(LogMarker.ERROR, e);
+							result = ERROR_COLOR + "Exception while writing map: " + e.getLocalizedMessage();
+						}
+						final String message = result;
+						minecraftServer.addScheduledTask(new Runnable()
+						{
+							@Override
+							public void run()
+							{
+								commandSender.sendMessage(new TextComponentString(message));
+							}
+						});
+					}
+				}, "OTG map export");
+        		exportThread.setDaemon(true);
+        		exportThread.start();
+        	}
         	else if(argString[0].toLowerCase().trim().equals("getmoddata") && argString.length > 1)
         	{
             	if(!isOTGWorld)
@@ -706,6 +936,9 @@ public final class OTGCommandHandler implements ICommand
 		listComplet.add("flushcache");
 		listComplet.add("getmoddata");
 		listComplet.add("exportbo4data");
+		listComplet.add("map");
+		listComplet.add("stats");
+		listComplet.add("fingerprint");
 
 		return listComplet;
 	}
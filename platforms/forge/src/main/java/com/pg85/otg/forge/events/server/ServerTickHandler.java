@@ -1,8 +1,10 @@
 package com.pg85.otg.forge.events.server;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.Stack;
 import java.util.Map.Entry;
@@ -62,8 +64,8 @@ public class ServerTickHandler
 	private int currentTimeInSeconds = 0;
 	private int lastSpawnedTimeInSeconds = 0;
 	
-    /** The 17x17 area around the player where mobs and particles can spawn */
-    private HashMap<ChunkCoordinate, Boolean> eligibleChunksForSpawning = new HashMap<ChunkCoordinate, Boolean>();
+    /** The chunks around the players of each world where mobs and particles can spawn */
+    private HashMap<ForgeWorld, ActiveChunkTracker> activeChunkTrackers = new HashMap<ForgeWorld, ActiveChunkTracker>();
     
 	@SubscribeEvent
 	public void onServerTick(ServerTickEvent event)
@@ -83,7 +85,9 @@ public class ServerTickHandler
         	if(currentTimeInSeconds != lastSpawnedTimeInSeconds) // If the server is lagging and suddenly processes multiple ticks in a row only do 1 spawning cycle.
         	{
 	    		lastSpawnedTimeInSeconds = currentTimeInSeconds;
-				for(LocalWorld forgeWorld : ((ForgeEngine)OTG.getEngine()).getWorldLoader().getAllLoadedWorlds())
+	    		ArrayList<LocalWorld> loadedWorlds = ((ForgeEngine)OTG.getEngine()).getWorldLoader().getAllLoadedWorlds();
+	    		this.activeChunkTrackers.keySet().retainAll(loadedWorlds);
+				for(LocalWorld forgeWorld : loadedWorlds)
 				{
 					findChunksForSpawning((ForgeWorld)forgeWorld, true, true);
 				}
@@ -128,10 +132,10 @@ public class ServerTickHandler
 
                     			// Return modData to sender.
                         		String messageString = "";
-		                    	HashMap<String, ArrayList<ModDataFunction<?>>> modDataInChunk = forgeWorld.getWorldSession().getModDataForChunk(ChunkCoordinate.fromChunkCoords(chunkX, chunkZ));
+		                    	Map<String, List<ModDataFunction<?>>> modDataInChunk = forgeWorld.getWorldSession().getModDataForChunk(ChunkCoordinate.fromChunkCoords(chunkX, chunkZ));
 		                    	if(modDataInChunk != null)
 		                    	{
-			                    	for(Entry<String, ArrayList<ModDataFunction<?>>> modNameAndData : modDataInChunk.entrySet())
+			                    	for(Entry<String, List<ModDataFunction<?>>> modNameAndData : modDataInChunk.entrySet())
 			                    	{
 			                    		if(modNameAndData.getKey().equalsIgnoreCase(imcMessage.getSender()))
 			                    		{
@@ -267,28 +271,13 @@ public class ServerTickHandler
             return;
         } else {
 
-            this.eligibleChunksForSpawning.clear();
-            for (int i = 0; i < worldServer.playerEntities.size(); ++i)
+            ActiveChunkTracker activeChunkTracker = this.activeChunkTrackers.get(world);
+            if(activeChunkTracker == null)
             {
-                EntityPlayer entityplayer = (EntityPlayer)worldServer.playerEntities.get(i);
-                int playerPosChunkX = MathHelper.floor(entityplayer.posX / 16.0D);
-                int playerPosChunkZ = MathHelper.floor(entityplayer.posZ / 16.0D);
-                byte radius = 8;
-
-                for (int l = -radius; l <= radius; ++l)
-                {
-                    for (int i1 = -radius; i1 <= radius; ++i1)
-                    {
-                        boolean flag3 = l == -radius || l == radius || i1 == -radius || i1 == radius;
-                        ChunkCoordinate chunkcoordintpair = ChunkCoordinate.fromChunkCoords(l + playerPosChunkX, i1 + playerPosChunkZ);
-
-                        if (!flag3) // If this chunk is not on the edge of the search area (?)
-                        {
-                            this.eligibleChunksForSpawning.put(chunkcoordintpair, Boolean.valueOf(false));
-                        }
-                    }
-                }
+            	activeChunkTracker = new ActiveChunkTracker();
+            	this.activeChunkTrackers.put(world, activeChunkTracker);
             }
+            activeChunkTracker.update(worldServer.playerEntities);
 
     		Stack<Object[]> playerCoords = new Stack<Object[]>();
     		for (int a = 0; a < worldServer.playerEntities.size(); ++a)
@@ -345,54 +334,52 @@ public class ServerTickHandler
     		Stack<SpawnerFunction<?>> spawnerDataSortedByDistance = new Stack<SpawnerFunction<?>>();
     		Stack<Object[]> spawnerDatasWithDistance = new Stack<Object[]>();
 
-            for (ChunkCoordinate chunkcoordintpair1 : this.eligibleChunksForSpawning.keySet())
+            for (ChunkCoordinate chunkcoordintpair1 : activeChunkTracker.getActiveChunks())
             {
-                if (!this.eligibleChunksForSpawning.get(chunkcoordintpair1))
-                {
-                	ArrayList<SpawnerFunction<?>> spawnerDataForOTG = world.getWorldSession().getSpawnersForChunk(ChunkCoordinate.fromChunkCoords(chunkcoordintpair1.getChunkX(), chunkcoordintpair1.getChunkZ()));
+            	List<SpawnerFunction<?>> spawnerDataForOTG = world.getWorldSession().getSpawnersForChunk(chunkcoordintpair1);
 
-                	if(spawnerDataForOTG != null && spawnerDataForOTG.size() > 0)
-                	{
-                		for(SpawnerFunction<?> spawnerData : spawnerDataForOTG)
-                		{
-                			double distToClosestPlayer = maxDistToClosestPlayerSq;
+            	// Chunks whose spawners are not due this second are skipped without checking distances
+            	if(spawnerDataForOTG != null && spawnerDataForOTG.size() > 0 && activeChunkTracker.hasDueSpawners(chunkcoordintpair1, spawnerDataForOTG, currentTimeInSeconds))
+            	{
+            		for(SpawnerFunction<?> spawnerData : spawnerDataForOTG)
+            		{
+            			double distToClosestPlayer = maxDistToClosestPlayerSq;
 
-                			for (int a = 0; a < playerCoords.size(); ++a)
-                            {
-                		        float f = (float)((Double)playerCoords.get(a)[0] - spawnerData.x);
-                		        float f1 = (float)((Double)playerCoords.get(a)[1] - spawnerData.y);
-                		        float f2 = (float)((Double)playerCoords.get(a)[2] - spawnerData.z);
-                		        double distance = f * f + f1 * f1 + f2 * f2;
-
-                            	if(distance < distToClosestPlayer)
-                            	{
-                            		distToClosestPlayer = distance;
-                            	}
-                            }
+            			for (int a = 0; a < playerCoords.size(); ++a)
+                        {
+            		        float f = (float)((Double)playerCoords.get(a)[0] - spawnerData.x);
+            		        float f1 = (float)((Double)playerCoords.get(a)[1] - spawnerData.y);
+            		        float f2 = (float)((Double)playerCoords.get(a)[2] - spawnerData.z);
+            		        double distance = f * f + f1 * f1 + f2 * f2;
 
-                            if(distToClosestPlayer > 0 && distToClosestPlayer < maxDistToClosestPlayerSq)
-                            {
-		                    	if(spawnerDatasWithDistance.size() == 0)
-		                    	{
-		                    		spawnerDatasWithDistance.add(new Object[] { distToClosestPlayer, spawnerData });
-		                    	} else {
-    		                    	for(int r = 0; r < spawnerDatasWithDistance.size(); r++)
-    		                    	{
-    		                    		if(distToClosestPlayer < (Double)spawnerDatasWithDistance.get(r)[0])
-    		                    		{
-    		                    			spawnerDatasWithDistance.add(r, new Object[] { distToClosestPlayer, spawnerData });
-    		                    			break;
-    		                    		}
-    		                    		else if(r == spawnerDatasWithDistance.size() - 1)
-    		                    		{
-    		                    			spawnerDatasWithDistance.add(new Object[] { distToClosestPlayer, spawnerData });
-    		                    			break;
-    		                    		}
-    		                    	}
-		                    	}
-                            }
-                		}
-                	}
+                        	if(distance < distToClosestPlayer)
+                        	{
+                        		distToClosestPlayer = distance;
+                        	}
+                        }
+
+                        if(distToClosestPlayer > 0 && distToClosestPlayer < maxDistToClosestPlayerSq)
+                        {
+		                	if(spawnerDatasWithDistance.size() == 0)
+		                	{
+		                		spawnerDatasWithDistance.add(new Object[] { distToClosestPlayer, spawnerData });
+		                	} else {
+    		                	for(int r = 0; r < spawnerDatasWithDistance.size(); r++)
+    		                	{
+    		                		if(distToClosestPlayer < (Double)spawnerDatasWithDistance.get(r)[0])
+    		                		{
+    		                			spawnerDatasWithDistance.add(r, new Object[] { distToClosestPlayer, spawnerData });
+    		                			break;
+    		                		}
+    		                		else if(r == spawnerDatasWithDistance.size() - 1)
+    		                		{
+    		                			spawnerDatasWithDistance.add(new Object[] { distToClosestPlayer, spawnerData });
+    		                			break;
+    		                		}
+    		                	}
+		                	}
+                        }
+            		}
                 }
             }
 
@@ -697,45 +684,61 @@ public class ServerTickHandler
                 }
             }
 
-			for (int a = 0; a < playerCoords.size(); ++a)
-            {
-				EntityPlayer player = (EntityPlayer)playerCoords.get(a)[3];
-				ArrayList<ParticleFunction<?>> particleDataForOTGPerPlayer = new ArrayList<ParticleFunction<?>>();
-
-                for (ChunkCoordinate chunkcoordintpair1 : this.eligibleChunksForSpawning.keySet())
-                {
-                    if (!this.eligibleChunksForSpawning.get(chunkcoordintpair1))
-                    {
-                    	ChunkCoordinate chunkCoord = ChunkCoordinate.fromChunkCoords(chunkcoordintpair1.getChunkX(), chunkcoordintpair1.getChunkZ());
-                    	ArrayList<ParticleFunction<?>> particleDataForOTG = world.getWorldSession().getParticlesForChunk(chunkCoord);
+            activeChunkTracker.scheduleSpawners(currentTimeInSeconds);
 
-                    	if(particleDataForOTG != null && particleDataForOTG.size() > 0)
-                    	{
-                    		for(ParticleFunction<?> particleData : particleDataForOTG)
-                    		{
-                		        float f = (float)((Double)playerCoords.get(a)[0] - particleData.x);
-                		        float f1 = (float)((Double)playerCoords.get(a)[1] - particleData.y);
-                		        float f2 = (float)((Double)playerCoords.get(a)[2] - particleData.z);
-                		        double distance = f * f + f1 * f1 + f2 * f2;
-
-                                if(distance > 0 && distance < maxDistToClosestPlayerSq)
-                                {
-                                	if(!worldServer.getBlockState(new BlockPos(particleData.x, particleData.y, particleData.z)).getMaterial().isSolid())
-                                	{
-                                		particleDataForOTGPerPlayer.add(particleData);
-                                	} else {
-                                		world.getWorldSession().removeParticles(chunkCoord, particleData);
-                                	}
-                                }
+            // Particles: check each particle once and send it to all players close enough to see it
+            List<ArrayList<ParticleFunction<?>>> particleDataForOTGPerPlayer = new ArrayList<ArrayList<ParticleFunction<?>>>(Collections.<ArrayList<ParticleFunction<?>>>nCopies(playerCoords.size(), null));
+            BlockPos.MutableBlockPos particlePos = new BlockPos.MutableBlockPos();
+            for (ChunkCoordinate chunkCoord : activeChunkTracker.getActiveChunks())
+            {
+            	List<ParticleFunction<?>> particleDataForOTG = world.getWorldSession().getParticlesForChunk(chunkCoord);
+            	if(particleDataForOTG == null || particleDataForOTG.size() == 0)
+            	{
+            		continue;
+            	}
+
+            	for(ParticleFunction<?> particleData : particleDataForOTG)
+            	{
+            		boolean blockChecked = false;
+            		for (int a = 0; a < playerCoords.size(); ++a)
+            		{
+            			float f = (float)((Double)playerCoords.get(a)[0] - particleData.x);
+            			float f1 = (float)((Double)playerCoords.get(a)[1] - particleData.y);
+            			float f2 = (float)((Double)playerCoords.get(a)[2] - particleData.z);
+            			double distance = f * f + f1 * f1 + f2 * f2;
+
+            			if(distance > 0 && distance < maxDistToClosestPlayerSq)
+            			{
+            				if(!blockChecked)
+            				{
+            					if(worldServer.getBlockState(particlePos.setPos(particleData.x, particleData.y, particleData.z)).getMaterial().isSolid())
+            					{
+            						// Particle has been covered up, remove it for good
+            						world.getWorldSession().removeParticles(chunkCoord, particleData);
+            						break;
+            					}
+            					blockChecked = true;
             				}
-                    	}
-                    }
-                }
-        		if(particleDataForOTGPerPlayer.size() > 0)
-        		{
-        			ServerPacketManager.sendParticlesPacket(particleDataForOTGPerPlayer, (EntityPlayerMP) player);
-        		}
-        	}
+            				ArrayList<ParticleFunction<?>> particleDataForPlayer = particleDataForOTGPerPlayer.get(a);
+            				if(particleDataForPlayer == null)
+            				{
+            					particleDataForPlayer = new ArrayList<ParticleFunction<?>>();
+            					particleDataForOTGPerPlayer.set(a, particleDataForPlayer);
+            				}
+            				particleDataForPlayer.add(particleData);
+            			}
+            		}
+            	}
+            }
+
+            for (int a = 0; a < playerCoords.size(); ++a)
+            {
+            	ArrayList<ParticleFunction<?>> particleDataForPlayer = particleDataForOTGPerPlayer.get(a);
+            	if(particleDataForPlayer != null)
+            	{
+            		ServerPacketManager.sendParticlesPacket(particleDataForPlayer, (EntityPlayerMP)playerCoords.get(a)[3]);
+            	}
+            }
         }
     }
 	
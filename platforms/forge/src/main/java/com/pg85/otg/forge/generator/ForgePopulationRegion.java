@@ -0,0 +1,126 @@
+package com.pg85.otg.forge.generator;
+
+import com.pg85.otg.common.LocalMaterialData;
+import com.pg85.otg.common.PopulationRegion;
+import com.pg85.otg.configuration.standard.PluginStandardValues;
+import com.pg85.otg.forge.ForgeWorld;
+import com.pg85.otg.forge.util.ForgeMaterialData;
+import com.pg85.otg.util.ChunkCoordinate;
+
+import net.minecraft.block.material.Material;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+
+/**
+ * Implementation of {@link PopulationRegion} that looks up the four chunks
+ * of the region once, and then reads blocks directly from their block
+ * storage. Writes only skip the chunk lookup, they still go through
+ * {@link OTGChunkGenerator#setBlockInChunk(Chunk, int, int, int, IBlockState,
+ * com.pg85.otg.util.bo3.NamedBinaryTag, boolean)} so that lighting and
+ * block updates work the same as for {@link ForgeWorld#setBlock}.
+ */
+public class ForgePopulationRegion extends PopulationRegion
+{
+    private final OTGChunkGenerator generator;
+
+    // Chunks of the region, looked up when they are first used.
+    // Index is (chunkX - minChunkX) | ((chunkZ - minChunkZ) << 1)
+    private final Chunk[] chunks = new Chunk[4];
+
+    // Most resources use only a few materials, so reuse the last one
+    private IBlockState lastState;
+    private ForgeMaterialData lastMaterial;
+
+    public ForgePopulationRegion(ForgeWorld world, ChunkCoordinate chunkCoord)
+    {
+        super(world, chunkCoord);
+        this.generator = world.getChunkGenerator();
+    }
+
+    /**
+     * Gets the chunk of the given column, or null if it is outside the
+     * region or the world didn't return a chunk for it.
+     */
+    private Chunk getChunk(int x, int z)
+    {
+        if (!isInside(x, z))
+        {
+            return null;
+        }
+        int index = ((x - this.minX) >> 4) | (((z - this.minZ) >> 4) << 1);
+        Chunk chunk = this.chunks[index];
+        if (chunk == null)
+        {
+            // Chunks that were not found are looked up again next time,
+            // just like the world would
+            chunk = this.generator.getChunk(x, z, false);
+            this.chunks[index] = chunk;
+        }
+        return chunk;
+    }
+
+    private static IBlockState getBlockState(Chunk chunk, int x, int y, int z)
+    {
+        ExtendedBlockStorage storage = chunk.getBlockStorageArray()[y >> 4];
+        if (storage == Chunk.NULL_BLOCK_STORAGE)
+        {
+            return Blocks.AIR.getDefaultState();
+        }
+        return storage.get(x & 0xF, y & 0xF, z & 0xF);
+    }
+
+    @Override
+    public LocalMaterialData getMaterial(int x, int y, int z)
+    {
+        if (y >= PluginStandardValues.WORLD_HEIGHT || y < PluginStandardValues.WORLD_DEPTH)
+        {
+            return null;
+        }
+        Chunk chunk = getChunk(x, z);
+        if (chunk == null)
+        {
+            return super.getMaterial(x, y, z);
+        }
+
+        IBlockState state = getBlockState(chunk, x, y, z);
+        if (state != this.lastState)
+        {
+            this.lastState = state;
+            this.lastMaterial = ForgeMaterialData.ofMinecraftBlockState(state);
+        }
+        return this.lastMaterial;
+    }
+
+    @Override
+    public boolean isNullOrAir(int x, int y, int z)
+    {
+        if (y >= PluginStandardValues.WORLD_HEIGHT || y < PluginStandardValues.WORLD_DEPTH)
+        {
+            return true;
+        }
+        Chunk chunk = getChunk(x, z);
+        if (chunk == null)
+        {
+            return super.isNullOrAir(x, y, z);
+        }
+        return getBlockState(chunk, x, y, z).getMaterial() == Material.AIR;
+    }
+
+    @Override
+    public void setBlock(int x, int y, int z, LocalMaterialData material)
+    {
+        if (y < PluginStandardValues.WORLD_DEPTH || y >= PluginStandardValues.WORLD_HEIGHT)
+        {
+            return;
+        }
+        Chunk chunk = getChunk(x, z);
+        if (chunk == null)
+        {
+            super.setBlock(x, y, z, material);
+            return;
+        }
+        this.generator.setBlockInChunk(chunk, x, y, z, ((ForgeMaterialData) material).internalBlock(), null, false);
+    }
+}
@@ -5,6 +5,7 @@ import static com.pg85.otg.util.ChunkCoordinate.CHUNK_Z_SIZE;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -27,6 +28,7 @@ import com.pg85.otg.logging.LogMarker;
 import com.pg85.otg.network.ConfigProvider;
 import com.pg85.otg.util.ChunkCoordinate;
 import com.pg85.otg.util.FifoMap;
+import com.pg85.otg.util.RecentChunkSet;
 import com.pg85.otg.util.bo3.NamedBinaryTag;
 import com.pg85.otg.util.helpers.MaterialHelper;
 import com.pg85.otg.util.minecraft.defaults.DefaultMaterial;
@@ -95,6 +97,17 @@ public class OTGChunkGenerator implements IChunkGenerator
 			this.blockColumns = blockColumns;
 		}
 	}
+
+	/**
+	 * Columns of a chunk that need their heightmap and skylight updated
+	 * when the current block batch ends.
+	 */
+	private class BatchedChunk
+	{
+		// Highest changed y + 1 for each column, 0 if the column is unchanged
+		final int[] relightHeights = new int[CHUNK_X_SIZE * CHUNK_Z_SIZE];
+		boolean generateSkylightMap;
+	}
 	
     private boolean testMode = false;
     private ForgeWorld world;
@@ -102,7 +115,9 @@ public class OTGChunkGenerator implements IChunkGenerator
     public ObjectSpawner spawner;
 
     // Caches
-	private ArrayList<ChunkCoordinate> populatedChunks;
+	// Chunks that were generated recently, used to prevent generating a chunk twice.
+	// Chunks that were generated longer ago are saved and won't be generated again.
+	private RecentChunkSet populatedChunks = new RecentChunkSet(16384);
     private FifoMap<ChunkCoordinate, ChunkColumns> unloadedChunkCache = new FifoMap<ChunkCoordinate, ChunkColumns>(128);
     private Map<ChunkCoordinate,Chunk> loadedChunkCache = new HashMap<ChunkCoordinate, Chunk>();
     private Chunk lastUsedChunk;
@@ -110,6 +125,10 @@ public class OTGChunkGenerator implements IChunkGenerator
     private int lastUsedChunkZ;
     private ForgeChunkBuffer chunkBuffer;    
     //   
+
+    // Block batching, see startBlockBatch()
+    private int blockBatchDepth = 0;
+    private Map<Chunk, BatchedChunk> batchedChunks = new LinkedHashMap<Chunk, BatchedChunk>();
     
     // The first run is used by MC to check for suitable locations for the spawn location. For some reason the spawn location must be on grass.
     private boolean firstRun = true; 
@@ -134,7 +153,6 @@ public class OTGChunkGenerator implements IChunkGenerator
 
         this.generator = new ChunkProviderOTG(this.world.getConfigs(), this.world);
         this.spawner = new ObjectSpawner(this.world.getConfigs(), this.world);
-        this.populatedChunks = new ArrayList<ChunkCoordinate>();
     }
     
 	public void setAllowSpawningOutsideBounds(boolean allowSpawningOutsideBounds)
@@ -159,20 +177,9 @@ public class OTGChunkGenerator implements IChunkGenerator
     @Override
     public Chunk generateChunk(int chunkX, int chunkZ)
     {
-    	ChunkCoordinate chunkCoords = ChunkCoordinate.fromChunkCoords(chunkX, chunkZ);
-    	boolean bFound = false;
-    	synchronized(populatedChunks)
-    	{
-			if(!populatedChunks.contains(chunkCoords))
-			{
-				populatedChunks.add(chunkCoords);
-			} else {
-				bFound = true;
-			}
-    	}
-
-		if(bFound)
+    	if(!populatedChunks.add(chunkX, chunkZ))
 		{
+			ChunkCoordinate chunkCoords = ChunkCoordinate.fromChunkCoords(chunkX, chunkZ);
 			Chunk chunk = world.getChunk(chunkCoords.getBlockX(), chunkCoords.getBlockZ(), true);
 			if(chunk == null)
 			{
@@ -259,10 +266,10 @@ public class OTGChunkGenerator implements IChunkGenerator
         BlockSand.fallInstantly = false;
         BlockGravel.fallInstantly = false;
 
-        HashMap<String,ArrayList<ModDataFunction<?>>> MessagesPerMod = world.getWorldSession().getModDataForChunk(chunkCoord);
+        Map<String, List<ModDataFunction<?>>> MessagesPerMod = world.getWorldSession().getModDataForChunk(chunkCoord);
         if(MessagesPerMod != null && MessagesPerMod.entrySet().size() > 0)
         {
-        	for(Entry<String, ArrayList<ModDataFunction<?>>> modNameAndData : MessagesPerMod.entrySet())
+        	for(Entry<String, List<ModDataFunction<?>>> modNameAndData : MessagesPerMod.entrySet())
         	{
         		String messageString = "";
 				if(modNameAndData.getKey().equals("OTG"))
@@ -663,8 +670,6 @@ public class OTGChunkGenerator implements IChunkGenerator
 
         IBlockState newState = ((ForgeMaterialData) material).internalBlock();
 
-        BlockPos pos = new BlockPos(x, y, z);
-
         // Get chunk from (faster) custom cache
         Chunk chunk = this.getChunk(x, z, allowOutsidePopulatingArea);
         if (chunk == null)
@@ -673,6 +678,19 @@ public class OTGChunkGenerator implements IChunkGenerator
         	throw new RuntimeException("Whatever it is you're trying to do, we didn't write any code for it (sorry). Please contact Team OTG about this crash.");
         }
 
+        setBlockInChunk(chunk, x, y, z, newState, metaDataTag, allowOutsidePopulatingArea);
+    }
+
+    /**
+     * Sets a block in a chunk that was already looked up with
+     * {@link #getChunk(int, int, boolean)}. Does the same as
+     * {@link #setBlock(int, int, int, LocalMaterialData, NamedBinaryTag, boolean)}
+     * after it found the chunk. The y coordinate must be inside the world.
+     */
+    public void setBlockInChunk(Chunk chunk, int x, int y, int z, IBlockState newState, NamedBinaryTag metaDataTag, boolean allowOutsidePopulatingArea)
+    {
+        BlockPos pos = new BlockPos(x, y, z);
+
         IBlockState iblockstate = setBlockState(chunk, pos, newState);
 
         if (iblockstate == null)
@@ -688,6 +706,43 @@ public class OTGChunkGenerator implements IChunkGenerator
     	this.world.getWorld().markAndNotifyBlock(pos, chunk, iblockstate, newState, 2 | 16);
     }
 
+    public void startBlockBatch()
+    {
+        this.blockBatchDepth++;
+    }
+
+    public void endBlockBatch()
+    {
+        if (this.blockBatchDepth == 0 || --this.blockBatchDepth > 0)
+        {
+            return;
+        }
+
+        Chunk chunk;
+        BatchedChunk batchedChunk;
+        for (Entry<Chunk, BatchedChunk> entry : this.batchedChunks.entrySet())
+        {
+            chunk = entry.getKey();
+            batchedChunk = entry.getValue();
+            if (batchedChunk.generateSkylightMap)
+            {
+                chunk.generateSkylightMap();
+                continue;
+            }
+            for (int l = 0; l < batchedChunk.relightHeights.length; l++)
+            {
+                if (batchedChunk.relightHeights[l] > 0)
+                {
+                    // Scans down from the highest changed block (or the old height if
+                    // that is higher) to find the new height of the column.
+                    chunk.relightBlock(l & 15, batchedChunk.relightHeights[l], l >> 4);
+                    chunk.propagateSkylightOcclusion(l & 15, l >> 4);
+                }
+            }
+        }
+        this.batchedChunks.clear();
+    }
+
     private IBlockState setBlockState(Chunk _this, BlockPos pos, IBlockState state)
     {
         int i = pos.getX() & 15;
@@ -748,7 +803,22 @@ public class OTGChunkGenerator implements IChunkGenerator
             {
                 return null;
             } else {
-                if (flag)
+                if (this.blockBatchDepth > 0)
+                {
+                    // Heightmap and skylight are updated once per changed column when the batch ends
+                    if (flag || state.getLightOpacity(_this.getWorld(), pos) != k1)
+                    {
+                        BatchedChunk batchedChunk = this.batchedChunks.get(_this);
+                        if (batchedChunk == null)
+                        {
+                            batchedChunk = new BatchedChunk();
+                            this.batchedChunks.put(_this, batchedChunk);
+                        }
+                        batchedChunk.generateSkylightMap |= flag;
+                        batchedChunk.relightHeights[l] = Math.max(batchedChunk.relightHeights[l], j + 1);
+                    }
+                }
+                else if (flag)
                 {
                     _this.generateSkylightMap();
                 }
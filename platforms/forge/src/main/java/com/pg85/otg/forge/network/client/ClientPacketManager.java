@@ -21,6 +21,7 @@ import com.pg85.otg.forge.network.client.packets.CreateDeleteDimensionPacket;
 import com.pg85.otg.forge.network.client.packets.UpdateDimensionSettingsPacket;
 import com.pg85.otg.forge.world.WorldLoader;
 import com.pg85.otg.forge.network.client.packets.TeleportPlayerPacket;
+import com.pg85.otg.logging.LogMarker;
 import com.pg85.otg.network.ClientConfigProvider;
 import com.pg85.otg.util.helpers.StreamHelper;
 
@@ -161,6 +162,8 @@ public class ClientPacketManager
 		{
 			boolean worldIsLoaded = wrappedStream.readBoolean();
 			int dimensionId = wrappedStream.readInt();
+			// Configs are only sent if the server hasn't sent them to us before
+			boolean hasConfigs = wrappedStream.readBoolean();
 	
 			Integer integerToRemove = 0;
 			boolean bFound = false;
@@ -182,6 +185,12 @@ public class ClientPacketManager
 			// Overworld can be null for MP clients
 			if(!DimensionManager.isDimensionRegistered(dimensionId) || (dimensionId == 0 && ((ForgeEngine)OTG.getEngine()).getOverWorld() == null))
 			{
+				if(!hasConfigs)
+				{
+					OTG.log(LogMarker.WARN, "Server did not send configs for unknown dimension " + worldName + ", skipping it.");
+					continue;
+				}
+
 				if(dimensionId != 0)
 	    		{
 	    			OTGDimensionManager.registerDimension(dimensionId, DimensionType.register(worldName, "OTG", dimensionId, OTGWorldProvider.class, false));
@@ -194,8 +203,9 @@ public class ClientPacketManager
 	            
 	            world.provideClientConfigs(configs);
 	            worldLoader.LoadClientWorldFromPacket(world);
-			} else {
-	
+			}
+			else if(hasConfigs)
+			{
 				// World already exists, read the data from the stream but don't create a world.
 				new ClientConfigProvider(wrappedStream, new ForgeWorld(worldName), isSinglePlayer);
 			}
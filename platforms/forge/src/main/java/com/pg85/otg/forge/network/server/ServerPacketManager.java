@@ -24,31 +24,29 @@ public class ServerPacketManager
     // Used when creating / deleting dimensions
     public static void sendDimensionSynchPacketToAllPlayers(MinecraftServer server)
     {
-        ByteBuf nettyBuffer = Unpooled.buffer();
-        ByteBufOutputStream stream = new ByteBufOutputStream(nettyBuffer);
-    	
-        try
-        {
-    		DimensionSyncPacket.writeToStream(stream);
-		}
-        catch (IOException e1)
-        {
-			e1.printStackTrace();
-		} finally {
-			try {
-				stream.close();
-			} catch (IOException e) {
-				e.printStackTrace();
-			}
-		}
-        
-		if(nettyBuffer != null)
-		{
-	    	for(EntityPlayerMP player : server.getPlayerList().getPlayers())
-	    	{
-	        	PacketDispatcher.sendTo(new DimensionSyncPacket(nettyBuffer.copy()), (EntityPlayerMP) player);
-	    	}
-		}
+    	for(EntityPlayerMP player : server.getPlayerList().getPlayers())
+    	{
+    		// Each client only gets the configs it doesn't have yet
+    		ByteBuf nettyBuffer = Unpooled.buffer();
+    		ByteBufOutputStream stream = new ByteBufOutputStream(nettyBuffer);
+
+    		try
+    		{
+    			DimensionSyncPacket.writeToStream(stream, player.connection.getNetworkManager(), false);
+    		}
+    		catch (IOException e1)
+    		{
+    			e1.printStackTrace();
+    		} finally {
+    			try {
+    				stream.close();
+    			} catch (IOException e) {
+    				e.printStackTrace();
+    			}
+    		}
+
+    		PacketDispatcher.sendTo(new DimensionSyncPacket(nettyBuffer), player);
+    	}
     }
 
     public static void sendPacketsOnConnect(ServerConnectionFromClientEvent event)
@@ -58,7 +56,7 @@ public class ServerPacketManager
 		
         try
         {
-    		DimensionSyncPacket.writeToStream(stream);
+    		DimensionSyncPacket.writeToStream(stream, event.getManager(), true);
 		}
         catch (IOException e1)
         {
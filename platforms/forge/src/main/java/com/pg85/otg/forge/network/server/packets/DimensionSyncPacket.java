@@ -1,18 +1,27 @@
 package com.pg85.otg.forge.network.server.packets;
 
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutput;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.multiplayer.WorldClient;
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.network.NetworkManager;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
 import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
 
 import com.pg85.otg.OTG;
 import com.pg85.otg.common.LocalWorld;
 import com.pg85.otg.configuration.dimensions.DimensionConfigGui;
+import com.pg85.otg.configuration.world.WorldConfig;
 import com.pg85.otg.configuration.standard.PluginStandardValues;
 import com.pg85.otg.forge.ForgeEngine;
 import com.pg85.otg.forge.ForgeWorld;
@@ -41,25 +50,75 @@ public class DimensionSyncPacket extends OTGPacket
 		super(nettyBuffer);
 	}
 
-	public static void writeToStream(DataOutput stream) throws IOException
+	// Serialized configs per dimension id, reused until the configs of the world are reloaded
+	private static final HashMap<Integer, CachedConfigs> configsCache = new HashMap<Integer, CachedConfigs>();
+	// Serialized presets, reused until the presets are reloaded
+	private static IdentityHashMap<DimensionConfigGui, String> presetsCache = new IdentityHashMap<DimensionConfigGui, String>();
+	// Configs sent to each client, by dimension id
+	private static final WeakHashMap<NetworkManager, HashMap<Integer, byte[]>> sentConfigs = new WeakHashMap<NetworkManager, HashMap<Integer, byte[]>>();
+	// Most clients get the same payload, only compress it once
+	private static final HashMap<ByteBuffer, byte[]> compressedPayloads = new HashMap<ByteBuffer, byte[]>();
+	private static final int MAX_COMPRESSED_PAYLOADS = 8;
+
+	/**
+	 * Writes the dimensions and their configs for a client. Configs that
+	 * were sent to the client before and haven't changed are left out, the
+	 * client already has those worlds.
+	 * @param stream     Stream to write to.
+	 * @param connection Connection of the client.
+	 * @param fullSync   True to send all configs, when the client has just
+	 *                   connected.
+	 */
+	public static synchronized void writeToStream(DataOutput stream, NetworkManager connection, boolean fullSync) throws IOException
 	{
-	    // Make sure worlds are sent in the correct order.
-		OTGDimensionInfo otgDimData = OTGDimensionManager.LoadOrderedDimensionData();
-	    
+		HashMap<Integer, byte[]> previouslySentConfigs = fullSync ? null : sentConfigs.get(connection);
+		HashMap<Integer, byte[]> sentConfigsForConnection = new HashMap<Integer, byte[]>();
+
+		ByteArrayOutputStream payload = new ByteArrayOutputStream();
+		writePayload(new DataOutputStream(payload), previouslySentConfigs, sentConfigsForConnection);
+		sentConfigs.put(connection, sentConfigsForConnection);
+
+		ByteBuffer payloadKey = ByteBuffer.wrap(payload.toByteArray());
+		byte[] compressedPayload = compressedPayloads.get(payloadKey);
+		if(compressedPayload == null)
+		{
+			compressedPayload = StreamHelper.compress(payloadKey.array());
+			if(compressedPayloads.size() >= MAX_COMPRESSED_PAYLOADS)
+			{
+				compressedPayloads.clear();
+			}
+			compressedPayloads.put(payloadKey, compressedPayload);
+		}
+
 		stream.writeInt(PluginStandardValues.ProtocolVersion);
 		stream.writeInt(0); // 0 == Normal packet
-		
+		stream.write(compressedPayload);
+	}
+
+	private static void writePayload(DataOutput stream, Map<Integer, byte[]> previouslySentConfigs, Map<Integer, byte[]> sentConfigsForConnection) throws IOException
+	{
+	    // Make sure worlds are sent in the correct order.
+		OTGDimensionInfo otgDimData = OTGDimensionManager.LoadOrderedDimensionData();
+
 	    // Send ForgeWorldConfig
 		StreamHelper.writeStringToStream(stream, OTG.getDimensionsConfig().toYamlString());
 		
 		LocalWorld localWorld = ((ForgeEngine)OTG.getEngine()).getOverWorld();
 		
 		// Send presets for client GUI
+		IdentityHashMap<DimensionConfigGui, String> newPresetsCache = new IdentityHashMap<DimensionConfigGui, String>();
 		stream.writeInt(ForgeEngine.Presets.size());
 		for(DimensionConfigGui dimConfig : ForgeEngine.Presets.values())
 		{
-			StreamHelper.writeStringToStream(stream, dimConfig.toYamlString());
+			String presetYaml = presetsCache.get(dimConfig);
+			if(presetYaml == null)
+			{
+				presetYaml = dimConfig.toYamlString();
+			}
+			newPresetsCache.put(dimConfig, presetYaml);
+			StreamHelper.writeStringToStream(stream, presetYaml);
 		}
+		presetsCache = newPresetsCache;
 		
 		stream.writeInt(otgDimData.orderedDimensions.size());
 		
@@ -80,7 +139,17 @@ public class DimensionSyncPacket extends OTGPacket
 		        try
 		        {
 		        	stream.writeInt(dimData.dimensionId);
-		            ConfigToNetworkSender.writeConfigsToStream(localWorld.getConfigs(), stream, false); // TODO: localWorld is null after /otg dim -c
+		        	byte[] configs = getConfigs(dimData.dimensionId, localWorld); // TODO: localWorld is null after /otg dim -c
+		        	sentConfigsForConnection.put(dimData.dimensionId, configs);
+		        	if(previouslySentConfigs != null && previouslySentConfigs.get(dimData.dimensionId) == configs)
+		        	{
+		        		// Client already has the configs, only send the world name
+		        		stream.writeBoolean(false);
+		        		StreamHelper.writeStringToStream(stream, localWorld.getConfigs().getWorldConfig().getName());
+		        	} else {
+		        		stream.writeBoolean(true);
+		        		stream.write(configs);
+		        	}
 		        }
 		        catch (IOException e)
 		        {
@@ -89,6 +158,33 @@ public class DimensionSyncPacket extends OTGPacket
 			}
 		}
 	}
+
+	private static byte[] getConfigs(int dimensionId, LocalWorld localWorld) throws IOException
+	{
+		// Reloading the configs of a world creates a new WorldConfig
+		WorldConfig worldConfig = localWorld.getConfigs().getWorldConfig();
+		CachedConfigs cachedConfigs = configsCache.get(dimensionId);
+		if(cachedConfigs == null || cachedConfigs.worldConfig != worldConfig)
+		{
+			ByteArrayOutputStream configs = new ByteArrayOutputStream();
+			ConfigToNetworkSender.writeConfigsToStream(localWorld.getConfigs(), new DataOutputStream(configs), false);
+			cachedConfigs = new CachedConfigs(worldConfig, configs.toByteArray());
+			configsCache.put(dimensionId, cachedConfigs);
+		}
+		return cachedConfigs.configs;
+	}
+
+	private static class CachedConfigs
+	{
+		private final WorldConfig worldConfig;
+		private final byte[] configs;
+
+		CachedConfigs(WorldConfig worldConfig, byte[] configs)
+		{
+			this.worldConfig = worldConfig;
+			this.configs = configs;
+		}
+	}
 	
 	public static ForgeWorld registerClientWorldBukkit(WorldClient mcWorld, DataInputStream wrappedStream, HashMap<String, ForgeWorld> worlds, HashMap<String, ForgeWorld> unloadedWorlds) throws IOException
 	{
@@ -116,7 +212,7 @@ public class DimensionSyncPacket extends OTGPacket
 				int packetType = message.getStream().readInt();
 				if(packetType == 0)
 				{
-					ClientPacketManager.registerClientWorlds(message.getStream(), ((ForgeEngine)OTG.getEngine()).getWorldLoader());
+					ClientPacketManager.registerClientWorlds(StreamHelper.readCompressedFromStream(message.getStream()), ((ForgeEngine)OTG.getEngine()).getWorldLoader());
 				} else {
 					throw new RuntimeException();
 				}
@@ -18,7 +18,7 @@ public final class ForgeLogger extends Logger
     @Override
     public void log(LogMarker level, String message, Object... params)
     {
-        if (this.minimumLevel.compareTo(level) < 0)
+        if (!canLog(level))
         {
             // Only log messages that we want to see...
             return;
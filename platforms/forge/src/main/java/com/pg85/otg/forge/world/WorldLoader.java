@@ -3,6 +3,7 @@ package com.pg85.otg.forge.world;
 import com.pg85.otg.OTG;
 import com.pg85.otg.common.LocalBiome;
 import com.pg85.otg.common.LocalWorld;
+import com.pg85.otg.configuration.ConfigValuePool;
 import com.pg85.otg.configuration.biome.BiomeConfig;
 import com.pg85.otg.configuration.biome.BiomeConfigFinder;
 import com.pg85.otg.configuration.biome.BiomeLoadInstruction;
@@ -426,10 +427,11 @@ public final class WorldLoader
         
         // Write all biomes
 
+        ConfigValuePool valuePool = new ConfigValuePool();
         for (BiomeConfigStub biomeConfigStub : biomeConfigStubs.values())
         {
             // Settings reading
-            BiomeConfig biomeConfig = new BiomeConfig(biomeConfigStub.getLoadInstructions(), biomeConfigStub, biomeConfigStub.getSettings(), defaultWorldConfig);
+            BiomeConfig biomeConfig = new BiomeConfig(biomeConfigStub.getLoadInstructions(), biomeConfigStub, biomeConfigStub.getSettings(), defaultWorldConfig, valuePool);
 
             // Settings writing
             File writeFile = biomeConfigStub.getFile();